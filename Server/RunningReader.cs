@@ -29,8 +29,18 @@ namespace SkyeTek
 
         private const int SOCKET_PORT_1 = 6666;
         private const string host = "localhost";
+
+        // framed streaming mode
+        private const byte FRAME_TAG = 1;
+        private const byte FRAME_NOCARD = 2;
+        private const byte FRAME_QUIT = 3;
+        private const byte FRAME_READY = 5;
+        private const int TAG_ID_LENGTH = 7;
+        private const int FRAME_BUFFER_SIZE = 64;
+        private static readonly DateTime EPOCH = new DateTime(1970, 1, 1, 0, 0, 0, DateTimeKind.Utc);
         
         private TcpListener server1;
+        private TcpClient client1;
         private NetworkStream networkStream1;
 
         public ResponceReader()
@@ -57,7 +67,7 @@ namespace SkyeTek
             while (true)
             {
                 //wait for new client
-                TcpClient client1 = server1.AcceptTcpClient();
+                client1 = server1.AcceptTcpClient();
                 Console.Out.WriteLine("Accepted new client1");
 
                 try
@@ -90,8 +100,22 @@ namespace SkyeTek
             //loop to check for new antenna changes
             while (!dataFromClient.Equals("q")){
    
+                    // Switch to streaming mode for the rest of the connection
+                    if (dataFromClient.Equals("A"))
+                    {
+                        streamTags();
+                        return;
+                    }
+
+                    // Switch to framed streaming mode for the rest of the connection
+                    else if (dataFromClient.Equals("B"))
+                    {
+                        streamFrames();
+                        return;
+                    }
+
    					// Get the card on the current antenna
-                    if (dataFromClient.Equals("T"))
+                    else if (dataFromClient.Equals("T"))
                     {
                         //Console.Out.WriteLine("Getting a tag");
                         getTag(usb, port);
@@ -111,7 +135,12 @@ namespace SkyeTek
                     try
                     {
                         //Console.Out.WriteLine("Getting command");
-                        byte message = ((byte)networkStream1.ReadByte());
+                        int command = networkStream1.ReadByte();
+                        if (command < 0)
+                        {
+                            return;
+                        }
+                        byte message = (byte) command;
                         //convert byte string to string
                         byte[] messageArray = new byte[1];
                         messageArray[0] = message;
@@ -192,12 +221,226 @@ namespace SkyeTek
             
         }
 
+        /**
+         * Streaming mode.  Instead of waiting for a "T" request, keep reading
+         * the current antenna and send each tag as soon as it is read.  The
+         * first read after each antenna switch is always reported, as NOCARD
+         * if there is no tag, so the client knows the new antenna was tried.
+         * Every message ends with a newline.  Returns when the client quits
+         * or the connection is lost.
+         * */
+        private void streamTags()
+        {
+            bool reportNextRead = true;
+
+            try
+            {
+                // tell the client the reader is ready before any reads
+                sendCard("READY\n");
+
+                while (!clientGone())
+                {
+                    // handle any antenna switches that have arrived
+                    while (networkStream1.DataAvailable)
+                    {
+                        int command = networkStream1.ReadByte();
+                        if (command < 0 || command == 'q')
+                        {
+                            return;
+                        }
+                        switchAntenna((char) command);
+                        reportNextRead = true;
+                    }
+
+                    String localCard = readTag(usb, port);
+                    if (localCard != null)
+                    {
+                        sendCard(localCard + "\n");
+                        reportNextRead = false;
+                    }
+                    else if (reportNextRead)
+                    {
+                        sendCard("NOCARD\n");
+                        reportNextRead = false;
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                Console.Out.WriteLine(e.StackTrace);
+            }
+        }
+
+        /**
+         * Framed streaming mode.  Like streamTags, but every message is a
+         * binary frame: a 2 byte big-endian length counting the bytes that
+         * follow it, a type byte and a body.
+         *
+         *   TAG     type 1, 7 byte tag id, antenna, 8 byte timestamp
+         *   NOCARD  type 2, antenna, 8 byte timestamp
+         *   QUIT    type 3
+         *   READY   type 5, antenna, 8 byte timestamp
+         *
+         * The antenna is the port minus 80, 12 for the id antenna.  The
+         * timestamp is the time of the read in milliseconds since 1970.
+         * A READY frame is sent before any reads, and a QUIT frame when the
+         * client quits.
+         * */
+        private void streamFrames()
+        {
+            bool reportNextRead = true;
+            byte[] frame = new byte[FRAME_BUFFER_SIZE];
+
+            try
+            {
+                sendFrame(frame, antennaNumber(port), FRAME_READY, null);
+
+                while (!clientGone())
+                {
+                    // handle any antenna switches that have arrived
+                    while (networkStream1.DataAvailable)
+                    {
+                        int command = networkStream1.ReadByte();
+                        if (command < 0 || command == 'q')
+                        {
+                            sendFrame(frame, 0, FRAME_QUIT, null);
+                            return;
+                        }
+                        switchAntenna((char) command);
+                        reportNextRead = true;
+                    }
+
+                    byte[] tid = readTagId(usb, port);
+                    if (tid != null)
+                    {
+                        sendFrame(frame, antennaNumber(port), FRAME_TAG, tid);
+                        reportNextRead = false;
+                    }
+                    else if (reportNextRead)
+                    {
+                        sendFrame(frame, antennaNumber(port), FRAME_NOCARD, null);
+                        reportNextRead = false;
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                Console.Out.WriteLine(e.StackTrace);
+            }
+        }
+
+        /**
+         * @return true if the client has closed the connection.  A socket
+         * that polls readable with nothing to read has reached the end of
+         * its stream.  Streaming only writes when a tag is read or the
+         * antenna is switched, so without this a client that went away
+         * while nothing was on the antenna would never be noticed, and the
+         * next client would wait unaccepted.
+         * */
+        private bool clientGone()
+        {
+            Socket socket = client1.Client;
+            return socket.Poll(0, SelectMode.SelectRead) && socket.Available == 0;
+        }
+
+        /**
+         * @return the number of the antenna on a port: 1 to 4 for the hands, 12 for the id antenna
+         * */
+        private int antennaNumber(int currPort)
+        {
+            return currPort == 812 ? 12 : currPort - 80;
+        }
+
+        /**
+         * Builds a frame in the buffer and sends it
+         *
+         * @param frame - buffer to build the frame in
+         * @param antenna - the antenna number, from antennaNumber
+         * @param type - FRAME_TAG, FRAME_NOCARD, FRAME_QUIT or FRAME_READY
+         * @param tid - the tag id for a FRAME_TAG frame
+         * */
+        private void sendFrame(byte[] frame, int antenna, byte type, byte[] tid)
+        {
+            int length = 2;
+            frame[length++] = type;
+            if (type != FRAME_QUIT)
+            {
+                if (type == FRAME_TAG)
+                {
+                    // the id is always sent as TAG_ID_LENGTH bytes, keeping the last ones
+                    for (int i = 0; i < TAG_ID_LENGTH; i++)
+                    {
+                        int index = tid.Length - TAG_ID_LENGTH + i;
+                        frame[length++] = index < 0 ? (byte) 0 : tid[index];
+                    }
+                }
+                frame[length++] = (byte) antenna;
+                long timestamp = (DateTime.UtcNow - EPOCH).Ticks / TimeSpan.TicksPerMillisecond;
+                for (int shift = 56; shift >= 0; shift -= 8)
+                {
+                    frame[length++] = (byte) (timestamp >> shift);
+                }
+            }
+            frame[0] = (byte) ((length - 2) >> 8);
+            frame[1] = (byte) (length - 2);
+            networkStream1.Write(frame, 0, length);
+            networkStream1.Flush();
+        }
+
         /**
          * Meathod to check if there is a tag
          * 
          * @param usbdevice - the device that needs to be checked
          * */
         private void getTag(USBDevice usbdevice, int currPort)
+        {
+            String localCard = readTag(usbdevice, currPort);
+            if (localCard == null)
+            {
+                //Console.Out.WriteLine("No card");
+                sendCard("NOCARD");
+            }
+            else
+            {
+                //Console.Out.WriteLine("Sending : " + localCard);
+                sendCard (localCard);
+            }
+        }
+
+        /**
+         * Reads the tag on the current antenna
+         * 
+         * @param usbdevice - the device that needs to be checked
+         * @return the tag formatted as <Tag_ID>.<port>, or null if there is no tag
+         * */
+        private String readTag(USBDevice usbdevice, int currPort)
+        {
+            byte[] tid = readTagId(usbdevice, currPort);
+            if (tid == null)
+            {
+                return null;
+            }
+
+            //the line has the following format
+            // <Tag_ID>.<port>
+
+            // ID antenna
+            if (currPort == 812)
+            {
+                return formatCard(tid, "8C");
+            }
+
+            // Hand antenna
+            return formatCard(tid, Convert.ToString(currPort));
+        }
+
+        /**
+         * Reads the id of the tag on the current antenna
+         * 
+         * @param usbdevice - the device that needs to be checked
+         * @return the tag id, or null if there is no tag
+         * */
+        private byte[] readTagId(USBDevice usbdevice, int currPort)
         {
             //Console.Out.WriteLine("Checking for tags");
             STPv3Response localResponse;
@@ -205,8 +448,7 @@ namespace SkyeTek
             {
                 //issue the request
 
-                //if there is a responce and it is a success print out a line that has the following format
-                // <Tag_ID>.<port>
+                //if there is a responce and it is a success return its tag id
 
                 TagRequest.Issue(usbdevice);
                 //Console.Out.WriteLine("Request issued");
@@ -217,44 +459,25 @@ namespace SkyeTek
                 {
                     if (localResponse.ResponseCode == STPv3ResponseCode.SELECT_TAG_PASS)
                     {
-					    String localCard;
-						
-					    // ID antenna
-                        if (currPort == 812)
-                        {
-                            localCard = formatCard(localResponse, "8C");
-                        }
-                        
-                        // Hand antenna
-                        else
-                        {
-                            localCard = formatCard(localResponse, Convert.ToString(currPort));
-                        }
-                        
-                        //Console.Out.WriteLine("Sending : " + localCard);
-                        sendCard (localCard);
-                        return;
+                        return localResponse.TID;
                     }
 
                     Thread.Sleep(50);
                     localResponse = TagRequest.GetResponse();
                 }
-
-                //Console.Out.WriteLine("No card");
-                sendCard("NOCARD");
-                        
             }
 
             catch (Exception ex)
             {
                 Console.Out.WriteLine(ex.StackTrace);
             }
+            return null;
         }
 
-        private string formatCard(STPv3Response rfidResponse, string antennaId)
+        private string formatCard(byte[] tid, string antennaId)
         {
             return String.Format("{0}.{1}",
-                                    String.Join("", Array.ConvertAll<byte, string>(rfidResponse.TID,
+                                    String.Join("", Array.ConvertAll<byte, string>(tid,
                                     delegate(byte value) { return String.Format("{0:X2}", value); })),
                                     antennaId);
         }
@@ -0,0 +1,121 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import model.Card;
+import model.CardDatabase;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.AntennaHandler;
+
+/**
+ * Measures AntennaHandler.process turning a text message from the reader
+ * server into a card and an antenna, for tags in cardID.txt on each of the
+ * four hand antennas and for unknown tags. The card is kept rather than
+ * queued for a listener, so the dispatcher's threads are not involved.
+ *
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AntennaHandlerBenchmark {
+
+	private ParsingHandler handler;
+
+	// messages for known tags, and for tags that are not cards
+	private String[] messages;
+	private String[] unknownMessages;
+
+	private int next;
+
+	@Setup
+	public void setUp() throws IOException {
+		QuietConsole.silence();
+		handler = new ParsingHandler(new CardDatabase());
+
+		List<String> ids = new ArrayList<String>();
+		BufferedReader read = new BufferedReader(new InputStreamReader(
+				getClass().getResourceAsStream("/cardID.txt")));
+		try {
+			// skip the number of cards and number of decks
+			read.readLine();
+			read.readLine();
+
+			String line;
+			while ((line = read.readLine()) != null) {
+				ids.add(line.substring(0, CardDatabase.ID_DIGITS));
+			}
+		} finally {
+			read.close();
+		}
+
+		messages = new String[ids.size()];
+		unknownMessages = new String[ids.size()];
+		for (int i = 0; i < ids.size(); i++) {
+			String antenna = ".8" + (i % 4 + 1);
+			messages[i] = ids.get(i) + antenna;
+
+			// change the low digits so the id is not in the file
+			long unknown = CardDatabase.parseId(ids.get(i), 0) ^ 0x5A5A;
+			unknownMessages[i] = String.format("%014X", unknown) + antenna;
+		}
+	}
+
+	private int nextIndex() {
+		next = (next + 1) % messages.length;
+		return next;
+	}
+
+	@Benchmark
+	public Card processKnownTag() {
+		handler.process(messages[nextIndex()]);
+		return handler.card;
+	}
+
+	@Benchmark
+	public Card processUnknownTag() {
+		handler.process(unknownMessages[nextIndex()]);
+		return handler.card;
+	}
+
+	/**
+	 * Keeps the last card found instead of dispatching it
+	 */
+	private static class ParsingHandler extends AntennaHandler {
+		private Card card;
+
+		private ParsingHandler(CardDatabase data) {
+			super(data);
+		}
+
+		// lets the benchmark call process
+		@Override
+		protected void process(String str) {
+			super.process(str);
+		}
+
+		@Override
+		protected void dispatch(int position, Card thisCard, long readAt) {
+			card = thisCard;
+		}
+	}
+}
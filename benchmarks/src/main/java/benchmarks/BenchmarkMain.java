@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, taking the usual JMH command line options. Unless told
+ * otherwise with -rf and -rff, the results are written as JSON to
+ * jmh-result-&lt;version&gt;.json in the current directory, so that the results of different releases
+ * can be kept side by side and compared.
+ *
+ * @version Oct 18, 2026
+ */
+public class BenchmarkMain {
+
+	/**
+	 * @param args
+	 *            JMH options, for example a regular expression choosing the
+	 *            benchmarks to run
+	 * @throws RunnerException
+	 *             if the benchmarks fail
+	 */
+	public static void main(String[] args) throws RunnerException {
+		CommandLineOptions cmdOptions;
+		try {
+			cmdOptions = new CommandLineOptions(args);
+		} catch (CommandLineOptionException e) {
+			System.err.println("Error parsing command line:");
+			System.err.println(" " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		ResultFormatType format = cmdOptions.getResultFormat().orElse(
+				ResultFormatType.JSON);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(
+				cmdOptions).resultFormat(format);
+		if (!cmdOptions.getResult().hasValue()) {
+			options.result(resultFile(format));
+		}
+
+		new Runner(options.build()).run();
+	}
+
+	/**
+	 * @param format
+	 *            the format the results are written in
+	 * @return the name of the file for the results of this version
+	 */
+	private static String resultFile(ResultFormatType format) {
+		String version = BenchmarkMain.class.getPackage()
+				.getImplementationVersion();
+		if (version == null) {
+			version = "dev";
+		}
+		return new File("jmh-result-" + version + "."
+				+ format.toString().toLowerCase()).getPath();
+	}
+}
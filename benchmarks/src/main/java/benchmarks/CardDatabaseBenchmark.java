@@ -0,0 +1,150 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+
+import model.Card;
+import model.CardDatabase;
+import model.Rank;
+import model.Suit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares looking up the card for a reader message in the long keyed
+ * CardDatabase against the HashMap keyed by the hex id that it replaced, both
+ * for tags in cardID.txt and for unknown tags.
+ *
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardDatabaseBenchmark {
+	// length of the tag id in a message
+	private static final int ID_LENGTH = 14;
+
+	private CardDatabase cards;
+
+	// the map CardDatabase used to use, from hex id to card
+	private HashMap<String, Card> stringMap;
+
+	// reader messages for known tags, as text and as the id bytes of a frame
+	private String[] messages;
+	private byte[][] frames;
+
+	// reader messages for tags that are not cards
+	private String[] unknownMessages;
+	private byte[][] unknownFrames;
+
+	private int next;
+
+	@Setup
+	public void setUp() throws IOException {
+		cards = new CardDatabase();
+		stringMap = new HashMap<String, Card>();
+
+		List<String> ids = new ArrayList<String>();
+		BufferedReader read = new BufferedReader(new InputStreamReader(
+				getClass().getResourceAsStream("/cardID.txt")));
+		try {
+			// skip the number of cards and number of decks
+			read.readLine();
+			read.readLine();
+
+			String line;
+			while ((line = read.readLine()) != null) {
+				StringTokenizer tokenizer = new StringTokenizer(line, ".|");
+				String idOne = tokenizer.nextToken();
+				String idTwo = tokenizer.nextToken();
+				Card card = Card.of(Rank.findValue(line.charAt(line
+						.length() - 2)), Suit.findSuit(line.charAt(line
+						.length() - 1)));
+				stringMap.put(idOne, card);
+				stringMap.put(idTwo, card);
+				ids.add(idOne);
+				ids.add(idTwo);
+			}
+		} finally {
+			read.close();
+		}
+
+		messages = new String[ids.size()];
+		frames = new byte[ids.size()][];
+		unknownMessages = new String[ids.size()];
+		unknownFrames = new byte[ids.size()][];
+		for (int i = 0; i < ids.size(); i++) {
+			messages[i] = ids.get(i) + ".81";
+			frames[i] = toBytes(CardDatabase.parseId(ids.get(i), 0));
+
+			// change the low digits so the id is not in the file
+			long unknown = CardDatabase.parseId(ids.get(i), 0) ^ 0x5A5A;
+			unknownMessages[i] = String.format("%014X.81", unknown);
+			unknownFrames[i] = toBytes(unknown);
+		}
+	}
+
+	private static byte[] toBytes(long id) {
+		byte[] bytes = new byte[CardDatabase.ID_BYTES];
+		for (int i = bytes.length - 1; i >= 0; i--) {
+			bytes[i] = (byte) id;
+			id >>>= 8;
+		}
+		return bytes;
+	}
+
+	private int nextIndex() {
+		next = (next + 1) % messages.length;
+		return next;
+	}
+
+	@Benchmark
+	public Card stringMapHit() {
+		return stringMap.get(messages[nextIndex()].substring(0, ID_LENGTH));
+	}
+
+	@Benchmark
+	public Card stringMapMiss() {
+		return stringMap.get(unknownMessages[nextIndex()].substring(0,
+				ID_LENGTH));
+	}
+
+	@Benchmark
+	public Card longTableHit() {
+		return cards.getCard(CardDatabase.parseId(messages[nextIndex()], 0));
+	}
+
+	@Benchmark
+	public Card longTableMiss() {
+		return cards.getCard(CardDatabase.parseId(
+				unknownMessages[nextIndex()], 0));
+	}
+
+	@Benchmark
+	public Card longTableFrameHit() {
+		return cards.getCard(frames[nextIndex()], 0);
+	}
+
+	@Benchmark
+	public Card longTableFrameMiss() {
+		return cards.getCard(unknownFrames[nextIndex()], 0);
+	}
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import model.Card;
+import model.Direction;
+import model.Game;
+import model.GameState;
+import model.Rank;
+import model.Suit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Game.cardFound for a card read in each GameState, on the path that
+ * changes the game:
+ * <ul>
+ * <li>DEALING: a card dealt into the blind player's hand</li>
+ * <li>FIRSTCARD: the opening lead, which moves on to scanning the dummy</li>
+ * <li>SCANNING_DUMMY: a card scanned into the dummy's hand</li>
+ * <li>PLAYING: the dummy following suit to the lead</li>
+ * </ul>
+ *
+ * Each call changes the game, so a new game is set up before every call.
+ * South is blind and declares, so North is the dummy and West leads.
+ *
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+	private static final Direction BLIND = Direction.SOUTH;
+	private static final Direction DUMMY = Direction.NORTH;
+	private static final Direction LEADER = Direction.WEST;
+
+	private static final Card LEAD = Card.of(Rank.DEUCE, Suit.SPADES);
+	private static final Card CARD = Card.of(Rank.ACE, Suit.SPADES);
+
+	@Param({ "DEALING", "FIRSTCARD", "SCANNING_DUMMY", "PLAYING" })
+	public GameState state;
+
+	private Game game;
+
+	// the antenna the card is read on
+	private Direction direction;
+
+	@Setup(Level.Trial)
+	public void silence() {
+		QuietConsole.silence();
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		game = new Game(new NullHandler(), false);
+		game.setBlindPosition(BLIND);
+
+		switch (state) {
+		case DEALING:
+			direction = BLIND;
+			break;
+
+		case FIRSTCARD:
+			game.initPlayingPhase(BLIND);
+			game.setGameState(GameState.FIRSTCARD);
+			direction = LEADER;
+			break;
+
+		case SCANNING_DUMMY:
+			game.initPlayingPhase(BLIND);
+			game.setGameState(GameState.SCANNING_DUMMY);
+			direction = DUMMY;
+			break;
+
+		case PLAYING:
+			game.initPlayingPhase(BLIND);
+			game.getPlayers()[DUMMY.ordinal()].addCard(CARD);
+			game.setGameState(GameState.PLAYING);
+			game.cardFound(LEADER, LEAD);
+			direction = DUMMY;
+			break;
+		}
+	}
+
+	@Benchmark
+	public Game cardFound() {
+		game.cardFound(direction, CARD);
+		return game;
+	}
+}
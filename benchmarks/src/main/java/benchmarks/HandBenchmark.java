@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.Card;
+import model.Hand;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Hand.addCard and Hand.removeCard by dealing each of the four hands
+ * of a shuffled deck into a hand and then playing its cards out. The time
+ * reported is for one card added or removed.
+ *
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+	private static final int HAND_SIZE = 13;
+
+	private final Hand hand = new Hand();
+
+	// the cards of each of the four hands, in the order they are dealt
+	private Card[][] deals;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		List<Card> deck = new ArrayList<Card>();
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			deck.add(Card.of(i));
+		}
+		Collections.shuffle(deck, new Random(52));
+
+		deals = new Card[Card.NUM_CARDS / HAND_SIZE][HAND_SIZE];
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			deals[i / HAND_SIZE][i % HAND_SIZE] = deck.get(i);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(2 * HAND_SIZE)
+	public int dealAndPlayHand() {
+		Card[] deal = deals[next];
+		next = (next + 1) % deals.length;
+
+		hand.clear();
+		for (int i = 0; i < deal.length; i++) {
+			hand.addCard(deal[i]);
+		}
+		// played in a different order than dealt
+		for (int i = deal.length - 1; i >= 0; i -= 2) {
+			hand.removeCard(deal[i]);
+		}
+		for (int i = deal.length - 2; i >= 0; i -= 2) {
+			hand.removeCard(deal[i]);
+		}
+		return hand.getNumCards();
+	}
+}
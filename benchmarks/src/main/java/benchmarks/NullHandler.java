@@ -0,0 +1,60 @@
+package benchmarks;
+
+import java.awt.event.KeyEvent;
+
+import model.Direction;
+import controller.Handler;
+
+/**
+ * A Handler with no reader behind it, so that a Game can be benchmarked
+ * without a server. Switching antennas does nothing.
+ *
+ * @version Oct 18, 2026
+ */
+public class NullHandler extends Handler {
+
+	@Override
+	public void connect() {
+	}
+
+	@Override
+	public void disconnect() {
+	}
+
+	@Override
+	public void run() {
+	}
+
+	@Override
+	public String requestCard(byte[] messageRec) {
+		return null;
+	}
+
+	@Override
+	public void quitServer() {
+	}
+
+	@Override
+	public void switchHand(String handID) {
+	}
+
+	@Override
+	public void switchHand(Direction turn) {
+	}
+
+	@Override
+	public void setCyclingThread(Thread cyclingThread) {
+	}
+
+	@Override
+	public void keyPressed(KeyEvent e) {
+	}
+
+	@Override
+	public void keyReleased(KeyEvent e) {
+	}
+
+	@Override
+	public void keyTyped(KeyEvent e) {
+	}
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.Card;
+import model.Player;
+import model.Suit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Player.isLegal for the blind player, whose hand is known, for
+ * every card in the deck against every suit that could be led. That mixes
+ * cards not in the hand, cards following suit, legal discards and revokes.
+ *
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+	private static final Suit[] LED_SUITS = { Suit.CLUBS, Suit.DIAMONDS,
+			Suit.HEARTS, Suit.SPADES };
+
+	private final Player player = new Player();
+
+	// the cards to check, and the suit led for each
+	private Card[] cards;
+	private Suit[] ledSuits;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		List<Card> deck = new ArrayList<Card>();
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			deck.add(Card.of(i));
+		}
+		Collections.shuffle(deck, new Random(52));
+
+		// a hand with no diamonds, so that discards are legal when they are led
+		player.setBlind(true);
+		for (int i = 0; i < deck.size() && !player.hasFullHand(); i++) {
+			if (deck.get(i).getSuit() != Suit.DIAMONDS) {
+				player.addCard(deck.get(i));
+			}
+		}
+
+		cards = new Card[Card.NUM_CARDS * LED_SUITS.length];
+		ledSuits = new Suit[cards.length];
+		for (int i = 0; i < cards.length; i++) {
+			cards[i] = deck.get(i % Card.NUM_CARDS);
+			ledSuits[i] = LED_SUITS[i / Card.NUM_CARDS];
+		}
+	}
+
+	@Benchmark
+	public boolean isLegal() {
+		next = (next + 1) % cards.length;
+		return player.isLegal(cards[next], ledSuits[next]);
+	}
+}
@@ -0,0 +1,32 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * The game prints what it is doing to System.out. The benchmarks send that
+ * output nowhere, so that they measure the code rather than the terminal.
+ * The messages are still built and encoded.
+ *
+ * @version Oct 18, 2026
+ */
+final class QuietConsole {
+
+	private QuietConsole() {
+	}
+
+	/**
+	 * Sends System.out to a stream that throws everything away
+	 */
+	static void silence() {
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		}));
+	}
+}
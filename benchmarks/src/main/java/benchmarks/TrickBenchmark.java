@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.Card;
+import model.Game;
+import model.Suit;
+import model.Trick;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Trick.determineWinner on tricks of cards drawn at random from
+ * shuffled decks, with and without a trump suit.
+ *
+ * @version Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrickBenchmark {
+	private static final int NUM_TRICKS = 256;
+
+	@Param({ "NOTRUMP", "SPADES" })
+	public Suit trump;
+
+	private Trick[] tricks;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		QuietConsole.silence();
+
+		List<Card> deck = new ArrayList<Card>();
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			deck.add(Card.of(i));
+		}
+		Random random = new Random(52);
+
+		tricks = new Trick[NUM_TRICKS];
+		for (int i = 0; i < tricks.length; i++) {
+			Collections.shuffle(deck, random);
+			tricks[i] = new Trick();
+			tricks[i].setLedSuit(deck.get(0).getSuit());
+			for (int position = 0; position < Game.NUM_PLAYERS; position++) {
+				tricks[i].add(deck.get(position), position);
+			}
+		}
+	}
+
+	@Benchmark
+	public int determineWinner() {
+		next = (next + 1) % tricks.length;
+		return tricks[next].determineWinner(trump);
+	}
+}
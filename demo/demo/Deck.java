@@ -45,16 +45,16 @@ public class Deck {
             	switch(j){
             		
             		case 0:
-            			cards[i++] = new Card(rank, Suit.DIAMONDS);
+            			cards[i++] = Card.of(rank, Suit.DIAMONDS);
             			break;
             		case 1:
-            			cards[i++] = new Card(rank, Suit.SPADES);
+            			cards[i++] = Card.of(rank, Suit.SPADES);
             			break;
             		case 2:
-            			cards[i++] = new Card(rank, Suit.HEARTS);
+            			cards[i++] = Card.of(rank, Suit.HEARTS);
             			break;
             		case 3:
-            			cards[i++] = new Card(rank, Suit.CLUBS);
+            			cards[i++] = Card.of(rank, Suit.CLUBS);
             			break;
             			
             	}
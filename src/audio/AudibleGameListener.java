@@ -131,11 +131,11 @@ public class AudibleGameListener implements GameListener {
 		AudibleGameListener listener = new AudibleGameListener();
 		
 		System.out.println("Should say \"North plays Ace of Clubs\"");
-		listener.cardPlayed(Direction.NORTH, new Card(Rank.ACE, Suit.CLUBS));
+		listener.cardPlayed(Direction.NORTH, Card.of(Rank.ACE, Suit.CLUBS));
 		listener.soundMgr.pauseSounds();
 		
 		System.out.println("Should say \"King of Diamonds\"");
-		listener.cardScanned(new Card(Rank.KING, Suit.DIAMONDS));
+		listener.cardScanned(Card.of(Rank.KING, Suit.DIAMONDS));
 		listener.soundMgr.pauseSounds();
 		
 		System.out.println("Should say \"Trick is over and won by South\"");
@@ -0,0 +1,74 @@
+package audio;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * A sound file decoded into PCM samples, ready to be written to a line.
+ *
+ * @version Oct 18, 2026
+ */
+public final class PcmSound {
+	// the file the sound came from
+	private final String filename;
+
+	// the format of the samples
+	private final AudioFormat format;
+
+	// the samples
+	private final byte[] data;
+
+	/**
+	 * @param filename
+	 *            the resource the sound was read from
+	 * @param format
+	 *            the format of the samples
+	 * @param data
+	 *            the samples, which are not copied
+	 */
+	PcmSound(String filename, AudioFormat format, byte[] data) {
+		this.filename = filename;
+		this.format = format;
+		this.data = data;
+	}
+
+	/**
+	 * @return the resource the sound was read from
+	 */
+	public String getFilename() {
+		return filename;
+	}
+
+	/**
+	 * @return the format of the samples
+	 */
+	public AudioFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * @return the samples. They must not be changed.
+	 */
+	byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * @return the number of bytes of samples
+	 */
+	public int getLength() {
+		return data.length;
+	}
+
+	/**
+	 * @return how long the sound plays for, in milliseconds
+	 */
+	public long getDuration() {
+		return (long) (1000.0 * data.length / format.getFrameSize() / format
+				.getFrameRate());
+	}
+
+	@Override
+	public String toString() {
+		return filename + " (" + getDuration() + " ms)";
+	}
+}
@@ -0,0 +1,132 @@
+package audio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * Joins the sounds of an utterance, such as "contract is", "3", "clubs", into
+ * one sound so that it can be written to the line in one pass and is heard
+ * without gaps between the words.
+ *
+ * @version Oct 18, 2026
+ */
+public class PhraseEngine {
+	/** Stands for a short silence between the parts of a long phrase */
+	public static final String PAUSE = "pause";
+
+	// how long a PAUSE lasts, in milliseconds
+	private static final int PAUSE_MILLIS = 800;
+
+	// a PAUSE, as samples of silence
+	private static final PcmSound SILENCE = new PcmSound(PAUSE,
+			SoundCache.LINE_FORMAT, new byte[(int) (SoundCache.LINE_FORMAT
+					.getFrameRate() * PAUSE_MILLIS / 1000)
+					* SoundCache.LINE_FORMAT.getFrameSize()]);
+
+	// where the words come from
+	private final SoundCache cache;
+
+	/**
+	 * @param cache
+	 *            the cache holding the sounds of the words
+	 */
+	public PhraseEngine(SoundCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Joins sounds into one phrase in SoundCache.LINE_FORMAT. Sounds that
+	 * cannot be read, or cannot be converted to the line format, are reported
+	 * and left out.
+	 *
+	 * @param filenames
+	 *            the resources holding the sounds, in the order they are said.
+	 *            PAUSE may be used between them for a short silence.
+	 * @return the phrase, or null if none of the sounds could be read
+	 */
+	public PcmSound build(List<String> filenames) {
+		PcmSound[] words = new PcmSound[filenames.size()];
+		int length = 0;
+		for (int i = 0; i < words.length; i++) {
+			if (PAUSE.equals(filenames.get(i))) {
+				words[i] = SILENCE;
+			} else {
+				words[i] = toLineFormat(cache.get(filenames.get(i)));
+			}
+			if (words[i] != null) {
+				length += words[i].getLength();
+			}
+		}
+
+		// a single word needs no copying
+		if (words.length == 1) {
+			return words[0];
+		}
+
+		byte[] data = new byte[length];
+		int offset = 0;
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < words.length; i++) {
+			if (words[i] != null) {
+				System.arraycopy(words[i].getData(), 0, data, offset,
+						words[i].getLength());
+				offset += words[i].getLength();
+				if (name.length() > 0) {
+					name.append(' ');
+				}
+				name.append(words[i].getFilename());
+			}
+		}
+
+		if (name.length() == 0) {
+			return null;
+		}
+		return new PcmSound(name.toString(), SoundCache.LINE_FORMAT, data);
+	}
+
+	/**
+	 * Converts a sound that the cache could not convert when it decoded it
+	 *
+	 * @param sound
+	 *            a sound from the cache, or null
+	 * @return the sound in SoundCache.LINE_FORMAT, or null if it cannot be
+	 *         converted
+	 */
+	private static PcmSound toLineFormat(PcmSound sound) {
+		if (sound == null || sound.getFormat().matches(SoundCache.LINE_FORMAT)) {
+			return sound;
+		}
+
+		AudioFormat format = sound.getFormat();
+		if (!AudioSystem.isConversionSupported(SoundCache.LINE_FORMAT, format)) {
+			System.err.println("Cannot convert " + sound.getFilename()
+					+ " from " + format);
+			return null;
+		}
+
+		AudioInputStream converted = AudioSystem.getAudioInputStream(
+				SoundCache.LINE_FORMAT,
+				new AudioInputStream(new ByteArrayInputStream(sound.getData()),
+						format, sound.getLength() / format.getFrameSize()));
+		try {
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = converted.read(buffer)) != -1) {
+				data.write(buffer, 0, count);
+			}
+			return new PcmSound(sound.getFilename(), SoundCache.LINE_FORMAT,
+					data.toByteArray());
+		} catch (IOException e) {
+			System.err.println("Cannot convert " + sound.getFilename() + ": "
+					+ e.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package audio;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Keeps sound files decoded in memory, so that announcing a card does not have
+ * to read and decode a file first. The sounds are converted to LINE_FORMAT
+ * when they are decoded so that one SoundLine can play all of them without
+ * being reopened.
+ *
+ * The sounds that are used the most should be loaded with preload when the
+ * program starts. Others are loaded the first time they are played. When the
+ * sounds take more memory than the budget, the ones played least recently are
+ * dropped, and are decoded again if they are needed again.
+ *
+ * @version Oct 18, 2026
+ */
+public class SoundCache {
+	/** The format the sounds are converted to */
+	public static final AudioFormat LINE_FORMAT = new AudioFormat(44100f, 16,
+			2, true, false);
+
+	/** Bytes of samples kept by default, enough for all of the game's sounds */
+	public static final long DEFAULT_BUDGET = 32L * 1024 * 1024;
+
+	// the sounds by file name, least recently played first. Guarded by this.
+	private final LinkedHashMap<String, PcmSound> sounds = new LinkedHashMap<String, PcmSound>(
+			128, 0.75f, true);
+
+	// most bytes of samples to keep
+	private final long budget;
+
+	// bytes of samples kept now. Guarded by this.
+	private long size;
+
+	// counts of sounds found, decoded and dropped. Guarded by this.
+	private int hits;
+	private int misses;
+	private int evictions;
+
+	/**
+	 * Creates a cache with the default budget
+	 */
+	public SoundCache() {
+		this(DEFAULT_BUDGET);
+	}
+
+	/**
+	 * @param budget
+	 *            the most bytes of samples to keep
+	 */
+	public SoundCache(long budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Decodes sounds so that they are ready when they are first played. Sounds
+	 * that cannot be read are reported and skipped.
+	 *
+	 * @param filenames
+	 *            the resources holding the sounds
+	 */
+	public void preload(Collection<String> filenames) {
+		long start = System.currentTimeMillis();
+		for (String filename : filenames) {
+			get(filename);
+		}
+		System.out.println("Loaded sounds in "
+				+ (System.currentTimeMillis() - start) + " ms: " + this);
+	}
+
+	/**
+	 * Returns a sound, decoding it if it is not in the cache
+	 *
+	 * @param filename
+	 *            the resource holding the sound
+	 * @return the sound, or null if it cannot be read
+	 */
+	public PcmSound get(String filename) {
+		synchronized (this) {
+			PcmSound sound = sounds.get(filename);
+			if (sound != null) {
+				hits++;
+				return sound;
+			}
+			misses++;
+		}
+
+		// decode without holding the lock so other sounds can be found
+		PcmSound sound;
+		try {
+			sound = decode(filename);
+		} catch (IOException e) {
+			System.err.println("Could not read sound " + filename + ": "
+					+ e.getMessage());
+			return null;
+		} catch (UnsupportedAudioFileException e) {
+			System.err.println("Invalid audio file format: " + filename);
+			return null;
+		}
+
+		synchronized (this) {
+			PcmSound old = sounds.put(filename, sound);
+			if (old != null) {
+				size -= old.getLength();
+			}
+			size += sound.getLength();
+			evict();
+		}
+		return sound;
+	}
+
+	/**
+	 * Drops the least recently played sounds until the cache is within its
+	 * budget. A sound bigger than the whole budget is dropped too, once it has
+	 * been returned.
+	 */
+	private void evict() {
+		Iterator<Map.Entry<String, PcmSound>> eldest = sounds.entrySet()
+				.iterator();
+		while (size > budget && eldest.hasNext()) {
+			size -= eldest.next().getValue().getLength();
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Reads a sound and converts it to LINE_FORMAT, or leaves it in its own
+	 * format if it cannot be converted
+	 *
+	 * @param filename
+	 *            the resource holding the sound
+	 * @return the sound
+	 * @throws IOException
+	 *             if the sound is missing or cannot be read
+	 * @throws UnsupportedAudioFileException
+	 *             if the file is not a sound
+	 */
+	static PcmSound decode(String filename) throws IOException,
+			UnsupportedAudioFileException {
+		InputStream resource = SoundCache.class.getResourceAsStream(filename);
+		if (resource == null) {
+			throw new IOException("No such sound");
+		}
+
+		AudioInputStream audioIn = AudioSystem
+				.getAudioInputStream(new BufferedInputStream(resource));
+		try {
+			if (!audioIn.getFormat().matches(LINE_FORMAT)
+					&& AudioSystem.isConversionSupported(LINE_FORMAT,
+							audioIn.getFormat())) {
+				audioIn = AudioSystem.getAudioInputStream(LINE_FORMAT, audioIn);
+			}
+
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = audioIn.read(buffer)) != -1) {
+				data.write(buffer, 0, count);
+			}
+			return new PcmSound(filename, audioIn.getFormat(),
+					data.toByteArray());
+		} finally {
+			audioIn.close();
+		}
+	}
+
+	/**
+	 * @return the number of sounds in the cache
+	 */
+	public synchronized int getSoundCount() {
+		return sounds.size();
+	}
+
+	/**
+	 * @return the bytes of samples in the cache
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return sounds.size() + " sounds, " + size / 1024 + " of "
+				+ budget / 1024 + " KB, " + hits + " hits, " + misses
+				+ " misses, " + evictions + " evictions";
+	}
+}
@@ -0,0 +1,203 @@
+package audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+import metrics.CardTimeline;
+
+/**
+ * One SourceDataLine that is opened once and kept open, so that playing a
+ * sound only costs writing its samples. Sounds written one after another play
+ * without a gap. The line is reopened only if a sound comes in a different
+ * format, which does not happen for sounds from a SoundCache that could be
+ * converted to its LINE_FORMAT.
+ *
+ * Sounds are written by one thread at a time. stop may be called from any
+ * thread, and holds until reset is called.
+ *
+ * @version Oct 18, 2026
+ */
+public class SoundLine {
+	// bytes the line buffers, about 90 ms at the line format
+	private static final int LINE_BUFFER = 16384;
+
+	// bytes written at a time, about 12 ms at the line format, so that stop
+	// is noticed quickly
+	private static final int CHUNK = 2048;
+
+	// the line, or null until the first sound is played
+	private SourceDataLine line;
+
+	// true if the line was given rather than found, so it is never replaced
+	private final boolean givenLine;
+
+	// set by stop to end the sound being written
+	private volatile boolean stop = false;
+
+	// true while samples are being written or drained
+	private volatile boolean playing = false;
+
+	/**
+	 * Creates a SoundLine that gets a line from AudioSystem when the first
+	 * sound is played
+	 */
+	public SoundLine() {
+		givenLine = false;
+	}
+
+	/**
+	 * Creates a SoundLine that plays on a given line, opening it if it is not
+	 * open. Used to test playback without a sound card.
+	 *
+	 * @param line
+	 *            the line to play on
+	 */
+	SoundLine(SourceDataLine line) {
+		this.line = line;
+		givenLine = true;
+	}
+
+	/**
+	 * Opens the line ahead of the first sound, so that the sound does not
+	 * wait for the sound system to start up
+	 *
+	 * @param format
+	 *            the format of the sounds that will be played
+	 * @return false if the line cannot be opened
+	 */
+	public boolean warmUp(AudioFormat format) {
+		return open(format);
+	}
+
+	/**
+	 * Writes a sound to the line, opening the line first if it is not open.
+	 * Returns once the last of the sound has been queued on the line, which is
+	 * while the end of it is still playing. Call drain to wait for it to be
+	 * heard.
+	 *
+	 * @param sound
+	 *            the sound to play
+	 * @return false if the sound was stopped or the line could not be opened
+	 */
+	public boolean write(PcmSound sound) {
+		if (!open(sound.getFormat())) {
+			return false;
+		}
+
+		playing = true;
+		line.start();
+
+		byte[] data = sound.getData();
+		int frameSize = sound.getFormat().getFrameSize();
+		int chunk = CHUNK - CHUNK % frameSize;
+		CardTimeline.soundStarted();
+		for (int offset = 0; offset < data.length; offset += chunk) {
+			if (stop || Thread.currentThread().isInterrupted()) {
+				line.flush();
+				playing = false;
+				return false;
+			}
+			line.write(data, offset, Math.min(chunk, data.length - offset));
+		}
+		return true;
+	}
+
+	/**
+	 * Waits for the sounds written to finish playing
+	 */
+	public void drain() {
+		if (line != null && !stop) {
+			line.drain();
+		}
+		playing = false;
+	}
+
+	/**
+	 * Clears a stop, so that the next sound can be written. A stop that comes
+	 * after this ends the next sound.
+	 */
+	public void reset() {
+		stop = false;
+	}
+
+	/**
+	 * Stops the sound being written and throws away what has been queued.
+	 * Sounds written after this are not played until reset is called.
+	 */
+	public void stop() {
+		stop = true;
+		SourceDataLine current = line;
+		if (current != null) {
+			// halt output at once, then drop what is buffered. write starts
+			// the line again.
+			current.stop();
+			current.flush();
+		}
+	}
+
+	/**
+	 * @return true if a sound is being played
+	 */
+	public boolean isPlaying() {
+		return playing;
+	}
+
+	/**
+	 * Closes the line. It is opened again if another sound is played.
+	 */
+	public synchronized void close() {
+		if (line != null) {
+			line.close();
+			if (!givenLine) {
+				line = null;
+			}
+		}
+	}
+
+	/**
+	 * Makes sure the line is open for a format
+	 *
+	 * @param format
+	 *            the format of the sound to be played
+	 * @return false if the line cannot be opened
+	 */
+	private synchronized boolean open(AudioFormat format) {
+		if (givenLine) {
+			if (!line.isOpen()) {
+				try {
+					line.open(format, LINE_BUFFER);
+				} catch (LineUnavailableException e) {
+					System.err.println("Line is not available due to resource restrictions.");
+					return false;
+				}
+			}
+			return true;
+		}
+		if (line != null && line.isOpen() && line.getFormat().matches(format)) {
+			return true;
+		}
+		if (line != null) {
+			line.drain();
+			line.close();
+			line = null;
+		}
+
+		try {
+			DataLine.Info info = new DataLine.Info(SourceDataLine.class,
+					format, LINE_BUFFER);
+			SourceDataLine newLine = (SourceDataLine) AudioSystem.getLine(info);
+			newLine.open(format, LINE_BUFFER);
+			line = newLine;
+			return true;
+		} catch (LineUnavailableException e) {
+			System.err.println("Line is not available due to resource restrictions.");
+		} catch (IllegalArgumentException e) {
+			System.err.println("Selected mixer does not support any lines matching "
+					+ format);
+		}
+		return false;
+	}
+}
@@ -1,236 +1,364 @@
 package audio;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import model.Card;
+import model.Rank;
+import model.Suit;
+
+/**
+ * Says the game's announcements. Callers add the sounds of an utterance with
+ * addSound and then call playSounds, which queues the utterance and returns
+ * at once. One long-lived thread says the queued utterances one at a time,
+ * warnings first, so no caller waits, or holds a lock, while audio plays.
+ *
+ * Each thread builds its own utterance, so sounds added by the game and by
+ * the keypad at the same time do not get mixed together. An utterance that is
+ * already waiting to be said is not queued again.
+ */
 public class SoundManager {
-	// the sounds to play
-	// Need to synchronize methods that use this variable. Sounds
-	// are added to toPlay in one thread and removed in another.
-	private ArrayList<String> toPlay = new ArrayList<String>();
+	// the sounds each thread has added since it last called playSounds
+	private final ThreadLocal<ArrayList<String>> toPlay = new ThreadLocal<ArrayList<String>>() {
+		@Override
+		protected ArrayList<String> initialValue() {
+			return new ArrayList<String>();
+		}
+	};
+
+	// the utterances waiting to be said, one queue for each priority, only
+	// used while holding queueLock
+	private final ArrayDeque<Utterance>[] queues;
+
+	// number of utterances queued or being said
+	private final AtomicInteger outstanding = new AtomicInteger();
 
 	// the sounds last played. Save these so that they can be repeated.
-	private ArrayList<String> lastPlayed = new ArrayList<String>();
+	private volatile List<String> lastPlayed = new ArrayList<String>();
+
+	// the utterance being said, or null
+	private volatile Utterance current;
+
+	// held while an utterance is queued, while one is taken from the queues
+	// to be said, and while the queues are being stopped, so the same sounds
+	// cannot be queued twice and a stop cannot miss an utterance that has
+	// left the queue but is not yet current
+	private final Object queueLock = new Object();
+
+	// the sounds, decoded ahead of time or the first time they are played
+	private SoundCache cache = new SoundCache();
 
-	// the AudioPlayer used for playing sounds
-	private AudioPlayer ap = new AudioPlayer();
+	// joins the sounds played together into one phrase
+	private PhraseEngine phrases = new PhraseEngine(cache);
+
+	// the line the sounds are played on, which stays open
+	private final SoundLine line;
 
 	// The thread that the sounds play in.
-	private Thread soundThread;
+	private final Thread soundThread;
+
+	// Notified when the last outstanding utterance is finished
+	private final Object idle = new Object();
 
 	// The singleton object
 	private static SoundManager instance;
 
-	// Set to true to interrupt the sounds being played.
-	private boolean stopRequested = false;
-
-	// sets to true when the the thread playing the sound is done playing
-	private boolean soundThreadDone = true;
-
 	private SoundManager() {
+		this(new SoundLine());
+	}
+
+	/**
+	 * Creates a manager that plays on a given line. Used to test playback
+	 * without a sound card.
+	 * 
+	 * @param line
+	 *            the line to play on
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	SoundManager(SoundLine line) {
+		this.line = line;
+		queues = new ArrayDeque[SoundPriority.values().length];
+		for (int i = 0; i < queues.length; i++) {
+			queues[i] = new ArrayDeque<Utterance>();
+		}
 
+		soundThread = new Thread("Sound Player") {
+			@Override
+			public void run() {
+				speak();
+			}
+		};
+		soundThread.setDaemon(true);
+		soundThread.start();
 	}
 
-	public static SoundManager getInstance() {
+	public static synchronized SoundManager getInstance() {
 		if (instance == null) {
 			instance = new SoundManager();
 		}
 		return instance;
 	}
 
-	public synchronized void addSound(String filename) {
-		// System.out.println("SoundManager.addSound: Thread " +
-		// Thread.currentThread().getName() + " got lock in playSounds");
-		
-		toPlay.add(filename);
-		
-		// System.out.println("SoundManager.addSound: Thread " +
-		// Thread.currentThread().getName() + " releasing lock");
+	/**
+	 * Adds a sound to the utterance this thread is building
+	 * 
+	 * @param filename
+	 *            the resource holding the sound
+	 */
+	public void addSound(String filename) {
+		toPlay.get().add(filename);
 	}
 
-	public void playSounds() {
-		// System.out.println("Entering playSounds");
-		// System.out.println("SoundManager.playSounds: Thread " +
-		// Thread.currentThread().getName() +
-		// " trying to get lock in playSounds");
-		
-		synchronized (this) {
-		
-			// System.out.println("SoundManager.playSounds: Thread " +
-			// Thread.currentThread().getName() + " got lock in playSounds");
-			// System.out.println("SoundManager.playSounds got the lock");
-			// Do not start a new thread if there is one already running. The
-			// existing thread will play all the sounds that are queued up.
-			
-			if (soundThread != null) {
-				// while(soundThread.isAlive()) {
-
-				try {
-
-					while (!soundThreadDone) {
-						System.out
-								.println("Sleeping playSounds - thread alive");
-
-						this.wait();
-
-					}
+	/**
+	 * Queues the sounds this thread has added as an announcement
+	 * 
+	 * @return the utterance, or null if no sounds were added
+	 */
+	public Utterance playSounds() {
+		return playSounds(SoundPriority.ANNOUNCEMENT);
+	}
 
-				} catch (InterruptedException e) {
+	/**
+	 * Queues the sounds this thread has added, to be said after any waiting
+	 * utterances of the same or a higher priority. Returns without waiting for
+	 * them to be said.
+	 * 
+	 * @param priority
+	 *            how urgent the sounds are
+	 * @return the utterance, or null if no sounds were added
+	 */
+	public Utterance playSounds(SoundPriority priority) {
+		ArrayList<String> sounds = toPlay.get();
+		if (sounds.isEmpty()) {
+			return null;
+		}
+		Utterance utterance = new Utterance(this, sounds, priority);
+		sounds.clear();
+		return submit(utterance);
+	}
 
-					e.printStackTrace();
+	/**
+	 * Queues an utterance unless the same sounds are already waiting
+	 * 
+	 * @param utterance
+	 *            the utterance to say
+	 * @return the utterance that will be said
+	 */
+	private Utterance submit(Utterance utterance) {
+		ArrayDeque<Utterance> queue = queues[utterance
+				.getPriority().ordinal()];
+		synchronized (queueLock) {
+			for (Utterance waiting : queue) {
+				if (!waiting.isCancelled()
+						&& waiting.getSounds().equals(utterance.getSounds())) {
+					return waiting;
 				}
 			}
 
-			// Need to keep a separate thread so that it can be stopped.
-			// System.out.println("SoundManager creating Sound Player thread");
-
-			soundThread = new Thread("Sound Player") {
-
-				public void run() {
-					// System.out.println("SoundManager.playSounds: Thread " +
-					// Thread.currentThread().getName() +
-					// " trying to get lock in soundThread's run");
-
-					synchronized (SoundManager.this) {
-
-						// System.out.println("SoundManager.playSounds: Thread "
-						// + Thread.currentThread().getName() +
-						// " got lock in soundThread's run");
-						// System.out.println("Running sound thread");
-
-						lastPlayed.clear();
-						int nextSound = 0;
-
-						while (nextSound < toPlay.size() && !stopRequested) {
-
-							String nextSoundFile = toPlay.get(nextSound);
-							lastPlayed.add(nextSoundFile);
-							playNextSound(nextSoundFile);
-							nextSound++;
-						}
-
-						// reset the next sound
-						toPlay.clear();
-
-						// System.out.println("Done running sound thread");
-
-						stopRequested = false;
-						
-						soundThreadDone = true ;
+			outstanding.incrementAndGet();
+			queue.offer(utterance);
+		}
+		LockSupport.unpark(soundThread);
+		return utterance;
+	}
 
-						SoundManager.this.notify();
-						
-					}
-				}
-			};
+	/**
+	 * Says the queued utterances, one at a time, for as long as the program
+	 * runs. Waits without using the processor when there is nothing to say.
+	 */
+	private void speak() {
+		while (true) {
+			Utterance next;
+			synchronized (queueLock) {
+				next = nextUtterance();
+				current = next;
+			}
+			if (next == null) {
+				LockSupport.park(this);
+				continue;
+			}
 
-			soundThreadDone = false;
-			soundThread.start();
+			line.reset();
+			if (!next.isCancelled()) {
+				lastPlayed = next.getSounds();
+				playPhrase(next.getSounds());
+			}
+			current = null;
+			finished(next);
 		}
 	}
 
-	// Plays the next sound in line in the toPlay vector.
-	private void playNextSound(String nextSoundFile) {
-		// initialize the audio player with the correct sound
+	/**
+	 * Called holding queueLock
+	 * 
+	 * @return the most urgent utterance waiting, or null if there is none
+	 */
+	private Utterance nextUtterance() {
+		for (ArrayDeque<Utterance> queue : queues) {
+			Utterance next = queue.poll();
+			if (next != null) {
+				return next;
+			}
+		}
+		return null;
+	}
 
-		debugMsg("Checking if audio player is busy.  ");
-		while (ap.isPlaying()) {
-			if (Thread.currentThread().isInterrupted()) {
-				ap.stop();
-				return;
+	/**
+	 * Marks an utterance finished and wakes up anyone waiting in pauseSounds
+	 * if nothing else is waiting
+	 */
+	private void finished(Utterance utterance) {
+		utterance.finished();
+		if (outstanding.decrementAndGet() == 0) {
+			synchronized (idle) {
+				idle.notifyAll();
 			}
-			// System.out.println(Thread.currentThread().getName() +
-			// " is yieldeing");
-			Thread.yield();
+		}
+	}
 
+	/**
+	 * Called when an utterance is cancelled. Cuts it off if it is being said.
+	 * If it is waiting, the sound thread skips it.
+	 */
+	void cancelled(Utterance utterance) {
+		if (current == utterance) {
+			line.stop();
 		}
-		debugMsg("Audio player is free.  ");
+	}
 
-		if (!ap.init(nextSoundFile)) {
-			debugMsg("Error initializing player: " + ap.error);
+	// Plays the sounds as one phrase, and waits for it to finish.
+	private void playPhrase(List<String> sounds) {
+		PcmSound phrase = phrases.build(sounds);
+		if (phrase == null) {
+			debugMsg("Error loading sounds " + sounds);
 			return;
 		}
 
-		debugMsg("Player initialized");
-
-		// play the sound
-		ap.play();
-
-		debugMsg("Waiting for player to start " + nextSoundFile);
-
-		// Make sure it starts playing
-		while (!ap.isPlaying()) {
-			// debugMsg("Not started");
-			// System.out.println(Thread.currentThread().getName() +
-			// " is yieldeing");
-			Thread.yield();
+		if (line.write(phrase)) {
+			line.drain();
+		} else {
+			debugMsg("Stopped playing " + phrase);
 		}
+	}
 
-		debugMsg("Waiting for player to finish");
-
-		// Wait for the sound to finish
-		do {
-			if (Thread.currentThread().isInterrupted()) {
-				debugMsg("Playing thread interrupted");
-				ap.stop();
-				return;
-			}
-			// System.out.println(Thread.currentThread().getName() +
-			// " is yieldeing");
-			Thread.yield();
+	/**
+	 * Decodes the sounds used during a game, so that they are ready to play
+	 * when the cards are. Takes a second or two, so it is best done while
+	 * waiting for the reader server to start.
+	 */
+	public void preloadSounds() {
+		cache.preload(gameSounds());
+	}
 
-		} while (ap.isPlaying());
+	/**
+	 * Opens the line the sounds play on, which takes a while the first time
+	 * the sound system is used. Best done while the program starts, alongside
+	 * preloadSounds.
+	 */
+	public void openLine() {
+		long start = System.currentTimeMillis();
+		if (line.warmUp(SoundCache.LINE_FORMAT)) {
+			System.out.println("Opened the sound line in "
+					+ (System.currentTimeMillis() - start) + " ms");
+		}
+	}
 
-		debugMsg("Done playing.");
+	/**
+	 * @return the sounds announced during a game
+	 */
+	private static ArrayList<String> gameSounds() {
+		ArrayList<String> sounds = new ArrayList<String>();
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			sounds.add(Card.of(i).getSound());
+		}
+		for (Rank rank : Rank.values()) {
+			sounds.add(rank.getSound());
+		}
+		for (Suit suit : Suit.values()) {
+			sounds.add(suit.getSound());
+		}
+		for (String direction : new String[] { "north", "east", "south",
+				"west" }) {
+			sounds.add("/sounds/directions/" + direction + ".WAV");
+			sounds.add("/sounds/directions/" + direction + "plays.WAV");
+		}
+		for (int i = 0; i <= 13; i++) {
+			sounds.add("/sounds/bidding/" + i + ".WAV");
+		}
+		sounds.add("/sounds/bidding/contractis.WAV");
+		sounds.add("/sounds/bidding/northsouth.WAV");
+		sounds.add("/sounds/bidding/eastwest.WAV");
+		sounds.add("/sounds/bidding/tricks.WAV");
+		sounds.add("/sounds/ownership/you2.wav");
+		sounds.add("/sounds/ownership/dummy2.wav");
+		sounds.add("/sounds/warnings/trickover.WAV");
+		return sounds;
 	}
 
 	/**
 	 * Repeat the last sound played
 	 */
 	public void playLastSound() {
-		// System.out.println("Entering playLastSound");
-		synchronized (this) {
-			if (lastPlayed.size() == 0) {
-				// System.out.println("Exiting playLastSound - nothing to play");
-				return;
-			}
-
-			toPlay.addAll(lastPlayed);
+		List<String> sounds = lastPlayed;
+		if (sounds.isEmpty()) {
+			return;
 		}
-		playSounds();
-		// System.out.println("Exiting playLastSound");
+		submit(new Utterance(this, sounds, SoundPriority.ANNOUNCEMENT));
 	}
 
 	public void debugMsg(String msg) {
 		System.out.println(msg);
 	}
 
+	/**
+	 * Waits until everything queued has been said
+	 */
 	public void pauseSounds() {
-
-		while (soundThread != null && soundThread.isAlive()) {
-			try {
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-				// Continue
+		synchronized (idle) {
+			while (outstanding.get() > 0) {
+				try {
+					idle.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
 			}
 		}
 	}
 
-	public synchronized void clearSounds() {
-		// System.out.println("SoundManager.clearSounds: Thread " +
-		// Thread.currentThread().getName() + " got lock in clearSounds");
-		toPlay.clear();
-		// System.out.println("SoundManager.clearSounds: Thread " +
-		// Thread.currentThread().getName() + " releasing lock");
+	/**
+	 * Forgets the sounds this thread has added but not played
+	 */
+	public void clearSounds() {
+		toPlay.get().clear();
 	}
 
+	/**
+	 * @return true if something is being said
+	 */
 	public boolean isPlaying() {
-		return ap.isPlaying();
+		return current != null;
 	}
 
+	/**
+	 * Stops what is being said and drops everything waiting to be said
+	 */
 	public void requestStop() {
-		// soundThread.interrupt();
-		// System.out.println("stop requested");
-		stopRequested = true;
+		synchronized (queueLock) {
+			for (ArrayDeque<Utterance> queue : queues) {
+				for (Utterance waiting : queue) {
+					waiting.cancel();
+				}
+			}
+
+			Utterance playing = current;
+			if (playing != null) {
+				playing.cancel();
+			}
+		}
 	}
 
 	public static void main(String[] args) {
@@ -0,0 +1,17 @@
+package audio;
+
+/**
+ * How urgent an utterance is. Utterances waiting to be said are said in order
+ * of priority, and in the order they were asked for within a priority.
+ *
+ * @version Oct 18, 2026
+ */
+public enum SoundPriority {
+
+	/** Something is wrong, such as a card that cannot be played */
+	WARNING,
+
+	/** The usual announcements of cards, tricks and contracts */
+	ANNOUNCEMENT
+
+}
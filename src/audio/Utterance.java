@@ -0,0 +1,90 @@
+package audio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sounds that SoundManager says together as one phrase. Returned by
+ * SoundManager.playSounds so that the caller can cancel it or see if it has
+ * been said.
+ *
+ * @version Oct 18, 2026
+ */
+public final class Utterance {
+	// the manager saying it
+	private final SoundManager manager;
+
+	// the sounds, in order
+	private final List<String> sounds;
+
+	private final SoundPriority priority;
+
+	// set when it is cancelled, and when it has been said or skipped
+	private volatile boolean cancelled = false;
+	private volatile boolean done = false;
+
+	/**
+	 * @param manager
+	 *            the manager that will say it
+	 * @param sounds
+	 *            the sounds to say, which are copied
+	 * @param priority
+	 *            how urgent it is
+	 */
+	Utterance(SoundManager manager, List<String> sounds, SoundPriority priority) {
+		this.manager = manager;
+		this.sounds = Collections.unmodifiableList(new ArrayList<String>(
+				sounds));
+		this.priority = priority;
+	}
+
+	/**
+	 * @return the sounds, in the order they are said
+	 */
+	public List<String> getSounds() {
+		return sounds;
+	}
+
+	/**
+	 * @return how urgent it is
+	 */
+	public SoundPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Stops the utterance if it is being said, or keeps it from being said if
+	 * it is waiting. Does nothing if it has been said.
+	 */
+	public void cancel() {
+		cancelled = true;
+		manager.cancelled(this);
+	}
+
+	/**
+	 * @return true if cancel has been called
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * @return true if it has been said, or cancelled and dropped
+	 */
+	public boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * Called by the manager once it is finished with this utterance
+	 */
+	void finished() {
+		done = true;
+	}
+
+	@Override
+	public String toString() {
+		return priority + " " + sounds;
+	}
+}
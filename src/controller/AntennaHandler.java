@@ -4,10 +4,14 @@ import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
 import model.Card;
 import model.CardDatabase;
 import model.Direction;
@@ -23,11 +27,11 @@ public class AntennaHandler extends Handler {
 	// Length of time to pause after requesting a card and not finding one
 	private static final int CARD_REQUEST_PAUSE = 200;
 
-	// Thread that cycles between the id antenna and current hand antenna
+	// Thread that cycles between the antennas the scheduler chooses
 	private Thread cyclingThread;
 
-	// Remembers if it is a player antenna or id antenna being listened to
-	private boolean onPlayerHand = false;
+	// Chooses the antenna the cycling thread switches to next
+	private final AntennaScheduler scheduler = new AntennaScheduler();
 
 	// Index where the antenna id starts
 	private static final int POSITION = 16;
@@ -44,12 +48,28 @@ public class AntennaHandler extends Handler {
 	/** Stream to read input from the server **/
 	protected InputStream in;
 
-	/* Port and and host name */
-	private static final int PORT = 6666;
-	private static final String HOST = "localhost";
+	/* Port and and host name of the reader server, unless others are given */
+	public static final int DEFAULT_PORT = 6666;
+	public static final String DEFAULT_HOST = "localhost";
+
+	/**
+	 * Longest time to wait for the server to accept a connection. The server
+	 * is on the same machine or the same network, so it answers at once if
+	 * it is listening.
+	 */
+	public static final int CONNECT_TIMEOUT_MILLIS = 500;
+
+	/** Host name of the reader server */
+	protected final String host;
+
+	/** Port the reader server listens on */
+	protected final int port;
 
 	/* Database of Cards */
-	private CardDatabase cards;
+	protected CardDatabase cards;
+
+	// Delivers cards to the hands, in order, one thread per antenna
+	private CardDispatcher dispatcher = new CardDispatcher(hands);
 
 	// private CardListener iDListen;
 
@@ -65,7 +85,30 @@ public class AntennaHandler extends Handler {
 	// Id of the current player antenna
 	private String turnId;
 
-	private Thread handlerThread;
+	// The antenna last switched to, for reads that do not say which antenna
+	// they were on
+	private volatile Direction selected = Direction.NORTH;
+
+	// Reads on each antenna, and the ones that found nothing, indexed by
+	// direction
+	private final Counter[] reads = new Counter[Direction.values().length];
+	private final Counter[] noCards = new Counter[Direction.values().length];
+
+	// Time from sending a switch until the server has read the new antenna
+	private final LatencyHistogram switchTime = Metrics.getDefault()
+			.histogram("antenna.switch");
+
+	/** Thread reading messages from the server */
+	protected Thread handlerThread;
+
+	// When the server was last heard from, from System.nanoTime
+	private volatile long lastHeard = System.nanoTime();
+
+	// Set once the server has been told to quit, until the next connect
+	private volatile boolean quitting = false;
+
+	// Longest time dropConnection waits for the threads it stops
+	private static final long STOP_MILLIS = 500;
 
 	/**
 	 * Creates a new AntennaHandler with the appropriate Card Database
@@ -74,7 +117,32 @@ public class AntennaHandler extends Handler {
 	 *            the database to be used
 	 */
 	public AntennaHandler(CardDatabase data) {
+		this(data, DEFAULT_HOST, DEFAULT_PORT);
+	}
+
+	/**
+	 * Creates a new AntennaHandler for a reader server on another host or port
+	 * 
+	 * @param data
+	 *            the database to be used
+	 * @param host
+	 *            the host the reader server runs on
+	 * @param port
+	 *            the port the reader server listens on
+	 */
+	public AntennaHandler(CardDatabase data, String host, int port) {
 		this.cards = data;
+		this.host = host;
+		this.port = port;
+
+		Metrics metrics = Metrics.getDefault();
+		for (Direction direction : Direction.values()) {
+			String name = "antenna." + direction;
+			reads[direction.ordinal()] = metrics.counter(name + ".reads");
+			noCards[direction.ordinal()] = metrics.counter(name + ".nocards");
+			metrics.ratio(name + ".nocardRatio",
+					noCards[direction.ordinal()], reads[direction.ordinal()]);
+		}
 	}
 
 	@Override
@@ -83,14 +151,25 @@ public class AntennaHandler extends Handler {
 		if (requestSocket != null && requestSocket.isConnected()) {
 			System.out.println("requestSocekt is still connected!!!");
 		}
-		requestSocket = new Socket(HOST, PORT);
-		System.out.println("Connected to " + HOST + " in port "
-				+ Integer.toString(PORT));
+		InetSocketAddress address = new InetSocketAddress(host, port);
+		if (address.isUnresolved()) {
+			throw new UnknownHostException(host);
+		}
+		requestSocket = new Socket();
+		try {
+			requestSocket.connect(address, CONNECT_TIMEOUT_MILLIS);
+		} catch (IOException e) {
+			requestSocket.close();
+			throw e;
+		}
+		System.out.println("Connected to " + host + " in port "
+				+ Integer.toString(port));
 
 		// get Input and Output streams
 		out = requestSocket.getOutputStream();
 		in = requestSocket.getInputStream();
 		cardRequestSent = false;
+		linkOpened();
 	}
 	
 	public void disconnect() throws IOException {
@@ -140,13 +219,7 @@ public class AntennaHandler extends Handler {
 				} while (!handlerThread.isInterrupted());
 
 			} finally {
-				if (in != null) {
-					// Closing connection
-					in.close();
-					out.close();
-					requestSocket.close();
-					System.out.println("Everything is closed");
-				}
+				closeConnection();
 			}
 		} catch (IOException ioException) {
 			System.err.println("Lost connection to the server!");
@@ -157,6 +230,22 @@ public class AntennaHandler extends Handler {
 		}
 	}
 
+	/**
+	 * Closes the streams and the socket to the server
+	 * 
+	 * @throws IOException
+	 *             if closing the connection fails
+	 */
+	protected void closeConnection() throws IOException {
+		if (in != null) {
+			// Closing connection
+			in.close();
+			out.close();
+			requestSocket.close();
+			System.out.println("Everything is closed");
+		}
+	}
+
 	/**
 	 * Request a card from the server. Return when something other than NOCARD
 	 * is received.
@@ -182,6 +271,7 @@ public class AntennaHandler extends Handler {
 
 			if (message.startsWith("NOCARD")) {
 				// System.out.println("No card");
+				countNoCard();
 				Thread.sleep(CARD_REQUEST_PAUSE);
 			}
 		}
@@ -218,7 +308,9 @@ public class AntennaHandler extends Handler {
 
 				// Blocking read
 				// System.out.println("Waiting for card");
-				in.read(messageRec);
+				if (in.read(messageRec) > 0) {
+					lastHeard = System.nanoTime();
+				}
 				// System.out.println("Got a card");
 
 				out.notify();
@@ -234,46 +326,135 @@ public class AntennaHandler extends Handler {
 	}
 
 	/**
-	 * Processing the string to make a card and send to Listeners
+	 * Records that the server has tried to read a card from the current
+	 * antenna, releasing a thread waiting in switchHand to change antennas.
+	 */
+	protected void readAttempted() {
+		lastHeard = System.nanoTime();
+		OutputStream stream = out;
+		synchronized (stream) {
+			cardRequestSent = true;
+			stream.notify();
+		}
+	}
+
+	/**
+	 * Counts a read in the metrics of the antenna it was on
+	 * 
+	 * @param position
+	 *            the index of the antenna, 0 for north through 3 for west
+	 * @param found
+	 *            false if the server found nothing on the antenna
+	 */
+	protected void countRead(int position, boolean found) {
+		if (position < 0 || position >= reads.length) {
+			return;
+		}
+		reads[position].increment();
+		if (!found) {
+			noCards[position].increment();
+		}
+	}
+
+	/**
+	 * Records that the server found nothing on the antenna last switched to,
+	 * for servers whose NOCARD messages do not say which antenna it was
+	 */
+	protected void countNoCard() {
+		countRead(selected.ordinal(), false);
+	}
+
+	/**
+	 * Processing the string to make a card and send to Listeners. The card is
+	 * queued for the antenna it was found on and delivered in order by that
+	 * antenna's dispatcher thread. Waits if too many cards are already waiting
+	 * for that antenna.
 	 * 
 	 * @param str
 	 *            - String that contains the ID number and the location found
 	 */
-	private void process(final String str) {
-		new Thread("Card processor") {
-			public void run() {
-				String cardID = str.substring(0, ID_LENGTH);
-				Card thisCard = cards.getCard(cardID);
-				System.out.println("Found : " + thisCard.toString());
-
-				// //if the message ends with C, the card is on the id antenna
-				// if (str.endsWith("C")){
-				// iDListen.cardFound(thisCard);
-				// //System.out.println("message sent to ID listener");
-				//
-				// //otherwise, the card is on one of the player antennas
-				// } else {
-				int position = Integer.parseInt(str.substring(POSITION,
-						MESSAGE_LENGTH)) - 1;
-
-				// remember the last card the blind person scanned. otherwise
-				// lay cards normally
-				// if(blindDirection.ordinal() == position){
-
-				// System.out.println("blind player at " +
-				// blindDirection.ordinal() + " scanned card " + thisCard);
-
-				// game.setLastBlindCard(thisCard);
-
-				// }else{
-
-				hands[position].cardFound(thisCard);
-				// }
-				// System.out.println("message sent to " + position);
-				// }
-			}
+	protected void process(String str) {
+		long readAt = System.nanoTime();
+		long tagId = CardDatabase.parseId(str, 0);
+		int position;
+		try {
+			position = Integer.parseInt(str.substring(POSITION,
+					MESSAGE_LENGTH)) - 1;
+		} catch (NumberFormatException e) {
+			position = -1;
+		}
+		countRead(position, true);
+		TraceRecorder traceRecorder = recorder;
+		if (traceRecorder != null && tagId != CardDatabase.NO_ID
+				&& position >= 0) {
+			traceRecorder.tag(tagId, position + 1, System.currentTimeMillis());
+		}
+
+		Card thisCard = cards.getCard(tagId);
+		if (thisCard == null) {
+			System.out.println("Unknown tag " + str.substring(0, ID_LENGTH));
+			return;
+		}
+		System.out.println("Found : " + thisCard.toString());
 
-		}.start();
+		if (position < 0) {
+			System.out.println("Card found on unknown antenna: " + str);
+			return;
+		}
+		dispatch(position, thisCard, readAt);
+	}
+
+	/**
+	 * Queues a card for the listener of the antenna it was found on
+	 * 
+	 * @param position
+	 *            the index of the antenna, 0 for north through 3 for west
+	 * @param thisCard
+	 *            the card found
+	 * @param readAt
+	 *            when the message with the card was read, from
+	 *            System.nanoTime
+	 */
+	protected void dispatch(int position, Card thisCard, long readAt) {
+		if (position < 0 || position >= hands.length) {
+			System.out.println("Card " + thisCard
+					+ " found on unknown antenna " + position);
+			return;
+		}
+
+		try {
+			enqueue(Direction.values()[position], thisCard, readAt);
+		} catch (InterruptedException e) {
+			// Let the reading loop see that it was interrupted
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Hands a card to the dispatcher, waiting for room if the antenna's queue
+	 * is full. Overridden by handlers whose reading thread must not wait.
+	 * 
+	 * @param direction
+	 *            the antenna the card was found on
+	 * @param thisCard
+	 *            the card found
+	 * @param readAt
+	 *            when the message with the card was read, from
+	 *            System.nanoTime
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for room
+	 */
+	protected void enqueue(Direction direction, Card thisCard, long readAt)
+			throws InterruptedException {
+		dispatcher.dispatch(direction, thisCard, readAt);
+	}
+
+	/**
+	 * @return the dispatcher delivering cards to the listeners, which keeps
+	 *         queue depth and latency statistics
+	 */
+	public CardDispatcher getDispatcher() {
+		return dispatcher;
 	}
 
 	/**
@@ -284,6 +465,7 @@ public class AntennaHandler extends Handler {
 		if (out == null) {
 			return;
 		}
+		quitting = true;
 
 		byte[] output = "quit".getBytes();
 
@@ -314,7 +496,9 @@ public class AntennaHandler extends Handler {
 	 */
 	public void switchHand(String handID) throws IOException,
 			InterruptedException {
-		if (out == null) {
+		// The stream is replaced if the connection is made again
+		OutputStream stream = out;
+		if (stream == null) {
 			System.out.println("Server is not running.");
 			return;
 		}
@@ -325,10 +509,12 @@ public class AntennaHandler extends Handler {
 
 		// Make sure only one thread is talking to the server at a time
 		// System.out.println("switchHand waiting for lock");
-		synchronized (out) {
+		synchronized (stream) {
 			//System.out.println("switchHand got lock");
-			out.write(output);
-			out.flush();
+			long start = System.nanoTime();
+			stream.write(output);
+			stream.flush();
+			selected = directionOf(handID);
 			// System.out.println("Command sent: " + handID + ".");
 
 			// If a card hasn't been requested since the last antenna switch,
@@ -337,12 +523,13 @@ public class AntennaHandler extends Handler {
 				// System.out.println("switchHand waiting for card request to happen");
 				// System.out.println("Waiting thread " +
 				// Thread.currentThread().getName());
-				out.wait();
+				stream.wait();
 				// System.out.println("Awakened thread " +
 				// Thread.currentThread().getName());
 			}
 			// System.out.println("switchHand not waiting");
 			cardRequestSent = false;
+			switchTime.recordSince(start);
 		}
 
 	}
@@ -368,34 +555,47 @@ public class AntennaHandler extends Handler {
 		switchHand(turnId);
 		System.out.println("Current hand: " + turn);
 
-		if (cyclingThread == null) {
-			cyclingThread = new Thread("Cycling thread") {
-				@Override
-				public void run() {
-					System.out.println("Running cycling thread");
-					while (!isInterrupted()) {
-						try {
-							//System.out.println("Cycling hands");
-							cycleHands();
-						} catch (IOException e) {
-							// TODO Auto-generated catch block
-							e.printStackTrace();
-							interrupt();
-						} catch (InterruptedException e) {
-							e.printStackTrace();
-							interrupt();
-						}
-					}
-					cyclingThread = null;
-				}
-			};
-			System.out.println("Starting cycling thread");
-			cyclingThread.start();
+		// Without a server there are no antennas to cycle through
+		if (cyclingThread == null && out != null) {
+			startCycling();
 		}
 		System.out.println("*** SwitchHand returning; switched to " + turn +
 		 " ***");
 	}
 
+	/**
+	 * Starts the thread that cycles between the antennas the scheduler
+	 * chooses. The thread stops if the connection fails or it is
+	 * interrupted.
+	 */
+	private void startCycling() {
+		cyclingThread = new Thread("Cycling thread") {
+			@Override
+			public void run() {
+				System.out.println("Running cycling thread");
+				while (!isInterrupted()) {
+					try {
+						//System.out.println("Cycling hands");
+						cycleHands();
+					} catch (IOException e) {
+						// TODO Auto-generated catch block
+						e.printStackTrace();
+						interrupt();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+						interrupt();
+					}
+				}
+				// A thread started since by resume is left alone
+				if (cyclingThread == this) {
+					cyclingThread = null;
+				}
+			}
+		};
+		System.out.println("Starting cycling thread");
+		cyclingThread.start();
+	}
+
 	/**
 	 * Converts from a direction to the command to send to the hardware server
 	 * 
@@ -417,7 +617,29 @@ public class AntennaHandler extends Handler {
 	}
 
 	/**
-	 * Alternate between the current hand and the id antenna
+	 * Converts from a command sent to the hardware server to the antenna it
+	 * switches to
+	 * 
+	 * @param handID
+	 *            the command
+	 * @return the antenna
+	 */
+	private static Direction directionOf(String handID) {
+		switch (handID.charAt(0)) {
+		case 'W':
+			return Direction.WEST;
+		case 'N':
+			return Direction.NORTH;
+		case 'E':
+			return Direction.EAST;
+		default:
+			return Direction.SOUTH;
+		}
+	}
+
+	/**
+	 * Switch to the antenna the scheduler chooses for the state of the game,
+	 * or stay on the current hand if there is no game
 	 * 
 	 * @throws IOException
 	 *             the connection failed
@@ -425,21 +647,169 @@ public class AntennaHandler extends Handler {
 	 *             the cycling thread was interrupted
 	 */
 	private void cycleHands() throws IOException, InterruptedException {
+		Direction next = game == null ? null : scheduler.next(game
+				.getSnapshot());
+		if (next == null) {
+			switchHand(turnId);
+		} else {
+			switchHand(getDirectionCode(next));
+		}
+	}
 
-		
-		// switching to the blind player's antenna
-		if (onPlayerHand) {
-			// System.out.println("Switching to ID");
-			// switchHand("P");
-			switchHand(getDirectionCode(blindDirection));
+	/**
+	 * @return the scheduler choosing the antenna to poll, whose weights can
+	 *         be set for each state of the game
+	 */
+	public AntennaScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Waits for the server to say it is ready, after connecting. The server
+	 * only says so when streaming, so this returns at once for the polled
+	 * protocol.
+	 * 
+	 * @param millis
+	 *            longest time to wait
+	 * @return true if the server said it was ready, false if it went on
+	 *         without saying so, as servers older than the READY message do
+	 * @throws java.net.SocketTimeoutException
+	 *             if the server says nothing for the time given
+	 * @throws IOException
+	 *             if the connection fails
+	 */
+	public boolean awaitReady(long millis) throws IOException {
+		return true;
+	}
+
+	/**
+	 * Called when the server says it is ready, before anything is read
+	 */
+	protected void serverReady() {
+		lastHeard = System.nanoTime();
+		System.out.println("Reader server in port " + port + " is ready");
+	}
+
+	/**
+	 * Notes that a new connection to the server has just been made. Called
+	 * by connect.
+	 */
+	void linkOpened() {
+		quitting = false;
+		lastHeard = System.nanoTime();
+	}
+
+	/**
+	 * Used by ReaderSupervisor.
+	 * 
+	 * @return when the server was last heard from, from System.nanoTime
+	 */
+	long getLastHeard() {
+		return lastHeard;
+	}
+
+	/**
+	 * Used by ReaderSupervisor.
+	 * 
+	 * @return true if the server has been told to quit since the last connect
+	 */
+	boolean isQuitting() {
+		return quitting;
+	}
+
+	/**
+	 * Used by ReaderSupervisor.
+	 * 
+	 * @return true if the connection is open and a thread is reading from it
+	 */
+	boolean isLinkUp() {
+		Thread reader = handlerThread;
+		return reader != null && reader.isAlive() && requestSocket != null
+				&& !requestSocket.isClosed();
+	}
+
+	/**
+	 * Used by ReaderSupervisor. Sends the antenna last switched to again,
+	 * which the server answers with its next read even if there is nothing
+	 * on the antenna, so a connection that has gone quiet can be told from
+	 * one that is dead.
+	 * 
+	 * @throws IOException
+	 *             if the command cannot be sent
+	 */
+	void heartbeat() throws IOException {
+		OutputStream stream = out;
+		if (stream == null) {
+			return;
+		}
+		synchronized (stream) {
+			stream.write(getDirectionCode(selected).getBytes());
+			stream.flush();
 		}
+	}
 
-		else {
-			// System.out.println("Switching to player antenna " + turnId);
-			switchHand(turnId);
+	/**
+	 * Used by ReaderSupervisor. Closes a connection that has failed and stops
+	 * the threads reading from it and cycling between its antennas, without
+	 * telling the server to quit. The game and the listeners are not touched.
+	 * 
+	 * @return true if the antennas were being cycled, so resume should start
+	 *         cycling them again
+	 */
+	boolean dropConnection() {
+		Thread cycler = cyclingThread;
+		Thread reader = handlerThread;
+		try {
+			closeConnection();
+		} catch (IOException e) {
+			// The connection has failed already
+		}
+		if (cycler != null) {
+			cycler.interrupt();
+		}
+		if (reader != null) {
+			reader.interrupt();
+		}
+		try {
+			if (cycler != null) {
+				cycler.join(STOP_MILLIS);
+			}
+			if (reader != null && reader != Thread.currentThread()) {
+				reader.join(STOP_MILLIS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
+		cyclingThread = null;
+		return cycler != null;
+	}
+
+	/**
+	 * Used by ReaderSupervisor. Starts a thread reading from the connection
+	 * just made.
+	 */
+	void startReading() {
+		Thread reader = new Thread(this, "Antenna handler");
+		// so the link is not taken to be down before the thread runs
+		handlerThread = reader;
+		reader.start();
+	}
 
-		onPlayerHand = !onPlayerHand;
+	/**
+	 * Used by ReaderSupervisor once a connection has been made again. Switches
+	 * the server back to the antenna it was on, and starts cycling the
+	 * antennas again if they were being cycled.
+	 * 
+	 * @param cycling
+	 *            true if the antennas were being cycled
+	 * @throws IOException
+	 *             if the command cannot be sent
+	 */
+	void resume(boolean cycling) throws IOException {
+		heartbeat();
+		if (cycling && cyclingThread == null) {
+			startCycling();
+		}
 	}
 
 	@Override
@@ -0,0 +1,157 @@
+package controller;
+
+import model.Direction;
+import model.GameSnapshot;
+import model.GameState;
+
+/**
+ * Decides which antenna the reader polls next, giving each antenna a share of
+ * the polls that depends on the state of the game and the antenna's role in
+ * it: whose turn it is, the blind player, the dummy, or none of these. While
+ * the blind player's hand is dealt only the blind antenna can produce a useful
+ * card, while the dummy is scanned only the dummy's, and while playing mostly
+ * the antenna of the player whose turn it is.
+ *
+ * The weights of the roles can be set for each state. An antenna with more
+ * than one role gets the largest of their weights, and an antenna with weight
+ * 0 is not polled. The polls are spread with smooth weighted round robin, so
+ * that with weights 3 and 1 the second antenna is polled once in every four
+ * polls, in between polls of the first rather than after three in a row.
+ * Whenever the weights of the antennas change, because the game moved on,
+ * the round starts again, so the antenna with the largest weight is polled
+ * first.
+ *
+ * @version Oct 18, 2026
+ */
+public class AntennaScheduler {
+	/**
+	 * The parts an antenna can play in the game
+	 */
+	public enum Role {
+		/** The antenna of the player whose card is expected next */
+		TURN,
+		/** The blind player's antenna */
+		BLIND,
+		/** The dummy's antenna */
+		DUMMY,
+		/** Any other antenna */
+		OTHER
+	}
+
+	private static final int NUM_ANTENNAS = Direction.values().length;
+
+	// the weight of each role in each state, indexed by state and role
+	private final int[][] weights = new int[GameState.values().length][Role
+			.values().length];
+
+	// the weights of the antennas in the current round
+	private final int[] antennaWeights = new int[NUM_ANTENNAS];
+
+	// how far each antenna has got in the current round
+	private final int[] current = new int[NUM_ANTENNAS];
+
+	/**
+	 * Creates a scheduler that stays on the blind antenna while dealing, on
+	 * the player to play the first card until it is played and on the dummy
+	 * while it is scanned, and while playing polls the antenna whose turn it
+	 * is three times as often as the blind antenna
+	 */
+	public AntennaScheduler() {
+		setWeight(GameState.DEALING, Role.BLIND, 1);
+		setWeight(GameState.FIRSTCARD, Role.TURN, 1);
+		setWeight(GameState.SCANNING_DUMMY, Role.DUMMY, 1);
+		setWeight(GameState.PLAYING, Role.TURN, 3);
+		setWeight(GameState.PLAYING, Role.BLIND, 1);
+	}
+
+	/**
+	 * Sets how large a share of the polls an antenna with a role gets in a
+	 * state of the game
+	 *
+	 * @param state
+	 *            the state of the game
+	 * @param role
+	 *            the role of the antenna
+	 * @param weight
+	 *            the weight of the role, 0 for no polls
+	 */
+	public synchronized void setWeight(GameState state, Role role, int weight) {
+		weights[state.ordinal()][role.ordinal()] = weight;
+	}
+
+	/**
+	 * @param state
+	 *            the state of the game
+	 * @param role
+	 *            the role of an antenna
+	 * @return the weight of the role in the state
+	 */
+	public synchronized int getWeight(GameState state, Role role) {
+		return weights[state.ordinal()][role.ordinal()];
+	}
+
+	/**
+	 * Chooses the antenna to poll next
+	 *
+	 * @param game
+	 *            the game as it is now
+	 * @return the antenna to poll, or null if no antenna has any weight
+	 */
+	public Direction next(GameSnapshot game) {
+		return next(game.getGameState(), game.getTurn(),
+				game.getBlindPosition(), game.getDummyPosition());
+	}
+
+	/**
+	 * Chooses the antenna to poll next
+	 *
+	 * @param state
+	 *            the state of the game
+	 * @param turn
+	 *            the player whose card is expected next, or null
+	 * @param blind
+	 *            the blind player, or null
+	 * @param dummy
+	 *            the dummy, or null
+	 * @return the antenna to poll, or null if no antenna has any weight
+	 */
+	public synchronized Direction next(GameState state, Direction turn,
+			Direction blind, Direction dummy) {
+		int[] roleWeights = weights[state.ordinal()];
+		boolean changed = false;
+		int total = 0;
+		for (Direction antenna : Direction.values()) {
+			int weight = roleWeights[Role.OTHER.ordinal()];
+			if (antenna == turn) {
+				weight = Math.max(weight, roleWeights[Role.TURN.ordinal()]);
+			}
+			if (antenna == blind) {
+				weight = Math.max(weight, roleWeights[Role.BLIND.ordinal()]);
+			}
+			if (antenna == dummy) {
+				weight = Math.max(weight, roleWeights[Role.DUMMY.ordinal()]);
+			}
+			changed |= weight != antennaWeights[antenna.ordinal()];
+			antennaWeights[antenna.ordinal()] = weight;
+			total += weight;
+		}
+		if (total == 0) {
+			return null;
+		}
+		if (changed) {
+			for (int i = 0; i < NUM_ANTENNAS; i++) {
+				current[i] = 0;
+			}
+		}
+
+		int best = -1;
+		for (int i = 0; i < NUM_ANTENNAS; i++) {
+			current[i] += antennaWeights[i];
+			if (antennaWeights[i] > 0 && (best < 0 || current[i] > current[best])) {
+				best = i;
+			}
+		}
+		current[best] -= total;
+		return Direction.values()[best];
+	}
+}
@@ -0,0 +1,351 @@
+package controller;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import metrics.CardTimeline;
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import model.Card;
+import model.Direction;
+
+/**
+ * Delivers the cards found on the antennas to their CardListeners. Each
+ * antenna has its own queue and a single thread that empties it, so the cards
+ * read on one antenna reach the game in the order they were read, and no
+ * thread is created per card.
+ *
+ * The queues are bounded. When an antenna's queue is full, dispatch waits for
+ * room rather than piling up more work. A thread that must not wait, such as
+ * a ReaderHub's, which serves every table, uses offer instead, and the card
+ * is dropped and counted. A card that is still waiting in an antenna's queue
+ * is not queued a second time.
+ *
+ * The time cards wait in the queues and the time the listeners take are
+ * recorded in the default Metrics registry, as dispatch.queue and
+ * dispatch.listener. The cards delivered, the duplicates not queued and the
+ * cards offer dropped are counted there for each antenna, as
+ * dispatch.NORTH.dispatched, dispatch.NORTH.duplicates and
+ * dispatch.NORTH.rejected and so on.
+ *
+ * @version Oct 18, 2026
+ */
+public class CardDispatcher {
+	// Most cards that can be waiting for one antenna
+	private static final int QUEUE_CAPACITY = 16;
+
+	// One lane per antenna, indexed by direction
+	private Lane[] lanes = new Lane[Direction.values().length];
+
+	/**
+	 * Creates a dispatcher for a set of listeners. The array is read each time
+	 * a card is delivered, so listeners added to it later are used.
+	 *
+	 * @param listeners
+	 *            the listener for each antenna, indexed by direction
+	 */
+	public CardDispatcher(CardListener[] listeners) {
+		for (Direction direction : Direction.values()) {
+			lanes[direction.ordinal()] = new Lane(direction, listeners);
+		}
+	}
+
+	/**
+	 * Queues a card to be delivered to the listener for an antenna. Waits if
+	 * the antenna's queue is full. Does nothing if the same card is already
+	 * waiting to be delivered for that antenna.
+	 *
+	 * @param direction
+	 *            the antenna the card was found on
+	 * @param card
+	 *            the card found
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for room in the queue
+	 */
+	public void dispatch(Direction direction, Card card)
+			throws InterruptedException {
+		dispatch(direction, card, System.nanoTime());
+	}
+
+	/**
+	 * Queues a card to be delivered to the listener for an antenna. Waits if
+	 * the antenna's queue is full. Does nothing if the same card is already
+	 * waiting to be delivered for that antenna.
+	 *
+	 * @param direction
+	 *            the antenna the card was found on
+	 * @param card
+	 *            the card found
+	 * @param readNanos
+	 *            when the card's frame was read, from System.nanoTime
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for room in the queue
+	 */
+	public void dispatch(Direction direction, Card card, long readNanos)
+			throws InterruptedException {
+		lanes[direction.ordinal()].add(card, readNanos);
+	}
+
+	/**
+	 * Queues a card to be delivered to the listener for an antenna, unless
+	 * the antenna's queue is full. Does nothing if the same card is already
+	 * waiting to be delivered for that antenna.
+	 *
+	 * @param direction
+	 *            the antenna the card was found on
+	 * @param card
+	 *            the card found
+	 * @param readNanos
+	 *            when the card's frame was read, from System.nanoTime
+	 * @return false if the queue was full and the card was dropped
+	 */
+	public boolean offer(Direction direction, Card card, long readNanos) {
+		return lanes[direction.ordinal()].offer(card, readNanos);
+	}
+
+	/**
+	 * @param direction
+	 *            the antenna
+	 * @return the number of cards waiting to be delivered for the antenna
+	 */
+	public int getQueueDepth(Direction direction) {
+		return lanes[direction.ordinal()].queue.size();
+	}
+
+	/**
+	 * @param direction
+	 *            the antenna
+	 * @return the number of cards delivered for the antenna
+	 */
+	public long getDispatched(Direction direction) {
+		return lanes[direction.ordinal()].dispatched.get();
+	}
+
+	/**
+	 * @param direction
+	 *            the antenna
+	 * @return the number of duplicate cards that were not queued
+	 */
+	public long getDropped(Direction direction) {
+		return lanes[direction.ordinal()].dropped.get();
+	}
+
+	/**
+	 * @param direction
+	 *            the antenna
+	 * @return the number of cards offered that were dropped because the queue
+	 *         was full
+	 */
+	public long getRejected(Direction direction) {
+		return lanes[direction.ordinal()].rejected.get();
+	}
+
+	/**
+	 * @param direction
+	 *            the antenna
+	 * @return the average time in milliseconds between queuing a card and
+	 *         handing it to the listener
+	 */
+	public double getAverageLatency(Direction direction) {
+		Lane lane = lanes[direction.ordinal()];
+		long dispatched = lane.dispatched.get();
+		if (dispatched == 0) {
+			return 0;
+		}
+		return lane.totalLatency.get() / (dispatched * 1000000.0);
+	}
+
+	/**
+	 * @param direction
+	 *            the antenna
+	 * @return the longest time in milliseconds between queuing a card and
+	 *         handing it to the listener
+	 */
+	public double getMaxLatency(Direction direction) {
+		return lanes[direction.ordinal()].maxLatency.get() / 1000000.0;
+	}
+
+	/**
+	 * Stops the threads delivering cards. Cards still in the queues are not
+	 * delivered.
+	 */
+	public void shutdown() {
+		for (Lane lane : lanes) {
+			lane.stop();
+		}
+	}
+
+	/**
+	 * @return the queue depth, number of cards and latency of each antenna
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (Direction direction : Direction.values()) {
+			s.append(String.format(
+					"%s: depth %d, dispatched %d, dropped %d, rejected %d, "
+							+ "latency avg %.2f ms max %.2f ms%n", direction,
+					getQueueDepth(direction), getDispatched(direction),
+					getDropped(direction), getRejected(direction),
+					getAverageLatency(direction),
+					getMaxLatency(direction)));
+		}
+		return s.toString();
+	}
+
+	/**
+	 * A card waiting to be delivered
+	 */
+	private static class PendingCard {
+		private final Card card;
+
+		// when the card's frame was read, in nanoseconds
+		private final long readAt;
+
+		// when the card was queued, in nanoseconds
+		private final long queuedAt = System.nanoTime();
+
+		// set once the delivering thread has taken the card from the queue
+		private volatile boolean taken = false;
+
+		private PendingCard(Card card, long readAt) {
+			this.card = card;
+			this.readAt = readAt;
+		}
+	}
+
+	/**
+	 * The queue and delivering thread for one antenna
+	 */
+	private static class Lane implements Runnable {
+		// shared by the lanes of every dispatcher
+		private static final LatencyHistogram queueTime = Metrics
+				.getDefault().histogram("dispatch.queue");
+		private static final LatencyHistogram listenerTime = Metrics
+				.getDefault().histogram("dispatch.listener");
+
+		private final Direction direction;
+		private final CardListener[] listeners;
+		private final BlockingQueue<PendingCard> queue = new ArrayBlockingQueue<PendingCard>(
+				QUEUE_CAPACITY);
+
+		// the card most recently queued
+		private volatile PendingCard lastQueued;
+
+		private Thread thread;
+
+		private final AtomicLong dispatched = new AtomicLong();
+		private final AtomicLong dropped = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+		private final AtomicLong totalLatency = new AtomicLong();
+		private final AtomicLong maxLatency = new AtomicLong();
+
+		// the same for the lanes of every dispatcher, in the default registry
+		private final Counter dispatches;
+		private final Counter duplicates;
+		private final Counter rejections;
+
+		private Lane(Direction direction, CardListener[] listeners) {
+			this.direction = direction;
+			this.listeners = listeners;
+			String name = "dispatch." + direction;
+			dispatches = Metrics.getDefault().counter(name + ".dispatched");
+			duplicates = Metrics.getDefault().counter(name + ".duplicates");
+			rejections = Metrics.getDefault().counter(name + ".rejected");
+		}
+
+		private void add(Card card, long readAt) throws InterruptedException {
+			PendingCard last = lastQueued;
+			if (last != null && !last.taken && last.card.equals(card)) {
+				dropped.incrementAndGet();
+				duplicates.increment();
+				return;
+			}
+
+			start();
+			PendingCard pending = new PendingCard(card, readAt);
+			lastQueued = pending;
+			queue.put(pending);
+		}
+
+		private boolean offer(Card card, long readAt) {
+			PendingCard last = lastQueued;
+			if (last != null && !last.taken && last.card.equals(card)) {
+				dropped.incrementAndGet();
+				duplicates.increment();
+				return true;
+			}
+
+			start();
+			PendingCard pending = new PendingCard(card, readAt);
+			if (!queue.offer(pending)) {
+				rejected.incrementAndGet();
+				rejections.increment();
+				return false;
+			}
+			lastQueued = pending;
+			return true;
+		}
+
+		// Starts the delivering thread the first time a card is queued
+		private synchronized void start() {
+			if (thread == null) {
+				thread = new Thread(this, "Card dispatcher " + direction);
+				thread.setDaemon(true);
+				thread.start();
+			}
+		}
+
+		private synchronized void stop() {
+			if (thread != null) {
+				thread.interrupt();
+				thread = null;
+			}
+			queue.clear();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					PendingCard next = queue.take();
+					next.taken = true;
+
+					long latency = System.nanoTime() - next.queuedAt;
+					queueTime.record(latency);
+					totalLatency.addAndGet(latency);
+					long max = maxLatency.get();
+					while (latency > max
+							&& !maxLatency.compareAndSet(max, latency)) {
+						max = maxLatency.get();
+					}
+					dispatched.incrementAndGet();
+					dispatches.increment();
+
+					CardListener listener = listeners[direction.ordinal()];
+					if (listener == null) {
+						System.out.println("No listener for " + direction
+								+ " antenna");
+						continue;
+					}
+
+					long start = System.nanoTime();
+					CardTimeline.delivering(next.readAt);
+					try {
+						listener.cardFound(next.card);
+					} catch (RuntimeException e) {
+						// Keep delivering cards for this antenna
+						e.printStackTrace();
+					} finally {
+						CardTimeline.delivering(0);
+					}
+					listenerTime.recordSince(start);
+				}
+			} catch (InterruptedException e) {
+				// Stopped
+			}
+		}
+	}
+}
@@ -1,20 +1,16 @@
 package controller;
 
-import java.io.IOException;
-import java.net.UnknownHostException;
-import java.util.Timer;
-import java.util.TimerTask;
-
 import model.Card;
 import model.CardDatabase;
+import model.Direction;
 import model.Game;
 import model.Rank;
 import model.Suit;
 
 /**
- * Listens to the id antenna. Tells the game what card has been seen, but if the
- * same card is seen repeatedly, it only reports the card once every 500
- * milliseconds.
+ * Listens to the id antenna. Tells the game what card has been seen. Repeated
+ * reads of the same card are absorbed by the Handler's DebounceStage before
+ * they get here.
  * 
  * @version March 12, 2015
  * 
@@ -24,13 +20,6 @@ public class CardIdentifier implements CardListener {
 	/** the game that is being played */
 	protected Game game;
 
-	// the last card reported by the id antenna
-	private Card lastIded;
-
-	private static final Timer DUPLICATE_TIMER = new Timer(true);
-
-	private TimerTask clearLastFoundTask;
-
 	/**
 	 * Creates a card identifier
 	 * 
@@ -48,38 +37,11 @@ public class CardIdentifier implements CardListener {
 	 *            the card found
 	 */
 	@Override
-	public synchronized void cardFound(Card c) {
+	public void cardFound(Card c) {
 		
 		System.out.println("card found " + c);
 
-		if (!c.equals(lastIded)) {
-			tellGameAboutCard(c);
-			lastIded = c;
-			if (clearLastFoundTask != null) {
-				clearLastFoundTask.cancel();
-			}
-
-			clearLastFoundTask = new TimerTask() {
-				@Override
-				public void run() {
-
-					try {
-						synchronized (CardIdentifier.this) {
-							if (lastIded != null) {
-								System.out.println("Resetting lastfound.  Was "
-									+ lastIded.toString());
-								lastIded = null;
-							}
-						}
-					} catch (Exception e) {
-
-						e.printStackTrace();
-					}
-				}
-
-			};
-			DUPLICATE_TIMER.schedule(clearLastFoundTask, 5000);
-		}
+		tellGameAboutCard(c);
 	}
 
 	/**
@@ -96,45 +58,28 @@ public class CardIdentifier implements CardListener {
 	}
 
 	/**
-	 * Tests the CardIdentifier class
+	 * Tests the CardIdentifier class behind a debounce stage
 	 * 
 	 * @param args
 	 *            none
 	 */
 	public static void main(String[] args) {
-		final CardIdentifier ider = new CardIdentifier(new Game(
-				new AntennaHandler(new CardDatabase()), false) {
-			@Override
-			public void cardIded(Card c) {
-				System.out.println("Game sees " + c.toString());
-			}
-		});
+		final CardListener ider = new DebounceStage().wrap(Direction.NORTH,
+				new CardIdentifier(new Game(new AntennaHandler(
+						new CardDatabase()), false) {
+					@Override
+					public void cardIded(Card c) {
+						System.out.println("Game sees " + c.toString());
+					}
+				}));
 
-		final Card c = new Card(Rank.ACE, Suit.CLUBS);
-		Card c2 = new Card(Rank.ACE, Suit.DIAMONDS);
+		final Card c = Card.of(Rank.ACE, Suit.CLUBS);
+		Card c2 = Card.of(Rank.ACE, Suit.DIAMONDS);
+		// The game should see each card once
 		ider.cardFound(c);
 		ider.cardFound(c);
 		ider.cardFound(c2);
 		ider.cardFound(c);
-
-		// Bizarrely, if I just call Thread.sleep, the thread never wakes up.
-		Timer t = new Timer(true);
-		t.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				ider.cardFound(c);
-				System.exit(0);
-			}
-
-		}, 1000, 1000);
-
-		// Prevent the main method from exiting.
-		try {
-			Thread.sleep(5000);
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
 	}
 
-}
\ No newline at end of file
+}
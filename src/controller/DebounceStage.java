@@ -0,0 +1,212 @@
+package controller;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import model.Card;
+import model.Direction;
+
+/**
+ * Absorbs repeated reads of the same card before they reach the game. The
+ * reader sees a card many times while it lies on an antenna, but the card
+ * should only be reported once. Once a card has been passed on for an
+ * antenna, it is suppressed on that antenna for as long as it keeps being
+ * read, however many other cards are read in the meantime. Only when the card
+ * has not been read there for the antenna's window is it passed on again, so
+ * a card taken off an antenna and put back is seen again.
+ *
+ * The windows are kept per antenna and card in one table, holding the time
+ * each window ends. The times come from the reads, as with the keys in
+ * KeyInput, so nothing has to run to forget a card when its window ends: a
+ * read after that time just opens a new window. Each read moves the end of
+ * the window with a compare and set on its entry, so reads on different
+ * antennas never wait for each other, and when the same card arrives on two
+ * threads at once exactly one of them passes.
+ *
+ * The blind player's antenna works differently, because the blind player
+ * holds one card at a time over it, and the game takes the last card read
+ * there as the one to play. If the player reads A, then B, then A again, the
+ * second A must reach the game, or it would play B. So on an antenna set
+ * with setLastCardOnly, a card other than the last one read there always
+ * passes, and only repeats of the same card are held to the window.
+ *
+ * @version Oct 18, 2026
+ */
+public class DebounceStage {
+	/**
+	 * How long a card must go unread before it is passed on again, unless
+	 * setWindow is called. CardIdentifier used to wait 5 seconds, but it only
+	 * remembered the last card and started its wait at the report. This
+	 * window starts again at every read and covers every card, so at 5
+	 * seconds a dummy card played within 5 seconds of being scanned in would
+	 * be lost. 2 seconds still spans the gaps in the reads of a card lying on
+	 * an antenna.
+	 */
+	public static final long DEFAULT_WINDOW_MILLIS = 2000;
+
+	private static final int NUM_ANTENNAS = Direction.values().length;
+
+	// when the window of each card on each antenna ends, in milliseconds,
+	// indexed by antenna * Card.NUM_CARDS + card
+	private final AtomicLongArray windowEnds = new AtomicLongArray(
+			NUM_ANTENNAS * Card.NUM_CARDS);
+
+	// the window of each antenna, in milliseconds
+	private final AtomicLongArray windows = new AtomicLongArray(NUM_ANTENNAS);
+
+	// the ordinal of the last card read on each antenna, or -1
+	private final AtomicIntegerArray lastCards = new AtomicIntegerArray(
+			NUM_ANTENNAS);
+
+	// 1 for the antennas where only repeats of the last card are suppressed
+	private final AtomicIntegerArray lastCardOnly = new AtomicIntegerArray(
+			NUM_ANTENNAS);
+
+	// the reads passed on and suppressed on each antenna
+	private final AtomicLongArray passed = new AtomicLongArray(NUM_ANTENNAS);
+	private final AtomicLongArray suppressed = new AtomicLongArray(
+			NUM_ANTENNAS);
+
+	/**
+	 * Creates a stage with the default window on every antenna
+	 */
+	public DebounceStage() {
+		for (int i = 0; i < NUM_ANTENNAS; i++) {
+			windows.set(i, DEFAULT_WINDOW_MILLIS);
+			lastCards.set(i, -1);
+		}
+	}
+
+	/**
+	 * Sets whether a card is always passed on when it is not the last card
+	 * read on an antenna. Used for the blind player's antenna.
+	 *
+	 * @param antenna
+	 *            the antenna
+	 * @param lastOnly
+	 *            true to suppress only repeats of the last card read, false
+	 *            to suppress any card read within its window
+	 */
+	public void setLastCardOnly(Direction antenna, boolean lastOnly) {
+		lastCardOnly.set(antenna.ordinal(), lastOnly ? 1 : 0);
+	}
+
+	/**
+	 * @param antenna
+	 *            the antenna
+	 * @return true if only repeats of the last card read on the antenna are
+	 *         suppressed
+	 */
+	public boolean isLastCardOnly(Direction antenna) {
+		return lastCardOnly.get(antenna.ordinal()) != 0;
+	}
+
+	/**
+	 * Sets how long a card must go unread on an antenna before it is passed
+	 * on again. Windows already open keep the end they have until the card is
+	 * next read.
+	 *
+	 * @param antenna
+	 *            the antenna
+	 * @param millis
+	 *            the window, or 0 to pass every read
+	 */
+	public void setWindow(Direction antenna, long millis) {
+		windows.set(antenna.ordinal(), millis);
+	}
+
+	/**
+	 * @param antenna
+	 *            the antenna
+	 * @return how long a card must go unread on the antenna before it is
+	 *         passed on again, in milliseconds
+	 */
+	public long getWindow(Direction antenna) {
+		return windows.get(antenna.ordinal());
+	}
+
+	/**
+	 * Decides whether a read is passed on, and keeps the card's window open
+	 * for the window's length after the read
+	 *
+	 * @param antenna
+	 *            the antenna the card was read on
+	 * @param card
+	 *            the card read
+	 * @param now
+	 *            when it was read, in milliseconds
+	 * @return true if the read should be passed on, false if the card was
+	 *         read on the antenna within the window
+	 */
+	public boolean pass(Direction antenna, Card card, long now) {
+		int a = antenna.ordinal();
+		int entry = a * Card.NUM_CARDS + card.ordinal();
+		boolean changed = lastCards.getAndSet(a, card.ordinal()) != card
+				.ordinal() && lastCardOnly.get(a) != 0;
+		long newEnd = now + windows.get(a);
+		while (true) {
+			long windowEnd = windowEnds.get(entry);
+			boolean open = changed || now >= windowEnd;
+			if (newEnd <= windowEnd
+					|| windowEnds.compareAndSet(entry, windowEnd, newEnd)) {
+				if (open) {
+					passed.incrementAndGet(a);
+				} else {
+					suppressed.incrementAndGet(a);
+				}
+				return open;
+			}
+		}
+	}
+
+	/**
+	 * Puts the stage in front of a listener
+	 *
+	 * @param antenna
+	 *            the antenna the listener listens to
+	 * @param listener
+	 *            the listener to pass the cards on to
+	 * @return a listener that passes on the cards not suppressed, timing them
+	 *         by the clock
+	 */
+	public CardListener wrap(final Direction antenna,
+			final CardListener listener) {
+		return new CardListener() {
+			@Override
+			public void cardFound(Card c) {
+				if (pass(antenna, c, System.currentTimeMillis())) {
+					listener.cardFound(c);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param antenna
+	 *            the antenna
+	 * @return the number of reads passed on for the antenna
+	 */
+	public long getPassed(Direction antenna) {
+		return passed.get(antenna.ordinal());
+	}
+
+	/**
+	 * @param antenna
+	 *            the antenna
+	 * @return the number of reads suppressed on the antenna
+	 */
+	public long getSuppressed(Direction antenna) {
+		return suppressed.get(antenna.ordinal());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (Direction direction : Direction.values()) {
+			s.append(String.format("%s: passed %d, suppressed %d, window %d ms%n",
+					direction, getPassed(direction),
+					getSuppressed(direction), getWindow(direction)));
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,235 @@
+package controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits the bytes arriving from the reader server into ReaderFrames. Bytes
+ * are read into one buffer that is reused for the whole connection. A frame
+ * that has only partly arrived stays in the buffer until the rest of it is
+ * read, so it does not matter how the bytes are split up by the socket.
+ *
+ * After next returns true, the getters describe the frame just decoded, until
+ * the next call to next. Nothing is allocated per frame.
+ *
+ * @version Oct 18, 2026
+ */
+public class FrameDecoder {
+	// Room for many frames, so one read can take in everything available
+	private static final int BUFFER_SIZE = 4096;
+
+	// Bytes read but not yet decoded. Always left ready for writing.
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+	// The frame most recently decoded
+	private int type;
+	private long tagId;
+	private int antenna;
+	private long timestamp;
+	private int inputType;
+	private final int[] input = new int[3];
+
+	/**
+	 * Reads whatever bytes are available from a stream, blocking until at
+	 * least one arrives.
+	 *
+	 * @param in
+	 *            the stream to read from
+	 * @return the number of bytes read, or -1 at the end of the stream
+	 * @throws IOException
+	 *             if the read fails
+	 */
+	public int readFrom(InputStream in) throws IOException {
+		int read = in.read(buffer.array(), buffer.arrayOffset()
+				+ buffer.position(), buffer.remaining());
+		if (read > 0) {
+			buffer.position(buffer.position() + read);
+		}
+		return read;
+	}
+
+	/**
+	 * Reads whatever bytes are available from a channel. Does not block if the
+	 * channel is non-blocking.
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @return the number of bytes read, or -1 at the end of the stream
+	 * @throws IOException
+	 *             if the read fails
+	 */
+	public int readFrom(ReadableByteChannel channel) throws IOException {
+		return channel.read(buffer);
+	}
+
+	/**
+	 * Adds bytes to be decoded
+	 *
+	 * @param bytes
+	 *            array holding the bytes
+	 * @param offset
+	 *            index of the first byte to add
+	 * @param length
+	 *            number of bytes to add
+	 */
+	public void put(byte[] bytes, int offset, int length) {
+		buffer.put(bytes, offset, length);
+	}
+
+	/**
+	 * Decodes the next complete frame, if there is one. Frames of unknown
+	 * types are skipped.
+	 *
+	 * @return true if a frame was decoded, false if more bytes are needed
+	 * @throws ProtocolException
+	 *             if the bytes do not form a valid frame
+	 */
+	public boolean next() throws ProtocolException {
+		buffer.flip();
+		try {
+			while (buffer.remaining() >= ReaderFrame.HEADER_LENGTH) {
+				int start = buffer.position();
+				int length = buffer.getShort(start) & 0xFFFF;
+				if (length < 1
+						|| length > BUFFER_SIZE - ReaderFrame.HEADER_LENGTH) {
+					throw new ProtocolException("Bad frame length " + length);
+				}
+				if (buffer.remaining() < ReaderFrame.HEADER_LENGTH + length) {
+					return false;
+				}
+
+				int end = start + ReaderFrame.HEADER_LENGTH + length;
+				buffer.position(start + ReaderFrame.HEADER_LENGTH);
+				int frameType = buffer.get();
+				boolean known = decodeBody(frameType, length);
+
+				// Ignore any bytes added to the end of the body
+				buffer.position(end);
+				if (known) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			buffer.compact();
+		}
+	}
+
+	/**
+	 * Decodes the body of a frame. The buffer is positioned just after the
+	 * type byte.
+	 *
+	 * @return false if the frame type is unknown
+	 * @throws ProtocolException
+	 *             if the frame is too short for its type
+	 */
+	private boolean decodeBody(int frameType, int length)
+			throws ProtocolException {
+		switch (frameType) {
+		case ReaderFrame.TAG:
+			checkLength(frameType, length, ReaderFrame.TAG_LENGTH);
+			long id = 0;
+			for (int i = 0; i < ReaderFrame.TAG_ID_LENGTH; i++) {
+				id = (id << 8) | (buffer.get() & 0xFF);
+			}
+			tagId = id;
+			antenna = buffer.get() & 0xFF;
+			timestamp = buffer.getLong();
+			break;
+
+		case ReaderFrame.NO_CARD:
+			checkLength(frameType, length, ReaderFrame.NO_CARD_LENGTH);
+			tagId = 0;
+			antenna = buffer.get() & 0xFF;
+			timestamp = buffer.getLong();
+			break;
+
+		case ReaderFrame.READY:
+			checkLength(frameType, length, ReaderFrame.READY_LENGTH);
+			tagId = 0;
+			antenna = buffer.get() & 0xFF;
+			timestamp = buffer.getLong();
+			break;
+
+		case ReaderFrame.INPUT:
+			checkLength(frameType, length, ReaderFrame.INPUT_LENGTH);
+			tagId = 0;
+			antenna = 0;
+			inputType = buffer.get() & 0xFF;
+			for (int i = 0; i < input.length; i++) {
+				input[i] = buffer.get();
+			}
+			timestamp = buffer.getLong();
+			break;
+
+		case ReaderFrame.QUIT:
+			tagId = 0;
+			antenna = 0;
+			timestamp = 0;
+			break;
+
+		default:
+			System.out.println("Skipping frame of unknown type " + frameType);
+			return false;
+		}
+		type = frameType;
+		return true;
+	}
+
+	private static void checkLength(int frameType, int length, int expected)
+			throws ProtocolException {
+		if (length < expected) {
+			throw new ProtocolException("Frame of type " + frameType
+					+ " is too short: " + length);
+		}
+	}
+
+	/**
+	 * @return the type of the frame: ReaderFrame.TAG, NO_CARD, QUIT, INPUT or
+	 *         READY
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * @return the tag id of a TAG frame
+	 */
+	public long getTagId() {
+		return tagId;
+	}
+
+	/**
+	 * @return the antenna of a TAG, NOCARD or READY frame
+	 */
+	public int getAntenna() {
+		return antenna;
+	}
+
+	/**
+	 * @return the time the server read a TAG or NOCARD frame, or the time of
+	 *         an INPUT, in milliseconds since 1970
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return the ordinal of the GameJournal.Type of an INPUT frame
+	 */
+	public int getInputType() {
+		return inputType;
+	}
+
+	/**
+	 * @param index
+	 *            0, 1 or 2
+	 * @return one of the things an INPUT frame is about, or -1
+	 */
+	public int getInput(int index) {
+		return input[index];
+	}
+}
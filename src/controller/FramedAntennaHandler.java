@@ -0,0 +1,182 @@
+package controller;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.UnknownHostException;
+
+import model.Card;
+import model.CardDatabase;
+
+/**
+ * A StreamingAntennaHandler that asks the reader server for binary frames
+ * rather than lines of text. Each frame carries its own length, so a message
+ * split across several socket reads is put back together instead of being
+ * misread, and the tag id arrives as raw bytes that are looked up without
+ * building any strings. See ReaderFrame for the layout of the frames.
+ *
+ * @version Oct 18, 2026
+ */
+public class FramedAntennaHandler extends StreamingAntennaHandler {
+	/** Command that switches the server into framed streaming mode */
+	protected static final String FRAMED_STREAM_COMMAND = "B";
+
+	// Frames read from the server, made for each connection
+	private FrameDecoder decoder;
+
+	/**
+	 * Creates a new FramedAntennaHandler with the appropriate Card Database
+	 *
+	 * @param data
+	 *            the database to be used
+	 */
+	public FramedAntennaHandler(CardDatabase data) {
+		super(data);
+	}
+
+	/**
+	 * Creates a new FramedAntennaHandler for a reader server on another host or
+	 * port
+	 *
+	 * @param data
+	 *            the database to be used
+	 * @param host
+	 *            the host the reader server runs on
+	 * @param port
+	 *            the port the reader server listens on
+	 */
+	public FramedAntennaHandler(CardDatabase data, String host, int port) {
+		super(data, host, port);
+	}
+
+	/**
+	 * Connects to the server and asks it to start streaming frames
+	 */
+	@Override
+	public void connect() throws UnknownHostException, IOException {
+		decoder = new FrameDecoder();
+		super.connect();
+	}
+
+	@Override
+	protected String getStreamCommand() {
+		return FRAMED_STREAM_COMMAND;
+	}
+
+	/**
+	 * Reads the server's first frame, which is READY unless the server is too
+	 * old to send it. Any other frame is acted on as usual, and any frames
+	 * that arrived with it are left for run.
+	 */
+	@Override
+	public boolean awaitReady(long millis) throws IOException {
+		requestSocket.setSoTimeout((int) Math.max(1, millis));
+		try {
+			while (!decoder.next()) {
+				if (decoder.readFrom(in) < 0) {
+					throw new EOFException("Reader server in port " + port
+							+ " closed the connection while starting");
+				}
+			}
+		} finally {
+			requestSocket.setSoTimeout(0);
+		}
+		boolean ready = decoder.getType() == ReaderFrame.READY;
+		if (!handleFrame(decoder)) {
+			throw new EOFException("Reader server in port " + port
+					+ " quit while starting");
+		}
+		return ready;
+	}
+
+	/**
+	 * Reads frames from the server as they arrive and passes the cards on to
+	 * the listeners. Stops if the server quits or the connection is lost.
+	 */
+	@Override
+	public void run() {
+		try {
+			try {
+				handlerThread = Thread.currentThread();
+
+				// Frames may have arrived along with the READY frame
+				reading: while (!handlerThread.isInterrupted()) {
+					while (decoder.next()) {
+						if (!handleFrame(decoder)) {
+							break reading;
+						}
+					}
+					if (decoder.readFrom(in) < 0) {
+						break;
+					}
+				}
+			} finally {
+				closeConnection();
+			}
+		} catch (IOException ioException) {
+			System.err.println("Lost connection to the server!");
+			ioException.printStackTrace();
+		}
+	}
+
+	/**
+	 * Acts on the frame just decoded
+	 *
+	 * @param decoder
+	 *            the decoder holding the frame
+	 * @return false if the server has quit
+	 */
+	protected boolean handleFrame(FrameDecoder decoder) {
+		long readAt = System.nanoTime();
+		TraceRecorder traceRecorder = recorder;
+		if (traceRecorder != null) {
+			traceRecorder.frame(decoder);
+		}
+
+		switch (decoder.getType()) {
+		case ReaderFrame.QUIT:
+			return false;
+
+		case ReaderFrame.READY:
+			serverReady();
+			return true;
+
+		case ReaderFrame.TAG:
+			readAttempted();
+			countRead(decoder.getAntenna() - 1, true);
+			processTag(decoder.getTagId(), decoder.getAntenna(), readAt);
+			return true;
+
+		case ReaderFrame.NO_CARD:
+			// Nothing on the antenna, but the server tried
+			readAttempted();
+			countRead(decoder.getAntenna() - 1, false);
+			return true;
+
+		default:
+			readAttempted();
+			return true;
+		}
+	}
+
+	/**
+	 * Looks up the card for a tag and sends it to the listener for the
+	 * antenna it was found on
+	 *
+	 * @param tagId
+	 *            the tag that was read
+	 * @param antenna
+	 *            the antenna it was read on
+	 * @param readAt
+	 *            when the frame was read, from System.nanoTime
+	 */
+	private void processTag(long tagId, int antenna, long readAt) {
+		Card thisCard = cards.getCard(tagId);
+		if (thisCard == null) {
+			System.out.println("Unknown tag "
+					+ ReaderFrame.formatTagId(tagId));
+			return;
+		}
+		System.out.println("Found : " + thisCard.toString());
+		dispatch(antenna - 1, thisCard, readAt);
+	}
+}
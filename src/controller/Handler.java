@@ -7,6 +7,7 @@ import java.net.UnknownHostException;
 import model.Card;
 import model.Direction;
 import model.Game;
+import model.GameJournal;
 
 /**
  * This abstract class can either be an AntennaHandler that actually reads RFID
@@ -29,6 +30,12 @@ public abstract class Handler implements Runnable, KeyListener {
 	/* CardListeners the hands and the idListener */
 	protected CardListener[] hands = new CardListener[Direction.values().length];
 
+	// records the frames read and the inputs to the game, or null
+	protected TraceRecorder recorder;
+
+	// absorbs repeated reads of a card before they reach the listeners
+	protected final DebounceStage debounce = new DebounceStage();
+
 	/**
 	 * Connects to the server
 	 * 
@@ -48,12 +55,21 @@ public abstract class Handler implements Runnable, KeyListener {
 	
 
 	/**
-	 * Adds a listener to the Hand array
+	 * Adds a listener to the Hand array, behind the debounce stage, so that a
+	 * card read repeatedly is only passed to it once a window
 	 * @param listener the listener to be added
 	 * @param direction the antenna to listen to
 	 */
 	public void addHandListener(CardListener listener,Direction direction){
-		hands[direction.ordinal()] = listener;
+		hands[direction.ordinal()] = debounce.wrap(direction, listener);
+	}
+
+	/**
+	 * @return the stage suppressing repeated reads, which keeps the windows
+	 *         and suppression counts of each antenna
+	 */
+	public DebounceStage getDebounceStage() {
+		return debounce;
 	}
 
 	/**
@@ -117,6 +133,14 @@ public abstract class Handler implements Runnable, KeyListener {
 	 */
 	public void setBlindDirection(Direction blindDirection) {
 
+		// the game plays the last card read on the blind player's antenna,
+		// so a card read again after another one must reach it
+		if (this.blindDirection != null) {
+			debounce.setLastCardOnly(this.blindDirection, false);
+		}
+		if (blindDirection != null) {
+			debounce.setLastCardOnly(blindDirection, true);
+		}
 		this.blindDirection = blindDirection;
 
 	}
@@ -131,6 +155,38 @@ public abstract class Handler implements Runnable, KeyListener {
 	}
 	
 	public abstract void setCyclingThread(Thread cyclingThread) ;
+
+	/**
+	 * Starts recording a trace of what the game is told, so that it can be
+	 * replayed with a ReplayHandler
+	 * 
+	 * @param traceRecorder
+	 *            the trace to record to, or null to stop recording
+	 */
+	public void setTraceRecorder(TraceRecorder traceRecorder) {
+		recorder = traceRecorder;
+	}
+
+	/**
+	 * Called by the game for each input that did not come from an antenna, so
+	 * that it is recorded with the frames read
+	 * 
+	 * @param type
+	 *            what the game was asked to do
+	 * @param first
+	 *            the first thing it was about, or -1
+	 * @param second
+	 *            the second thing it was about, or -1
+	 * @param third
+	 *            the third thing it was about, or -1
+	 */
+	public void recordInput(GameJournal.Type type, int first, int second,
+			int third) {
+		TraceRecorder traceRecorder = recorder;
+		if (traceRecorder != null) {
+			traceRecorder.input(type, first, second, third);
+		}
+	}
 	
 
 }
@@ -0,0 +1,422 @@
+package controller;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+
+import model.Card;
+import model.CardDatabase;
+import model.Direction;
+
+/**
+ * A FramedAntennaHandler whose connection is run by a ReaderHub, so that one
+ * thread can serve the reader servers of many tables. Each table has its own
+ * handler, pointed at its own reader server, and all of the handlers share one
+ * hub.
+ *
+ * The frames are read and decoded on the hub's thread, so there is no need to
+ * start a thread to run this handler, although doing so is harmless. Commands
+ * such as antenna switches are queued and written by the hub. Cards are
+ * handed to the dispatcher without waiting, so a table whose listener has
+ * fallen behind cannot hold up the others; its reads are dropped instead.
+ *
+ * @version Oct 18, 2026
+ */
+public class NioAntennaHandler extends FramedAntennaHandler {
+	// Longest time to wait for the server to accept the connection
+	private static final long CONNECT_TIMEOUT = 5000;
+
+	// Longest time disconnect waits for the server to quit
+	private static final long QUIT_TIMEOUT = 1000;
+
+	// Time between checks for the server being ready
+	private static final long READY_CHECK_MILLIS = 5;
+
+	// Reads dropped on an antenna between reports of them
+	private static final long REJECTED_REPORT_EVERY = 100;
+
+	// Room for commands waiting to be written
+	private static final int COMMAND_BUFFER_SIZE = 256;
+
+	// Hub running the connection
+	private final ReaderHub hub;
+
+	// Connection to the server
+	private SocketChannel channel;
+
+	// Frames read from the server, used only on the hub's thread
+	private FrameDecoder decoder;
+
+	// Commands waiting to be written. Guarded by itself.
+	private final ByteBuffer commands = ByteBuffer
+			.allocate(COMMAND_BUFFER_SIZE);
+
+	// State of the connection. Guarded by this.
+	private boolean isConnected;
+	private boolean isClosed;
+	private IOException failure;
+	private boolean ready;
+
+	// When the connection was opened, from System.nanoTime. The server has
+	// been heard from once the handler's last heard time is later.
+	private long openedAt;
+
+	/**
+	 * Creates a handler for the reader server on the default host and port
+	 *
+	 * @param data
+	 *            the database to be used
+	 * @param hub
+	 *            the hub that runs the connection
+	 */
+	public NioAntennaHandler(CardDatabase data, ReaderHub hub) {
+		this(data, hub, DEFAULT_HOST, DEFAULT_PORT);
+	}
+
+	/**
+	 * Creates a handler for a reader server on another host or port
+	 *
+	 * @param data
+	 *            the database to be used
+	 * @param hub
+	 *            the hub that runs the connection
+	 * @param host
+	 *            the host the reader server runs on
+	 * @param port
+	 *            the port the reader server listens on
+	 */
+	public NioAntennaHandler(CardDatabase data, ReaderHub hub, String host,
+			int port) {
+		super(data, host, port);
+		this.hub = hub;
+	}
+
+	/**
+	 * Connects to the server through the hub and asks it to stream frames.
+	 * Starts the hub if it is not running yet.
+	 */
+	@Override
+	public void connect() throws UnknownHostException, IOException {
+		System.out.println("Connecting to " + host + " in port " + port);
+		InetSocketAddress address = new InetSocketAddress(host, port);
+		if (address.isUnresolved()) {
+			throw new UnknownHostException(host);
+		}
+
+		synchronized (this) {
+			isConnected = false;
+			isClosed = false;
+			failure = null;
+			ready = false;
+		}
+		synchronized (commands) {
+			commands.clear();
+		}
+		decoder = new FrameDecoder();
+		cardRequestSent = false;
+		out = new CommandStream();
+		linkOpened();
+		openedAt = getLastHeard();
+
+		channel = SocketChannel.open();
+		channel.configureBlocking(false);
+		channel.connect(address);
+		hub.register(this);
+		hub.start();
+
+		waitForConnection();
+		System.out.println("Connected to " + host + " in port " + port);
+
+		synchronized (out) {
+			out.write(getStreamCommand().getBytes());
+			out.flush();
+		}
+	}
+
+	/**
+	 * Waits for the hub to finish connecting
+	 *
+	 * @throws IOException
+	 *             if the connection fails or takes too long
+	 */
+	private synchronized void waitForConnection() throws IOException {
+		long end = System.currentTimeMillis() + CONNECT_TIMEOUT;
+		try {
+			while (!isConnected && failure == null) {
+				long remaining = end - System.currentTimeMillis();
+				if (remaining <= 0) {
+					channel.close();
+					throw new SocketTimeoutException("Timed out connecting to "
+							+ host + " in port " + port);
+				}
+				wait(remaining);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			channel.close();
+			throw new InterruptedIOException("Interrupted connecting to "
+					+ host);
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Waits for the hub to read the server's first frame, which is READY
+	 * unless the server is too old to send it
+	 */
+	@Override
+	public synchronized boolean awaitReady(long millis) throws IOException {
+		long end = System.currentTimeMillis() + millis;
+		try {
+			while (!ready) {
+				if (getLastHeard() != openedAt) {
+					return false;
+				}
+				if (isClosed) {
+					throw new EOFException("Reader server in port " + port
+							+ " closed the connection while starting");
+				}
+				long remaining = end - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new SocketTimeoutException("Reader server in port "
+							+ port + " did not say it was ready");
+				}
+				wait(Math.min(remaining, READY_CHECK_MILLIS));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"Interrupted waiting for the server in port " + port);
+		}
+		return true;
+	}
+
+	@Override
+	protected void serverReady() {
+		// before the last heard time changes, so awaitReady sees the READY
+		synchronized (this) {
+			ready = true;
+			notifyAll();
+		}
+		super.serverReady();
+	}
+
+	/**
+	 * The hub reads the frames, so there is nothing for this thread to do.
+	 */
+	@Override
+	public void run() {
+		handlerThread = Thread.currentThread();
+	}
+
+	/**
+	 * Tells the server to quit and closes the connection
+	 */
+	@Override
+	public void disconnect() throws IOException {
+		if (channel == null || !channel.isOpen()) {
+			return;
+		}
+
+		System.out.println("Quititng server");
+		quitServer();
+		synchronized (this) {
+			long end = System.currentTimeMillis() + QUIT_TIMEOUT;
+			try {
+				while (!isClosed && System.currentTimeMillis() < end) {
+					wait(Math.max(1, end - System.currentTimeMillis()));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		closeConnection();
+	}
+
+	@Override
+	protected void closeConnection() throws IOException {
+		synchronized (this) {
+			if (isClosed) {
+				return;
+			}
+			isClosed = true;
+			notifyAll();
+		}
+
+		channel.close();
+		System.out.println("Closed connection to " + host + " in port "
+				+ port);
+	}
+
+	/**
+	 * @return the connection to the server
+	 */
+	SocketChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Called by the hub once the connection is made
+	 */
+	synchronized void connected() {
+		isConnected = true;
+		notifyAll();
+	}
+
+	/**
+	 * Called by the hub if connecting, reading or writing fails
+	 *
+	 * @param e
+	 *            what went wrong
+	 */
+	void connectionLost(IOException e) {
+		synchronized (this) {
+			if (isClosed) {
+				return;
+			}
+			if (!isConnected) {
+				failure = e;
+				notifyAll();
+			}
+		}
+
+		if (isConnected()) {
+			System.err.println("Lost connection to the server in port "
+					+ port + "!");
+			e.printStackTrace();
+		}
+		try {
+			closeConnection();
+		} catch (IOException closeFailure) {
+			closeFailure.printStackTrace();
+		}
+	}
+
+	/**
+	 * Called by the hub when it shuts down
+	 */
+	void hubStopped() {
+		synchronized (this) {
+			if (!isConnected) {
+				failure = new ClosedChannelException();
+			}
+		}
+
+		try {
+			closeConnection();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private synchronized boolean isConnected() {
+		return isConnected;
+	}
+
+	/**
+	 * The hub reads the frames, so the link is up while the connection is
+	 * open
+	 */
+	@Override
+	synchronized boolean isLinkUp() {
+		return isConnected && !isClosed;
+	}
+
+	/**
+	 * Called by the hub to write queued commands
+	 *
+	 * @return true if everything queued has been written
+	 * @throws IOException
+	 *             if the write fails
+	 */
+	boolean writeCommands() throws IOException {
+		synchronized (commands) {
+			commands.flip();
+			try {
+				channel.write(commands);
+				return !commands.hasRemaining();
+			} finally {
+				commands.compact();
+			}
+		}
+	}
+
+	/**
+	 * Queues a card without waiting, since this runs on the hub's thread.
+	 * If the antenna's queue is full the read is dropped and counted; the
+	 * card is read again while it stays on the antenna.
+	 */
+	@Override
+	protected void enqueue(Direction direction, Card thisCard, long readAt) {
+		CardDispatcher dispatcher = getDispatcher();
+		if (!dispatcher.offer(direction, thisCard, readAt)) {
+			// Only now and then, so as not to slow the hub further
+			long rejected = dispatcher.getRejected(direction);
+			if (rejected % REJECTED_REPORT_EVERY == 1) {
+				System.out.println("Dropped " + thisCard + " read on "
+						+ direction + ": too many cards waiting for the "
+						+ "listener (" + rejected + " dropped)");
+			}
+		}
+	}
+
+	/**
+	 * Called by the hub to read and act on whatever frames have arrived
+	 *
+	 * @return false if the server has quit or closed the connection
+	 * @throws IOException
+	 *             if the read fails or the frames are corrupt
+	 */
+	boolean readFrames() throws IOException {
+		if (decoder.readFrom(channel) < 0) {
+			return false;
+		}
+		while (decoder.next()) {
+			if (!handleFrame(decoder)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stands in for the socket's output stream so that AntennaHandler's code
+	 * for sending commands works unchanged. Bytes written are queued and the
+	 * hub is asked to send them on flush.
+	 */
+	private class CommandStream extends OutputStream {
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (!channel.isOpen()) {
+				throw new ClosedChannelException();
+			}
+			synchronized (commands) {
+				if (commands.remaining() < len) {
+					throw new IOException("Too many commands waiting for "
+							+ host + " in port " + port);
+				}
+				commands.put(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() {
+			hub.requestWrite(NioAntennaHandler.this);
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package controller;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Describes the binary frames the reader server sends in framed mode. Every
+ * frame starts with its length as an unsigned 16 bit big-endian number, which
+ * counts the bytes that follow the length. Then comes a type byte and the body
+ * for that type:
+ *
+ * <pre>
+ * TAG     [length][1][7 byte tag id][antenna][8 byte timestamp]
+ * NOCARD  [length][2][antenna][8 byte timestamp]
+ * QUIT    [length][3]
+ * INPUT   [length][4][input type][3 input bytes][8 byte timestamp]
+ * READY   [length][5][antenna][8 byte timestamp]
+ * </pre>
+ *
+ * The antenna byte is the reader port minus 80, so 1 to 4 for the north, east,
+ * south and west antennas and 12 for the id antenna, the same values as the
+ * last character of the ASCII messages. The timestamp is the time of the read
+ * in milliseconds since 1970, as measured by the reader server.
+ *
+ * The server sends one READY frame as soon as it starts streaming, before any
+ * reads, with the antenna it is on and its clock. In the ASCII streaming mode
+ * it sends the line READY instead. Servers too old to send it send a read
+ * first.
+ *
+ * The server never sends INPUT frames. They are written into traces along
+ * with the frames from the server, to record what was entered on the GUI or
+ * keypad. The input type is the ordinal of a GameJournal.Type and the input
+ * bytes are what the input is about, as in a GameJournal entry.
+ *
+ * @version Oct 18, 2026
+ */
+public final class ReaderFrame {
+	/** Frame type of a tag read */
+	public static final int TAG = 1;
+
+	/** Frame type of a read that found no tag */
+	public static final int NO_CARD = 2;
+
+	/** Frame type sent when the server quits */
+	public static final int QUIT = 3;
+
+	/** Frame type of an input to the game, found only in traces */
+	public static final int INPUT = 4;
+
+	/** Frame type sent when the server is ready to stream */
+	public static final int READY = 5;
+
+	/** Number of bytes in a tag id */
+	public static final int TAG_ID_LENGTH = 7;
+
+	/** Antenna number of the id antenna */
+	public static final int ID_ANTENNA = 12;
+
+	/** Number of bytes in the length field */
+	public static final int HEADER_LENGTH = 2;
+
+	/** Length of a TAG frame, not counting the length field */
+	public static final int TAG_LENGTH = 1 + TAG_ID_LENGTH + 1 + 8;
+
+	/** Length of a NOCARD frame, not counting the length field */
+	public static final int NO_CARD_LENGTH = 1 + 1 + 8;
+
+	/** Length of a QUIT frame, not counting the length field */
+	public static final int QUIT_LENGTH = 1;
+
+	/** Length of an INPUT frame, not counting the length field */
+	public static final int INPUT_LENGTH = 1 + 1 + 3 + 8;
+
+	/** Length of a READY frame, not counting the length field */
+	public static final int READY_LENGTH = 1 + 1 + 8;
+
+	private ReaderFrame() {
+	}
+
+	/**
+	 * Adds a TAG frame to a buffer
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 * @param tagId
+	 *            the tag id, in the low 56 bits
+	 * @param antenna
+	 *            the antenna the tag was read on
+	 * @param timestamp
+	 *            when the tag was read
+	 */
+	public static void putTag(ByteBuffer buffer, long tagId, int antenna,
+			long timestamp) {
+		buffer.putShort((short) TAG_LENGTH);
+		buffer.put((byte) TAG);
+		for (int shift = (TAG_ID_LENGTH - 1) * 8; shift >= 0; shift -= 8) {
+			buffer.put((byte) (tagId >>> shift));
+		}
+		buffer.put((byte) antenna);
+		buffer.putLong(timestamp);
+	}
+
+	/**
+	 * Adds a NOCARD frame to a buffer
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 * @param antenna
+	 *            the antenna that was read
+	 * @param timestamp
+	 *            when the antenna was read
+	 */
+	public static void putNoCard(ByteBuffer buffer, int antenna, long timestamp) {
+		buffer.putShort((short) NO_CARD_LENGTH);
+		buffer.put((byte) NO_CARD);
+		buffer.put((byte) antenna);
+		buffer.putLong(timestamp);
+	}
+
+	/**
+	 * Adds a QUIT frame to a buffer
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 */
+	public static void putQuit(ByteBuffer buffer) {
+		buffer.putShort((short) QUIT_LENGTH);
+		buffer.put((byte) QUIT);
+	}
+
+	/**
+	 * Adds a READY frame to a buffer
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 * @param antenna
+	 *            the antenna the server is on
+	 * @param timestamp
+	 *            the time on the server
+	 */
+	public static void putReady(ByteBuffer buffer, int antenna, long timestamp) {
+		buffer.putShort((short) READY_LENGTH);
+		buffer.put((byte) READY);
+		buffer.put((byte) antenna);
+		buffer.putLong(timestamp);
+	}
+
+	/**
+	 * Adds an INPUT frame to a buffer
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 * @param inputType
+	 *            the ordinal of the GameJournal.Type of the input
+	 * @param first
+	 *            the first thing the input is about, or -1
+	 * @param second
+	 *            the second thing the input is about, or -1
+	 * @param third
+	 *            the third thing the input is about, or -1
+	 * @param timestamp
+	 *            when the input was made
+	 */
+	public static void putInput(ByteBuffer buffer, int inputType, int first,
+			int second, int third, long timestamp) {
+		buffer.putShort((short) INPUT_LENGTH);
+		buffer.put((byte) INPUT);
+		buffer.put((byte) inputType);
+		buffer.put((byte) first);
+		buffer.put((byte) second);
+		buffer.put((byte) third);
+		buffer.putLong(timestamp);
+	}
+
+	/**
+	 * Converts a tag id written in hex, as in cardID.txt, to a number
+	 *
+	 * @param hex
+	 *            the tag id, 14 hex digits
+	 * @return the tag id as a number
+	 */
+	public static long parseTagId(String hex) {
+		return Long.parseLong(hex, 16);
+	}
+
+	/**
+	 * Converts a tag id to hex, as written in cardID.txt
+	 *
+	 * @param tagId
+	 *            the tag id
+	 * @return the tag id as 14 upper case hex digits
+	 */
+	public static String formatTagId(long tagId) {
+		return String.format("%0" + TAG_ID_LENGTH * 2 + "X", tagId);
+	}
+}
@@ -0,0 +1,184 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs the connections to any number of reader servers on one thread. Each
+ * table has its own NioAntennaHandler and its own reader server, and the hub
+ * waits on all of their sockets with one Selector. Frames arriving on a socket
+ * are handed to the handler that owns it, which sends the cards to its own
+ * Game.
+ *
+ * Commands to the reader servers are queued by the handlers and written by the
+ * hub's thread, so no other thread touches the selector.
+ *
+ * Cards are passed to each handler's CardDispatcher on the hub's thread. That
+ * only waits if a game has stopped taking cards altogether, in which case the
+ * other tables wait too.
+ *
+ * @version Oct 18, 2026
+ */
+public class ReaderHub implements Runnable {
+	// Handlers waiting to have their channels registered
+	private final Queue<NioAntennaHandler> connecting = new ConcurrentLinkedQueue<NioAntennaHandler>();
+
+	// Handlers that have commands waiting to be written
+	private final Queue<NioAntennaHandler> writing = new ConcurrentLinkedQueue<NioAntennaHandler>();
+
+	private final Selector selector;
+
+	// thread running the selector
+	private Thread hubThread;
+
+	/**
+	 * Creates a hub. Call start to start its thread.
+	 *
+	 * @throws IOException
+	 *             if the selector cannot be opened
+	 */
+	public ReaderHub() throws IOException {
+		selector = Selector.open();
+	}
+
+	/**
+	 * Starts the hub's thread, if it is not already running
+	 */
+	public synchronized void start() {
+		if (hubThread == null) {
+			hubThread = new Thread(this, "Reader hub");
+			hubThread.setDaemon(true);
+			hubThread.start();
+		}
+	}
+
+	/**
+	 * Stops the hub's thread and closes every connection. The hub cannot be
+	 * started again.
+	 */
+	public synchronized void shutdown() {
+		if (hubThread != null) {
+			hubThread.interrupt();
+			selector.wakeup();
+			hubThread = null;
+		}
+	}
+
+	/**
+	 * @return the number of connections the hub is watching
+	 */
+	public int getConnectionCount() {
+		return selector.keys().size();
+	}
+
+	/**
+	 * Asks the hub to watch a handler's channel, which must be non-blocking
+	 * and already connecting.
+	 *
+	 * @param handler
+	 *            the handler owning the channel
+	 */
+	void register(NioAntennaHandler handler) {
+		connecting.add(handler);
+		selector.wakeup();
+	}
+
+	/**
+	 * Asks the hub to write a handler's queued commands
+	 *
+	 * @param handler
+	 *            the handler with commands to write
+	 */
+	void requestWrite(NioAntennaHandler handler) {
+		writing.add(handler);
+		selector.wakeup();
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				selector.select();
+				registerConnecting();
+				startWriting();
+
+				Iterator<SelectionKey> keys = selector.selectedKeys()
+						.iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handle(key);
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("Reader hub failed!");
+			e.printStackTrace();
+		} finally {
+			closeAll();
+		}
+	}
+
+	private void registerConnecting() {
+		NioAntennaHandler handler;
+		while ((handler = connecting.poll()) != null) {
+			SocketChannel channel = handler.getChannel();
+			try {
+				channel.register(selector, SelectionKey.OP_CONNECT, handler);
+			} catch (ClosedChannelException e) {
+				handler.connectionLost(e);
+			}
+		}
+	}
+
+	private void startWriting() {
+		NioAntennaHandler handler;
+		while ((handler = writing.poll()) != null) {
+			SelectionKey key = handler.getChannel().keyFor(selector);
+			if (key != null && key.isValid()
+					&& (key.interestOps() & SelectionKey.OP_CONNECT) == 0) {
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			}
+		}
+	}
+
+	private void handle(SelectionKey key) {
+		NioAntennaHandler handler = (NioAntennaHandler) key.attachment();
+		try {
+			if (key.isConnectable()) {
+				if (!handler.getChannel().finishConnect()) {
+					return;
+				}
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				handler.connected();
+			}
+			if (key.isValid() && key.isWritable()
+					&& handler.writeCommands()) {
+				key.interestOps(SelectionKey.OP_READ);
+			}
+			if (key.isValid() && key.isReadable() && !handler.readFrames()) {
+				key.cancel();
+				handler.closeConnection();
+			}
+		} catch (IOException e) {
+			key.cancel();
+			handler.connectionLost(e);
+		}
+	}
+
+	private void closeAll() {
+		for (SelectionKey key : selector.keys()) {
+			((NioAntennaHandler) key.attachment()).hubStopped();
+		}
+		try {
+			selector.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,294 @@
+package controller;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+/**
+ * Watches the connection of an AntennaHandler to the reader server and makes
+ * it again when it fails, so that nobody has to press Resume. The game, the
+ * listeners and the debounce windows are left as they were, so the hand goes
+ * on as if nothing had happened.
+ *
+ * A connection has failed when the thread reading it has stopped, or when
+ * nothing has been heard from the server for the dead time. The reader
+ * server only talks when it reads something, so if it has been quiet for the
+ * heartbeat time the antenna is selected again, which the server always
+ * answers with its next read. A server that does not answer that is taken to
+ * be dead.
+ *
+ * The first attempt to connect again is made straight away. After that the
+ * attempts back off exponentially, up to MAX_BACKOFF_MILLIS, with a random
+ * part so that the handlers of several tables do not all try at once. Once
+ * connected, the antenna the server was on is selected again and the
+ * antennas are cycled as before.
+ *
+ * The reader server serves one client at a time, so a server still serving a
+ * connection it has not noticed is gone lets new connections be made but
+ * never answers them. An attempt therefore only succeeds once the server
+ * answers within the dead time, and a connection that was made but never
+ * heard from before it was found dead counts as a failed attempt too. After
+ * every RESTART_AFTER failed attempts in a row, the server is started again
+ * with the server starter, if there is one.
+ *
+ * The supervisor only starts watching once the handler is running, and stops
+ * while the server is being told to quit.
+ *
+ * @version Oct 18, 2026
+ */
+public class ReaderSupervisor implements Runnable {
+	/** Quiet time after which the antenna is selected again */
+	public static final long DEFAULT_HEARTBEAT_MILLIS = 150;
+
+	/** Quiet time after which the connection is taken to be dead */
+	public static final long DEFAULT_DEAD_MILLIS = 500;
+
+	/** Wait before the second attempt to connect */
+	public static final long INITIAL_BACKOFF_MILLIS = 50;
+
+	/** Longest wait between attempts to connect */
+	public static final long MAX_BACKOFF_MILLIS = 2000;
+
+	/** Failed attempts to connect after which the server is started again */
+	public static final int RESTART_AFTER = 3;
+
+	// time between checks of the connection
+	private static final long CHECK_MILLIS = 25;
+
+	private final AntennaHandler handler;
+
+	// the quiet times, in nanoseconds
+	private volatile long heartbeatNanos = TimeUnit.MILLISECONDS
+			.toNanos(DEFAULT_HEARTBEAT_MILLIS);
+	private volatile long deadNanos = TimeUnit.MILLISECONDS
+			.toNanos(DEFAULT_DEAD_MILLIS);
+
+	// starts the reader server, or null
+	private volatile Runnable serverStarter;
+
+	// spreads the attempts to connect
+	private final Random random = new Random();
+
+	// the thread watching the connection
+	private Thread thread;
+
+	// set to have the connection made again at the next check
+	private volatile boolean reconnectRequested = false;
+
+	// attempts to connect that have failed since the server was last heard
+	// from. Only used by the supervisor thread.
+	private int failures = 0;
+
+	// when the server had last been heard from as the last recovery finished
+	private long heardAtRecovery = -1;
+
+	// the times this supervisor has made the connection again
+	private final AtomicLong recovered = new AtomicLong();
+
+	// the same for every supervisor, in the default registry
+	private final Counter recoveries = Metrics.getDefault().counter(
+			"reader.recoveries");
+	private final LatencyHistogram recoveryTime = Metrics.getDefault()
+			.histogram("reader.recovery");
+
+	/**
+	 * Creates a supervisor for a handler
+	 *
+	 * @param handler
+	 *            the handler whose connection is watched
+	 */
+	public ReaderSupervisor(AntennaHandler handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * Sets how quiet the server may be before it is checked and before it is
+	 * taken to be dead
+	 *
+	 * @param heartbeatMillis
+	 *            quiet time after which the antenna is selected again
+	 * @param deadMillis
+	 *            quiet time after which the connection is made again
+	 */
+	public void setTimes(long heartbeatMillis, long deadMillis) {
+		heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+		deadNanos = TimeUnit.MILLISECONDS.toNanos(deadMillis);
+	}
+
+	/**
+	 * Sets what to do when the server cannot be reached, such as
+	 * BridgeActualGame.startServer
+	 *
+	 * @param starter
+	 *            starts the server, or null to keep trying to connect
+	 */
+	public void setServerStarter(Runnable starter) {
+		serverStarter = starter;
+	}
+
+	/**
+	 * Starts watching the connection on a thread of its own
+	 */
+	public synchronized void start() {
+		if (thread == null) {
+			thread = new Thread(this, "Reader supervisor");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stops watching the connection
+	 */
+	public synchronized void stop() {
+		if (thread != null) {
+			thread.interrupt();
+			thread = null;
+		}
+	}
+
+	/**
+	 * Has the connection made again at once, whether or not it seems to have
+	 * failed
+	 */
+	public void reconnectNow() {
+		reconnectRequested = true;
+	}
+
+	/**
+	 * @return the number of times the connection has been made again
+	 */
+	public long getRecoveries() {
+		return recovered.get();
+	}
+
+	@Override
+	public void run() {
+		// set once the handler has been seen running
+		boolean watching = false;
+		long lastBeat = System.nanoTime();
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				Thread.sleep(CHECK_MILLIS);
+				if (reconnectRequested) {
+					reconnectRequested = false;
+					recover("Reconnect requested");
+					watching = true;
+					continue;
+				}
+				if (handler.isQuitting()) {
+					watching = false;
+					continue;
+				}
+
+				boolean up = handler.isLinkUp();
+				if (!watching) {
+					watching = up;
+					continue;
+				}
+
+				long now = System.nanoTime();
+				long quiet = now - handler.getLastHeard();
+				if (!up) {
+					recover("Lost connection to the reader server");
+				} else if (quiet > deadNanos) {
+					recover("Reader server has not answered for "
+							+ TimeUnit.NANOSECONDS.toMillis(quiet) + " ms");
+				} else if (quiet > heartbeatNanos
+						&& now - lastBeat > heartbeatNanos) {
+					lastBeat = now;
+					try {
+						handler.heartbeat();
+					} catch (IOException e) {
+						recover("Could not reach the reader server: " + e);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			// Stopped
+		}
+	}
+
+	/**
+	 * Closes the failed connection, connects again and picks up where the
+	 * handler left off
+	 *
+	 * @param reason
+	 *            why, for the console
+	 * @throws InterruptedException
+	 *             if stopped while waiting to try again
+	 */
+	private void recover(String reason) throws InterruptedException {
+		long start = System.nanoTime();
+		System.out.println(reason + "; reconnecting");
+		boolean cycling = handler.dropConnection();
+
+		if (handler.getLastHeard() != heardAtRecovery) {
+			failures = 0;
+		} else {
+			System.out.println("The reader server never answered the last "
+					+ "connection");
+			failed();
+		}
+
+		while (true) {
+			if (failures > 0) {
+				Thread.sleep(backoff(failures));
+			}
+			if (handler.isQuitting()) {
+				return;
+			}
+			try {
+				handler.connect();
+				handler.awaitReady(TimeUnit.NANOSECONDS.toMillis(deadNanos));
+				handler.startReading();
+				handler.resume(cycling);
+				break;
+			} catch (IOException e) {
+				System.out.println("Could not reconnect: " + e);
+				handler.dropConnection();
+				failed();
+			}
+		}
+		heardAtRecovery = handler.getLastHeard();
+
+		recovered.incrementAndGet();
+		recoveries.increment();
+		recoveryTime.recordSince(start);
+		System.out.println("Reconnected to the reader server in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+				+ " ms");
+	}
+
+	/**
+	 * Counts a failed attempt to connect, and starts the server again after
+	 * each RESTART_AFTER of them
+	 */
+	private void failed() {
+		failures++;
+		Runnable starter = serverStarter;
+		if (failures % RESTART_AFTER == 0 && starter != null) {
+			System.out.println("Starting the reader server again");
+			starter.run();
+		}
+	}
+
+	/**
+	 * @param failures
+	 *            the number of attempts that have failed, at least 1
+	 * @return how long to wait before the next attempt, in milliseconds:
+	 *         between half and all of a time that doubles with each failure
+	 */
+	long backoff(int failures) {
+		long limit = MAX_BACKOFF_MILLIS;
+		if (failures <= 31) {
+			limit = Math.min(limit, INITIAL_BACKOFF_MILLIS << (failures - 1));
+		}
+		return limit / 2 + (long) (random.nextDouble() * (limit / 2 + 1));
+	}
+}
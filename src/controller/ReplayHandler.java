@@ -0,0 +1,271 @@
+package controller;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.InputStream;
+
+import model.Card;
+import model.CardDatabase;
+import model.Direction;
+import model.GameJournal;
+
+/**
+ * A Handler that replays a trace recorded by a TraceRecorder into a game,
+ * in place of the reader server. Tags are passed to Game.cardFound for the
+ * antenna they were read on, and inputs to Game.perform, in the order they
+ * were recorded.
+ *
+ * The trace is replayed either with the timing it was recorded with or as fast
+ * as possible. Either way the same things happen to the game: repeated reads
+ * are suppressed by the debounce stage as they would be by a live handler, but
+ * the time is taken from the trace rather than the clock, and
+ * the game does not wait after the dummy's hand is scanned when replaying as
+ * fast as possible. That makes replaying recorded hands a quick regression test
+ * of the game, and a way to profile it with realistic input.
+ *
+ * @version Oct 18, 2026
+ */
+public class ReplayHandler extends Handler {
+	/**
+	 * How fast to replay a trace
+	 */
+	public enum Timing {
+		/** Waits between frames as long as the trace did */
+		ORIGINAL,
+		/** Does not wait between frames */
+		MAX_SPEED
+	}
+
+	private final CardDatabase cards;
+	private final InputStream trace;
+	private final Timing timing;
+
+	// the antenna the game last switched to
+	private volatile Direction currentHand;
+
+	// what has been replayed
+	private long frames = 0;
+	private long cardsFound = 0;
+	private long inputs = 0;
+
+	/** Thread replaying the trace */
+	private volatile Thread replayThread;
+
+	/**
+	 * Creates a handler to replay a trace
+	 *
+	 * @param data
+	 *            the database to look up the tags in
+	 * @param trace
+	 *            the trace, as written by a TraceRecorder
+	 * @param timing
+	 *            how fast to replay it
+	 */
+	public ReplayHandler(CardDatabase data, InputStream trace, Timing timing) {
+		this.cards = data;
+		this.trace = trace;
+		this.timing = timing;
+	}
+
+	/**
+	 * There is no server to connect to
+	 */
+	@Override
+	public void connect() {
+		System.out.println("Replaying a trace");
+	}
+
+	@Override
+	public void disconnect() throws IOException {
+		Thread thread = replayThread;
+		if (thread != null) {
+			thread.interrupt();
+		}
+		trace.close();
+	}
+
+	/**
+	 * Replays the trace, stopping at its end
+	 */
+	@Override
+	public void run() {
+		try {
+			replay();
+		} catch (IOException e) {
+			System.err.println("Could not read the trace!");
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			System.out.println("Replay was interrupted");
+		}
+	}
+
+	/**
+	 * Replays the trace on this thread, returning at its end
+	 *
+	 * @return the number of frames replayed
+	 * @throws IOException
+	 *             if the trace cannot be read or is not a trace
+	 * @throws InterruptedException
+	 *             if interrupted while waiting between frames
+	 */
+	public long replay() throws IOException, InterruptedException {
+		replayThread = Thread.currentThread();
+		if (timing == Timing.MAX_SPEED) {
+			game.setDelayAfterScanningDummy(0);
+		}
+
+		FrameDecoder decoder = new FrameDecoder();
+		long firstFrameAt = 0;
+		long startedAt = System.nanoTime();
+		try {
+			reading: while (decoder.readFrom(trace) >= 0) {
+				while (decoder.next()) {
+					if (decoder.getType() == ReaderFrame.QUIT) {
+						break reading;
+					}
+
+					long timestamp = decoder.getTimestamp();
+					if (frames == 0) {
+						firstFrameAt = timestamp;
+					}
+					if (timing == Timing.ORIGINAL) {
+						waitUntil(startedAt, timestamp - firstFrameAt);
+					}
+					frames++;
+					handleFrame(decoder);
+				}
+			}
+		} finally {
+			replayThread = null;
+		}
+		return frames;
+	}
+
+	/**
+	 * Waits until a time since the replay started
+	 */
+	private static void waitUntil(long startedAt, long millis)
+			throws InterruptedException {
+		long wait = millis - (System.nanoTime() - startedAt) / 1000000;
+		if (wait > 0) {
+			Thread.sleep(wait);
+		}
+	}
+
+	/**
+	 * Passes the frame just decoded on to the game
+	 */
+	private void handleFrame(FrameDecoder decoder) {
+		switch (decoder.getType()) {
+		case ReaderFrame.TAG:
+			tagRead(decoder.getTagId(), decoder.getAntenna(),
+					decoder.getTimestamp());
+			break;
+
+		case ReaderFrame.INPUT:
+			inputs++;
+			game.perform(new GameJournal.Entry(GameJournal.Type.values()[decoder
+					.getInputType()], decoder.getInput(0), decoder.getInput(1),
+					decoder.getInput(2), decoder.getTimestamp()));
+			break;
+
+		default:
+			// nothing on the antenna
+			break;
+		}
+	}
+
+	/**
+	 * Tells the game about a card, unless the debounce stage suppresses it
+	 */
+	private void tagRead(long tagId, int antenna, long timestamp) {
+		Card card = cards.getCard(tagId);
+		if (card == null) {
+			System.out.println("Unknown tag " + ReaderFrame.formatTagId(tagId));
+			return;
+		}
+		int position = antenna - 1;
+		if (position < 0 || position >= hands.length) {
+			// the id antenna is not listened to
+			return;
+		}
+
+		Direction direction = Direction.values()[position];
+		if (debounce.pass(direction, card, timestamp)) {
+			cardsFound++;
+			game.cardFound(direction, card);
+		}
+	}
+
+	/**
+	 * @return the number of frames replayed
+	 */
+	public long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * @return the number of cards passed to the game
+	 */
+	public long getCardsFound() {
+		return cardsFound;
+	}
+
+	/**
+	 * @return the number of inputs passed to the game
+	 */
+	public long getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * @return the antenna the game last switched to, or null if it has not
+	 *         switched
+	 */
+	public Direction getCurrentHand() {
+		return currentHand;
+	}
+
+	/**
+	 * The trace is read, rather than asking for cards
+	 */
+	@Override
+	public String requestCard(byte[] messageRec) {
+		return "NOCARD";
+	}
+
+	@Override
+	public void quitServer() {
+		// There is no server
+	}
+
+	@Override
+	public void switchHand(String handID) {
+		// The trace already holds only what was read on the right antennas
+	}
+
+	@Override
+	public void switchHand(Direction turn) {
+		currentHand = turn;
+	}
+
+	@Override
+	public void setCyclingThread(Thread cyclingThread) {
+		// There is no cycling thread
+	}
+
+	@Override
+	public void keyPressed(KeyEvent e) {
+		// Keys are not used
+	}
+
+	@Override
+	public void keyReleased(KeyEvent e) {
+		// Keys are not used
+	}
+
+	@Override
+	public void keyTyped(KeyEvent e) {
+		// Keys are not used
+	}
+}
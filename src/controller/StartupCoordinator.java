@@ -0,0 +1,181 @@
+package controller;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+import metrics.StartupTimeline;
+import model.Game;
+
+/**
+ * Connects an AntennaHandler to a reader server that has just been launched,
+ * as soon as the server is ready rather than after a fixed wait. The port is
+ * tried every POLL_MILLIS, each try giving up after a short connect timeout,
+ * until the server accepts. The handler then waits for the server to say
+ * READY, after which the antennas can be used at once.
+ *
+ * The reader server serves one connection at a time and cannot be probed
+ * with connections of its own, so the port is polled with the handler's own
+ * connection, which is kept once it is made.
+ *
+ * If the server has not accepted within the startup time, or does not say
+ * READY soon after accepting, the start fails with an exception saying
+ * which, instead of the game waiting on a server that is not there. A server
+ * too old to say READY is used as soon as it sends anything else.
+ *
+ * @version Oct 18, 2026
+ */
+public class StartupCoordinator {
+	/** Longest time to wait for the server to accept a connection */
+	public static final long DEFAULT_STARTUP_MILLIS = 15000;
+
+	/** Longest time to wait for READY once the server has accepted */
+	public static final long DEFAULT_READY_MILLIS = 3000;
+
+	/** Time between attempts to connect */
+	public static final long POLL_MILLIS = 50;
+
+	private final AntennaHandler handler;
+
+	private long startupMillis = DEFAULT_STARTUP_MILLIS;
+	private long readyMillis = DEFAULT_READY_MILLIS;
+
+	// the attempts to connect made by the last start
+	private int attempts;
+
+	/**
+	 * Opens the connection, in whatever way the caller needs
+	 */
+	private interface Connection {
+		void open() throws IOException;
+	}
+
+	/**
+	 * Creates a coordinator for a handler
+	 *
+	 * @param handler
+	 *            the handler to connect
+	 */
+	public StartupCoordinator(AntennaHandler handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * Sets how long to wait for the server
+	 *
+	 * @param startupMillis
+	 *            longest time to wait for the server to accept a connection
+	 * @param readyMillis
+	 *            longest time to wait for READY once it has
+	 */
+	public void setTimes(long startupMillis, long readyMillis) {
+		this.startupMillis = startupMillis;
+		this.readyMillis = readyMillis;
+	}
+
+	/**
+	 * Activates the game's antennas as soon as the server is ready
+	 *
+	 * @param game
+	 *            the game whose handler this coordinator connects
+	 * @return true if the server said READY, false if it is too old to
+	 * @throws ConnectException
+	 *             if the server did not accept in the startup time
+	 * @throws SocketTimeoutException
+	 *             if the server accepted but did not say READY
+	 * @throws IOException
+	 *             if the connection fails in any other way
+	 */
+	public boolean activate(final Game game) throws IOException {
+		return start(new Connection() {
+			@Override
+			public void open() throws IOException {
+				game.activateAntennas();
+			}
+		});
+	}
+
+	/**
+	 * Connects the handler as soon as the server is ready, for handlers that
+	 * are not used by a game
+	 *
+	 * @return true if the server said READY, false if it is too old to
+	 * @throws ConnectException
+	 *             if the server did not accept in the startup time
+	 * @throws SocketTimeoutException
+	 *             if the server accepted but did not say READY
+	 * @throws IOException
+	 *             if the connection fails in any other way
+	 */
+	public boolean connect() throws IOException {
+		return start(new Connection() {
+			@Override
+			public void open() throws IOException {
+				handler.connect();
+			}
+		});
+	}
+
+	/**
+	 * @return the number of attempts to connect the last start made
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * Opens the connection once the server accepts, then waits for READY
+	 */
+	private boolean start(Connection connection) throws IOException {
+		long start = System.currentTimeMillis();
+		long end = start + startupMillis;
+		attempts = 0;
+		while (true) {
+			attempts++;
+			try {
+				connection.open();
+				break;
+			} catch (ConnectException e) {
+				// Not listening yet
+			} catch (SocketTimeoutException e) {
+				// Not accepting yet
+			}
+			if (System.currentTimeMillis() + POLL_MILLIS >= end) {
+				throw new ConnectException("The reader server in port "
+						+ handler.port + " on " + handler.host
+						+ " did not start: " + attempts
+						+ " attempts to connect failed in "
+						+ (System.currentTimeMillis() - start) + " ms");
+			}
+			try {
+				Thread.sleep(POLL_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ConnectException(
+						"Interrupted waiting for the reader server");
+			}
+		}
+		StartupTimeline.mark("reader server accepted");
+		System.out.println("Reader server accepted after " + attempts
+				+ " attempts in " + (System.currentTimeMillis() - start)
+				+ " ms");
+
+		boolean ready;
+		try {
+			ready = handler.awaitReady(readyMillis);
+		} catch (SocketTimeoutException e) {
+			handler.dropConnection();
+			throw new SocketTimeoutException("The reader server in port "
+					+ handler.port + " accepted but did not say READY within "
+					+ readyMillis + " ms");
+		}
+		if (ready) {
+			StartupTimeline.mark("reader server ready");
+		} else {
+			StartupTimeline.mark("reader server answered");
+			System.out.println("Reader server did not say READY; it is "
+					+ "older than the READY message, going on");
+		}
+		return ready;
+	}
+}
@@ -0,0 +1,164 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.UnknownHostException;
+
+import model.CardDatabase;
+
+/**
+ * An AntennaHandler that puts the reader server into streaming mode. Instead
+ * of sending a "T" request and pausing between requests, the handler tells the
+ * server once to stream, and the server then reports each tag as soon as it
+ * reads it. Each message from the server ends with a newline.
+ *
+ * After every antenna switch the server always reports its first read, as
+ * NOCARD if there was nothing on the antenna, so that switchHand still knows
+ * that the new antenna has been tried before switching again.
+ *
+ * Before its first read the server sends READY, so that the game can start
+ * as soon as the server is, rather than after a guess at how long it takes.
+ *
+ * The request/response protocol of AntennaHandler is still available by using
+ * AntennaHandler itself, for reader servers that do not support streaming.
+ *
+ * @version Oct 18, 2026
+ */
+public class StreamingAntennaHandler extends AntennaHandler {
+	/** Command that switches the server into streaming mode */
+	protected static final String STREAM_COMMAND = "A";
+
+	// Message sent when the first read after a switch finds nothing
+	private static final String NO_CARD = "NOCARD";
+
+	// Message sent when the server quits
+	private static final String QUIT = "quit";
+
+	// Message sent when the server starts streaming
+	private static final String READY = "READY";
+
+	// Lines from the server, made for each connection
+	private BufferedReader lines;
+
+	/**
+	 * Creates a new StreamingAntennaHandler with the appropriate Card Database
+	 *
+	 * @param data
+	 *            the database to be used
+	 */
+	public StreamingAntennaHandler(CardDatabase data) {
+		super(data);
+	}
+
+	/**
+	 * Creates a new StreamingAntennaHandler for a reader server on another host or
+	 * port
+	 *
+	 * @param data
+	 *            the database to be used
+	 * @param host
+	 *            the host the reader server runs on
+	 * @param port
+	 *            the port the reader server listens on
+	 */
+	public StreamingAntennaHandler(CardDatabase data, String host, int port) {
+		super(data, host, port);
+	}
+
+	/**
+	 * Connects to the server and asks it to start streaming tags
+	 */
+	@Override
+	public void connect() throws UnknownHostException, IOException {
+		super.connect();
+		lines = new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+		synchronized (out) {
+			out.write(getStreamCommand().getBytes());
+			out.flush();
+		}
+	}
+
+	/**
+	 * @return the command that starts the server streaming
+	 */
+	protected String getStreamCommand() {
+		return STREAM_COMMAND;
+	}
+
+	/**
+	 * Reads the server's first message, which is READY unless the server is
+	 * too old to send it. Any other message is acted on as usual.
+	 */
+	@Override
+	public boolean awaitReady(long millis) throws IOException {
+		String message;
+		requestSocket.setSoTimeout((int) Math.max(1, millis));
+		try {
+			message = lines.readLine();
+		} finally {
+			requestSocket.setSoTimeout(0);
+		}
+		if (message == null || !handleMessage(message)) {
+			throw new EOFException("Reader server in port " + port
+					+ " quit while starting");
+		}
+		return message.startsWith(READY);
+	}
+
+	/**
+	 * Reads messages from the server as they arrive and passes the cards on to
+	 * the listeners. Stops if the server quits or the connection is lost.
+	 */
+	@Override
+	public void run() {
+		try {
+			try {
+				handlerThread = Thread.currentThread();
+				String message;
+
+				while (!handlerThread.isInterrupted()
+						&& (message = lines.readLine()) != null) {
+					if (!handleMessage(message)) {
+						break;
+					}
+				}
+			} finally {
+				closeConnection();
+			}
+		} catch (IOException ioException) {
+			System.err.println("Lost connection to the server!");
+			ioException.printStackTrace();
+		}
+	}
+
+	/**
+	 * Acts on a message from the server
+	 *
+	 * @param message
+	 *            the line the server sent
+	 * @return false if the server has quit
+	 */
+	private boolean handleMessage(String message) {
+		if (message.startsWith(QUIT)) {
+			return false;
+		}
+		if (message.startsWith(READY)) {
+			serverReady();
+			return true;
+		}
+
+		// Any other message means the server has tried the current
+		// antenna, so it is ok to switch to another one.
+		readAttempted();
+
+		if (message.startsWith(NO_CARD)) {
+			countNoCard();
+		} else if (message.length() >= MESSAGE_LENGTH) {
+			process(message.substring(0, MESSAGE_LENGTH));
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,224 @@
+package controller;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import model.GameJournal;
+
+/**
+ * Records a trace of a game: the frames read from the antennas and the inputs
+ * entered on the GUI and keypad, each with the time it happened. A trace is
+ * written in the same frames the reader server sends in framed mode, with
+ * INPUT frames for the inputs, so it can be read with a FrameDecoder and
+ * replayed into a game by a ReplayHandler. See ReaderFrame for the layout.
+ *
+ * Frames are buffered, so that recording a read costs the thread reading from
+ * the server a copy rather than a write to the file. The buffer is written
+ * out with each input, and otherwise at least once every FLUSH_MILLIS while
+ * frames are being recorded, so a program that is killed loses at most the
+ * last second or so of reads.
+ *
+ * @version Oct 18, 2026
+ */
+public class TraceRecorder {
+	// the largest frame that is recorded, with its length
+	private static final int MAX_FRAME = ReaderFrame.HEADER_LENGTH
+			+ ReaderFrame.TAG_LENGTH;
+
+	/** Longest time frames are kept in the buffer while others are recorded */
+	public static final long FLUSH_MILLIS = 1000;
+
+	private static final long FLUSH_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(FLUSH_MILLIS);
+
+	// room for a few hundred reads
+	private static final int BUFFER_SIZE = 8192;
+
+	private final OutputStream out;
+
+	// when the buffer was last written out, from System.nanoTime
+	private long flushedAt = System.nanoTime();
+
+	// a frame being written, reused for every frame
+	private final ByteBuffer frame = ByteBuffer.allocate(MAX_FRAME);
+
+	// the number of frames recorded
+	private long frames = 0;
+
+	// true once writing has failed, so that the failure is reported once
+	private boolean failed = false;
+
+	/**
+	 * Records a trace into a file, replacing anything in it
+	 *
+	 * @param traceFile
+	 *            the file to write
+	 * @throws IOException
+	 *             if the file cannot be created
+	 */
+	public TraceRecorder(File traceFile) throws IOException {
+		this(new FileOutputStream(traceFile));
+	}
+
+	/**
+	 * Records a trace into a stream
+	 *
+	 * @param out
+	 *            the stream to write
+	 */
+	public TraceRecorder(OutputStream out) {
+		this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+	}
+
+	/**
+	 * Records that a tag was read
+	 *
+	 * @param tagId
+	 *            the tag read
+	 * @param antenna
+	 *            the antenna it was read on, 1 to 4 or ReaderFrame.ID_ANTENNA
+	 * @param timestamp
+	 *            when it was read, in milliseconds since 1970
+	 */
+	public synchronized void tag(long tagId, int antenna, long timestamp) {
+		frame.clear();
+		ReaderFrame.putTag(frame, tagId, antenna, timestamp);
+		write();
+	}
+
+	/**
+	 * Records that an antenna was read and no tag was found
+	 *
+	 * @param antenna
+	 *            the antenna read
+	 * @param timestamp
+	 *            when it was read, in milliseconds since 1970
+	 */
+	public synchronized void noCard(int antenna, long timestamp) {
+		frame.clear();
+		ReaderFrame.putNoCard(frame, antenna, timestamp);
+		write();
+	}
+
+	/**
+	 * Records a frame just decoded from the reader server
+	 *
+	 * @param decoder
+	 *            the decoder holding the frame
+	 */
+	public void frame(FrameDecoder decoder) {
+		switch (decoder.getType()) {
+		case ReaderFrame.TAG:
+			tag(decoder.getTagId(), decoder.getAntenna(),
+					decoder.getTimestamp());
+			break;
+		case ReaderFrame.NO_CARD:
+			noCard(decoder.getAntenna(), decoder.getTimestamp());
+			break;
+		case ReaderFrame.INPUT:
+			input(GameJournal.Type.values()[decoder.getInputType()],
+					decoder.getInput(0), decoder.getInput(1),
+					decoder.getInput(2), decoder.getTimestamp());
+			break;
+		default:
+			// the end of the trace is where the stream ends
+			break;
+		}
+	}
+
+	/**
+	 * Records an input to the game, made now
+	 *
+	 * @param type
+	 *            what the game was asked to do
+	 * @param first
+	 *            the first thing it was about, or -1
+	 * @param second
+	 *            the second thing it was about, or -1
+	 * @param third
+	 *            the third thing it was about, or -1
+	 */
+	public void input(GameJournal.Type type, int first, int second, int third) {
+		input(type, first, second, third, System.currentTimeMillis());
+	}
+
+	/**
+	 * Records an input to the game
+	 *
+	 * @param type
+	 *            what the game was asked to do
+	 * @param first
+	 *            the first thing it was about, or -1
+	 * @param second
+	 *            the second thing it was about, or -1
+	 * @param third
+	 *            the third thing it was about, or -1
+	 * @param timestamp
+	 *            when it was asked, in milliseconds since 1970
+	 */
+	public synchronized void input(GameJournal.Type type, int first,
+			int second, int third, long timestamp) {
+		frame.clear();
+		ReaderFrame.putInput(frame, type.ordinal(), first, second, third,
+				timestamp);
+		write();
+		flush();
+	}
+
+	private void write() {
+		try {
+			out.write(frame.array(), 0, frame.position());
+			frames++;
+			if (System.nanoTime() - flushedAt >= FLUSH_NANOS) {
+				flush();
+			}
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Writes out the frames in the buffer
+	 */
+	public synchronized void flush() {
+		flushedAt = System.nanoTime();
+		try {
+			out.flush();
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	// Reports the first failure to write
+	private void failed(IOException e) {
+		if (!failed) {
+			failed = true;
+			System.err.println("Cannot record the trace: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the number of frames recorded
+	 */
+	public synchronized long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Ends the trace with a QUIT frame and closes the stream
+	 *
+	 * @throws IOException
+	 *             if the stream cannot be closed
+	 */
+	public synchronized void close() throws IOException {
+		frame.clear();
+		ReaderFrame.putQuit(frame);
+		write();
+		out.close();
+	}
+}
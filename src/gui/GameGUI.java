@@ -2,6 +2,7 @@ package gui;
 
 import java.awt.BorderLayout;
 import java.awt.CardLayout;
+import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
@@ -13,8 +14,6 @@ import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.Iterator;
 import java.util.Stack;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -24,7 +23,10 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 
+import controller.AntennaHandler;
 import controller.Handler;
+import controller.ReaderSupervisor;
+import controller.StartupCoordinator;
 import controller.TestAntennaHandler;
 import main.BridgeActualGame;
 import model.Card;
@@ -32,6 +34,7 @@ import model.Contract;
 import model.Direction;
 import model.Game;
 import model.GameListener;
+import model.GameSnapshot;
 import model.GameState;
 import model.Player;
 import model.Suit;
@@ -93,21 +96,15 @@ public class GameGUI extends JFrame implements GameListener {
 	// The history of screens viewed, used for the back button
 	private Stack<Integer> screensViewed = new Stack<Integer>();
 
+	// The screens built so far, by number. The screens that listen to the
+	// game are built at once so that they do not miss anything. The others
+	// are built the first time they are shown, so the first screen comes up
+	// sooner.
+	private final JPanel[] screens = new JPanel[NUM_GUIS];
+
 	// game status giu
 	private GameStatusGUI gameStatusGUI;
 
-	// bid position gui
-	private BidPositionGUI bidPositionGUI;
-
-	// bid number gui
-	private BidNumberGUI bidNumberGUI;
-
-	// trump suit gui
-	private TrumpSuitGUI trumpSuitGUI;
-
-	// next hand gui
-	private NextHandGUI nextHandGUI;
-
 	// VIPlayerGUI
 	private VIPlayerGUI viPlayerGUI;
 
@@ -124,6 +121,9 @@ public class GameGUI extends JFrame implements GameListener {
 	private JButton quitButton;
 	private JButton backButton;
 
+	// makes the connection to the reader server again, or null
+	private ReaderSupervisor supervisor;
+
 	/** Font used to display messages on the main screen */
 	public static final Font INFO_FONT = new Font("Verdana", Font.BOLD, 30);
 
@@ -155,23 +155,11 @@ public class GameGUI extends JFrame implements GameListener {
 			setFocusable(true);
 		}
 
-		// initialize some of the guis before createCards()
+		// initialize the guis that listen to the game before createCards()
 
 		// game status giu
 		gameStatusGUI = new GameStatusGUI(this, game);
 
-		// bid position gui
-		bidPositionGUI = new BidPositionGUI(this, game);
-
-		// bid number gui
-		bidNumberGUI = new BidNumberGUI(this, game);
-
-		// trump suit gui
-		trumpSuitGUI = new TrumpSuitGUI(this, game);
-
-		// next hand gui
-		nextHandGUI = new NextHandGUI(this, game);
-
 		// VIPlayerGUI
 		viPlayerGUI = new VIPlayerGUI(this, game);
 
@@ -265,36 +253,94 @@ public class GameGUI extends JFrame implements GameListener {
 		cardNames[NEXT_HAND_GUI] = "nextHandGUI";
 		cardNames[HELP_GUI] = "help";
 
-		// add all the GUIs to the card panel
-
-		cardPanel.add(viPlayerGUI, cardNames[VI_PLAYER_GUI]);
+		// add the GUIs that are already built to the card panel. The
+		// others are added when they are first shown.
 
-		cardPanel.add(scanningBlindGUI, cardNames[SCANNING_BLIND_GUI]);
+		addScreen(VI_PLAYER_GUI, viPlayerGUI);
 
-		cardPanel.add(bidPositionGUI, cardNames[BID_POSITION_GUI]);
-		cardPanel.add(bidNumberGUI, cardNames[BID_NUMBER_GUI]);
+		addScreen(SCANNING_BLIND_GUI, scanningBlindGUI);
 
-		cardPanel.add(trumpSuitGUI, cardNames[TRUMP_SUIT_GUI]);
 		// cardPanel.add(new FirstCardGUI(this, game),
 		// cardNames[FIRST_CARD_GUI]);
 
-		cardPanel.add(gameStatusGUI, cardNames[GAME_STATUS_GUI]);
+		addScreen(GAME_STATUS_GUI, gameStatusGUI);
 
-		cardPanel.add(scanDummyGUI, cardNames[SCAN_DUMMY_GUI]);
+		addScreen(SCAN_DUMMY_GUI, scanDummyGUI);
 
 		// cardPanel.add(new ResetGUI(game), cardNames[7]);
 		// cardPanel.add(new GameStatusGUI(game), cardNames[GAME_STATUS_GUI]);
 
-		cardPanel.add(nextHandGUI, cardNames[NEXT_HAND_GUI]);
-
-		cardPanel.add(new HelpGUI(this), cardNames[HELP_GUI]);
-
 		// show the first card
 		layout.show(cardPanel, cardNames[VI_PLAYER_GUI]);
 		currentScreen = VI_PLAYER_GUI;
 		screensViewed.push(VI_PLAYER_GUI);
 	}
 
+	/**
+	 * Adds a screen to the card panel
+	 * 
+	 * @param index
+	 *            the number of the screen
+	 * @param screen
+	 *            the screen
+	 */
+	private void addScreen(int index, JPanel screen) {
+		screens[index] = screen;
+		cardPanel.add(screen, cardNames[index]);
+	}
+
+	/**
+	 * Returns a screen, building it if it has not been shown yet
+	 * 
+	 * @param index
+	 *            the number of the screen
+	 * @return the screen
+	 */
+	private JPanel getScreen(int index) {
+		if (screens[index] == null) {
+			long start = System.nanoTime();
+			switch (index) {
+			case BID_POSITION_GUI:
+				addScreen(index, new BidPositionGUI(this, game));
+				break;
+			case BID_NUMBER_GUI:
+				addScreen(index, new BidNumberGUI(this, game));
+				break;
+			case TRUMP_SUIT_GUI:
+				addScreen(index, new TrumpSuitGUI(this, game));
+				break;
+			case NEXT_HAND_GUI:
+				addScreen(index, new NextHandGUI(this, game));
+				break;
+			case HELP_GUI:
+				addScreen(index, new HelpGUI(this));
+				break;
+			default:
+				throw new IllegalArgumentException("No screen " + index);
+			}
+			System.out.println("Built screen " + cardNames[index] + " in "
+					+ (System.nanoTime() - start) / 1000000 + " ms");
+
+			// the window was sized for the screens built before this one
+			Dimension wanted = getPreferredSize();
+			if (wanted.width > getWidth() || wanted.height > getHeight()) {
+				pack();
+			}
+		}
+		return screens[index];
+	}
+
+	/**
+	 * Shows a screen, building it first if it has not been shown yet
+	 * 
+	 * @param index
+	 *            the number of the screen
+	 */
+	private void showScreen(int index) {
+		getScreen(index);
+		layout.show(cardPanel, cardNames[index]);
+	}
+
 	/**
 	 * Creates a JPanel which displays debugging information.
 	 * 
@@ -496,6 +542,13 @@ public class GameGUI extends JFrame implements GameListener {
 
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
+				// The supervisor restarts the server itself if it has to
+				if (supervisor != null) {
+					debugMsg("Reconnecting to the server");
+					supervisor.reconnectNow();
+					return;
+				}
+
 				// reverse();
 				if (game != null) {
 					System.out.println("Stopping server");
@@ -514,16 +567,21 @@ public class GameGUI extends JFrame implements GameListener {
 				debugMsg ("Starting server");
 				BridgeActualGame.startServer();
 
-				// start the game 15 seconds after starting the C# Server
-				TimerTask timerTask = new TimerTask() {
+				// resume the game as soon as the server is ready
+				new Thread("Game resume") {
 
 					@Override
 					public void run() {
 
 						try {
 							debugMsg("Activating antennas");
-							game.activateAntennas();
 							Handler handler = game.getHandler();
+							if (handler instanceof AntennaHandler) {
+								new StartupCoordinator((AntennaHandler) handler)
+										.activate(game);
+							} else {
+								game.activateAntennas();
+							}
 							if (handler != null) {
 								new Thread(handler, "Antenna handler").start() ;
 							}
@@ -546,11 +604,7 @@ public class GameGUI extends JFrame implements GameListener {
 						debugMsg("Game resumed");
 					}
 
-				};
-
-				// wait 4 seconds after starting the server to start the game
-				Timer timer = new Timer(true);
-				timer.schedule(timerTask, 4000);
+				}.start();
 
 			}
 
@@ -565,6 +619,61 @@ public class GameGUI extends JFrame implements GameListener {
 		return panel;
 	}
 
+	/**
+	 * Keeps the blind player's position from being chosen until readerReady
+	 * is called, so that the first screen can be shown while the reader
+	 * server starts
+	 */
+	public void waitForReader() {
+		GuiScheduler.onEventThread(new Runnable() {
+			@Override
+			public void run() {
+				viPlayerGUI.setPositionsEnabled(false);
+			}
+		});
+	}
+
+	/**
+	 * Lets the blind player's position be chosen, once the antennas are
+	 * activated
+	 */
+	public void readerReady() {
+		GuiScheduler.onEventThread(new Runnable() {
+			@Override
+			public void run() {
+				viPlayerGUI.setPositionsEnabled(true);
+			}
+		});
+	}
+
+	/**
+	 * Tells the volunteers that the game could not be started
+	 * 
+	 * @param message
+	 *            what went wrong
+	 */
+	public void showStartupError(final String message) {
+		GuiScheduler.onEventThread(new Runnable() {
+			@Override
+			public void run() {
+				JOptionPane.showMessageDialog(GameGUI.this, message,
+						"Cannot start the game", JOptionPane.ERROR_MESSAGE);
+			}
+		});
+	}
+
+	/**
+	 * Has the Resume button make the connection to the reader server again
+	 * through a supervisor, which does so without the button whenever the
+	 * connection fails
+	 * 
+	 * @param supervisor
+	 *            the supervisor of the connection
+	 */
+	public void setReaderSupervisor(ReaderSupervisor supervisor) {
+		this.supervisor = supervisor;
+	}
+
 	private void setAntennaLabel(String text) {
 		// antennaLabel.setText(text);
 	}
@@ -633,7 +742,7 @@ public class GameGUI extends JFrame implements GameListener {
 		// update text on refresh display
 		if (currentScreen == NEXT_HAND_GUI) {
 
-			nextHandGUI.refreshDisplay();
+			((NextHandGUI) getScreen(NEXT_HAND_GUI)).refreshDisplay();
 		}
 
 		debugMsg("Switching to screen " + cardNames[currentScreen]);
@@ -645,7 +754,7 @@ public class GameGUI extends JFrame implements GameListener {
 			determineIfRightGUI();
 		}
 
-		layout.show(cardPanel, cardNames[currentScreen]);
+		showScreen(currentScreen);
 		requestFocusInWindow();
 
 		// System.out.println("after change frame currentScreen " +
@@ -654,6 +763,61 @@ public class GameGUI extends JFrame implements GameListener {
 		// debugMsg("currentScreen " + currentScreen);
 	}
 
+	/**
+	 * Shows the screen for a game resumed from its journal, as if the
+	 * screens before it had been gone through. May be called from any
+	 * thread.
+	 */
+	public void showResumedGame() {
+		GuiScheduler.onEventThread(new Runnable() {
+			@Override
+			@SuppressWarnings("boxing")
+			public void run() {
+				GameSnapshot state = game.getSnapshot();
+				int screen;
+				if (state.getBlindPosition() == null) {
+					screen = VI_PLAYER_GUI;
+				} else if (state.getGameState() == GameState.DEALING) {
+					screen = game.allTricksOver() ? NEXT_HAND_GUI
+							: SCANNING_BLIND_GUI;
+				} else if (state.getGameState() == GameState.SCANNING_DUMMY) {
+					screen = SCAN_DUMMY_GUI;
+				} else if (state.getBidWinner() == null) {
+					screen = BID_POSITION_GUI;
+				} else if (state.getContractNum() == 0) {
+					screen = BID_NUMBER_GUI;
+				} else if (state.getTrump() == null) {
+					screen = TRUMP_SUIT_GUI;
+				} else {
+					screen = GAME_STATUS_GUI;
+				}
+
+				screensViewed.clear();
+				for (int i = VI_PLAYER_GUI; i < Math.min(screen,
+						GAME_STATUS_GUI); i++) {
+					screensViewed.push(i);
+				}
+				currentScreen = screen;
+				switchFromGameStatusGUI = NONE;
+
+				// the screens did not hear the events that were replayed
+				gameStatusGUI.showSnapshot(state);
+				scanDummyGUI.showSnapshot(state);
+				if (currentScreen == NEXT_HAND_GUI) {
+					((NextHandGUI) getScreen(NEXT_HAND_GUI)).refreshDisplay();
+				}
+
+				System.out.println("Resuming at screen "
+						+ cardNames[currentScreen]);
+				if (Game.isTestMode()) {
+					determineIfRightGUI();
+				}
+				showScreen(currentScreen);
+				requestFocusInWindow();
+			}
+		});
+	}
+
 	private void determineIfRightGUI() {
 		// figure out if it is the right gui for listening to key press
 		if (currentScreen == VI_PLAYER_GUI || currentScreen == HELP_GUI
@@ -738,12 +902,12 @@ public class GameGUI extends JFrame implements GameListener {
 
 		if (Game.isTestMode()) {
 
-			trumpSuitGUI.setHandNum(2);
-			bidNumberGUI.setHandNum(2);
-			bidPositionGUI.setHandNum(2);
+			((TrumpSuitGUI) getScreen(TRUMP_SUIT_GUI)).setHandNum(2);
+			((BidNumberGUI) getScreen(BID_NUMBER_GUI)).setHandNum(2);
+			((BidPositionGUI) getScreen(BID_POSITION_GUI)).setHandNum(2);
 		}
 
-		layout.show(cardPanel, cardNames[currentScreen]);
+		showScreen(currentScreen);
 
 		System.out.println("should show " + cardNames[currentScreen] + " "
 				+ currentScreen);
@@ -799,7 +963,7 @@ public class GameGUI extends JFrame implements GameListener {
 
 			}
 
-			layout.show(cardPanel, cardNames[currentScreen]);
+			showScreen(currentScreen);
 
 			determineIfRightGUI();
 
@@ -939,7 +1103,7 @@ public class GameGUI extends JFrame implements GameListener {
 	@SuppressWarnings("boxing")
 	public void showHelp() {
 		screensViewed.push(currentScreen);
-		layout.show(cardPanel, "help");
+		showScreen(HELP_GUI);
 		currentScreen = 6;
 
 	}
@@ -967,16 +1131,28 @@ public class GameGUI extends JFrame implements GameListener {
 		return currentScreen == SCANNING_BLIND_GUI;
 	}
 
+	/**
+	 * Enables or disables the undo button. The button repaints itself if this
+	 * changes it, so the screens can call this while painting.
+	 * 
+	 * @param enabled
+	 *            true to enable the button
+	 */
 	public void undoButtonSetEnabled(boolean enabled) {
 
 		undoButton.setEnabled(enabled);
-		repaint();
 	}
 
+	/**
+	 * Enables or disables the back button. The button repaints itself if this
+	 * changes it, so the screens can call this while painting.
+	 * 
+	 * @param enabled
+	 *            true to enable the button
+	 */
 	public void backButtonSetEnabled(boolean enabled) {
 
 		backButton.setEnabled(enabled);
-		repaint();
 	}
 
 	public void reverseToScanBlind() {
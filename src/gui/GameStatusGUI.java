@@ -5,8 +5,8 @@ import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.LinkedList;
+import java.util.concurrent.ScheduledFuture;
 
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -18,6 +18,7 @@ import model.Contract;
 import model.Direction;
 import model.Game;
 import model.GameListener;
+import model.GameSnapshot;
 import model.GameState;
 import model.Rank;
 import model.Suit;
@@ -25,6 +26,12 @@ import model.Suit;
 /**
  * This class visually represents what the visually impaired person hears.
  * 
+ * Events arrive on the Swing event thread. The cards of a trick stay on the
+ * screen for a few seconds after it is won; events that come in the meantime
+ * are held and shown once the trick has been cleared away. So the screen
+ * follows the events rather than the game's latest snapshot, and only goes
+ * to the snapshot when it has missed events, as when a game is resumed.
+ * 
  * @author Barbara Lerner, Humaira Orchee
  * @version March 12, 2015
  */
@@ -33,6 +40,7 @@ public class GameStatusGUI extends JPanel implements GameListener {
 	public static Font STATUS_FONT = new Font("Helvetica", Font.BOLD, 60);
 	private PlayerStatusGUI[] playerGUIs = new PlayerStatusGUI[4];
 	private BidStatusGUI bidGUI = new BidStatusGUI();
+	private TricksWonPanel tricksWonPanel = new TricksWonPanel();
 
 	// private int count = 0 ;
 
@@ -49,7 +57,15 @@ public class GameStatusGUI extends JPanel implements GameListener {
 
 	private GameGUI gameGUI;
 
-	private boolean trickOverHandled = true;
+	// clears away the last trick once it has been shown long enough, or null
+	// if no trick is being shown
+	private ScheduledFuture<?> trickOverTask = null;
+
+	// the winner of the trick being shown
+	private Direction trickWinner;
+
+	// events that came while the last trick was being shown, oldest first
+	private LinkedList<Runnable> heldEvents = new LinkedList<Runnable>();
 
 	public GameStatusGUI(GameGUI gameGUI, Game game) {
 
@@ -115,7 +131,6 @@ public class GameStatusGUI extends JPanel implements GameListener {
 		GridBagConstraints trickConstraints = new GridBagConstraints();
 		trickConstraints.gridx = 2;
 		trickConstraints.gridy = 1;
-		TricksWonPanel tricksWonPanel = new TricksWonPanel();
 		
 		if (game != null) {
 			game.addListener(tricksWonPanel);
@@ -146,7 +161,16 @@ public class GameStatusGUI extends JPanel implements GameListener {
 	}
 
 	@Override
-	public void cardPlayed(Direction turn, Card card) {
+	public void cardPlayed(final Direction turn, final Card card) {
+
+		if (hold(new Runnable() {
+			@Override
+			public void run() {
+				cardPlayed(turn, card);
+			}
+		})) {
+			return;
+		}
 
 		// every time a card is played, current player is updated.
 		currentPlayer++;
@@ -155,34 +179,6 @@ public class GameStatusGUI extends JPanel implements GameListener {
 
 		System.out.println("current player " + currentPlayer);
 
-		// playerGUIs[turn.ordinal()].cardPlayed(card);
-
-		// the first player of the next hand
-		if ((currentPlayer % 4) == 1) {
-
-			synchronized (GameStatusGUI.this) {
-
-				try {
-
-					while (!trickOverHandled) {
-
-						System.out.println("waiting for trickOverHandled");
-
-						GameStatusGUI.this.wait();
-					}
-					
-
-				} catch (InterruptedException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
-
-				trickOverHandled = false;
-			}
-			
-
-		}
-
 		playerGUIs[turn.ordinal()].cardPlayed(card);
 
 		// if the current player is the last person to play for the trick, then
@@ -232,7 +228,7 @@ public class GameStatusGUI extends JPanel implements GameListener {
 			// Do the task - changeFrame - after 2 seconds has passed.
 			// without this, the screen changes to ScanDummyGUI too fast and
 			// the first card is not shown
-			TimerTask timertask = new TimerTask() {
+			GuiScheduler.later(new Runnable() {
 
 				@Override
 				public void run() {
@@ -242,10 +238,7 @@ public class GameStatusGUI extends JPanel implements GameListener {
 					gameGUI.changeFrame();
 
 				}
-			};
-
-			Timer timer = new Timer(true);
-			timer.schedule(timertask, 2000);
+			}, 2000);
 
 		}
 	}
@@ -259,71 +252,112 @@ public class GameStatusGUI extends JPanel implements GameListener {
 	@Override
 	public void trickWon(final Direction winner) {
 
-		System.out.println("game status gui trickWon " + winner);
-
-		TimerTask timerTask = new TimerTask() {
-
+		if (hold(new Runnable() {
 			@Override
 			public void run() {
+				trickWon(winner);
+			}
+		})) {
+			return;
+		}
 
-				for (PlayerStatusGUI playerGUI : playerGUIs) {
+		System.out.println("game status gui trickWon " + winner);
 
-					playerGUI.trickOver();
+		// leave the cards of the trick on the screen for 4 seconds
+		trickWinner = winner;
+		trickOverTask = GuiScheduler.later(new Runnable() {
 
-				}
+			@Override
+			public void run() {
+				trickOver();
+			}
+		}, 4000);
 
-				System.out.println("back to game status gui trichWon run");
+	}
 
-				// decides if the hand has ended or not
-				if (currentPlayer != 13 * 4) {
+	/**
+	 * Clears away the trick that was won, then shows the events that came
+	 * while it was on the screen
+	 */
+	private void trickOver() {
 
-					System.out.println("hand has not ended");
+		trickOverTask = null;
 
-					System.out.println("currentplayer " + currentPlayer);
+		for (PlayerStatusGUI playerGUI : playerGUIs) {
 
-					playerGUIs[winner.ordinal()].nextPlayer();
+			playerGUI.trickOver();
 
-				} else {
+		}
 
-					System.out.println("hand has ended");
+		System.out.println("back to game status gui trickOver");
 
-					System.out.println("currentplayer " + currentPlayer);
+		// decides if the hand has ended or not
+		if (currentPlayer != 13 * 4) {
 
-					// hand has ended
+			System.out.println("hand has not ended");
 
-					gameGUI.setSwitchFromGameStatusGUI(GameGUI.SWITCH_TO_NEXT_HAND);
+			System.out.println("currentplayer " + currentPlayer);
 
-					// TODO : might need to call gameReset() here as well
-					// gameReset();
+			playerGUIs[trickWinner.ordinal()].nextPlayer();
 
-					gameGUI.changeFrame();
-				}
+		} else {
 
-				synchronized (GameStatusGUI.this) {
+			System.out.println("hand has ended");
 
-					// System.out.println("trickOverHandled before changing value "
-					// + trickOverHandled);
+			System.out.println("currentplayer " + currentPlayer);
 
-					trickOverHandled = true;
+			// hand has ended
 
-					// System.out.println("trickOverHandled after changing value "
-					// + trickOverHandled);
+			gameGUI.setSwitchFromGameStatusGUI(GameGUI.SWITCH_TO_NEXT_HAND);
 
-					GameStatusGUI.this.notify();
+			// TODO : might need to call gameReset() here as well
+			// gameReset();
 
-					// System.out.println("notified in trickWon");
-				}
+			gameGUI.changeFrame();
+		}
 
-			}
-		};
+		// a held trickWon shows another trick, and holds the rest again
+		while (trickOverTask == null && !heldEvents.isEmpty()) {
+			heldEvents.removeFirst().run();
+		}
+	}
 
-		Timer timer = new Timer(true);
-		timer.schedule(timerTask, 4000);
+	/**
+	 * Holds an event back while a trick is on the screen
+	 * 
+	 * @param event
+	 *            shows the event
+	 * @return true if the event was held, false if it should be shown now
+	 */
+	private boolean hold(Runnable event) {
+		if (trickOverTask == null) {
+			return false;
+		}
+		heldEvents.add(event);
+		return true;
+	}
 
+	/**
+	 * Clears away the trick on the screen now rather than when its time is up
+	 */
+	private void finishTrick() {
+		if (trickOverTask != null && trickOverTask.cancel(false)) {
+			trickOver();
+		}
 	}
 
 	@Override
-	public void contractSet(Contract contract) {
+	public void contractSet(final Contract contract) {
+
+		if (hold(new Runnable() {
+			@Override
+			public void run() {
+				contractSet(contract);
+			}
+		})) {
+			return;
+		}
+
 		bidGUI.setBid(contract);
 
 		for (int i = 0; i < playerGUIs.length; i++) {
@@ -348,6 +382,90 @@ public class GameStatusGUI extends JPanel implements GameListener {
 
 	}
 
+	/**
+	 * Shows the game as it is in a snapshot, dropping the trick on the screen
+	 * and any events held back. Used when the events that led to the
+	 * snapshot were not heard, as when a game is resumed from its journal.
+	 * 
+	 * @param state
+	 *            the snapshot to show
+	 */
+	public void showSnapshot(GameSnapshot state) {
+		if (trickOverTask != null) {
+			trickOverTask.cancel(false);
+			trickOverTask = null;
+		}
+		heldEvents.clear();
+
+		// a won trick stays in the snapshot until the next card is played
+		int trickCards = 0;
+		for (Direction player : Direction.values()) {
+			if (state.getTrickCard(player) != null) {
+				trickCards++;
+			}
+		}
+		if (trickCards == playerGUIs.length) {
+			trickCards = 0;
+		}
+		int tricks = state.getTeamTricksWon(Direction.NORTH)
+				+ state.getTeamTricksWon(Direction.EAST);
+		currentPlayer = tricks * 4 + trickCards;
+		firstCardPlayed = currentPlayer > 0;
+
+		for (PlayerStatusGUI playerGUI : playerGUIs) {
+			playerGUI.clear();
+		}
+		if (state.hasContract()) {
+			Contract contract = new Contract();
+			contract.setBidWinner(state.getBidWinner());
+			contract.setContractNum(state.getContractNum());
+			contract.setTrump(state.getTrump());
+			bidGUI.setBid(contract);
+
+			if (trickCards > 0) {
+				for (Direction player : Direction.values()) {
+					Card card = state.getTrickCard(player);
+					if (card != null) {
+						playerGUIs[player.ordinal()].cardPlayed(card);
+					}
+				}
+			}
+			if (currentPlayer != 13 * 4 && state.getTurn() != null) {
+				playerGUIs[state.getTurn().ordinal()].nextPlayer();
+			}
+		} else {
+			bidGUI.clear();
+		}
+		tricksWonPanel.showSnapshot(state);
+
+		if (gameGUI != null) {
+			gameGUI.undoButtonSetEnabled(trickCards > 0);
+		}
+		repaint();
+	}
+
+	/**
+	 * @return the number of cards played in this hand, as far as the screen
+	 *         has shown
+	 */
+	int getCardsPlayed() {
+		return currentPlayer;
+	}
+
+	/**
+	 * @return true if the screen has shown the first card of the hand
+	 */
+	boolean isFirstCardPlayed() {
+		return firstCardPlayed;
+	}
+
+	/**
+	 * @return the panel showing the tricks each side has won
+	 */
+	TricksWonPanel getTricksWonPanel() {
+		return tricksWonPanel;
+	}
+
 	public void setFirstCardPlayed(boolean firstCardPlayed) {
 		this.firstCardPlayed = firstCardPlayed;
 	}
@@ -383,29 +501,14 @@ public class GameStatusGUI extends JPanel implements GameListener {
 
 		System.out.println("Game status gui undo");
 
+		finishTrick();
+
 		currentPlayer--;
 
 		assert currentPlayer >= 0;
 
 		System.out.println("current player " + currentPlayer);
 
-		// the first player of the next hand has not played the card yet
-		if ((currentPlayer % 4) == 0) {
-
-			System.out.println("first player of trick yet to play card");
-
-			trickOverHandled = true;
-
-		}
-		
-
-		System.out.println("now trickOverhandled " + trickOverHandled);
-		
-		for(int i = 0 ; i < playerGUIs.length ; i++){
-			
-			playerGUIs[i].setTrickOver(true);
-		}
-		
 		if(Game.isTestMode()){
 			
 			if( nextPlayerIndex != -1 && game.getBlindPosition().ordinal() == nextPlayerIndex){
@@ -430,7 +533,7 @@ public class GameStatusGUI extends JPanel implements GameListener {
 		
 		super.paintComponent(g);
 		
-		if(game != null && game.isGameState(GameState.FIRSTCARD)){
+		if(game != null && game.getSnapshot().getGameState() == GameState.FIRSTCARD){
 			
 			gameGUI.undoButtonSetEnabled(false);
 			gameGUI.backButtonSetEnabled(false);
@@ -442,8 +545,8 @@ public class GameStatusGUI extends JPanel implements GameListener {
 		JFrame testFrame = new JFrame();
 		GameStatusGUI gameStatusGUI = new GameStatusGUI(null, null);
 		testFrame.add(gameStatusGUI, BorderLayout.CENTER);
-		gameStatusGUI.cardPlayed(Direction.SOUTH, new Card(Rank.ACE, Suit.CLUBS));
-		gameStatusGUI.cardPlayed(Direction.WEST, new Card(Rank.TEN, Suit.CLUBS));
+		gameStatusGUI.cardPlayed(Direction.SOUTH, Card.of(Rank.ACE, Suit.CLUBS));
+		gameStatusGUI.cardPlayed(Direction.WEST, Card.of(Rank.TEN, Suit.CLUBS));
 		testFrame.pack();
 		testFrame.setVisible(true);
 	}
@@ -0,0 +1,111 @@
+package gui;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * The one timer thread used by the screens. Instead of starting a new Timer
+ * for each delayed change, screens schedule the change here, and it is run on
+ * the Swing event thread when it is due.
+ *
+ * Refresh lets a screen that is told of many events in a row, such as the 13
+ * cards of the dummy being scanned, update itself once per frame rather than
+ * once per event.
+ *
+ * @version Oct 18, 2026
+ */
+public class GuiScheduler {
+	/** Milliseconds between refreshes of a screen, about 60 a second */
+	public static final long FRAME_MILLIS = 16;
+
+	// the timer thread, shared by all the screens
+	private static final ScheduledExecutorService timer = Executors
+			.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "GUI Timer");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	private GuiScheduler() {
+		// No need to create any instances
+	}
+
+	/**
+	 * Runs a change to the screen on the Swing event thread after a delay
+	 *
+	 * @param change
+	 *            the change to make
+	 * @param delayMillis
+	 *            milliseconds to wait first
+	 * @return the scheduled change, which can be cancelled
+	 */
+	public static ScheduledFuture<?> later(final Runnable change,
+			long delayMillis) {
+		return timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				SwingUtilities.invokeLater(change);
+			}
+		}, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Runs a change on the Swing event thread, straight away if this is the
+	 * event thread
+	 *
+	 * @param change
+	 *            the change to make
+	 */
+	public static void onEventThread(Runnable change) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			change.run();
+		} else {
+			SwingUtilities.invokeLater(change);
+		}
+	}
+
+	/**
+	 * Brings a screen up to date at most once per frame. Any number of
+	 * requests made before the next frame lead to one call of the update.
+	 */
+	public static class Refresh {
+		// brings the screen up to date
+		private final Runnable update;
+
+		// true while an update is waiting for the next frame
+		private final AtomicBoolean pending = new AtomicBoolean();
+
+		/**
+		 * @param update
+		 *            brings the screen up to date from its model. It is run on
+		 *            the Swing event thread.
+		 */
+		public Refresh(Runnable update) {
+			this.update = update;
+		}
+
+		/**
+		 * Asks for the screen to be brought up to date at the next frame
+		 */
+		public void request() {
+			if (pending.compareAndSet(false, true)) {
+				later(new Runnable() {
+					@Override
+					public void run() {
+						pending.set(false);
+						update.run();
+					}
+				}, FRAME_MILLIS);
+			}
+		}
+	}
+}
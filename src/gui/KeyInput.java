@@ -0,0 +1,175 @@
+package gui;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns the keys typed on the keypad into commands, without holding up the
+ * Swing event thread.
+ *
+ * A key typed again within REPEAT_MILLIS of when it was last accepted is
+ * ignored, since the blind player may press a key more than once while
+ * waiting to hear it. The times are taken from the key events, so no timer is
+ * needed to forget a key.
+ *
+ * Two different keys typed within CHORD_MILLIS of each other make a chord if
+ * the chord has been added. The first key is acted on straight away as usual;
+ * the second asks for the chord instead of its own command.
+ *
+ * When a key is accepted, Commands.keyAccepted is called on the event thread
+ * so that it can silence what is being said at once. The command is then
+ * queued and run on the keypad thread, which is shared by all KeyInputs.
+ * Commands run in the order the keys were typed. A read-out that has not
+ * started by the time another key is accepted is dropped, since the player
+ * has asked for something else.
+ *
+ * @version Oct 18, 2026
+ */
+public class KeyInput extends KeyAdapter {
+	/** A key typed again within this many milliseconds is ignored */
+	public static final long REPEAT_MILLIS = 5000;
+
+	/** Two keys typed within this many milliseconds can make a chord */
+	public static final long CHORD_MILLIS = 250;
+
+	/**
+	 * What is done for the keys
+	 */
+	public interface Commands {
+		/**
+		 * Called on the event thread as soon as a key is accepted
+		 *
+		 * @param key
+		 *            the key typed
+		 */
+		void keyAccepted(char key);
+
+		/**
+		 * Carries out the command for a key, on the keypad thread
+		 *
+		 * @param key
+		 *            the key typed
+		 */
+		void run(char key);
+
+		/**
+		 * Carries out the command for a chord, on the keypad thread
+		 *
+		 * @param first
+		 *            the key typed first
+		 * @param second
+		 *            the key typed second
+		 */
+		void runChord(char first, char second);
+
+		/**
+		 * @param key
+		 *            a key typed
+		 * @return true if the key only reads something out, so can be dropped
+		 *         if another key comes before it is run
+		 */
+		boolean isReadOut(char key);
+	}
+
+	// runs the commands of all the keypads, one at a time
+	private static final ExecutorService keypadThread = Executors
+			.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Keypad");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	// what to do for the keys
+	private final Commands commands;
+
+	// the chords that have been added, as first key then second key
+	private final Set<String> chords = new HashSet<String>();
+
+	// the last key accepted and when, in the time of the key events
+	private char lastKey;
+	private long lastAcceptedAt = Long.MIN_VALUE / 2;
+
+	// counts the keys accepted, so that a command can tell if it is stale
+	private final AtomicLong accepted = new AtomicLong();
+
+	/**
+	 * @param commands
+	 *            what to do for the keys
+	 */
+	public KeyInput(Commands commands) {
+		this.commands = commands;
+	}
+
+	/**
+	 * Makes typing two keys one after the other quickly a chord
+	 *
+	 * @param first
+	 *            the key typed first
+	 * @param second
+	 *            the key typed second
+	 */
+	public void addChord(char first, char second) {
+		chords.add("" + first + second);
+	}
+
+	@Override
+	public void keyTyped(KeyEvent e) {
+		long when = e.getWhen() != 0 ? e.getWhen() : System.currentTimeMillis();
+		keyTyped(e.getKeyChar(), when);
+	}
+
+	/**
+	 * Accepts or ignores a key
+	 *
+	 * @param key
+	 *            the key typed
+	 * @param when
+	 *            when it was typed, in milliseconds
+	 * @return true if the key was accepted
+	 */
+	synchronized boolean keyTyped(final char key, long when) {
+		long sinceLast = when - lastAcceptedAt;
+		if (key == lastKey && sinceLast < REPEAT_MILLIS) {
+			return false;
+		}
+
+		final boolean chord = sinceLast < CHORD_MILLIS
+				&& chords.contains("" + lastKey + key);
+		final char first = lastKey;
+		lastKey = key;
+		lastAcceptedAt = when;
+
+		commands.keyAccepted(key);
+		final long number = accepted.incrementAndGet();
+		final boolean readOut = chord || commands.isReadOut(key);
+		keypadThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				if (readOut && number != accepted.get()) {
+					// another key has been typed since
+					return;
+				}
+				try {
+					if (chord) {
+						commands.runChord(first, key);
+					} else {
+						commands.run(key);
+					}
+				} catch (RuntimeException e) {
+					System.err.println("Key " + key + " failed");
+					e.printStackTrace();
+				}
+			}
+		});
+		return true;
+	}
+}
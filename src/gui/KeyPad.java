@@ -3,24 +3,25 @@ package gui;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.util.Iterator;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import model.Card;
 import model.CardDatabase;
-import model.Contract;
 import model.Direction;
 import model.Game;
-import model.Player;
+import model.GameSnapshot;
 import model.Suit;
-import model.Trick;
 import audio.AudioPlayer;
+import audio.PhraseEngine;
 import audio.SoundManager;
 import controller.AntennaHandler;
 
 /**
  * Manages the input from the numeric keypad.
  * 
+ * Keys are debounced by a KeyInput, which silences what is being said as soon
+ * as a key is accepted and then carries out the key on the keypad thread, so
+ * the Swing event thread is never held up by a key.
+ * 
  * @author Barbara Lerner
  * @version March 12, 2015
  *
@@ -45,12 +46,45 @@ public class KeyPad extends KeyAdapter {
 	private static final int BACKSPACE_CODE = 8;
 	private static final int SPACE_CODE = 32;
 
-	private int numTimers = 0;
-	private boolean ignoringKeys = false;
-
 	private int lastCode = 0;
-	
-	private char lastKeyChar ;
+
+	// the game as it was when the key being carried out was run. Only used on
+	// the keypad thread.
+	private GameSnapshot state;
+
+	// debounces the keys and runs them on the keypad thread
+	private final KeyInput input = new KeyInput(new KeyInput.Commands() {
+		@Override
+		public void keyAccepted(char key) {
+			// whatever is being said gives way to what was asked for
+			soundMgr.requestStop();
+		}
+
+		@Override
+		public void run(char key) {
+			// drop anything an earlier key asked to be said
+			soundMgr.requestStop();
+			interpretKeyChar(key);
+		}
+
+		@Override
+		public void runChord(char first, char second) {
+			soundMgr.requestStop();
+			state = game.getSnapshot();
+			// 2 and 3 together read the tricks won by both teams
+			debugMsg("Tricks won");
+			addTricksWon("/sounds/bidding/northsouth.WAV",
+					state.getTeamTricksWon(Direction.NORTH));
+			addTricksWon("/sounds/bidding/eastwest.WAV",
+					state.getTeamTricksWon(Direction.EAST));
+			soundMgr.playSounds();
+		}
+
+		@Override
+		public boolean isReadOut(char key) {
+			return key != KeyEvent.VK_ENTER;
+		}
+	});
 
 	private SoundManager soundMgr = SoundManager.getInstance();
 
@@ -77,6 +111,7 @@ public class KeyPad extends KeyAdapter {
 		this.game = game;
 		tutorialPlayer = new AudioPlayer();
 		tutorialPlayer.init("/sounds/orientation/tutorial.WAV");
+		input.addChord((char) KeyEvent.VK_2, (char) KeyEvent.VK_3);
 	}
 //	KEY PRESSED WAS NOT WORKING PROPERLY BECAUSE DEPENDING ON HOW LONG A KEY IS PRESSED OR IF IT IS PRESSED OR TYPED, THE VALUE OF THE KEY CHANGED
 //	/**
@@ -116,7 +151,7 @@ public class KeyPad extends KeyAdapter {
 		//System.out.println("enter? " + (e.getKeyChar() == KeyEvent.VK_ENTER));
 		
 		// multiple keys had the same keycode (144) so the interpretKeyCode method did not work properly/
-		interpretKeyChar(e.getKeyChar()) ;
+		input.keyTyped(e);
 	}
 
 	/**
@@ -328,7 +363,7 @@ public class KeyPad extends KeyAdapter {
 
 			// ap.stop();
 			soundMgr.requestStop();
-			gameGUI.debugMsg("tutorial stopped");
+			debugMsg("tutorial stopped");
 
 		} else if (tutorialPlayer.isPlaying()) {
 
@@ -344,16 +379,14 @@ public class KeyPad extends KeyAdapter {
 	}
 
 	private void playTricksWonNS() {
-		int numTricksWon = game.getTricksWon(Direction.NORTH)
-				+ game.getTricksWon(Direction.SOUTH);
+		int numTricksWon = state.getTeamTricksWon(Direction.NORTH);
 
 		playTricksWon("/sounds/bidding/northsouth.WAV", numTricksWon);
 
 	}
 
 	private void playTricksWonEW() {
-		int numTricksWon = game.getTricksWon(Direction.EAST)
-				+ game.getTricksWon(Direction.WEST);
+		int numTricksWon = state.getTeamTricksWon(Direction.EAST);
 
 		playTricksWon("/sounds/bidding/eastwest.WAV", numTricksWon);
 
@@ -361,6 +394,11 @@ public class KeyPad extends KeyAdapter {
 
 	private void playTricksWon(String teamFile, int numTricksWon) {
 		soundMgr.clearSounds();
+		addTricksWon(teamFile, numTricksWon);
+		soundMgr.playSounds();
+	}
+
+	private void addTricksWon(String teamFile, int numTricksWon) {
 		soundMgr.addSound(teamFile);
 
 		String numberSound = "/sounds/bidding/";
@@ -370,17 +408,16 @@ public class KeyPad extends KeyAdapter {
 
 		soundMgr.addSound(numberSound);
 		soundMgr.addSound("/sounds/bidding/tricks.WAV");
-		soundMgr.playSounds();
 	}
 
-	private void readBlindHand(Player p) {
+	private void readBlindHand(Direction p) {
 		soundMgr.addSound("/sounds/ownership/you2.wav");
 		readHand(p);
 		soundMgr.playSounds();
 	}
 
 	// TODO: Need to test this
-	private void readBlindSuit(Suit s, Player p) {
+	private void readBlindSuit(Suit s, Direction p) {
 		// add the appropriate ownership sound
 		soundMgr.addSound("/sounds/ownership/you2.wav");
 
@@ -388,13 +425,13 @@ public class KeyPad extends KeyAdapter {
 		soundMgr.playSounds();
 	}
 
-	private void readDummyHand(Player p) {
+	private void readDummyHand(Direction p) {
 		soundMgr.addSound("/sounds/ownership/dummy2.wav");
 		readHand(p);
 		soundMgr.playSounds();
 	}
 
-	private void readDummySuit(Suit s, Player p) {
+	private void readDummySuit(Suit s, Direction p) {
 		// add the appropriate ownership sound
 		soundMgr.addSound("/sounds/ownership/dummy2.wav");
 
@@ -402,7 +439,7 @@ public class KeyPad extends KeyAdapter {
 		soundMgr.playSounds();
 	}
 
-	private void readHand(Player p) {
+	private void readHand(Direction p) {
 		readCardsOfSuit(Suit.CLUBS, p);
 		pause();
 
@@ -420,24 +457,21 @@ public class KeyPad extends KeyAdapter {
 		readCardsOfSuit(Suit.SPADES, p);
 	}
 
+	// Pauses between suits. The whole hand is one utterance, so that the
+	// next key stops all of it, and this thread does not wait for it.
 	private void pause() {
-		soundMgr.playSounds();
-		soundMgr.pauseSounds();
-		try {
-			Thread.sleep(800);
-		} catch (InterruptedException e) {
-		}
+		soundMgr.addSound(PhraseEngine.PAUSE);
 	}
 
-	private void readCardsOfSuit(Suit s, Player p) {
+	private void readCardsOfSuit(Suit s, Direction p) {
 		// add the appropriate number
-		int num = p.getNumOfSuit(s);
+		int num = state.getNumOfSuit(p, s);
 
 		soundMgr.addSound("/sounds/bidding/" + num + ".WAV");
 		soundMgr.addSound(s.getSound());
 
 		// walk over every card in the suit
-		Iterator<Card> cardIter = p.cards(s);
+		Iterator<Card> cardIter = state.cards(p, s);
 		while (cardIter.hasNext()) {
 			// add its sound string to the vector
 			Card c = cardIter.next();
@@ -448,21 +482,18 @@ public class KeyPad extends KeyAdapter {
 
 	/**
 	 * Play the current contract
-	 * 
-	 * @param contract
-	 *            the current contract
 	 */
-	private void playContract(Contract contract) {
-		if (contract == null) {
+	private void playContract() {
+		if (!state.hasContract()) {
 			return;
 		}
 
 		soundMgr.addSound("/sounds/bidding/contractis.WAV");
-		soundMgr.addSound("/sounds/bidding/" + contract.getContractNum()
+		soundMgr.addSound("/sounds/bidding/" + state.getContractNum()
 				+ ".WAV");
-		soundMgr.addSound("/sounds/suits/" + contract.getTrump() + ".WAV");
+		soundMgr.addSound("/sounds/suits/" + state.getTrump() + ".WAV");
 
-		switch (contract.getBidWinner()) {
+		switch (state.getBidWinner()) {
 
 		case SOUTH:
 			soundMgr.addSound("/sounds/directions/south.WAV");
@@ -480,13 +511,11 @@ public class KeyPad extends KeyAdapter {
 		}
 
 		soundMgr.playSounds();
-		soundMgr.pauseSounds();
 	}
 
 	private void readTrick() {
 
-		Trick trick = game.getCurrentTrick();
-		if (trick == null || trick.isEmpty()) {
+		if (state.isTrickEmpty()) {
 			return;
 		}
 
@@ -494,15 +523,15 @@ public class KeyPad extends KeyAdapter {
 
 		// If this is not the first hand, the winner of the last hand led the
 		// trick.
-		if (game.getLastWinner() != null) {
-			start = game.getLastWinner();
+		if (state.getLastWinner() != null) {
+			start = state.getLastWinner();
 		}
 
 		// If this is the first hand, the player who precedes the dummy hand
 		// plays
 		// the lead card
-		else if (game.getDummyPosition() != null) {
-			start = game.getDummyPosition().getPreviousDirection();
+		else if (state.getDummyPosition() != null) {
+			start = state.getDummyPosition().getPreviousDirection();
 		}
 
 		// If the dummy hand is unknown, it means that bidding is not complete
@@ -516,7 +545,7 @@ public class KeyPad extends KeyAdapter {
 		int nextPlayer = start.ordinal();
 		for (int i = 0; i < 4; i++) {
 
-			Card nextCard = trick.getCard(nextPlayer);
+			Card nextCard = state.getTrickCard(Direction.values()[nextPlayer]);
 			if (nextCard != null) {
 				switch (Direction.values()[nextPlayer]) {
 				case NORTH:
@@ -534,7 +563,7 @@ public class KeyPad extends KeyAdapter {
 
 				}
 
-				soundMgr.addSound(trick.getCard(nextPlayer).getSound());
+				soundMgr.addSound(nextCard.getSound());
 			}
 			nextPlayer = (nextPlayer + 1) % 4;
 		}
@@ -639,115 +668,100 @@ public class KeyPad extends KeyAdapter {
 //
 //	}
 	
+	/**
+	 * Carries out the command for a key. Called on the keypad thread.
+	 * 
+	 * @param keyCharacter
+	 *            the key typed
+	 */
 	protected void interpretKeyChar(char keyCharacter) {
 		System.out.println("In interpretKeyChar");
 
-		synchronized (this) {
-			if (/* keyCharacter != KeyEvent.VK_0 || */!ignoringKeys
-					|| keyCharacter != lastKeyChar) {
-				lastKeyChar = keyCharacter;
-
-				// start ignoring key presses
-				ignoringKeys = true;
-
-				// Count the number of timers so that we only unset ignoringKeys
-				// 5 seconds after the last key is typed.
-				numTimers++;
-				// create a timer to stop ignoring after 1 second
-				Timer t = new Timer(true);
-				t.schedule(new TimerTask() {
-					@Override
-					public void run() {
-						synchronized (KeyPad.this) {
-							if (numTimers == 1) {
-								ignoringKeys = false;
-							}
-							numTimers--;
-						}
-					}
-
-				}, 5000);
-				if (game.getBlindPosition() != null) {
-
-					Player blindPlayer = game.getBlindPlayer();
-
-					// if the backspace key was pressed
-					if (blindPlayer != null) {
-						readBlindPlayerHand(keyCharacter, blindPlayer);
-					}
-				}
-
-				if (game.getDummyPosition() != null) {
-					readDummyHand(keyCharacter);
-				}
-
-				if (keyCharacter == KeyEvent.VK_PLUS) {
+		state = game.getSnapshot();
 
-					// read the cards in the current trick
-					gameGUI.debugMsg("Current trick");
-					readTrick();
+		if (state.getBlindPosition() != null) {
+			readBlindPlayerHand(keyCharacter, state.getBlindPosition());
+		}
 
-					// if the 1 was pressed
-				} else if (keyCharacter == KeyEvent.VK_1) {
+		if (state.getDummyPosition() != null) {
+			readDummyHand(keyCharacter);
+		}
 
-					// read the contract
-					gameGUI.debugMsg("Contract");
-					playContract(game.getContract());
+		if (keyCharacter == KeyEvent.VK_PLUS) {
 
-					// if the 2 was pressed
-				} else if (keyCharacter == KeyEvent.VK_2) {
+			// read the cards in the current trick
+			debugMsg("Current trick");
+			readTrick();
 
-					// read N/S's current tricks won
-					gameGUI.debugMsg("N/S tricks won");
-					playTricksWonNS();
+			// if the 1 was pressed
+		} else if (keyCharacter == KeyEvent.VK_1) {
 
-					// if the 3 was pressed
-				} else if (keyCharacter == KeyEvent.VK_3) {
+			// read the contract
+			debugMsg("Contract");
+			playContract();
 
-					// read E/W's current tricks won
-					gameGUI.debugMsg("E/W tricks won");
-					playTricksWonEW();
+			// if the 2 was pressed
+		} else if (keyCharacter == KeyEvent.VK_2) {
 
-					// if the 0 was pressed
-				} else if (keyCharacter == KeyEvent.VK_0) {
+			// read N/S's current tricks won
+			debugMsg("N/S tricks won");
+			playTricksWonNS();
 
-					// repeat the last thing said
-					gameGUI.debugMsg("Repeat");
-					soundMgr.playLastSound();
+			// if the 3 was pressed
+		} else if (keyCharacter == KeyEvent.VK_3) {
 
-					// if the enter key is pressed then play the blid player's
-					// card
-				} else if (keyCharacter == KeyEvent.VK_ENTER) {
-					// playTutorial();
+			// read E/W's current tricks won
+			debugMsg("E/W tricks won");
+			playTricksWonEW();
 
-					System.out
-							.println("################ Enter is pressed #########################");
+			// if the 0 was pressed
+		} else if (keyCharacter == KeyEvent.VK_0) {
 
-					try {
-						game.playBlindCard();
-					} catch (NullPointerException e) {
+			// repeat the last thing said
+			debugMsg("Repeat");
+			soundMgr.playLastSound();
 
-						System.err
-								.println("Blind person pressed the Enter button by mistake");
-					}
+			// if the enter key is pressed then play the blid player's
+			// card
+		} else if (keyCharacter == KeyEvent.VK_ENTER) {
+			// playTutorial();
 
-				}
+			System.out
+					.println("################ Enter is pressed #########################");
 
-				// lastCode = keyCode;
+			try {
+				game.playBlindCard();
+			} catch (NullPointerException e) {
 
+				System.err
+						.println("Blind person pressed the Enter button by mistake");
 			}
 
 		}
+	}
 
+	/**
+	 * Shows a message in the GUI's debug area, on the event thread
+	 * 
+	 * @param msg
+	 *            the message
+	 */
+	private void debugMsg(final String msg) {
+		GuiScheduler.onEventThread(new Runnable() {
+			@Override
+			public void run() {
+				gameGUI.debugMsg(msg);
+			}
+		});
 	}
 
 	private void readDummyHand(char keyCharacter) {
-		Player dummyPlayer = game.getDummyPlayer();
+		Direction dummyPlayer = state.getDummyPosition();
 		
 		if (keyCharacter == KeyEvent.VK_MINUS) {
 
 			// read the dummy's clubs
-			gameGUI.debugMsg("Dummy spades:");
+			debugMsg("Dummy spades:");
 			
 			
 			// printCards(Suit.CLUBS, dummyPlayer);
@@ -757,7 +771,7 @@ public class KeyPad extends KeyAdapter {
 		} else if (keyCharacter == KeyEvent.VK_9) {
 
 			// read the dummy's diamonds
-			gameGUI.debugMsg("Dummy hearts:");
+			debugMsg("Dummy hearts:");
 			
 			// printCards(Suit.DIAMONDS, dummyPlayer);
 			readDummySuit(Suit.HEARTS, dummyPlayer);
@@ -766,7 +780,7 @@ public class KeyPad extends KeyAdapter {
 		} else if (keyCharacter == KeyEvent.VK_8) {
 
 			// read the dummy's hearts
-			gameGUI.debugMsg("Dummy diamonds:");
+			debugMsg("Dummy diamonds:");
 			
 			// printCards(Suit.HEARTS, dummyPlayer);
 			readDummySuit(Suit.DIAMONDS, dummyPlayer);
@@ -775,7 +789,7 @@ public class KeyPad extends KeyAdapter {
 		} else if (keyCharacter == KeyEvent.VK_7) {
 
 			// read the dummy's spades
-			gameGUI.debugMsg("Dummy clubs:");
+			debugMsg("Dummy clubs:");
 			
 			
 			// printCards(Suit.SPADES, dummyPlayer);
@@ -785,13 +799,13 @@ public class KeyPad extends KeyAdapter {
 		} else if (keyCharacter == KeyEvent.VK_5) {
 
 			// read the dummy's entire hand
-			gameGUI.debugMsg("Dummy hand:");
+			debugMsg("Dummy hand:");
 			
 			readDummyHand(dummyPlayer);
 		}
 	}
 
-	private void readBlindPlayerHand(char keyCharacter, Player blindPlayer) {
+	private void readBlindPlayerHand(char keyCharacter, Direction blindPlayer) {
 		
 //		System.out.println("multiply is " + KeyEvent.VK_MULTIPLY);
 //		System.out.println("asterick is " + KeyEvent.VK_ASTERISK);
@@ -801,7 +815,7 @@ public class KeyPad extends KeyAdapter {
 		if (keyCharacter == KeyEvent.VK_BACK_SPACE) {
 
 			// read the visually impaired player's clubs
-			gameGUI.debugMsg("Own spades:");
+			debugMsg("Own spades:");
 			// printCards(Suit.CLUBS, blindPlayer);
 			readBlindSuit(Suit.SPADES, blindPlayer);
 
@@ -818,7 +832,7 @@ public class KeyPad extends KeyAdapter {
 		} else if (keyCharacter == KeyEvent.VK_SLASH) {
 
 			// read the visually impaired player's hearts
-			gameGUI.debugMsg("Own hearts:");
+			debugMsg("Own hearts:");
 			// printCards(Suit.HEARTS, blindPlayer);
 			readBlindSuit(Suit.DIAMONDS, blindPlayer);
 
@@ -826,7 +840,7 @@ public class KeyPad extends KeyAdapter {
 		} else if (keyCharacter == KeyEvent.VK_TAB) {
 
 			// read the visually impaired player's spades
-			gameGUI.debugMsg("Own spades:");
+			debugMsg("Own spades:");
 			// printCards(Suit.SPADES, blindPlayer);
 			readBlindSuit(Suit.CLUBS, blindPlayer);
 
@@ -834,7 +848,7 @@ public class KeyPad extends KeyAdapter {
 		} else if (keyCharacter == KeyEvent.VK_4) {
 
 			// read the VI player's entire hand
-			gameGUI.debugMsg("Own hand:");
+			debugMsg("Own hand:");
 			readBlindHand(blindPlayer);
 		}
 	}
@@ -8,8 +8,6 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import javax.swing.BorderFactory;
 import javax.swing.JComponent;
@@ -23,6 +21,9 @@ import model.Direction;
  * This class displays the rank and suit of the current card of the players in
  * each cardianl direction
  * 
+ * It is changed only on the Swing event thread. Changes ask for a repaint,
+ * and Swing paints several changes in a row once.
+ * 
  * @author Barbara Lerner
  * @version March 12, 2015
  */
@@ -45,8 +46,6 @@ public class PlayerStatusGUI extends JComponent {
 	private double rotation;
 	private Direction dir;
 
-	private boolean trickOver = true;
-
 	public PlayerStatusGUI(Direction dir) {
 		setBorder(PLAYER_BORDER);
 
@@ -197,32 +196,7 @@ public class PlayerStatusGUI extends JComponent {
 
 		}
 
-		// so that this thread is called first before the audio starts playing
-		// and the painting of the last card is not delayed
-
-		synchronized (this) {
-
-			try {
-				while (!trickOver) {
-					
-					System.out.println("waiting for trick to be over ");
-
-					wait();
-				}
-			} catch (InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			
-			System.out.println("Player status gui card found. trick is over so repainting");
-			
-			
-			paintImmediately(0, 0, getWidth(), getHeight());
-			trickOver = false ; 
-		}
-		
-		
-
+		repaint();
 	}
 
 	public void trickOver() {
@@ -232,20 +206,7 @@ public class PlayerStatusGUI extends JComponent {
 		rankPlayed = "";
 		suitPlayed = "";
 		setBorder(PLAYER_BORDER);
-		
-		synchronized (this) {
-		
-			trickOver = true ;
-	
-			System.out.println("notified trick over");
-			
-			paintImmediately(0, 0, getWidth(), getHeight());
-			
-			notifyAll();
-
-			
-		}
-
+		repaint();
 	}
 
 	public void nextPlayer() {
@@ -275,8 +236,7 @@ public class PlayerStatusGUI extends JComponent {
 		suitPlayed = "" ;
 		rankPlayed = "" ;
 		setBorder(NEXT_PLAYER_BORDER);
-		//repaint();
-		paintImmediately(0, 0, getWidth(), getHeight());
+		repaint();
 		
 	}
 
@@ -284,10 +244,4 @@ public class PlayerStatusGUI extends JComponent {
 		return PLAYER_BORDER;
 	}
 	
-	public void setTrickOver(boolean trickOver){
-		
-		this.trickOver = trickOver ;
-	}
-
-	
 }
@@ -3,8 +3,10 @@ package gui;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -16,6 +18,8 @@ import model.Contract;
 import model.Direction;
 import model.Game;
 import model.GameListener;
+import model.GameSnapshot;
+import model.GameState;
 import model.Player;
 import model.Rank;
 import model.Suit;
@@ -26,10 +30,17 @@ import model.Suit;
  * It listens to the game. When the dummy hand is completely scanned in, it
  * advances to the next screen.
  *
+ * Events arrive on the Swing event thread. They update the ranks shown for
+ * each suit, and the labels are brought up to date once per frame, so the
+ * dummy's cards being scanned quickly cause one update rather than one each.
+ *
  * @version March 12, 2015
  */
 public class ScanDummyGUI extends JPanel implements GameListener {
 
+	private static final Suit[] SUITS = { Suit.CLUBS, Suit.DIAMONDS,
+			Suit.HEARTS, Suit.SPADES };
+
 	private GameGUI gameGUI;
 	private Game game;
 	private Player dummy;
@@ -39,6 +50,29 @@ public class ScanDummyGUI extends JPanel implements GameListener {
 	private JLabel heartsScanned = new JLabel("Hearts: ");
 	private JLabel spadesScanned = new JLabel("Spades: ");
 
+	// the label for each suit
+	private EnumMap<Suit, JLabel> suitLabels = new EnumMap<Suit, JLabel>(
+			Suit.class);
+
+	// the ranks of the dummy cards scanned so far, by suit
+	private EnumMap<Suit, List<Rank>> ranksScanned = new EnumMap<Suit, List<Rank>>(
+			Suit.class);
+
+	// true from the first card being played until the dummy hand is scanned
+	private boolean scanningDummy = false;
+
+	// true once the dummy hand has been scanned in this hand
+	private boolean dummyScanned = false;
+
+	// brings the labels up to date with ranksScanned
+	private GuiScheduler.Refresh refresh = new GuiScheduler.Refresh(
+			new Runnable() {
+				@Override
+				public void run() {
+					showRanksScanned();
+				}
+			});
+
 	/**
 	 * Creates the GUI
 	 * 
@@ -72,6 +106,14 @@ public class ScanDummyGUI extends JPanel implements GameListener {
 		infoPanel.add(spadesScanned);
 
 		add(infoPanel);
+
+		suitLabels.put(Suit.CLUBS, clubsScanned);
+		suitLabels.put(Suit.DIAMONDS, diamondsScanned);
+		suitLabels.put(Suit.HEARTS, heartsScanned);
+		suitLabels.put(Suit.SPADES, spadesScanned);
+		for (Suit suit : SUITS) {
+			ranksScanned.put(suit, new ArrayList<Rank>());
+		}
 	}
 
 	@Override
@@ -82,42 +124,98 @@ public class ScanDummyGUI extends JPanel implements GameListener {
 
 	@Override
 	public void gameReset() {
-
-		clubsScanned.setText("Clubs: ");
-		diamondsScanned.setText("Diamonds: ");
-		heartsScanned.setText("Hearts: ");
-		spadesScanned.setText("Spades: ");
-		repaint();
+		scanningDummy = false;
+		dummyScanned = false;
+		for (Suit suit : SUITS) {
+			ranksScanned.get(suit).clear();
+		}
+		refresh.request();
 	}
 
+	/**
+	 * The dummy's cards are scanned after the first card is played. The game
+	 * may have moved on by the time this hears of a scan, so it keeps track
+	 * of that itself rather than asking the game.
+	 */
 	@Override
 	public void cardPlayed(Direction turn, Card card) {
-		// TODO Auto-generated method stub
-
+		if (!dummyScanned) {
+			scanningDummy = true;
+		}
 	}
 
 	@Override
 	public void cardScanned(Card card) {
-		if (game.isScanningDummy()) {
-			switch (card.getSuit()) {
-			case CLUBS:
-				updateCardsScanned(card, clubsScanned);
-				break;
-			case DIAMONDS:
-				updateCardsScanned(card, diamondsScanned);
-				break;
-			case HEARTS:
-				updateCardsScanned(card, heartsScanned);
-				break;
-			case SPADES:
-				updateCardsScanned(card, spadesScanned);
-				break;
+		if (scanningDummy && ranksScanned.containsKey(card.getSuit())) {
+			ranksScanned.get(card.getSuit()).add(card.getRank());
+			refresh.request();
+		}
+	}
+
+	/**
+	 * Shows the dummy's cards scanned in a snapshot of the game. Used when
+	 * the scans that led to the snapshot were not heard, as when a game is
+	 * resumed from its journal.
+	 * 
+	 * @param state
+	 *            the snapshot to show
+	 */
+	public void showSnapshot(GameSnapshot state) {
+		scanningDummy = state.getGameState() == GameState.SCANNING_DUMMY;
+		dummyScanned = state.getGameState() == GameState.PLAYING;
+		Direction dummyPosition = state.getDummyPosition();
+		dummy = dummyPosition == null ? null : game.getDummyPlayer();
+		for (Suit suit : SUITS) {
+			List<Rank> ranks = ranksScanned.get(suit);
+			ranks.clear();
+			if (scanningDummy && dummyPosition != null) {
+				Iterator<Card> cards = state.cards(dummyPosition, suit);
+				while (cards.hasNext()) {
+					ranks.add(cards.next().getRank());
+				}
 			}
 		}
+		refresh.request();
 	}
 
-	private void updateCardsScanned(Card card, JLabel suitCards) {
-		suitCards.setText(suitCards.getText() + "  " + card.getRank());
+	/**
+	 * @param suit
+	 *            a suit
+	 * @return the ranks of the dummy's cards in the suit that are shown
+	 */
+	List<Rank> getRanksShown(Suit suit) {
+		return ranksScanned.get(suit);
+	}
+
+	/**
+	 * Shows the ranks scanned for each suit, and enables undo if there are any
+	 */
+	private void showRanksScanned() {
+		for (Suit suit : SUITS) {
+			JLabel label = suitLabels.get(suit);
+			String text = label.getText();
+			StringBuilder newText = new StringBuilder(text.substring(0,
+					text.indexOf(':') + 1));
+			for (Rank rank : ranksScanned.get(suit)) {
+				newText.append("  ").append(rank);
+			}
+			label.setText(newText.toString());
+		}
+		if (gameGUI != null) {
+			gameGUI.undoButtonSetEnabled(hasRanksScanned());
+		}
+	}
+
+	/**
+	 * @return true if any of the dummy's cards have been scanned
+	 */
+	private boolean hasRanksScanned() {
+		for (Suit suit : SUITS) {
+			if (!ranksScanned.get(suit).isEmpty()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
@@ -140,10 +238,12 @@ public class ScanDummyGUI extends JPanel implements GameListener {
 	 */
 	@Override
 	public void dummyHandScanned() {
+		scanningDummy = false;
+		dummyScanned = true;
 
 		// wait 2 seconds before switching screen so that the last dummy card is
 		// visible
-		TimerTask timertask = new TimerTask() {
+		GuiScheduler.later(new Runnable() {
 
 			@Override
 			public void run() {
@@ -151,83 +251,28 @@ public class ScanDummyGUI extends JPanel implements GameListener {
 				gameGUI.changeFrame();
 
 			}
-		};
-
-		Timer timer = new Timer(true);
-		timer.schedule(timertask, 2000);
+		}, 2000);
 
 	}
 
+	/**
+	 * Removes a card that was scanned by mistake
+	 * 
+	 * @param toRemove
+	 *            the card to remove
+	 */
 	public void undo(Card toRemove) {
 
-		System.out.println("Scan Dummy GUI umdo ");
-		
-		Suit suit = toRemove.getSuit();
-		
-		Rank rank = toRemove.getRank();
-		
-		System.out.println("rank is -"+ rank + "-");
-
-		String ranks = "";
-		JLabel label = null ;
-
-		switch (suit) {
-
-		case CLUBS:
-			ranks = clubsScanned.getText();
-			label = clubsScanned ;
-			break;
+		System.out.println("Scan Dummy GUI undo ");
 
-		case DIAMONDS:
-			ranks = diamondsScanned.getText();
-			label = diamondsScanned ;
-			break;
-
-		case HEARTS:
-			ranks = heartsScanned.getText();
-			label = heartsScanned ;
-			break;
-
-		case SPADES:
-			ranks = spadesScanned.getText();
-			label = spadesScanned ;
-			break;
-
-		default:
+		List<Rank> ranks = ranksScanned.get(toRemove.getSuit());
+		if (ranks == null) {
 			System.err.println("There should not be a fifth suit");
 			return;
 		}
 
-		// getting rid of that rank
-		
-		// separate text before and after the ":"
-		int colonIndex = ranks.indexOf(":") ;
-
-		String beforeColon = ranks.substring(0,colonIndex + 1 ) ;
-		
-		String afterColon = ranks.substring(colonIndex + 1) ;
-		
-		// split into array to find the appropriate rank
-		String[] rankArray = afterColon.split(" ") ;
-		
-		String newAfterColon = "" ;
-		
-		for(int i = 0 ; i < rankArray.length ; i++){
-			
-			// dont want to add the rank to be removed
-			if(!rankArray[i].equals(rank.toString())){
-				
-				newAfterColon += " " + rankArray[i]  ;
-			}
-		}
-		
-		
-		label.setText(beforeColon + newAfterColon);
-		
-		System.out.println("should say " + beforeColon + newAfterColon);
-		
-		repaint();
-
+		ranks.remove(toRemove.getRank());
+		refresh.request();
 	}
 
 	@Override
@@ -236,22 +281,6 @@ public class ScanDummyGUI extends JPanel implements GameListener {
 		super.paintComponent(g);	
 		
 		gameGUI.backButtonSetEnabled(false);
-		
-		boolean noClubs = clubsScanned.getText().trim().charAt(clubsScanned.getText().trim().length()-1) == ':' ;
-		boolean noDiamonds = diamondsScanned.getText().trim().charAt(diamondsScanned.getText().trim().length()-1) == ':' ;
-		boolean noHearts = heartsScanned.getText().trim().charAt(heartsScanned.getText().trim().length()-1) == ':' ;
-		boolean noSpades = spadesScanned.getText().trim().charAt(spadesScanned.getText().trim().length()-1) == ':' ;
-		
-		if(noClubs && noDiamonds && noHearts && noSpades){
-			
-			gameGUI.undoButtonSetEnabled(false);
-			
-		}else{
-			
-			gameGUI.undoButtonSetEnabled(true);
-			
-		}
-		
-		gameGUI.repaint();
+		gameGUI.undoButtonSetEnabled(hasRanksScanned());
 	}
 }
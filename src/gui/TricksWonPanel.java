@@ -12,6 +12,7 @@ import model.Card;
 import model.Contract;
 import model.Direction;
 import model.GameListener;
+import model.GameSnapshot;
 
 public class TricksWonPanel extends JPanel implements GameListener {
 	private static final Font TRICK_FONT = GameStatusGUI.STATUS_FONT.deriveFont(24f);
@@ -55,6 +56,31 @@ public class TricksWonPanel extends JPanel implements GameListener {
 		northSouthTrickLabel.setText("0");
 	}
 
+	/**
+	 * Shows the tricks won in a snapshot of the game
+	 * 
+	 * @param state
+	 *            the snapshot to show
+	 */
+	public void showSnapshot(GameSnapshot state) {
+		eastWestTricks = state.getTeamTricksWon(Direction.EAST);
+		northSouthTricks = state.getTeamTricksWon(Direction.NORTH);
+		eastWestTrickLabel.setText("" + eastWestTricks);
+		northSouthTrickLabel.setText("" + northSouthTricks);
+	}
+
+	/**
+	 * @param player
+	 *            a player
+	 * @return the tricks shown as won by the player and their partner
+	 */
+	int getTricksShown(Direction player) {
+		if (player == Direction.EAST || player == Direction.WEST) {
+			return eastWestTricks;
+		}
+		return northSouthTricks;
+	}
+
 	@Override
 	public void cardPlayed(Direction turn, Card card) {
 		// TODO Auto-generated method stub
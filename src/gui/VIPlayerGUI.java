@@ -45,6 +45,23 @@ public class VIPlayerGUI extends DirectionGUI{
 		}
 	}
 
+	/**
+	 * Enables or disables the buttons that choose the blind player's position.
+	 * They are disabled while the reader server starts, as choosing a position
+	 * switches the antennas.
+	 * @param enabled true to let the position be chosen
+	 */
+	public void setPositionsEnabled(boolean enabled) {
+		eastButton.setEnabled(enabled);
+		
+		// only east can be chosen in the test case
+		if (!Game.isTestMode()) {
+			northButton.setEnabled(enabled);
+			southButton.setEnabled(enabled);
+			westButton.setEnabled(enabled);
+		}
+	}
+
 	/**
 	 * Sets the antenna the blind player is on.
 	 * Starts the antenna handler listening to the blind person's antenna.
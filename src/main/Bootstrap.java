@@ -0,0 +1,71 @@
+package main;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import metrics.StartupTimeline;
+
+/**
+ * Runs the parts of starting the game that do not depend on each other on a
+ * small pool of threads, so that the first screen can be shown while the
+ * reader server starts, the card database is read and the sounds are made
+ * ready. Each part marks the StartupTimeline as it finishes.
+ *
+ * The threads are daemons, so a part that never finishes, such as waiting on
+ * a reader server that is not there, does not keep the program running.
+ *
+ * @version Oct 18, 2026
+ */
+public class Bootstrap {
+	/** Threads running the parts of starting up */
+	public static final int THREADS = 3;
+
+	// numbers the threads
+	private final AtomicInteger threads = new AtomicInteger();
+
+	private final ExecutorService pool = Executors.newFixedThreadPool(
+			THREADS, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Startup "
+							+ threads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	/**
+	 * Starts a part of starting up on the pool
+	 *
+	 * @param phase
+	 *            what the part has done once it finishes, for the timeline
+	 * @param part
+	 *            the part to run
+	 * @return the part, which can be waited on by the parts that need it
+	 */
+	public Future<?> run(final String phase, final Runnable part) {
+		return pool.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					part.run();
+					StartupTimeline.mark(phase);
+				} catch (RuntimeException e) {
+					System.err.println("Starting up failed before " + phase);
+					e.printStackTrace();
+					throw e;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Lets the threads finish once the parts already started are done
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
@@ -3,18 +3,31 @@ package main;
 import main.SyncPipe;
 import gui.GameGUI;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.ConnectException;
 import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import controller.AntennaHandler;
+import controller.FramedAntennaHandler;
+import controller.ReaderSupervisor;
+import controller.StartupCoordinator;
+import controller.StreamingAntennaHandler;
+import controller.TraceRecorder;
+import metrics.Metrics;
+import metrics.StartupTimeline;
 import model.CardDatabase;
 import model.Game;
+import model.GameJournal;
 import audio.AudibleGameListener;
+import audio.SoundManager;
 
 public class BridgeActualGame implements BridgeMode {
 
@@ -27,53 +40,221 @@ public class BridgeActualGame implements BridgeMode {
 	// the space at the end is important
 	private static final String COMMAND = "start ";
 
-	public BridgeActualGame() {
-
-		startServer();
+	// true to have the reader server stream tags as it reads them. Set to
+	// false to fall back to polling with "T" requests for reader servers that
+	// do not support streaming.
+	private static final boolean STREAM_TAGS = true;
 
-		// start the game 15 seconds after starting the C# Server
-		TimerTask timerTask = new TimerTask() {
+	// true to have the streamed tags sent as binary frames rather than text
+	private static final boolean FRAMED_TAGS = true;
 
-			@Override
-			public void run() {
+	// true to record a trace of each session, which a ReplayHandler can
+	// replay into a game. Off unless the program is started with
+	// -Dbridge4blind.trace=true.
+	private static final boolean RECORD_TRACE = Boolean
+			.getBoolean("bridge4blind.trace");
 
-				start();
+	// milliseconds between printing the metrics of the card pipeline
+	private static final long METRICS_DUMP_MILLIS = 60000;
 
-			}
+	// records each hand so that it can be resumed if the program stops
+	private static final File JOURNAL_FILE = new File(
+			System.getProperty("user.home"), "bridge4blind.journal");
 
-		};
+	public BridgeActualGame() {
 
-		// wait 4 seconds after starting the server to start the game
-		Timer timer = new Timer(true);
-		timer.schedule(timerTask, 4000);
+		StartupTimeline.start();
+		start();
 
 	}
 
+	/**
+	 * Shows the first screen at once, and starts the reader server, reads the
+	 * cards and makes the sounds ready on a small pool of threads. The
+	 * antennas are activated on the pool as soon as the server is ready, and
+	 * the blind player's position can be chosen once they are.
+	 */
 	@Override
 	public void start() {
 
-		try {
-			Game game = new Game(new AntennaHandler(new CardDatabase()), false);
-			game.activateAntennas();
-			GameGUI gui = new GameGUI(game);
-			game.addListener(new AudibleGameListener());
-			game.addListener(gui);
+		Bootstrap bootstrap = new Bootstrap();
+		bootstrap.run("reader server launched", new Runnable() {
+			@Override
+			public void run() {
+				startServer();
+			}
+		});
+
+		final CardDatabase cards = new CardDatabase(false);
+		final Future<?> cardsLoaded = bootstrap.run("card database loaded",
+				new Runnable() {
+					@Override
+					public void run() {
+						cards.load();
+					}
+				});
+
+		// decode the sounds while the server starts
+		bootstrap.run("sounds decoded", new Runnable() {
+			@Override
+			public void run() {
+				SoundManager.getInstance().preloadSounds();
+			}
+		});
+		bootstrap.run("sound line opened", new Runnable() {
+			@Override
+			public void run() {
+				SoundManager.getInstance().openLine();
+			}
+		});
+
+		final AntennaHandler handler;
+		if (!STREAM_TAGS) {
+			handler = new AntennaHandler(cards);
+		} else if (FRAMED_TAGS) {
+			handler = new FramedAntennaHandler(cards);
+		} else {
+			handler = new StreamingAntennaHandler(cards);
+		}
+		if (RECORD_TRACE) {
+			recordTrace(handler);
+		}
+		final Game game = new Game(handler, false);
+		final GameGUI gui = new GameGUI(game);
+		gui.waitForReader();
+		game.addListener(new AudibleGameListener());
+		game.addListener(gui);
+		StartupTimeline.mark("first screen shown");
+
+		bootstrap.run("game ready", new Runnable() {
+			@Override
+			public void run() {
+				activate(game, handler, gui, cardsLoaded);
+			}
+		});
+		bootstrap.shutdown();
+		Metrics.getDefault().startDump(METRICS_DUMP_MILLIS, System.out);
 
-			gui.debugMsg("main run");
+		gui.debugMsg("main run");
+
+	}
+
+	/**
+	 * Activates the antennas as soon as the reader server is ready, resumes
+	 * the last hand if the program stopped in the middle of it, and lets the
+	 * game begin
+	 * 
+	 * @param game
+	 *            the new game
+	 * @param handler
+	 *            the handler for the game
+	 * @param gui
+	 *            the game's screens
+	 * @param cardsLoaded
+	 *            finishes once the handler's card database is read
+	 */
+	private static void activate(Game game, AntennaHandler handler,
+			GameGUI gui, Future<?> cardsLoaded) {
+		String failure;
+		try {
+			// the handler looks up cards as soon as it is connected
+			cardsLoaded.get();
+			new StartupCoordinator(handler).activate(game);
+			int resumed = resume(game);
+			if (resumed > 0) {
+				gui.showResumedGame();
+			}
+			gui.setReaderSupervisor(superviseReader(handler));
+			gui.readerReady();
+			return;
 
 		} catch (UnknownHostException e) {
-			System.err.println("Could not connect to server.  Host unknown.");
+			failure = "Could not connect to server.  Host unknown.";
 		} catch (ConnectException connectExc) {
-			System.err.println("The server is not running!");
+			failure = "The server is not running! " + connectExc.getMessage();
+		} catch (SocketTimeoutException timeout) {
+			failure = "The server is not answering! " + timeout.getMessage();
 		} catch (SocketException socketEsc) {
-			System.err
-					.println("Check that there is no virus scanner blocking IRC connections.");
+			failure = "Check that there is no virus scanner blocking IRC connections.";
 			socketEsc.printStackTrace();
 		} catch (IOException e) {
-			System.err.println("Could not connect to server.");
+			failure = "Could not connect to server.";
+			e.printStackTrace();
+		} catch (ExecutionException e) {
+			failure = "Could not read the card database.";
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			failure = "Interrupted while starting the game.";
+		}
+		System.err.println(failure);
+		gui.showStartupError(failure);
+	}
+
+	/**
+	 * Starts a supervisor that makes the connection to the reader server
+	 * again whenever it fails, starting the server again if it has stopped
+	 * 
+	 * @param handler
+	 *            the handler connected to the server
+	 * @return the supervisor
+	 */
+	private static ReaderSupervisor superviseReader(AntennaHandler handler) {
+		ReaderSupervisor supervisor = new ReaderSupervisor(handler);
+		supervisor.setServerStarter(new Runnable() {
+			@Override
+			public void run() {
+				startServer();
+			}
+		});
+		supervisor.start();
+		return supervisor;
+	}
+
+	/**
+	 * Records what the handler reads and what the game is told in a new trace
+	 * file in the home directory
+	 * 
+	 * @param handler
+	 *            the handler reading from the server
+	 */
+	private static void recordTrace(AntennaHandler handler) {
+		File traceFile = new File(System.getProperty("user.home"),
+				"bridge4blind-"
+						+ new SimpleDateFormat("yyyyMMdd-HHmmss")
+								.format(new Date()) + ".trace");
+		try {
+			handler.setTraceRecorder(new TraceRecorder(traceFile));
+			System.out.println("Recording a trace in " + traceFile);
+		} catch (IOException e) {
+			System.err.println("Cannot record a trace in " + traceFile);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Plays the journal of the last hand back into the game, so that a hand
+	 * interrupted by the program stopping carries on where it was, and records
+	 * the rest of the hand in the journal
+	 * 
+	 * @param game
+	 *            the new game
+	 * @return the number of journal entries played back
+	 */
+	private static int resume(Game game) {
+		GameJournal journal;
+		try {
+			journal = new GameJournal(JOURNAL_FILE);
+		} catch (IOException e) {
+			System.err.println("Cannot open the game journal; the hand will not be recorded.");
 			e.printStackTrace();
+			return 0;
 		}
 
+		long start = System.nanoTime();
+		int entries = game.replay(journal);
+		System.out.println("Resumed " + entries + " journal entries in "
+				+ (System.nanoTime() - start) / 1000000 + " ms");
+		return entries;
 	}
 
 	/**
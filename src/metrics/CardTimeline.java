@@ -0,0 +1,95 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times a card on its way from the reader to the blind player's ear, in the
+ * default registry:
+ * <ul>
+ * <li>card.frameToGame: from reading the frame with the card to the game
+ * being told about it, including the wait in the dispatcher's queue, the
+ * debounce stage and the wait for the game's lock</li>
+ * <li>card.gameToAudio: from the game being told about a card to the first
+ * sample of the next sound being written to the sound line, including the
+ * game's listeners and the wait for any sound already playing</li>
+ * </ul>
+ *
+ * The card passes from thread to thread without carrying its times, so they
+ * are left where the next stage looks for them. The dispatcher thread
+ * delivering a card notes when it was read, and the game looks for it on
+ * the same thread. The game notes when it was told about the card, and the
+ * first sound to start afterwards takes the time.
+ *
+ * The first card the game is told about also ends the StartupTimeline.
+ *
+ * @version Oct 18, 2026
+ */
+public final class CardTimeline {
+	/**
+	 * A sound starting this long after the last card is not taken to be
+	 * about the card
+	 */
+	public static final long STALE_MILLIS = 10000;
+
+	private static final long STALE_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(STALE_MILLIS);
+
+	private static final LatencyHistogram toGame = Metrics.getDefault()
+			.histogram("card.frameToGame");
+	private static final LatencyHistogram toAudio = Metrics.getDefault()
+			.histogram("card.gameToAudio");
+
+	// when the frame of the card being delivered on this thread was read,
+	// or 0 if the thread is not delivering a card
+	private static final ThreadLocal<long[]> frameRead = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[1];
+		}
+	};
+
+	// when the game was last told about a card that no sound has started
+	// for yet, or 0
+	private static final AtomicLong cardFoundAt = new AtomicLong();
+
+	private CardTimeline() {
+	}
+
+	/**
+	 * Called by the thread about to hand a card to its listener
+	 *
+	 * @param readNanos
+	 *            when the card's frame was read, from System.nanoTime, or 0
+	 *            once the card has been handed over
+	 */
+	public static void delivering(long readNanos) {
+		frameRead.get()[0] = readNanos;
+	}
+
+	/**
+	 * Called by the game when it is told about a card
+	 */
+	public static void cardFound() {
+		StartupTimeline.finish("first card accepted");
+		long now = System.nanoTime();
+		long read = frameRead.get()[0];
+		if (read != 0) {
+			toGame.record(now - read);
+		}
+		cardFoundAt.set(now);
+	}
+
+	/**
+	 * Called when the first sample of a sound is written to the line
+	 */
+	public static void soundStarted() {
+		long found = cardFoundAt.getAndSet(0);
+		if (found != 0) {
+			long latency = System.nanoTime() - found;
+			if (latency < STALE_NANOS) {
+				toAudio.record(latency);
+			}
+		}
+	}
+}
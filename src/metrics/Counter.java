@@ -0,0 +1,85 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts something that happens often, such as the reads on an antenna.
+ * Incrementing only adds to a LongAdder, so the reader threads never wait for
+ * each other or for whoever reads the count.
+ *
+ * The rate is worked out from the count when it is asked for, over the time
+ * since it was last worked out, but at most once every RATE_MILLIS so that
+ * two readers asking one after the other do not get a rate over a few
+ * microseconds.
+ *
+ * @version Oct 18, 2026
+ */
+public class Counter implements CounterMBean {
+	/** Shortest time the rate is worked out over */
+	public static final long RATE_MILLIS = 1000;
+
+	private static final long RATE_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(RATE_MILLIS);
+
+	// the number of increments
+	private final LongAdder count = new LongAdder();
+
+	// the count and the time when the rate was last worked out
+	private long sampleCount = 0;
+	private long sampleNanos = System.nanoTime();
+
+	// the rate last worked out
+	private double rate = 0;
+
+	/**
+	 * Adds one to the count
+	 */
+	public void increment() {
+		count.increment();
+	}
+
+	/**
+	 * Adds to the count
+	 *
+	 * @param n
+	 *            the amount to add
+	 */
+	public void add(long n) {
+		count.add(n);
+	}
+
+	@Override
+	public long getCount() {
+		return count.sum();
+	}
+
+	@Override
+	public synchronized double getRate() {
+		long now = System.nanoTime();
+		long elapsed = now - sampleNanos;
+		if (elapsed >= RATE_NANOS) {
+			long current = getCount();
+			rate = (current - sampleCount) * 1e9 / elapsed;
+			sampleCount = current;
+			sampleNanos = now;
+		}
+		return rate;
+	}
+
+	@Override
+	public synchronized void reset() {
+		count.reset();
+		sampleCount = 0;
+		sampleNanos = System.nanoTime();
+		rate = 0;
+	}
+
+	/**
+	 * @return the count and the rate
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d, %.1f/s", getCount(), getRate());
+	}
+}
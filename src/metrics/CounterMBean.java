@@ -0,0 +1,23 @@
+package metrics;
+
+/**
+ * What a Counter shows over JMX
+ *
+ * @version Oct 18, 2026
+ */
+public interface CounterMBean {
+	/**
+	 * @return the number of times the counter has been incremented
+	 */
+	long getCount();
+
+	/**
+	 * @return the increments a second since the rate was last worked out
+	 */
+	double getRate();
+
+	/**
+	 * Starts counting from 0 again
+	 */
+	void reset();
+}
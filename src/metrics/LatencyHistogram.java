@@ -0,0 +1,217 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long something takes, in nanoseconds, in buckets that are narrow
+ * for short times and wide for long ones, as HdrHistogram does. Each power of
+ * two is split into SUB_BUCKETS buckets of the same width, so every time is
+ * counted to within about 3% of its value however long it is, and the
+ * histogram takes the same room, about 15 KB, whether it has recorded ten
+ * times or ten million.
+ *
+ * Recording only adds to counters, so any number of threads can record at
+ * once without waiting for each other or for a reader. Percentiles worked out
+ * while times are being recorded may leave out the latest of them.
+ *
+ * @version Oct 18, 2026
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+	// bits of each time that are kept below its highest bit
+	private static final int SUB_BITS = 5;
+
+	/** Number of buckets each power of two is split into */
+	public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	// times below SUB_BUCKETS have a bucket each, and the powers of two
+	// from SUB_BUCKETS up to the largest long have SUB_BUCKETS each
+	private static final int NUM_BUCKETS = SUB_BUCKETS + (63 - SUB_BITS)
+			* SUB_BUCKETS;
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	// the number of times recorded in each bucket
+	private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+	// the number of times recorded and their sum
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+
+	// the shortest and longest times recorded
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a time
+	 *
+	 * @param nanos
+	 *            the time in nanoseconds; negative times count as 0
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts.incrementAndGet(bucketOf(nanos));
+		count.increment();
+		total.add(nanos);
+
+		long current;
+		while (nanos > (current = max.get())
+				&& !max.compareAndSet(current, nanos)) {
+			// lost a race with another update, so try again
+		}
+		while (nanos < (current = min.get())
+				&& !min.compareAndSet(current, nanos)) {
+			// lost a race with another update, so try again
+		}
+	}
+
+	/**
+	 * Records the time from a start until now
+	 *
+	 * @param startNanos
+	 *            the start, from System.nanoTime
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * @param nanos
+	 *            a time that is not negative
+	 * @return the bucket the time is counted in
+	 */
+	static int bucketOf(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BITS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS
+				+ (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * @param bucket
+	 *            a bucket
+	 * @return the longest time counted in the bucket
+	 */
+	static long highestIn(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+	}
+
+	/**
+	 * @param percentile
+	 *            the percentage of times, from 0 to 100
+	 * @return the time in nanoseconds that the percentage of the times
+	 *         recorded are within, as the longest time in its bucket, or 0 if
+	 *         nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long recorded = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			recorded += counts.get(i);
+		}
+		if (recorded == 0) {
+			return 0;
+		}
+
+		long wanted = Math.max(1,
+				(long) Math.ceil(percentile / 100 * recorded));
+		long seen = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= wanted) {
+				return Math.min(highestIn(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	@Override
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the shortest time recorded in nanoseconds, or 0 if nothing has
+	 *         been recorded
+	 */
+	public long getMin() {
+		long shortest = min.get();
+		return shortest == Long.MAX_VALUE ? 0 : shortest;
+	}
+
+	/**
+	 * @return the longest time recorded in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	@Override
+	public double getMinMillis() {
+		return getMin() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanMillis() {
+		long recorded = count.sum();
+		if (recorded == 0) {
+			return 0;
+		}
+		return total.sum() / (recorded * NANOS_PER_MILLI);
+	}
+
+	@Override
+	public double getMedianMillis() {
+		return getValueAtPercentile(50) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getPercentile90Millis() {
+		return getValueAtPercentile(90) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getPercentile99Millis() {
+		return getValueAtPercentile(99) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMaxMillis() {
+		return getMax() / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Forgets the times recorded so far. Times recorded while resetting may
+	 * be partly kept.
+	 */
+	@Override
+	public void reset() {
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		total.reset();
+		min.set(Long.MAX_VALUE);
+		max.set(0);
+	}
+
+	/**
+	 * @return the count and the main percentiles in milliseconds
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d, min %.2f, median %.2f, 90%% %.2f, "
+				+ "99%% %.2f, max %.2f, mean %.2f ms", getCount(),
+				getMinMillis(), getMedianMillis(), getPercentile90Millis(),
+				getPercentile99Millis(), getMaxMillis(), getMeanMillis());
+	}
+}
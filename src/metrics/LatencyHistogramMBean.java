@@ -0,0 +1,48 @@
+package metrics;
+
+/**
+ * What a LatencyHistogram shows over JMX. All times are in milliseconds.
+ *
+ * @version Oct 18, 2026
+ */
+public interface LatencyHistogramMBean {
+	/**
+	 * @return the number of times recorded
+	 */
+	long getCount();
+
+	/**
+	 * @return the shortest time recorded
+	 */
+	double getMinMillis();
+
+	/**
+	 * @return the average time recorded
+	 */
+	double getMeanMillis();
+
+	/**
+	 * @return the time half of the times recorded are within
+	 */
+	double getMedianMillis();
+
+	/**
+	 * @return the time 90% of the times recorded are within
+	 */
+	double getPercentile90Millis();
+
+	/**
+	 * @return the time 99% of the times recorded are within
+	 */
+	double getPercentile99Millis();
+
+	/**
+	 * @return the longest time recorded
+	 */
+	double getMaxMillis();
+
+	/**
+	 * Forgets the times recorded so far
+	 */
+	void reset();
+}
@@ -0,0 +1,239 @@
+package metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Keeps the counters, ratios and latency histograms of the card pipeline by
+ * name, so that the code that updates a metric and whoever wants to see it
+ * only need to agree on the name. Names are dotted, such as
+ * "antenna.NORTH.reads".
+ *
+ * Each metric is also registered as an MBean on the MBean server the
+ * registry was created with, as "bridge4blind:type=Counter,name=...", so it
+ * can be watched with jconsole while a game is played. The whole registry can
+ * also be printed every so often with startDump.
+ *
+ * The code updating a metric looks it up once and keeps it, so updating it
+ * costs no more than the metric itself. Looking a metric up does not lock.
+ *
+ * @version Oct 18, 2026
+ */
+public class Metrics {
+	/** The JMX domain the metrics are registered in */
+	public static final String DOMAIN = "bridge4blind";
+
+	// the registry used by the game, registered with the platform MBean server
+	private static final Metrics DEFAULT = new Metrics(
+			ManagementFactory.getPlatformMBeanServer());
+
+	// the metrics by name, kept in name order for the dump
+	private final ConcurrentMap<String, Object> metrics = new ConcurrentSkipListMap<String, Object>();
+
+	// where the metrics are registered, or null
+	private final MBeanServer server;
+
+	// prints the registry, or null if it is not being printed
+	private ScheduledExecutorService dumper;
+
+	/**
+	 * Creates a registry that is not visible over JMX
+	 */
+	public Metrics() {
+		this(null);
+	}
+
+	/**
+	 * Creates a registry that registers its metrics as MBeans
+	 *
+	 * @param server
+	 *            the server to register them on, or null not to register them
+	 */
+	public Metrics(MBeanServer server) {
+		this.server = server;
+	}
+
+	/**
+	 * @return the registry used by the game, whose metrics are registered
+	 *         with the platform MBean server
+	 */
+	public static Metrics getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Gets a counter, creating it if there is none with the name
+	 *
+	 * @param name
+	 *            the name of the counter
+	 * @return the counter
+	 * @throws IllegalArgumentException
+	 *             if another kind of metric has the name
+	 */
+	public Counter counter(String name) {
+		Object metric = metrics.get(name);
+		if (metric == null) {
+			metric = add(name, new Counter());
+		}
+		return cast(name, metric, Counter.class);
+	}
+
+	/**
+	 * Gets a latency histogram, creating it if there is none with the name
+	 *
+	 * @param name
+	 *            the name of the histogram
+	 * @return the histogram
+	 * @throws IllegalArgumentException
+	 *             if another kind of metric has the name
+	 */
+	public LatencyHistogram histogram(String name) {
+		Object metric = metrics.get(name);
+		if (metric == null) {
+			metric = add(name, new LatencyHistogram());
+		}
+		return cast(name, metric, LatencyHistogram.class);
+	}
+
+	/**
+	 * Gets a ratio, creating it from two counters if there is none with the
+	 * name
+	 *
+	 * @param name
+	 *            the name of the ratio
+	 * @param part
+	 *            the counter of the part
+	 * @param whole
+	 *            the counter of the whole
+	 * @return the ratio
+	 * @throws IllegalArgumentException
+	 *             if another kind of metric has the name
+	 */
+	public Ratio ratio(String name, Counter part, Counter whole) {
+		Object metric = metrics.get(name);
+		if (metric == null) {
+			metric = add(name, new Ratio(part, whole));
+		}
+		return cast(name, metric, Ratio.class);
+	}
+
+	/**
+	 * Adds a metric unless another thread has just added one with the same
+	 * name, and registers whichever is kept
+	 *
+	 * @return the metric kept
+	 */
+	private Object add(String name, Object metric) {
+		Object existing = metrics.putIfAbsent(name, metric);
+		if (existing != null) {
+			return existing;
+		}
+		register(name, metric);
+		return metric;
+	}
+
+	/**
+	 * Registers a metric as an MBean. The game goes on without it if it
+	 * cannot be registered.
+	 */
+	private void register(String name, Object metric) {
+		if (server == null) {
+			return;
+		}
+		try {
+			ObjectName objectName = new ObjectName(DOMAIN + ":type="
+					+ metric.getClass().getSimpleName() + ",name=" + name);
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(metric, objectName);
+		} catch (JMException e) {
+			System.err.println("Could not register metric " + name + ": " + e);
+		}
+	}
+
+	private static <T> T cast(String name, Object metric, Class<T> type) {
+		if (!type.isInstance(metric)) {
+			throw new IllegalArgumentException(name + " is a "
+					+ metric.getClass().getSimpleName() + ", not a "
+					+ type.getSimpleName());
+		}
+		return type.cast(metric);
+	}
+
+	/**
+	 * Starts counting every counter and histogram from 0 again, for instance
+	 * at the start of a hand
+	 */
+	public void reset() {
+		for (Object metric : metrics.values()) {
+			if (metric instanceof Counter) {
+				((Counter) metric).reset();
+			} else if (metric instanceof LatencyHistogram) {
+				((LatencyHistogram) metric).reset();
+			}
+		}
+	}
+
+	/**
+	 * Prints the registry every so often on a background thread, in place of
+	 * any dump already started
+	 *
+	 * @param periodMillis
+	 *            the time between dumps, in milliseconds
+	 * @param out
+	 *            where to print it
+	 */
+	public synchronized void startDump(long periodMillis, final PrintStream out) {
+		stopDump();
+		dumper = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "Metrics dump");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		dumper.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				out.print("Metrics:\n" + Metrics.this);
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops printing the registry
+	 */
+	public synchronized void stopDump() {
+		if (dumper != null) {
+			dumper.shutdownNow();
+			dumper = null;
+		}
+	}
+
+	/**
+	 * @return each metric on a line of its own, in name order
+	 */
+	@Override
+	public String toString() {
+		StringBuilder dump = new StringBuilder();
+		for (Map.Entry<String, Object> metric : metrics.entrySet()) {
+			dump.append(String.format("%-32s %s%n", metric.getKey(),
+					metric.getValue()));
+		}
+		return dump.toString();
+	}
+}
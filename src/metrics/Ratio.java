@@ -0,0 +1,54 @@
+package metrics;
+
+/**
+ * One counter as a fraction of another, such as the reads on an antenna that
+ * found nothing out of all its reads. It is worked out from the counters when
+ * asked for, so it costs nothing while they count.
+ *
+ * @version Oct 18, 2026
+ */
+public class Ratio implements RatioMBean {
+	private final Counter part;
+	private final Counter whole;
+
+	/**
+	 * Creates a ratio of two counters
+	 *
+	 * @param part
+	 *            the counter of the part
+	 * @param whole
+	 *            the counter of the whole
+	 */
+	public Ratio(Counter part, Counter whole) {
+		this.part = part;
+		this.whole = whole;
+	}
+
+	@Override
+	public double getRatio() {
+		long wholeCount = whole.getCount();
+		if (wholeCount == 0) {
+			return 0;
+		}
+		return (double) part.getCount() / wholeCount;
+	}
+
+	@Override
+	public long getPart() {
+		return part.getCount();
+	}
+
+	@Override
+	public long getWhole() {
+		return whole.getCount();
+	}
+
+	/**
+	 * @return the ratio as a percentage, and the counts it comes from
+	 */
+	@Override
+	public String toString() {
+		return String.format("%.1f%% (%d of %d)", getRatio() * 100,
+				getPart(), getWhole());
+	}
+}
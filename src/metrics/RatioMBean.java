@@ -0,0 +1,23 @@
+package metrics;
+
+/**
+ * What a Ratio shows over JMX
+ *
+ * @version Oct 18, 2026
+ */
+public interface RatioMBean {
+	/**
+	 * @return the part as a fraction of the whole, or 0 if the whole is 0
+	 */
+	double getRatio();
+
+	/**
+	 * @return the count of the part
+	 */
+	long getPart();
+
+	/**
+	 * @return the count of the whole
+	 */
+	long getWhole();
+}
@@ -0,0 +1,121 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times a cold start of the game, from the JVM being launched to the first
+ * card being accepted, so that it is clear which part of starting up takes
+ * the time. The program marks each phase as it finishes, and the first card
+ * ends the timeline and prints the report:
+ *
+ * <pre>
+ * Cold start, from JVM launch:
+ *      184 ms  main started
+ *      231 ms  reader server launched
+ *      ...
+ *     5120 ms  first card accepted
+ * </pre>
+ *
+ * Nothing is kept until start is called, so tools and tests that never call
+ * it pay only for a volatile read per mark. The time to the first card is
+ * also kept in the default registry as startup.firstCard.
+ *
+ * @version Oct 18, 2026
+ */
+public final class StartupTimeline {
+	// set from start until the timeline is finished
+	private static volatile boolean active = false;
+
+	// the phases marked and when, in milliseconds since the epoch. Guarded by
+	// the class.
+	private static final List<String> phases = new ArrayList<String>();
+	private static final List<Long> times = new ArrayList<Long>();
+
+	private StartupTimeline() {
+	}
+
+	/**
+	 * Starts the timeline. Called at the start of main.
+	 */
+	public static synchronized void start() {
+		phases.clear();
+		times.clear();
+		active = true;
+		mark("main started");
+	}
+
+	/**
+	 * Notes that a phase of starting up has finished
+	 *
+	 * @param phase
+	 *            what has finished, for the report
+	 */
+	public static void mark(String phase) {
+		if (!active) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		synchronized (StartupTimeline.class) {
+			if (active) {
+				phases.add(phase);
+				times.add(now);
+			}
+		}
+	}
+
+	/**
+	 * Notes the last phase of starting up and prints the report, if the
+	 * timeline is running
+	 *
+	 * @param phase
+	 *            what has finished, for the report
+	 */
+	public static void finish(String phase) {
+		if (!active) {
+			return;
+		}
+		String report;
+		synchronized (StartupTimeline.class) {
+			if (!active) {
+				return;
+			}
+			mark(phase);
+			active = false;
+			report = report();
+			Metrics.getDefault().histogram("startup.firstCard").record(
+					(times.get(times.size() - 1) - launchTime()) * 1000000);
+		}
+		System.out.print(report);
+	}
+
+	/**
+	 * @return true from start until the timeline is finished
+	 */
+	public static boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * @return each phase marked so far, with the milliseconds from the JVM
+	 *         being launched
+	 */
+	public static synchronized String report() {
+		long launched = launchTime();
+		StringBuilder report = new StringBuilder(
+				"Cold start, from JVM launch:\n");
+		for (int i = 0; i < phases.size(); i++) {
+			report.append(String.format("%9d ms  %s%n", times.get(i)
+					- launched, phases.get(i)));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * @return when the JVM was launched, in milliseconds since the epoch
+	 */
+	private static long launchTime() {
+		return ManagementFactory.getRuntimeMXBean().getStartTime();
+	}
+}
@@ -2,20 +2,48 @@ package model;
 
 import java.util.Comparator;
 
-/**The Card class represents a single card in the bridge game.*/
+/**The Card class represents a single card in the bridge game.  There is
+ * exactly one Card object for each of the 52 cards, obtained with Card.of, so
+ * cards can be compared with == or by their ordinal.*/
 
 public class Card implements Comparable<Card> {
 	
 	private static final String SOUND_FOLDER = "/sounds/cards/";
 
+	/**The number of cards in a deck.*/
+	public static final int NUM_CARDS = 52;
+
+	/**The number of cards in each suit.*/
+	public static final int CARDS_PER_SUIT = 13;
+
+	/**The one Card for each ordinal.*/
+	private static final Card[] CARDS = new Card[NUM_CARDS];
+
+	static {
+		for (Suit s : Suit.values()) {
+			if (s != Suit.NOTRUMP) {
+				for (Rank r : Rank.values()) {
+					Card c = new Card(r, s);
+					CARDS[c.ordinal] = c;
+				}
+			}
+		}
+	}
+
 	/**The rank of the card.*/
-	private Rank rank;
+	private final Rank rank;
 	
 	/**The suit of the card.*/
-	private Suit suit;
+	private final Suit suit;
 	
 	/**The file path of the card's corresponding sound.*/
-	private String sound;
+	private final String sound;
+
+	/**The position of the card in a deck sorted by suit, then rank.*/
+	private final int ordinal;
+
+	/**The bit for this card in a set of cards kept as a long.*/
+	private final long bit;
 	
 	
 	/**Constructor; creates a Card with the given rank and suit
@@ -23,15 +51,56 @@ public class Card implements Comparable<Card> {
 	 * @param r The rank of the card.
 	 * @param s The suit of the card.
 	 */
-	public Card (Rank r, Suit s){
+	private Card (Rank r, Suit s){
 		
 		rank = r;
 		suit = s;
+		ordinal = s.ordinal() * CARDS_PER_SUIT + r.ordinal();
+		bit = 1L << ordinal;
 		
 		//build the name of the file containing the sound
 		sound = SOUND_FOLDER + rank.toString() + suit.toString() + ".WAV";
 	}
 
+	/**Returns the card with the given rank and suit.
+	 * 
+	 * @param r The rank of the card.
+	 * @param s The suit of the card, which cannot be NOTRUMP.
+	 * @return the one Card with that rank and suit.
+	 */
+	public static Card of (Rank r, Suit s){
+		if (s == Suit.NOTRUMP) {
+			throw new IllegalArgumentException("There are no notrump cards");
+		}
+		return CARDS[s.ordinal() * CARDS_PER_SUIT + r.ordinal()];
+	}
+
+	/**Returns the card with the given ordinal.
+	 * 
+	 * @param ordinal The ordinal of the card, from 0 to 51.
+	 * @return the one Card with that ordinal.
+	 */
+	public static Card of (int ordinal){
+		return CARDS[ordinal];
+	}
+
+	/**Returns the position of the card in a deck sorted by suit, from clubs to
+	 * spades, and then by rank, from deuce to ace.
+	 * 
+	 * @return a number from 0 to 51.
+	 */
+	public int ordinal() {
+		return ordinal;
+	}
+
+	/**Returns the bit for this card in a set of cards kept as a long.
+	 * 
+	 * @return 1L shifted left by the card's ordinal.
+	 */
+	public long getBit() {
+		return bit;
+	}
+
 	/**Checks if this card is equal to the card passed as a parameter.
 	 * 
 	 * @param c The card that will be checked.  
@@ -45,11 +114,7 @@ public class Card implements Comparable<Card> {
 			return -1;
 		}
 
-		if (this.suit != c.suit){ 
-			return this.suit.compareTo(c.suit);
-		}
-		
-		return this.rank.compareTo(c.rank);
+		return this.ordinal - c.ordinal;
 	}
 	
 	/**
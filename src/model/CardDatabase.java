@@ -2,20 +2,41 @@ package model;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.StringTokenizer;
 
 /**
- * This CardDatabase class keeps track of a Hashtable of Cards by using the id numbers
- * as Keys
+ * This CardDatabase class keeps track of a table of Cards by using the id numbers
+ * as Keys.  The ids are 14 hex digits, so they are stored as the 56 bit number
+ * they represent, in an open addressing table that needs no objects to look up
+ * a card.  A card can be looked up by the hex id, by the number, or straight
+ * from the bytes of the id.
  * @author Caden Friedenbach
  *
  */
 public class CardDatabase {
 
-	/*Hashtable holding the id to card map*/
-	private HashMap<String,Card> cardMap;
-	
+	/*Number of hex digits in an id*/
+	public static final int ID_DIGITS = 14;
+
+	/*Number of bytes in an id*/
+	public static final int ID_BYTES = ID_DIGITS / 2;
+
+	/*Returned by parseId for text that is not an id*/
+	public static final long NO_ID = -1;
+
+	/*the ids in the table, where the slot of cards is not null*/
+	private long[] ids;
+
+	/*the card for each id*/
+	private Card[] cards;
+
+	/*number of ids in the table*/
+	private int size;
+
+	/*the first id of each card, by card ordinal*/
+	private long[] firstIds = new long[Card.NUM_CARDS];
+
 	/*file holding the card IDs*/
 	private static final String FILENAME = "/cardID.txt";
 
@@ -23,12 +44,32 @@ public class CardDatabase {
 	 * Creates a new Database
 	 */
 	public CardDatabase(){
-		//reads the File
+		this(true);
+	}
+
+	/**
+	 * Creates a new Database, which may be left empty to be filled by load on
+	 * another thread while the program starts. A database being loaded must
+	 * not be used until the thread using it has seen load finish, for
+	 * example by waiting on a Future.
+	 * @param load - false to leave the database empty until load is called
+	 */
+	public CardDatabase(boolean load){
+		Arrays.fill(firstIds, NO_ID);
+		if (load) {
+			readFile();
+		}
+	}
+
+	/**
+	 * Reads the card ids into a database made empty
+	 */
+	public void load() {
 		readFile();
 	}
-	
+
 	/**
-	 * Reads the file and parses the information into the HashTable
+	 * Reads the file and parses the information into the table
 	 */
 	private void readFile() {
 		//sets up the file
@@ -42,13 +83,14 @@ public class CardDatabase {
 				fullLine = read.readLine();
 				assert fullLine != null;
 				int numCards = Integer.parseInt(fullLine);
-				
+
 				// second line of file should be an int for the number of decks
 				fullLine = read.readLine();
 				assert fullLine != null;
 				int decks = Integer.parseInt(fullLine);
 
-				cardMap = new HashMap<String, Card>(numCards * decks);
+				// each card has two ids
+				allocate(numCards * decks * 2);
 
 				// rest of file should be Card values
 				while ((fullLine = read.readLine()) != null) {
@@ -63,38 +105,165 @@ public class CardDatabase {
 			ex.printStackTrace();
 		}
 	}
-	
+
+	/**
+	 * Makes the table big enough for a number of ids, keeping it at most half full
+	 * @param numIds - the number of ids the table should hold
+	 */
+	private void allocate(int numIds) {
+		int capacity = Integer.highestOneBit(Math.max(numIds, 8) * 2 - 1) << 1;
+		long[] oldIds = ids;
+		Card[] oldCards = cards;
+
+		ids = new long[capacity];
+		cards = new Card[capacity];
+		size = 0;
+
+		if (oldCards != null) {
+			for (int i = 0; i < oldCards.length; i++) {
+				if (oldCards[i] != null) {
+					put(oldIds[i], oldCards[i]);
+				}
+			}
+		}
+	}
+
 	/**
-	 * Takes in a string and produces a Card 
+	 * Takes in a string and produces a Card
 	 * @param fileLine - should be organized as <ID>.<ID>|<RANK><SUIT>
 	 * @return a card with the correct information
 	 */
 	protected Card makeCard(String fileLine){
 		StringTokenizer tokenizer = new StringTokenizer(fileLine, ".|");
-		
+
 		//spliting the file line into appropriate chunks
 		String idOne = tokenizer.nextToken();
 		String idTwo = tokenizer.nextToken();
-		
+
 		//finding the apportiate suit and rank
 		Rank value = Rank.findValue(fileLine.charAt(fileLine.length()-2));
 		Suit suit = Suit.findSuit(fileLine.charAt(fileLine.length()-1));
-		
+
 		//Create the card
-		Card newCard = new Card(value, suit);
-		cardMap.put(idOne, newCard);
-		cardMap.put(idTwo, newCard);
-		
+		Card newCard = Card.of(value, suit);
+		put(parseId(idOne, 0), newCard);
+		put(parseId(idTwo, 0), newCard);
+		if (firstIds[newCard.ordinal()] == NO_ID) {
+			firstIds[newCard.ordinal()] = parseId(idOne, 0);
+		}
+
 		return newCard;
 	}
-	
+
+	/**
+	 * Adds an id to the table, replacing any card it had
+	 * @param id - the id as a number
+	 * @param card - the card with that id
+	 */
+	private void put(long id, Card card) {
+		if (id == NO_ID) {
+			System.out.println("Bad card id for " + card);
+			return;
+		}
+		if (cards == null || (size + 1) * 2 > cards.length) {
+			allocate(size + 1);
+		}
+
+		int mask = cards.length - 1;
+		int slot = hash(id) & mask;
+		while (cards[slot] != null && ids[slot] != id) {
+			slot = (slot + 1) & mask;
+		}
+		if (cards[slot] == null) {
+			size++;
+		}
+		ids[slot] = id;
+		cards[slot] = card;
+	}
+
+	/**
+	 * Spreads the bits of an id over the slots of the table
+	 * @param id - the id
+	 * @return the hash of the id
+	 */
+	private static int hash(long id) {
+		long h = id * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Converts a hex id to the number it represents, without creating any objects
+	 * @param text - text containing the id
+	 * @param start - index of the first hex digit
+	 * @return the id as a number, or NO_ID if there are not 14 hex digits there
+	 */
+	public static long parseId(CharSequence text, int start) {
+		if (start < 0 || text.length() - start < ID_DIGITS) {
+			return NO_ID;
+		}
+		long id = 0;
+		for (int i = start; i < start + ID_DIGITS; i++) {
+			int digit = Character.digit(text.charAt(i), 16);
+			if (digit < 0) {
+				return NO_ID;
+			}
+			id = (id << 4) | digit;
+		}
+		return id;
+	}
+
 	/**
 	 * Return a Card with a gived ID
 	 * @param idNum - the ID number of a Card
-	 * @return the card with that ID Number
+	 * @return the card with that ID Number, or null if there is none
 	 */
 	public Card getCard(String idNum){
-		Card thisCard = cardMap.get(idNum);
-		return thisCard;
+		if (idNum.length() != ID_DIGITS) {
+			return null;
+		}
+		return getCard(parseId(idNum, 0));
+	}
+
+	/**
+	 * Return a Card with a given ID
+	 * @param idNum - the ID number of a Card, as a number rather than hex
+	 * @return the card with that ID Number, or null if there is none
+	 */
+	public Card getCard(long idNum){
+		if (size == 0) {
+			return null;
+		}
+		int mask = cards.length - 1;
+		int slot = hash(idNum) & mask;
+		while (cards[slot] != null) {
+			if (ids[slot] == idNum) {
+				return cards[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Return an ID of a Card, for making up the tags a reader would send
+	 * @param card - the card
+	 * @return the first ID given for the card, or NO_ID if there is none
+	 */
+	public long getId(Card card){
+		return firstIds[card.ordinal()];
+	}
+
+	/**
+	 * Return a Card with a given ID
+	 * @param bytes - holds the ID as 7 bytes, most significant first
+	 * @param offset - index of the first byte of the ID
+	 * @return the card with that ID Number, or null if there is none
+	 */
+	public Card getCard(byte[] bytes, int offset){
+		long id = 0;
+		for (int i = offset; i < offset + ID_BYTES; i++) {
+			id = (id << 8) | (bytes[i] & 0xFF);
+		}
+		return getCard(id);
 	}
 }
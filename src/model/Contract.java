@@ -18,7 +18,31 @@ public class Contract {
 	// The player who won the bid
 	private Direction bidWinner;
 
+	// true if the contract may not be changed
+	private final boolean frozen;
+
+	public Contract() {
+		frozen = false;
+	}
+
+	private Contract(Contract contract) {
+		trumpSuit = contract.trumpSuit;
+		contractNum = contract.contractNum;
+		bidWinner = contract.bidWinner;
+		frozen = true;
+	}
+
+	/**
+	 * @return a copy of the contract as it is now that cannot be changed, so
+	 *         it can be given to listeners on other threads while the game
+	 *         goes on changing its own
+	 */
+	public Contract immutableCopy() {
+		return new Contract(this);
+	}
+
 	public void setTrump(Suit suit) {
+		checkNotFrozen();
 		trumpSuit = suit;
 	}
 
@@ -28,6 +52,7 @@ public class Contract {
 
 	public void setContractNum(int contractNum) {
 		assert contractNum >= 1 && contractNum <= MAX_BID;
+		checkNotFrozen();
 		this.contractNum = contractNum;
 	}
 
@@ -36,6 +61,7 @@ public class Contract {
 	}
 	
 	public void setBidWinner (Direction bidWinner) {
+		checkNotFrozen();
 		this.bidWinner = bidWinner;
 	}
 	
@@ -43,6 +69,13 @@ public class Contract {
 		return bidWinner;
 	}
 	
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException(
+					"A copy of a contract cannot be changed");
+		}
+	}
+
 	public String toString() {
 		return "" + contractNum + " " + trumpSuit.toString() + " " + bidWinner;
 	}
@@ -2,12 +2,11 @@ package model;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.List;
 
+import metrics.CardTimeline;
 import audio.SoundManager;
+import audio.SoundPriority;
 import controller.HandAntenna;
 import controller.Handler;
 import controller.TestAntennaHandler;
@@ -23,6 +22,9 @@ public class Game {
 
 	private static final int DELAY_AFTER_SCANNING_DUMMY = 1000;
 
+	// milliseconds to wait after the dummy's hand is scanned
+	private long delayAfterScanningDummy = DELAY_AFTER_SCANNING_DUMMY;
+
 	/** Number of tricks that make up a hand */
 	private static final int TRICKS_IN_HAND = 13;
 
@@ -58,14 +60,32 @@ public class Game {
 	/** The current trick */
 	protected Trick currentTrick = new Trick();
 
-	// the GUI associated with this game
-	private ArrayList<GameListener> listeners = new ArrayList<GameListener>();
+	// passes events on to the GUI and audio without waiting for them
+	private final GameEventBus events = new GameEventBus();
+
+	// told of what is played back from a journal, which is nobody
+	private static final GameListener NOBODY = new GameEventBus();
+
+	// the state of the game after the last change, for readers that must not
+	// lock the game
+	private volatile GameSnapshot snapshot = GameSnapshot.EMPTY;
+
+	// the version of the last snapshot
+	private long snapshotVersion = 0;
+
+	// records what the game is asked to do in this hand, or null if nothing
+	// is recorded
+	private GameJournal journal;
+
+	// true while a journal is being played back into the game
+	private boolean replaying = false;
 
 	/** the current state of the game: DEALING, FIRSTCARD, PLAYING */
 	protected GameState gameState = GameState.DEALING;
 
-	// All the cards that have been played in the current hand
-	private Set<Card> cardsPlayed = new HashSet<Card>();
+	// All the cards that have been played in the current hand, one bit per
+	// card ordinal
+	private long cardsPlayed = 0L;
 
 	// who won the last hand
 	private Direction lastHandWinner;
@@ -154,7 +174,8 @@ public class Game {
 	 * @param declarer
 	 *            The position of the declarer.
 	 */
-	public void initPlayingPhase(Direction declarer) {
+	public synchronized void initPlayingPhase(Direction declarer) {
+		record(GameJournal.Type.PLAYING_PHASE, declarer.ordinal(), -1);
 
 		contract.setBidWinner(declarer);
 
@@ -164,18 +185,15 @@ public class Game {
 
 		turn = declarer.getNextDirection();
 		//turnStack.push(turn) ;
-		try {
-			handler.switchHand(turn);
-		} catch (IOException e) {
-			System.out.println("Lost connection to server!");
-			e.printStackTrace();
-		} catch (InterruptedException e) {
-			System.out.println("Cycling timer interrupted!");
-			e.printStackTrace();
-		}
+		publish();
+		switchHand(turn);
 	}
 
 	private void switchHand(Direction toPlayer) {
+		if (replaying) {
+			// the antennas are switched once the journal has been played
+			return;
+		}
 		try {
 			handler.switchHand(toPlayer);
 		} catch (IOException e) {
@@ -208,36 +226,63 @@ public class Game {
 
 	/** Clears all hands of cards and sets the game back into the dealing phase. */
 	// TODO: Do I need this method or just resetGame?
-	public void resetHands() {
+	public synchronized void resetHands() {
+		record(GameJournal.Type.RESET_HANDS, -1, -1);
+		clearHands();
+	}
+
+	private void clearHands() {
 
 		System.out.println("Game resetHand");
 
 		for (int i = 0; i < players.length; i++) {
 			players[i].newHand();
 		}
+		publish();
 	}
 
 	/**
-	 * Reinitializes everything to prepare to play a new hand.
+	 * Reinitializes everything to prepare to play a new hand. The journal
+	 * starts again with the new hand.
 	 */
-	public void resetGame() {
+	public synchronized void resetGame() {
 
 		System.out.println("Game resetGame");
+		if (!replaying) {
+			handler.recordInput(GameJournal.Type.RESET_GAME, -1, -1, -1);
+		}
 
-		resetHands();
+		clearHands();
 		currentTrick = new Trick();
 		//trickStack = new Stack<Trick>() ;
 		//trickStack.push(currentTrick) ;
 		contract = new Contract();
-		cardsPlayed.clear();
+		cardsPlayed = 0L;
 		lastWinner = null;
 		players[dummyDirection.ordinal()].setDummy(false);
 		switchHand(blindDirection);
 
-		for (GameListener listener : listeners) {
-			listener.gameReset();
+		if (journal != null) {
+			journal.clear();
+			journal.append(GameJournal.Type.NEW_HAND, blindDirection.ordinal(),
+					ordinal(turn), ordinal(dummyDirection));
+			journal.append(GameJournal.Type.GAME_STATE, gameState.ordinal(), -1);
 		}
 
+		publish();
+		listeners().gameReset();
+
+	}
+
+	/**
+	 * Starts a hand played back from a journal, as resetGame left it
+	 */
+	private void startHand(Direction blindPosition, Direction turnAfterReset,
+			Direction dummyPosition) {
+		setBlindPosition(blindPosition);
+		turn = turnAfterReset;
+		dummyDirection = dummyPosition;
+		publish();
 	}
 
 	/**
@@ -269,6 +314,24 @@ public class Game {
 	 *            the card seen
 	 */
 	public synchronized void cardFound(Direction direction, Card card) {
+		CardTimeline.cardFound();
+		record(GameJournal.Type.CARD_FOUND, direction.ordinal(), card.ordinal());
+		try {
+			cardFoundInState(direction, card);
+		} finally {
+			publish();
+		}
+	}
+
+	/**
+	 * Takes the action for a card found that is right for the game state
+	 * 
+	 * @param direction
+	 *            the antenna direction that saw a card
+	 * @param card
+	 *            the card seen
+	 */
+	private void cardFoundInState(Direction direction, Card card) {
 
 		debugMsg("Game : card found");
 
@@ -313,16 +376,13 @@ public class Game {
 
 				if (dummyDirection == blindDirection) {
 
-					for (GameListener listener : listeners) {
-
-						listener.dummyHandScanned();
-					}
+					listeners().dummyHandScanned();
 
-					setGameState(GameState.PLAYING);
+					changeGameState(GameState.PLAYING);
 
 				} else {
 
-					setGameState(GameState.SCANNING_DUMMY);
+					changeGameState(GameState.SCANNING_DUMMY);
 				}
 				return;
 			}
@@ -394,16 +454,15 @@ public class Game {
 
 			if (players[dummyDirection.ordinal()].hasFullHand()) {
 
-				for (GameListener listener : listeners) {
-
-					listener.dummyHandScanned();
-				}
+				listeners().dummyHandScanned();
 
 				// Delay going into the playing state so that the last
 				// card scanned is not immediately played.
 				try {
 
-					Thread.sleep(DELAY_AFTER_SCANNING_DUMMY);
+					if (!replaying) {
+						Thread.sleep(delayAfterScanningDummy);
+					}
 
 				} catch (InterruptedException e) {
 
@@ -428,20 +487,16 @@ public class Game {
 
 			if (players[blindDirection.ordinal()].hasFullHand()) {
 
-				setGameState(GameState.FIRSTCARD);
+				changeGameState(GameState.FIRSTCARD);
 
-				for (GameListener listener : listeners) {
-					listener.blindHandScanned();
-				}
+				listeners().blindHandScanned();
 
 			}
 		}
 	}
 
 	private void debugMsg(String msg) {
-		for (GameListener listener : listeners) {
-			listener.debugMsg(msg);
-		}
+		listeners().debugMsg(msg);
 	}
 
 	/**
@@ -453,9 +508,8 @@ public class Game {
 		turn = Direction.values()[winner];
 		//turnStack.push(turn) ;
 		switchHand(turn);
-		for (GameListener listener : listeners) {
-			listener.trickWon(turn);
-		}
+		publish();
+		listeners().trickWon(turn);
 	}
 
 	/**
@@ -515,7 +569,7 @@ public class Game {
 		// Avoid accidental scanning as a trick is collected
 		// and passes over the antenna or of a card held
 		// over an antenna for too long.
-		if (cardsPlayed.contains(card)) {
+		if ((cardsPlayed & card.getBit()) != 0) {
 
 			System.out.println("cannot play card because card has been played");
 
@@ -545,11 +599,13 @@ public class Game {
 			if (!players[position].isLegal(card, currentTrick.getLedSuit())) {
 
 				System.out.println("*** Not a legal card: " + card.toString());
-				SoundManager soundManager = SoundManager.getInstance();
+				if (!replaying) {
+					SoundManager soundManager = SoundManager.getInstance();
 
-				// Need a better sound here!!!
-				soundManager.addSound("/sounds/bidding/0.WAV");
-				soundManager.playSounds();
+					// Need a better sound here!!!
+					soundManager.addSound("/sounds/bidding/0.WAV");
+					soundManager.playSounds(SoundPriority.WARNING);
+				}
 
 				return false;
 			}
@@ -575,23 +631,23 @@ public class Game {
 
 		System.out.println("Game : play card into game");
 
-		cardsPlayed.add(card);
+		cardsPlayed |= card.getBit();
 
 		players[position].removeCard(card);
 
 		currentTrick.add(card, position);
 
+		Direction played = turn;
+		turn = turn.getNextDirection();
+		//turnStack.push(turn) ;
+
 		// System.out.println("Notifying listeners");
 
-		for (GameListener listener : listeners) {
-			listener.cardPlayed(turn, card);
-		}
+		publish();
+		listeners().cardPlayed(played, card);
 
 		// System.out.println("Done notifying listeners");
 
-		turn = turn.getNextDirection();
-		//turnStack.push(turn) ;
-
 		// System.out.println("Switching antenna");
 
 		switchHand(turn);
@@ -626,18 +682,17 @@ public class Game {
 
 			if ((players[pos].getHand().containsCard(card))
 					|| (getBlindPlayer().getHand().containsCard(card))
-					|| (cardsPlayed.contains(card))) {
+					|| ((cardsPlayed & card.getBit()) != 0)) {
 
 				return;
 			}
 		}
 
-		for (GameListener listener : listeners) {
-			listener.cardScanned(card);
-		}
-
 		// int pos = dir.ordinal();
 		players[pos].addCard(card);
+
+		publish();
+		listeners().cardScanned(card);
 		// System.out.println("Game.scanCardIntoHand returning");
 	}
 
@@ -649,9 +704,7 @@ public class Game {
 	 *            the card that was identified.
 	 */
 	public void cardIded(Card c) {
-		for (GameListener listener : listeners) {
-			listener.cardScanned(c);
-		}
+		listeners().cardScanned(c);
 	}
 
 	/**
@@ -684,8 +737,10 @@ public class Game {
 	}
 
 	@SuppressWarnings("javadoc")
-	public void setContractNum(int contractNum) {
+	public synchronized void setContractNum(int contractNum) {
+		record(GameJournal.Type.CONTRACT_NUM, contractNum, -1);
 		contract.setContractNum(contractNum);
+		publish();
 	}
 
 	@SuppressWarnings("javadoc")
@@ -693,9 +748,36 @@ public class Game {
 		return contract.getContractNum();
 	}
 
-	@SuppressWarnings("javadoc")
+	/**
+	 * Adds a listener. Swing components are told of events on the Swing event
+	 * thread, and other listeners on a thread of their own, so the game never
+	 * waits for them.
+	 * 
+	 * @param listener
+	 *            the listener to add
+	 */
 	public void addListener(GameListener listener) {
-		listeners.add(listener);
+		events.addListener(listener);
+	}
+
+	/**
+	 * Adds a listener that is told of events in a given way
+	 * 
+	 * @param listener
+	 *            the listener to add
+	 * @param delivery
+	 *            how the listener is told of events
+	 */
+	public void addListener(GameListener listener,
+			GameEventBus.Delivery delivery) {
+		events.addListener(listener, delivery);
+	}
+
+	/**
+	 * @return the listeners and how long they are taking for events
+	 */
+	public String getListenerStats() {
+		return events.toString();
 	}
 
 	@SuppressWarnings("javadoc")
@@ -710,7 +792,8 @@ public class Game {
 	 * @param blindPosition
 	 *            the position of the blind player
 	 */
-	public void setBlindPosition(Direction blindPosition) {
+	public synchronized void setBlindPosition(Direction blindPosition) {
+		record(GameJournal.Type.BLIND_POSITION, blindPosition.ordinal(), -1);
 		this.blindDirection = blindPosition;
 
 		// TODO : may cause error
@@ -720,6 +803,7 @@ public class Game {
 		players[blindDirection.ordinal()].setBlind(true);
 		handler.setBlindDirection(blindPosition);
 		switchHand(blindPosition);
+		publish();
 	}
 
 	@SuppressWarnings("javadoc")
@@ -752,7 +836,8 @@ public class Game {
 	 * trick is empty.
 	 * @return TODO
 	 */
-	public Direction undo() {
+	public synchronized Direction undo() {
+		record(GameJournal.Type.UNDO, -1, -1);
 
 		System.out.println("Game : undo card");
 
@@ -767,13 +852,15 @@ public class Game {
 			
 			currentTrick.clearCard(predecessorPos);
 			
-			cardsPlayed.remove(undoCard) ;
+			cardsPlayed &= ~undoCard.getBit() ;
 			
 			turn = turn.getPreviousDirection();
 			
 			switchHand(turn);
 			
 			System.out.println("turn is " + turn);
+
+			publish();
 			
 			return turn ;
 		}
@@ -787,7 +874,8 @@ public class Game {
 	 * 
 	 * Undo an entire trick. Does nothing if the trick is empty or over.
 	 */
-	public void undoTrick() {
+	public synchronized void undoTrick() {
+		record(GameJournal.Type.UNDO_TRICK, -1, -1);
 		if (currentTrick.isEmpty() || currentTrick.isOver()) {
 			return;
 		}
@@ -809,6 +897,7 @@ public class Game {
 		}
 
 		switchHand(turn);
+		publish();
 	}
 
 	/**
@@ -817,12 +906,13 @@ public class Game {
 	 * @param suit
 	 *            The suit of the contract.
 	 */
-	public void setTrump(Suit suit) {
+	public synchronized void setTrump(Suit suit) {
+		record(GameJournal.Type.TRUMP, suit.ordinal(), -1);
 		contract.setTrump(suit);
 
-		for (GameListener listener : listeners) {
-			listener.contractSet(contract);
-		}
+		publish();
+		// the listeners may run on other threads after the game has gone on
+		listeners().contractSet(contract.immutableCopy());
 
 	}
 
@@ -837,9 +927,27 @@ public class Game {
 	}
 
 	@SuppressWarnings("javadoc")
-	public void setGameState(GameState gameState) {
+	public synchronized void setGameState(GameState gameState) {
+		record(GameJournal.Type.GAME_STATE, gameState.ordinal(), -1);
+		changeGameState(gameState);
+	}
+
+	private void changeGameState(GameState gameState) {
 		this.gameState = gameState;
 		//System.out.println("State set to " + gameState);
+		publish();
+	}
+
+	/**
+	 * Sets how long to wait after the dummy's hand is scanned before cards
+	 * are played, so that the last card scanned is not played by mistake.
+	 * Replaying a trace as fast as possible sets it to 0.
+	 * 
+	 * @param millis
+	 *            the time to wait, in milliseconds
+	 */
+	public void setDelayAfterScanningDummy(long millis) {
+		delayAfterScanningDummy = millis;
 	}
 
 	public boolean isScanningDummy() {
@@ -947,9 +1055,12 @@ public class Game {
 	}
 
 	/**
-	 * 
+	 * Plays the card the blind player last held over their antenna, as if it
+	 * had been found on the antenna. Called when the blind player presses
+	 * Enter.
 	 */
-	public void playBlindCard() {
+	public synchronized void playBlindCard() {
+		record(GameJournal.Type.BLIND_CARD_PLAYED, -1, -1);
 		System.out.println("In playBlindCard");
 		boolean startedPlaying = (gameState == GameState.FIRSTCARD) || (gameState == GameState.SCANNING_DUMMY		) || (gameState == GameState.PLAYING);
 		System.out.println("gameState = " + gameState);
@@ -988,6 +1099,7 @@ public class Game {
 			System.out.println("Cannot play card");
 		}
 
+		publish();
 	}
 
 	/**
@@ -1001,7 +1113,7 @@ public class Game {
 	/**
 	 * 
 	 */
-	public void resumeGame() {
+	public synchronized void resumeGame() {
 		debugMsg("Setting cycling thread");
 		handler.setCyclingThread(null);
 		debugMsg("Switching hand");
@@ -1012,19 +1124,21 @@ public class Game {
 	/**
 	 * Allows the user to reselect the position of the visually impaired player
 	 */
-	public void resetVIPlayer(){
+	public synchronized void resetVIPlayer(){
 		
+		record(GameJournal.Type.RESET_BLIND_POSITION, -1, -1);
 		System.out.println("Game : undoVIPlayer");
 		
 		// the direction of the blind player has changed. So the player at the previous position has no cards.
 		players[blindDirection.ordinal()].newHand();
 		players[blindDirection.ordinal()].setBlind(false);
 		
-		if(Game.isTestMode()){
+		if(Game.isTestMode() && !replaying){
 		
 		 TestAntennaHandler.reverseScanBlind();
 		}
-	
+
+		publish();
 	}
 	
 	/**
@@ -1039,42 +1153,42 @@ public class Game {
 	/**
 	 * Lets the user remove the most recent card added to the blind player's hand
 	 */
-	public void undoBlindPlayerCard(){
+	public synchronized void undoBlindPlayerCard(){
+		record(GameJournal.Type.UNDO_BLIND_CARD, -1, -1);
 		
 		Card toRemove = players[blindDirection.ordinal()].getHand().removeRecentCard() ;
 		
 		players[blindDirection.ordinal()].getHand().removeCard(toRemove);
+		publish();
 	}
 	
 	/**
 	 * Lets the user remove the most recent card added to the dummy player's hand
 	 */
-	public Card undoDummyPlayerCard(){
+	public synchronized Card undoDummyPlayerCard(){
+		record(GameJournal.Type.UNDO_DUMMY_CARD, -1, -1);
 		
 		Card toRemove = players[dummyDirection.ordinal()].getHand().removeRecentCard() ;
 		
 		players[dummyDirection.ordinal()].getHand().removeCard(toRemove);
+		publish();
 		
 		return toRemove ;
 	}
 	
-	public void removeCurrentPlayerCardPlayed(){
+	public synchronized void removeCurrentPlayerCardPlayed(){
+		record(GameJournal.Type.REMOVE_CURRENT_CARD, -1, -1);
 		
 		players[turn.ordinal()].getHand().removeRecentCard() ;
+		publish();
 	}
 	
-	public void undoFirstCardPlayed(){
+	public synchronized void undoFirstCardPlayed(){
+		record(GameJournal.Type.UNDO_FIRST_CARD, -1, -1);
 		
-		assert (cardsPlayed.size() == 1) ;
+		assert (Long.bitCount(cardsPlayed) == 1) ;
 		
-		Iterator<Card> iter = cardsPlayed.iterator() ;
-		
-		while(iter.hasNext()){
-			
-			Card toRemove = iter.next() ;
-			cardsPlayed.remove(toRemove) ;
-						
-		}
+		cardsPlayed = 0L ;
 		
 		
 		
@@ -1084,7 +1198,8 @@ public class Game {
 		return turn;
 	}
 
-	public void reverseBidPosition(){
+	public synchronized void reverseBidPosition(){
+		record(GameJournal.Type.REVERSE_BID_POSITION, -1, -1);
 		
 		gameState = GameState.DEALING ;
 		turn = blindDirection ;
@@ -1092,17 +1207,185 @@ public class Game {
 		players[blindDirection.ordinal()].newHand();
 		switchHand(blindDirection);
 		
-		if(isTestMode()){
+		if(isTestMode() && !replaying){
 			
 			TestAntennaHandler.reverseScanBlind();
 		}
-		
+
+		publish();
 	}
 	
 	public boolean isGameState(GameState state){
 		
 		return this.gameState == state ;
 	}
+
+	/**
+	 * Returns the state of the game after its last change. The snapshot never
+	 * changes, and getting it does not lock the game, so the GUI, keypad and
+	 * audio can read it while cards are being found.
+	 * 
+	 * @return the latest snapshot of the game
+	 */
+	public GameSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Plays a journal back into the game, so that it is in the state it was
+	 * in when the last entry was made, and then records the rest of the hand
+	 * in the journal. Meant for a new game, after the program stopped in the
+	 * middle of a hand. Listeners are not told of what is played back, no
+	 * sounds are made, and the antennas are switched only once, at the end.
+	 *
+	 * @param gameJournal
+	 *            the journal of the hand, which may be empty
+	 * @return the number of entries played back
+	 */
+	public synchronized int replay(GameJournal gameJournal) {
+		List<GameJournal.Entry> entries = gameJournal.entries();
+		replaying = true;
+		try {
+			for (GameJournal.Entry entry : entries) {
+				perform(entry);
+			}
+		} finally {
+			replaying = false;
+		}
+
+		journal = gameJournal;
+		if (turn != null) {
+			switchHand(turn);
+		}
+		publish();
+		return entries.size();
+	}
+
+	/**
+	 * Does what an entry in a journal or trace records, as if it had been
+	 * asked for on the GUI or found on an antenna
+	 * 
+	 * @param entry
+	 *            what to do
+	 */
+	public synchronized void perform(GameJournal.Entry entry) {
+		int first = entry.getFirst();
+		switch (entry.getType()) {
+		case NEW_HAND:
+			startHand(direction(first), direction(entry.getSecond()),
+					direction(entry.getThird()));
+			break;
+		case BLIND_POSITION:
+			setBlindPosition(direction(first));
+			break;
+		case PLAYING_PHASE:
+			initPlayingPhase(direction(first));
+			break;
+		case CONTRACT_NUM:
+			setContractNum(first);
+			break;
+		case TRUMP:
+			setTrump(Suit.values()[first]);
+			break;
+		case CARD_FOUND:
+			cardFound(direction(first), Card.of(entry.getSecond()));
+			break;
+		case BLIND_CARD_PLAYED:
+			playBlindCard();
+			break;
+		case UNDO:
+			undo();
+			break;
+		case UNDO_TRICK:
+			undoTrick();
+			break;
+		case GAME_STATE:
+			setGameState(GameState.values()[first]);
+			break;
+		case RESET_HANDS:
+			resetHands();
+			break;
+		case UNDO_BLIND_CARD:
+			undoBlindPlayerCard();
+			break;
+		case UNDO_DUMMY_CARD:
+			undoDummyPlayerCard();
+			break;
+		case RESET_BLIND_POSITION:
+			resetVIPlayer();
+			break;
+		case REVERSE_BID_POSITION:
+			reverseBidPosition();
+			break;
+		case UNDO_FIRST_CARD:
+			undoFirstCardPlayed();
+			break;
+		case REMOVE_CURRENT_CARD:
+			removeCurrentPlayerCardPlayed();
+			break;
+		case RESET_GAME:
+			resetGame();
+			break;
+		}
+	}
+
+	/**
+	 * Records what the game has been asked to do, unless the journal is being
+	 * played back. Inputs that did not come from an antenna are also passed
+	 * to the handler, to be traced. Only called with the game locked, by
+	 * synchronized methods that then make the change, so the journal is in
+	 * the order the changes were made.
+	 */
+	private void record(GameJournal.Type type, int first, int second) {
+		if (replaying) {
+			return;
+		}
+		if (journal != null) {
+			journal.append(type, first, second);
+		}
+		if (type != GameJournal.Type.CARD_FOUND) {
+			handler.recordInput(type, first, second, -1);
+		}
+	}
+
+	/**
+	 * @return the listeners to tell of a change, or nobody while a journal
+	 *         is being played back
+	 */
+	private GameListener listeners() {
+		return replaying ? NOBODY : events;
+	}
+
+	private static int ordinal(Direction direction) {
+		return direction == null ? -1 : direction.ordinal();
+	}
+
+	private static Direction direction(int ordinal) {
+		return ordinal < 0 ? null : Direction.values()[ordinal];
+	}
+
+	/**
+	 * Publishes a snapshot of the game as it is now. Called after each change
+	 * to the game, and before listeners are told of it.
+	 */
+	private synchronized void publish() {
+		long[] hands = new long[NUM_PLAYERS];
+		int[] tricksWon = new int[NUM_PLAYERS];
+		for (int i = 0; i < NUM_PLAYERS; i++) {
+			hands[i] = players[i].getHand().cards;
+			tricksWon[i] = players[i].getTricksWon();
+		}
+		Card[] trick = new Card[NUM_PLAYERS];
+		for (int i = 0; i < NUM_PLAYERS; i++) {
+			trick[i] = currentTrick.getCard(i);
+		}
+
+		snapshot = new GameSnapshot(++snapshotVersion, gameState, hands,
+				trick, currentTrick.getLedSuit(), tricksWon,
+				contract.getContractNum(), contract.getTrump(),
+				contract.getBidWinner(), turn, lastWinner, blindDirection,
+				dummyDirection);
+	}
 	
 	
 
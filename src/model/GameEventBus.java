@@ -0,0 +1,355 @@
+package model;
+
+import java.awt.Component;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+/**
+ * Passes the game's events on to its listeners, so that the game does not
+ * wait for the GUI or the audio before reading the next card. The game calls
+ * the bus as if it were a single GameListener, and the bus delivers each call
+ * to every listener in the way that listener was added with:
+ * <ul>
+ * <li>SAME_THREAD: called straight away, on the game's thread</li>
+ * <li>EDT: called later on the Swing event thread</li>
+ * <li>EXECUTOR: called later on a thread of the listener's own</li>
+ * </ul>
+ *
+ * Each listener gets the events in the order they happened. The bus times
+ * every call, and reports calls that take longer than SLOW_MILLIS. The time
+ * each event waits to be delivered and the time the call takes are also
+ * recorded in the default Metrics registry, as events.Listener.wait and
+ * events.Listener.call for a listener of class Listener.
+ *
+ * @version Oct 18, 2026
+ */
+public class GameEventBus implements GameListener {
+
+	/** How events are delivered to a listener */
+	public enum Delivery {
+		/** On the game's thread, before the game goes on */
+		SAME_THREAD,
+
+		/** On the Swing event thread */
+		EDT,
+
+		/** On a thread used only for this listener */
+		EXECUTOR
+	}
+
+	/** A listener taking longer than this for an event is reported */
+	public static final long SLOW_MILLIS = 20;
+
+	private static final long SLOW_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(SLOW_MILLIS);
+
+	// the listeners, in the order they were added
+	private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+
+	/**
+	 * Adds a listener, delivered on the Swing event thread if it is a Swing
+	 * component and on its own thread otherwise
+	 *
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addListener(GameListener listener) {
+		addListener(listener,
+				listener instanceof Component ? Delivery.EDT
+						: Delivery.EXECUTOR);
+	}
+
+	/**
+	 * Adds a listener
+	 *
+	 * @param listener
+	 *            the listener to add
+	 * @param delivery
+	 *            how to deliver events to it
+	 */
+	public void addListener(GameListener listener, Delivery delivery) {
+		subscriptions.add(new Subscription(listener, delivery));
+	}
+
+	/**
+	 * Stops delivering events to a listener. Events already on their way
+	 * may still be delivered.
+	 *
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeListener(GameListener listener) {
+		for (Subscription subscription : subscriptions) {
+			if (subscription.listener == listener) {
+				subscriptions.remove(subscription);
+				subscription.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Stops the listeners' threads. Events already on their way are still
+	 * delivered.
+	 */
+	public void shutdown() {
+		for (Subscription subscription : subscriptions) {
+			subscription.shutdown();
+		}
+	}
+
+	/**
+	 * Delivers an event to every listener
+	 *
+	 * @param event
+	 *            the event
+	 */
+	private void post(Event event) {
+		long posted = System.nanoTime();
+		for (Subscription subscription : subscriptions) {
+			subscription.post(event, posted);
+		}
+	}
+
+	@Override
+	public void debugMsg(final String string) {
+		post(new Event("debugMsg") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.debugMsg(string);
+			}
+		});
+	}
+
+	@Override
+	public void gameReset() {
+		post(new Event("gameReset") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.gameReset();
+			}
+		});
+	}
+
+	@Override
+	public void cardPlayed(final Direction turn, final Card card) {
+		post(new Event("cardPlayed") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.cardPlayed(turn, card);
+			}
+		});
+	}
+
+	@Override
+	public void cardScanned(final Card card) {
+		post(new Event("cardScanned") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.cardScanned(card);
+			}
+		});
+	}
+
+	@Override
+	public void trickWon(final Direction winner) {
+		post(new Event("trickWon") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.trickWon(winner);
+			}
+		});
+	}
+
+	@Override
+	public void contractSet(final Contract contract) {
+		post(new Event("contractSet") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.contractSet(contract);
+			}
+		});
+	}
+
+	@Override
+	public void blindHandScanned() {
+		post(new Event("blindHandScanned") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.blindHandScanned();
+			}
+		});
+	}
+
+	@Override
+	public void dummyHandScanned() {
+		post(new Event("dummyHandScanned") {
+			@Override
+			void deliver(GameListener listener) {
+				listener.dummyHandScanned();
+			}
+		});
+	}
+
+	/**
+	 * @return for each listener, how it is delivered to, how many events it
+	 *         has had and how long they took
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stats = new StringBuilder();
+		for (Subscription subscription : subscriptions) {
+			stats.append(subscription).append('\n');
+		}
+		return stats.toString();
+	}
+
+	/**
+	 * One call to make on every listener
+	 */
+	private abstract static class Event {
+		// the GameListener method, for reports
+		private final String name;
+
+		Event(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Calls the listener method for this event
+		 */
+		abstract void deliver(GameListener listener);
+	}
+
+	/**
+	 * A listener, how it is delivered to, and how long it has taken
+	 */
+	private static class Subscription {
+		private final GameListener listener;
+		private final Delivery delivery;
+
+		// runs the calls in order for EXECUTOR listeners, otherwise null
+		private final ExecutorService executor;
+
+		// number of events, and the time they took to deliver and to arrive
+		private final AtomicLong delivered = new AtomicLong();
+		private final AtomicLong slow = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLong maxLagNanos = new AtomicLong();
+		private final LatencyHistogram waitTime;
+		private final LatencyHistogram callTime;
+
+		Subscription(GameListener listener, Delivery delivery) {
+			this.listener = listener;
+			this.delivery = delivery;
+			Class<?> type = listener.getClass();
+			String name = "events."
+					+ (type.isAnonymousClass() ? type.getName() : type
+							.getSimpleName());
+			waitTime = Metrics.getDefault().histogram(name + ".wait");
+			callTime = Metrics.getDefault().histogram(name + ".call");
+			if (delivery == Delivery.EXECUTOR) {
+				final String threadName = "Game events for "
+						+ listener.getClass().getSimpleName();
+				executor = Executors
+						.newSingleThreadExecutor(new ThreadFactory() {
+							@Override
+							public Thread newThread(Runnable r) {
+								Thread thread = new Thread(r, threadName);
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+			} else {
+				executor = null;
+			}
+		}
+
+		/**
+		 * Delivers an event the way this listener wants it
+		 */
+		void post(final Event event, final long posted) {
+			Runnable call = new Runnable() {
+				@Override
+				public void run() {
+					deliver(event, posted);
+				}
+			};
+
+			switch (delivery) {
+			case SAME_THREAD:
+				call.run();
+				break;
+			case EDT:
+				SwingUtilities.invokeLater(call);
+				break;
+			case EXECUTOR:
+				if (!executor.isShutdown()) {
+					executor.execute(call);
+				}
+				break;
+			}
+		}
+
+		/**
+		 * Calls the listener and records how long it took
+		 */
+		private void deliver(Event event, long posted) {
+			long start = System.nanoTime();
+			try {
+				event.deliver(listener);
+			} catch (RuntimeException e) {
+				System.err.println("Listener " + listener.getClass().getName()
+						+ " failed on " + event.name);
+				e.printStackTrace();
+			}
+			long took = System.nanoTime() - start;
+
+			delivered.incrementAndGet();
+			totalNanos.addAndGet(took);
+			raise(maxNanos, took);
+			raise(maxLagNanos, start - posted);
+			waitTime.record(start - posted);
+			callTime.record(took);
+			if (took > SLOW_NANOS) {
+				slow.incrementAndGet();
+				System.out.println("Slow listener "
+						+ listener.getClass().getSimpleName() + " took "
+						+ took / 1000000 + " ms for " + event.name);
+			}
+		}
+
+		private static void raise(AtomicLong max, long value) {
+			long current;
+			while (value > (current = max.get())
+					&& !max.compareAndSet(current, value)) {
+				// lost a race with another update, so try again
+			}
+		}
+
+		void shutdown() {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+
+		@Override
+		public String toString() {
+			long count = delivered.get();
+			return listener.getClass().getSimpleName() + " (" + delivery
+					+ "): " + count + " events, average "
+					+ (count == 0 ? 0 : totalNanos.get() / count / 1000)
+					+ " us, max " + maxNanos.get() / 1000 + " us, " + slow.get()
+					+ " slow, max wait " + maxLagNanos.get() / 1000 + " us";
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only record of everything done to a game in the current hand,
+ * kept in a memory-mapped file so that a game can be rebuilt after the
+ * program stops unexpectedly.
+ *
+ * What is recorded is what the game was asked to do: the cards found on each
+ * antenna, the contract, undos and so on. Playing the entries back into a new
+ * game does the same things in the same order, so it ends up in exactly the
+ * same state, with the tricks won and the turn worked out as they were the
+ * first time.
+ *
+ * Each entry is written straight into the mapped file, so it survives the
+ * program crashing as soon as append returns. The file is forced to the disk
+ * by a background thread every FORCE_MILLIS, so that a power cut loses at
+ * most the entries of the last FORCE_MILLIS.
+ *
+ * The file starts with a header of HEADER_SIZE bytes: the magic number and
+ * the format version. The entries follow, ENTRY_SIZE bytes each:
+ * <ul>
+ * <li>int: the entry's number, counting from 1. It is written last, so an
+ * entry whose number is missing was not finished.</li>
+ * <li>byte: the Type of entry</li>
+ * <li>3 bytes: up to three things the entry is about, such as a direction
+ * and a card ordinal, depending on the type, or -1</li>
+ * <li>long: when the entry was made, in milliseconds</li>
+ * </ul>
+ *
+ * @version Oct 18, 2026
+ */
+public class GameJournal {
+	/** Milliseconds between forcing the entries to the disk */
+	public static final long FORCE_MILLIS = 100;
+
+	/** "B4BJ" */
+	private static final int MAGIC = 0x4234424a;
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+	private static final int ENTRY_SIZE = 16;
+
+	// enough for a hand and plenty of undos; the file grows if needed
+	private static final int INITIAL_ENTRIES = 1024;
+
+	// writes the journals to the disk
+	private static final ScheduledExecutorService forcer = Executors
+			.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Journal");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	/**
+	 * The things done to a game that are recorded
+	 */
+	public enum Type {
+		/** A new hand was started: blind direction, turn, dummy direction */
+		NEW_HAND,
+		/** The blind player's position was set: direction */
+		BLIND_POSITION,
+		/** Bidding is over: direction of the declarer */
+		PLAYING_PHASE,
+		/** The number of tricks in the contract was set: number */
+		CONTRACT_NUM,
+		/** The trump suit was set: suit */
+		TRUMP,
+		/** A card was found on an antenna: direction, card */
+		CARD_FOUND,
+		/** The blind player pressed Enter to play their card */
+		BLIND_CARD_PLAYED,
+		/** The last card played was taken back */
+		UNDO,
+		/** The cards of the current trick were taken back */
+		UNDO_TRICK,
+		/** The game state was set: state */
+		GAME_STATE,
+		/** All the hands were emptied */
+		RESET_HANDS,
+		/** The last card scanned into the blind player's hand was removed */
+		UNDO_BLIND_CARD,
+		/** The last card scanned into the dummy's hand was removed */
+		UNDO_DUMMY_CARD,
+		/** The blind player's position is being chosen again */
+		RESET_BLIND_POSITION,
+		/** The declarer is being chosen again */
+		REVERSE_BID_POSITION,
+		/** The first card played was taken back */
+		UNDO_FIRST_CARD,
+		/** The last card added to the hand whose turn it is was forgotten */
+		REMOVE_CURRENT_CARD,
+		/**
+		 * A new hand was asked for. Found only in traces, since the journal
+		 * starts again with NEW_HAND instead.
+		 */
+		RESET_GAME
+	}
+
+	/**
+	 * One thing done to the game
+	 */
+	public static final class Entry {
+		private final Type type;
+		private final int first;
+		private final int second;
+		private final int third;
+		private final long time;
+
+		/**
+		 * @param type
+		 *            what was done
+		 * @param first
+		 *            the first thing it was about, or -1
+		 * @param second
+		 *            the second thing it was about, or -1
+		 * @param third
+		 *            the third thing it was about, or -1
+		 * @param time
+		 *            when it was done, in milliseconds
+		 */
+		public Entry(Type type, int first, int second, int third, long time) {
+			this.type = type;
+			this.first = first;
+			this.second = second;
+			this.third = third;
+			this.time = time;
+		}
+
+		@SuppressWarnings("javadoc")
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * @return the first thing the entry is about, such as a direction
+		 *         ordinal, or -1
+		 */
+		public int getFirst() {
+			return first;
+		}
+
+		/**
+		 * @return the second thing the entry is about, such as a card ordinal,
+		 *         or -1
+		 */
+		public int getSecond() {
+			return second;
+		}
+
+		/**
+		 * @return the third thing the entry is about, or -1
+		 */
+		public int getThird() {
+			return third;
+		}
+
+		/**
+		 * @return when the entry was made, in milliseconds
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + first + " " + second + " " + third;
+		}
+	}
+
+	private final RandomAccessFile file;
+	private MappedByteBuffer buffer;
+
+	// the number of entries in the journal
+	private int count;
+
+	// true if entries have been added since the journal was last forced
+	private volatile boolean dirty = false;
+
+	// forces the journal to the disk every FORCE_MILLIS
+	private final ScheduledFuture<?> forcing;
+
+	/**
+	 * Opens a journal, creating the file if there is none. Entries already in
+	 * the file are kept, to be replayed.
+	 *
+	 * @param journalFile
+	 *            the file holding the journal
+	 * @throws IOException
+	 *             if the file cannot be opened or is not a journal
+	 */
+	public GameJournal(File journalFile) throws IOException {
+		file = new RandomAccessFile(journalFile, "rw");
+		boolean isNew = file.length() < HEADER_SIZE;
+		map(Math.max(file.length(), HEADER_SIZE + INITIAL_ENTRIES
+				* ENTRY_SIZE));
+
+		if (isNew) {
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, FORMAT_VERSION);
+		} else if (buffer.getInt(0) != MAGIC
+				|| buffer.getInt(4) != FORMAT_VERSION) {
+			file.close();
+			throw new IOException(journalFile + " is not a game journal");
+		}
+
+		// find the end: the first entry not finished
+		while (HEADER_SIZE + (count + 1) * ENTRY_SIZE <= buffer.capacity()
+				&& buffer.getInt(offset(count)) == count + 1) {
+			count++;
+		}
+
+		forcing = forcer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				force();
+			}
+		}, FORCE_MILLIS, FORCE_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Maps the file, making it at least a size
+	 */
+	private void map(long size) throws IOException {
+		buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+				size);
+		buffer.order(ByteOrder.BIG_ENDIAN);
+	}
+
+	private static int offset(int entry) {
+		return HEADER_SIZE + entry * ENTRY_SIZE;
+	}
+
+	/**
+	 * Records something done to the game
+	 *
+	 * @param type
+	 *            what was done
+	 * @param first
+	 *            the first thing it was about, from -1 to 127
+	 * @param second
+	 *            the second thing it was about, from -1 to 127
+	 */
+	public void append(Type type, int first, int second) {
+		append(type, first, second, -1);
+	}
+
+	/**
+	 * Records something done to the game that is about three things
+	 *
+	 * @param type
+	 *            what was done
+	 * @param first
+	 *            the first thing it was about, from -1 to 127
+	 * @param second
+	 *            the second thing it was about, from -1 to 127
+	 * @param third
+	 *            the third thing it was about, from -1 to 127
+	 */
+	public synchronized void append(Type type, int first, int second,
+			int third) {
+		int at = offset(count);
+		if (at + ENTRY_SIZE > buffer.capacity()) {
+			try {
+				map(buffer.capacity() * 2L);
+			} catch (IOException e) {
+				System.err.println("Cannot grow the game journal: "
+						+ e.getMessage());
+				return;
+			}
+		}
+
+		buffer.put(at + 4, (byte) type.ordinal());
+		buffer.put(at + 5, (byte) first);
+		buffer.put(at + 6, (byte) second);
+		buffer.put(at + 7, (byte) third);
+		buffer.putLong(at + 8, System.currentTimeMillis());
+		// the number last, so that the entry counts only once it is whole
+		buffer.putInt(at, count + 1);
+		count++;
+		dirty = true;
+	}
+
+	/**
+	 * @return the entries in the journal, oldest first
+	 */
+	public synchronized List<Entry> entries() {
+		List<Entry> entries = new ArrayList<Entry>(count);
+		for (int i = 0; i < count; i++) {
+			int at = offset(i);
+			entries.add(new Entry(Type.values()[buffer.get(at + 4)],
+					buffer.get(at + 5), buffer.get(at + 6), buffer.get(at + 7),
+					buffer.getLong(at + 8)));
+		}
+		return entries;
+	}
+
+	/**
+	 * @return the number of entries in the journal
+	 */
+	public synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * Forgets all the entries, when a new hand starts
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < count; i++) {
+			buffer.putInt(offset(i), 0);
+		}
+		count = 0;
+		dirty = true;
+	}
+
+	/**
+	 * Writes the entries made since the last force to the disk
+	 */
+	public void force() {
+		if (dirty) {
+			dirty = false;
+			MappedByteBuffer toForce;
+			synchronized (this) {
+				toForce = buffer;
+			}
+			toForce.force();
+		}
+	}
+
+	/**
+	 * Writes the journal to the disk and closes it
+	 *
+	 * @throws IOException
+	 *             if the file cannot be closed
+	 */
+	public void close() throws IOException {
+		forcing.cancel(false);
+		force();
+		file.close();
+	}
+}
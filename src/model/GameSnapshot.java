@@ -0,0 +1,203 @@
+package model;
+
+import java.util.Iterator;
+
+/**
+ * The state of a game at one moment, which never changes. The game publishes
+ * a new snapshot after each change, so the GUI, keypad and audio can read a
+ * hand or the trick without locking the game and without seeing a change that
+ * is half done.
+ *
+ * Hands are kept as bits, one per card ordinal, as Hand keeps them.
+ *
+ * @version Oct 18, 2026
+ */
+public final class GameSnapshot {
+	/** The snapshot of a game that has not started */
+	static final GameSnapshot EMPTY = new GameSnapshot(0, GameState.DEALING,
+			new long[Game.NUM_PLAYERS], new Card[Game.NUM_PLAYERS], null,
+			new int[Game.NUM_PLAYERS], 0, null, null, null, null, null, null);
+
+	// counts the snapshots of a game, so readers can tell if it has changed
+	private final long version;
+
+	private final GameState gameState;
+
+	// the cards in each player's hand, by direction ordinal
+	private final long[] hands;
+
+	// the cards in the current trick, by direction ordinal
+	private final Card[] trick;
+	private final Suit ledSuit;
+
+	// the tricks won by each player, by direction ordinal
+	private final int[] tricksWon;
+
+	// the contract, or 0 and nulls for the parts not set yet
+	private final int contractNum;
+	private final Suit trump;
+	private final Direction bidWinner;
+
+	private final Direction turn;
+	private final Direction lastWinner;
+	private final Direction blindPosition;
+	private final Direction dummyPosition;
+
+	/**
+	 * Takes a snapshot. The arrays are copied.
+	 */
+	GameSnapshot(long version, GameState gameState, long[] hands,
+			Card[] trick, Suit ledSuit, int[] tricksWon, int contractNum,
+			Suit trump, Direction bidWinner, Direction turn,
+			Direction lastWinner, Direction blindPosition,
+			Direction dummyPosition) {
+		this.version = version;
+		this.gameState = gameState;
+		this.hands = hands.clone();
+		this.trick = trick.clone();
+		this.ledSuit = ledSuit;
+		this.tricksWon = tricksWon.clone();
+		this.contractNum = contractNum;
+		this.trump = trump;
+		this.bidWinner = bidWinner;
+		this.turn = turn;
+		this.lastWinner = lastWinner;
+		this.blindPosition = blindPosition;
+		this.dummyPosition = dummyPosition;
+	}
+
+	/**
+	 * @return a number that is higher for each later snapshot of the game
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	@SuppressWarnings("javadoc")
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	/**
+	 * @param player
+	 *            the position of a player
+	 * @return the cards in the player's hand, one bit per card ordinal
+	 */
+	public long getHand(Direction player) {
+		return hands[player.ordinal()];
+	}
+
+	/**
+	 * @param player
+	 *            the position of a player
+	 * @param s
+	 *            the suit
+	 * @return the cards the player has in the suit, from high rank to low
+	 */
+	public Iterator<Card> cards(Direction player, Suit s) {
+		return Hand.cards(Hand.suitCards(getHand(player), s));
+	}
+
+	/**
+	 * @param player
+	 *            the position of a player
+	 * @param s
+	 *            the suit
+	 * @return the number of cards the player has in the suit
+	 */
+	public int getNumOfSuit(Direction player, Suit s) {
+		return Long.bitCount(Hand.suitCards(getHand(player), s));
+	}
+
+	/**
+	 * @param player
+	 *            the position of a player
+	 * @return the card the player has played into the current trick, or null
+	 *         if they have not played one
+	 */
+	public Card getTrickCard(Direction player) {
+		return trick[player.ordinal()];
+	}
+
+	/**
+	 * @return true if no cards have been played into the current trick
+	 */
+	public boolean isTrickEmpty() {
+		for (Card card : trick) {
+			if (card != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@SuppressWarnings("javadoc")
+	public Suit getLedSuit() {
+		return ledSuit;
+	}
+
+	/**
+	 * @param player
+	 *            the position of a player
+	 * @return the tricks won by that player
+	 */
+	public int getTricksWon(Direction player) {
+		return tricksWon[player.ordinal()];
+	}
+
+	/**
+	 * @param player
+	 *            the position of a player
+	 * @return the tricks won by that player and their partner
+	 */
+	public int getTeamTricksWon(Direction player) {
+		return getTricksWon(player) + getTricksWon(player.getPartner());
+	}
+
+	/**
+	 * @return true once the whole contract has been entered
+	 */
+	public boolean hasContract() {
+		return contractNum != 0 && trump != null && bidWinner != null;
+	}
+
+	@SuppressWarnings("javadoc")
+	public int getContractNum() {
+		return contractNum;
+	}
+
+	@SuppressWarnings("javadoc")
+	public Suit getTrump() {
+		return trump;
+	}
+
+	@SuppressWarnings("javadoc")
+	public Direction getBidWinner() {
+		return bidWinner;
+	}
+
+	/**
+	 * @return the player whose card is expected next
+	 */
+	public Direction getTurn() {
+		return turn;
+	}
+
+	/**
+	 * @return the winner of the last trick, or null if no trick has been won
+	 *         in this hand
+	 */
+	public Direction getLastWinner() {
+		return lastWinner;
+	}
+
+	@SuppressWarnings("javadoc")
+	public Direction getBlindPosition() {
+		return blindPosition;
+	}
+
+	@SuppressWarnings("javadoc")
+	public Direction getDummyPosition() {
+		return dummyPosition;
+	}
+}
@@ -3,10 +3,14 @@ package model;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Stack;
 
 /**The Hand class represents a hand in the bridge game.
 *
+* The cards are kept as a long with one bit for each card's ordinal, so
+* adding, removing and looking for a card, and counting the cards in a suit,
+* take constant time.  The cards are listed by suit, from clubs to spades, and
+* from high rank to low within each suit.
+*
 * @author Allison DeJordy
 **/
 
@@ -15,14 +19,17 @@ public class Hand {
 	//the maximum size of a hand
 	private static final int MAX_CARDS = 13;
 	
-	/** the cards that are in this hand */
-	protected Card[] cards = new Card[MAX_CARDS];
+	//the bits of all the cards in the lowest suit
+	private static final long SUIT_BITS = (1L << Card.CARDS_PER_SUIT) - 1;
 	
-	//the number of cards currently in this hand
-	private int numCards = 0;
+	/** the cards that are in this hand, one bit per card ordinal */
+	protected long cards = 0L;
 	
-	// the stack of cards in the hand to preserve the order in which they were dealt
-	private Stack<Card> cardStack = new Stack<Card>() ;
+	// the cards in the hand in the order in which they were dealt
+	private Card[] cardStack = new Card[MAX_CARDS];
+
+	// the number of cards on cardStack
+	private int stackSize = 0;
 	
 	/**
 	 * Adds a card to this hand.  Does nothing if the card is already in the hand.
@@ -34,12 +41,15 @@ public class Hand {
 		
 		//if the hand does not already contain the given card
 		if (!containsCard(c)){
-			assert numCards < MAX_CARDS;
+			assert !isFull();
 			
-			cards[numCards] = c;
-			numCards++;
-			Arrays.sort(cards, 0, numCards, Card.getReverseRankComparator());
-			cardStack.push(c) ;
+			cards |= c.getBit();
+
+			// cards removed and added again are stacked again
+			if (stackSize == cardStack.length) {
+				cardStack = Arrays.copyOf(cardStack, stackSize * 2);
+			}
+			cardStack[stackSize++] = c;
 			
 		}
 		
@@ -48,12 +58,26 @@ public class Hand {
 	/**Retrieves the card at the given index.
 	 * 
 	 * @param i The index at which to find the card.
-	 * @return The card at index i.
+	 * @return The card at index i, or null if the hand has fewer cards.
 	 */
 	public Card getCardAt(int i){
 		
-		if (i > 0 && i < cards.length){
-			return cards[i];
+		if (i >= 0 && i < MAX_CARDS){
+			int suitStart = 0;
+			for (long left = cards; left != 0; left >>>= Card.CARDS_PER_SUIT) {
+				long suitCards = left & SUIT_BITS;
+				int numInSuit = Long.bitCount(suitCards);
+				if (i < numInSuit) {
+					// skip the i highest cards of the suit
+					for (int j = 0; j < i; j++) {
+						suitCards &= ~Long.highestOneBit(suitCards);
+					}
+					return Card.of(suitStart + highestOrdinal(suitCards));
+				}
+				i -= numInSuit;
+				suitStart += Card.CARDS_PER_SUIT;
+			}
+			return null;
 		}
 		assert false;
 		return null;
@@ -71,27 +95,13 @@ public class Hand {
 			return ;
 		}
 		
-		for (int i = 0; i < numCards; i++){
-			
-			//remove the card when it is found
-			if (cards[i] != null && cards[i].equals(c)){
-				numCards--;
-				cards[i] = cards[numCards];
-				Arrays.sort(cards, 0, numCards, Card.getReverseRankComparator());
-				return;
-				
-			}
-		}
+		cards &= ~c.getBit();
 	}
 	
 	/**Clears the hand of all cards.*/
 	public void clear() {
 		
-		for (int i = 0; i < cards.length; i++){
-			cards[i] = null;
-		}
-
-		numCards = 0;
+		cards = 0L;
 
 	}
 	
@@ -102,16 +112,7 @@ public class Hand {
 	 */
 	public boolean containsCard(Card c){
 		
-		//walk over all the cards
-		for (int i = 0; i < numCards; i++){
-			
-			//return true if the card is found
-			if(cards[i] != null && cards[i].equals(c)){
-				return true;
-			}
-		}
-		
-		return false;
+		return c != null && (cards & c.getBit()) != 0;
 	}
 	
 	/**
@@ -121,86 +122,64 @@ public class Hand {
 	 */
 	public int getNumOfSuit(Suit s){
 		
-		int numOfSuit = 0;
-		
-		for (int i = 0; i < numCards; i++){
-			if (cards[i].getSuit().equals(s)){
-				numOfSuit++;
-			}
-		}
-		
-		return numOfSuit;
+		return Long.bitCount(suitCards(cards, s));
 		
 	}
 
 	public int getNumCards() {
-		return numCards;
+		return Long.bitCount(cards);
 	}
 	
 	/**
 	 * @return true if the hand contains 13 cards
 	 */
 	public boolean isFull() {
-		return numCards == MAX_CARDS;
+		return getNumCards() == MAX_CARDS;
 	}
 
+	/**
+	 * @return the cards in the hand, by suit and then from high rank to low.
+	 * Changes to the hand after this is called are not seen by the iterator.
+	 */
 	public Iterator<Card> cards() {
-		return new Iterator<Card>() {
-			private int next = 0;
-
-			@Override
-			public boolean hasNext() {
-				return next < numCards;
-			}
-
-			@Override
-			public Card next() {
-				if (!hasNext()) {
-					throw new NoSuchElementException();
-				}
-				next++;
-				return cards[next-1];
-			}
-
-			@Override
-			public void remove() {
-				throw new UnsupportedOperationException();
-			}
-			
-		};
+		return new CardIterator(cards);
 	}
 
+	/**
+	 * @param s the suit
+	 * @return the cards in the hand in that suit, from high rank to low.
+	 * Changes to the hand after this is called are not seen by the iterator.
+	 */
 	public Iterator<Card> cards(final Suit s) {
-		return new Iterator<Card>() {
-			private int next = 0;
-			private int numReturned = 0;
-			private int max = getNumOfSuit(s);
-
-			@Override
-			public boolean hasNext() {
-				return numReturned < max;
-			}
+		return new CardIterator(suitCards(cards, s));
+	}
 
-			@Override
-			public Card next() {
-				if (!hasNext()) {
-					throw new NoSuchElementException();
-				}
-				
-				while (cards[next].getSuit() != s) {
-					next++;
-				}
-				next++;
-				numReturned++;
-				return cards[next-1];
-			}
+	/**
+	 * @param bits some cards, one bit per card ordinal
+	 * @return the cards, by suit and then from high rank to low
+	 */
+	static Iterator<Card> cards(long bits) {
+		return new CardIterator(bits);
+	}
 
-			@Override
-			public void remove() {
-				throw new UnsupportedOperationException();
-			}
-			
-		};
+	/**
+	 * @param bits some cards, one bit per card ordinal
+	 * @param s the suit
+	 * @return the bits of those cards in that suit
+	 */
+	static long suitCards(long bits, Suit s) {
+		if (s == Suit.NOTRUMP) {
+			return 0L;
+		}
+		return bits & (SUIT_BITS << (s.ordinal() * Card.CARDS_PER_SUIT));
+	}
+				
+	/**
+	 * @param bits some cards, which must not be empty
+	 * @return the ordinal of the highest of the cards
+	 */
+	private static int highestOrdinal(long bits) {
+		return Long.SIZE - 1 - Long.numberOfLeadingZeros(bits);
 	}
 	
 	/**
@@ -209,7 +188,7 @@ public class Hand {
 	 */
 	public boolean isEmpty(){
 		
-		return (numCards == 0) ;
+		return (cards == 0L) ;
 	}
 	
 	
@@ -219,13 +198,52 @@ public class Hand {
 	 */
 	public Card removeRecentCard(){
 		
-		if(cardStack.isEmpty()){
+		if(stackSize == 0){
 			
 			return null ;
 			
 		}
 		
-		return cardStack.pop() ;
+		Card recent = cardStack[--stackSize];
+		cardStack[stackSize] = null;
+		return recent ;
+	}
+
+	/**
+	 * Walks over a set of cards by suit, from clubs to spades, and from high
+	 * rank to low within each suit.
+	 */
+	private static class CardIterator implements Iterator<Card> {
+		// the cards not returned yet
+		private long left;
+
+		private CardIterator(long cards) {
+			left = cards;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return left != 0;
+		}
+
+		@Override
+		public Card next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			// the lowest suit left, then its highest card
+			int suitStart = Long.numberOfTrailingZeros(left)
+					/ Card.CARDS_PER_SUIT * Card.CARDS_PER_SUIT;
+			int ordinal = highestOrdinal(left & (SUIT_BITS << suitStart));
+			left &= ~(1L << ordinal);
+			return Card.of(ordinal);
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
 	}
 	
-}
\ No newline at end of file
+}
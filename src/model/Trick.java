@@ -61,7 +61,7 @@ public class Trick {
 		
 		System.out.println("Trick add()");
 		
-		assert (cards[position] == null) || (cards[position].equals(c));
+		assert (cards[position] == null) || (cards[position] == c);
 		cards[position] = c;
 		numCards++ ;
 		
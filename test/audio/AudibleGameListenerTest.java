@@ -18,7 +18,7 @@ public class AudibleGameListenerTest {
 
 	//@Test
 	public void testCardScanned() {
-		audio.cardScanned(new Card (Rank.ACE, Suit.SPADES));
+		audio.cardScanned(Card.of(Rank.ACE, Suit.SPADES));
 		pause(3000);
 	}
 
@@ -37,8 +37,8 @@ public class AudibleGameListenerTest {
 
 	//@Test
 	public void testMultipleCardsScanned() {
-		audio.cardScanned(new Card (Rank.ACE, Suit.SPADES));
-		audio.cardScanned(new Card (Rank.KING, Suit.SPADES));
+		audio.cardScanned(Card.of(Rank.ACE, Suit.SPADES));
+		audio.cardScanned(Card.of(Rank.KING, Suit.SPADES));
 		pause(3000);
 	}
 	
@@ -57,7 +57,7 @@ public class AudibleGameListenerTest {
 //	
 //	//@Test
 //	public void testPlayLastSound() {
-//		audio.cardScanned(new Card (Rank.ACE, Suit.SPADES));
+//		audio.cardScanned(Card.of(Rank.ACE, Suit.SPADES));
 //		
 //		// This pause needs to be here so that the scanned card gets a 
 //		// chance to play.
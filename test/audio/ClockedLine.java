@@ -0,0 +1,231 @@
+package audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Control;
+import javax.sound.sampled.Control.Type;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.Line;
+import javax.sound.sampled.LineListener;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * A SourceDataLine with no sound card behind it. It takes samples out of its
+ * buffer at the speed a sound card would play them, so that playback can be
+ * timed on a machine without one. It remembers when it was last stopped and
+ * started.
+ *
+ * @version Oct 18, 2026
+ */
+class ClockedLine implements SourceDataLine {
+	// what getLevel returns, as the real lines do
+	private static final float NOT_SPECIFIED = AudioSystem.NOT_SPECIFIED;
+
+	private AudioFormat format;
+	private int bufferSize;
+	private boolean open;
+
+	// bytes written since the line was opened. Guarded by this.
+	private long written;
+
+	// bytes played before the line was last started. Guarded by this.
+	private long playedBeforeStart;
+
+	// when the line was last started, or -1 if it is stopped
+	private long startNanos = -1;
+
+	// when stop and start were last called
+	private volatile long stoppedAt;
+	private volatile long startedAt;
+
+	/**
+	 * @return bytes played by now. Must hold the lock.
+	 */
+	private long played() {
+		if (startNanos < 0) {
+			return playedBeforeStart;
+		}
+		long bytesPerSecond = (long) format.getFrameRate()
+				* format.getFrameSize();
+		long played = playedBeforeStart + (System.nanoTime() - startNanos)
+				* bytesPerSecond / 1000000000L;
+		played -= played % format.getFrameSize();
+		return Math.min(written, played);
+	}
+
+	private synchronized long queued() {
+		return written - played();
+	}
+
+	/**
+	 * @return when stop was last called, from System.nanoTime
+	 */
+	long getStoppedAt() {
+		return stoppedAt;
+	}
+
+	/**
+	 * @return when start was last called, from System.nanoTime
+	 */
+	long getStartedAt() {
+		return startedAt;
+	}
+
+	@Override
+	public void open(AudioFormat format, int bufferSize) {
+		this.format = format;
+		this.bufferSize = bufferSize;
+		open = true;
+	}
+
+	@Override
+	public void open(AudioFormat format) {
+		open(format, (int) format.getFrameRate() * format.getFrameSize() / 2);
+	}
+
+	@Override
+	public int write(byte[] b, int off, int len) {
+		int left = len;
+		while (left > 0) {
+			int room = (int) (bufferSize - queued());
+			if (room <= 0) {
+				sleep();
+				continue;
+			}
+			int count = Math.min(room, left);
+			count -= count % format.getFrameSize();
+			synchronized (this) {
+				written += count;
+			}
+			left -= count;
+		}
+		return len;
+	}
+
+	@Override
+	public void drain() {
+		while (isActive()) {
+			sleep();
+		}
+	}
+
+	@Override
+	public synchronized void flush() {
+		playedBeforeStart = written;
+		if (startNanos >= 0) {
+			startNanos = System.nanoTime();
+		}
+	}
+
+	@Override
+	public synchronized void start() {
+		if (startNanos < 0) {
+			startNanos = System.nanoTime();
+			startedAt = startNanos;
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		playedBeforeStart = played();
+		startNanos = -1;
+		stoppedAt = System.nanoTime();
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return startNanos >= 0 && queued() > 0;
+	}
+
+	@Override
+	public boolean isActive() {
+		return isRunning();
+	}
+
+	@Override
+	public AudioFormat getFormat() {
+		return format;
+	}
+
+	@Override
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	@Override
+	public int available() {
+		return (int) (bufferSize - queued());
+	}
+
+	@Override
+	public synchronized int getFramePosition() {
+		return (int) getLongFramePosition();
+	}
+
+	@Override
+	public synchronized long getLongFramePosition() {
+		return played() / format.getFrameSize();
+	}
+
+	@Override
+	public long getMicrosecondPosition() {
+		return (long) (getLongFramePosition() * 1000000L / format
+				.getFrameRate());
+	}
+
+	@Override
+	public float getLevel() {
+		return NOT_SPECIFIED;
+	}
+
+	@Override
+	public Line.Info getLineInfo() {
+		return new DataLine.Info(SourceDataLine.class, format);
+	}
+
+	@Override
+	public void open() {
+		open(SoundCache.LINE_FORMAT);
+	}
+
+	@Override
+	public void close() {
+		open = false;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public Control[] getControls() {
+		return new Control[0];
+	}
+
+	@Override
+	public boolean isControlSupported(Type control) {
+		return false;
+	}
+
+	@Override
+	public Control getControl(Type control) {
+		throw new IllegalArgumentException("No controls");
+	}
+
+	@Override
+	public void addLineListener(LineListener listener) {
+	}
+
+	@Override
+	public void removeLineListener(LineListener listener) {
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package audio;
+
+import java.io.BufferedInputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Times how long common phrases take to say, playing them clip by clip with
+ * an AudioPlayer per clip the way SoundManager used to, and as one phrase
+ * from PhraseEngine on a SoundLine.
+ *
+ * If there is no sound card, nothing can be played, so it times only the work
+ * done before each clip starts and adds the length of the clips.
+ *
+ * @version Oct 18, 2026
+ */
+public class PhraseTimingTest {
+	private static final int ROUNDS = 5;
+
+	@SuppressWarnings("unchecked")
+	private static final List<List<String>> PHRASES = Arrays.asList(
+			Arrays.asList("/sounds/bidding/contractis.WAV",
+					"/sounds/bidding/3.WAV", "/sounds/suits/C.WAV"),
+			Arrays.asList("/sounds/directions/northplays.WAV",
+					"/sounds/cards/AS.WAV"),
+			Arrays.asList("/sounds/bidding/northsouth.WAV",
+					"/sounds/bidding/2.WAV", "/sounds/bidding/tricks.WAV"),
+			Arrays.asList("/sounds/warnings/trickover.WAV",
+					"/sounds/directions/north.WAV"));
+
+	public static void main(String[] args) throws Exception {
+		boolean canPlay = AudioSystem.isLineSupported(new DataLine.Info(
+				SourceDataLine.class, SoundCache.LINE_FORMAT));
+		if (!canPlay) {
+			System.out.println("No audio line, so timing only the work before "
+					+ "each clip plays and adding the clip lengths");
+		}
+
+		SoundCache cache = new SoundCache();
+		PhraseEngine phrases = new PhraseEngine(cache);
+		SoundLine line = new SoundLine();
+
+		for (List<String> phrase : PHRASES) {
+			cache.preload(phrase);
+			long clipByClip = 0;
+			long asPhrase = 0;
+			long audio = phrases.build(phrase).getDuration();
+			for (int round = 0; round < ROUNDS; round++) {
+				clipByClip += canPlay ? playClipByClip(phrase)
+						: prepareClipByClip(phrase, cache);
+				asPhrase += canPlay ? playPhrase(phrase, phrases, line)
+						: preparePhrase(phrase, phrases) + audio;
+			}
+			System.out.println(phrase);
+			System.out.println("  audio " + audio + " ms, clip by clip "
+					+ clipByClip / ROUNDS + " ms, as one phrase " + asPhrase
+					/ ROUNDS + " ms");
+		}
+		line.close();
+	}
+
+	/**
+	 * Plays a phrase the way SoundManager used to
+	 *
+	 * @return milliseconds from starting the first clip to the end of the last
+	 */
+	private static long playClipByClip(List<String> phrase) {
+		long start = System.nanoTime();
+		AudioPlayer ap = new AudioPlayer();
+		for (String clip : phrase) {
+			while (ap.isPlaying()) {
+				Thread.yield();
+			}
+			if (!ap.init(clip)) {
+				System.out.println("Error initializing player: " + ap.error);
+				return 0;
+			}
+			ap.play();
+			while (!ap.isPlaying()) {
+				Thread.yield();
+			}
+			do {
+				Thread.yield();
+			} while (ap.isPlaying());
+		}
+		return (System.nanoTime() - start) / 1000000;
+	}
+
+	/**
+	 * Plays a phrase the way SoundManager does now
+	 *
+	 * @return milliseconds from building the phrase to the end of it
+	 */
+	private static long playPhrase(List<String> phrase, PhraseEngine phrases,
+			SoundLine line) {
+		long start = System.nanoTime();
+		line.reset();
+		line.write(phrases.build(phrase));
+		line.drain();
+		return (System.nanoTime() - start) / 1000000;
+	}
+
+	/**
+	 * Does what AudioPlayer.init did for each clip, short of opening a line
+	 *
+	 * @return milliseconds for the work before the clips play, plus the
+	 *         length of the clips
+	 */
+	private static long prepareClipByClip(List<String> phrase, SoundCache cache)
+			throws Exception {
+		long elapsed = 0;
+		for (String clip : phrase) {
+			long start = System.nanoTime();
+			AudioInputStream in = AudioSystem
+					.getAudioInputStream(new BufferedInputStream(
+							PhraseTimingTest.class.getResourceAsStream(clip)));
+			in.getFormat();
+			elapsed += System.nanoTime() - start;
+			in.close();
+			elapsed += cache.get(clip).getDuration() * 1000000;
+		}
+		return elapsed / 1000000;
+	}
+
+	/**
+	 * @return milliseconds to build the phrase
+	 */
+	private static long preparePhrase(List<String> phrase, PhraseEngine phrases) {
+		long start = System.nanoTime();
+		phrases.build(phrase);
+		return (System.nanoTime() - start) / 1000000;
+	}
+}
@@ -0,0 +1,61 @@
+package audio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class SoundCacheTest {
+	private static final String ACE_SPADES = "/sounds/cards/AS.WAV";
+	private static final String KING_SPADES = "/sounds/cards/KS.WAV";
+	private static final String POP = "/sounds/warnings/pop.WAV";
+
+	@Test
+	public void testSameSoundIsCached() {
+		SoundCache cache = new SoundCache();
+		PcmSound sound = cache.get(ACE_SPADES);
+		assertTrue(sound.getLength() > 0);
+		assertSame(sound, cache.get(ACE_SPADES));
+		assertEquals(1, cache.getSoundCount());
+		assertEquals(sound.getLength(), cache.getSize());
+	}
+
+	@Test
+	public void testConvertedToLineFormat() {
+		// pop is 8 bit mono at 8000 Hz
+		PcmSound sound = new SoundCache().get(POP);
+		assertTrue(sound.getFormat().matches(SoundCache.LINE_FORMAT));
+		assertTrue(sound.getDuration() > 0);
+	}
+
+	@Test
+	public void testMissingSound() {
+		SoundCache cache = new SoundCache();
+		assertNull(cache.get("/sounds/cards/none.wav.missing"));
+		assertEquals(0, cache.getSoundCount());
+	}
+
+	@Test
+	public void testLeastRecentlyPlayedEvicted() {
+		SoundCache cache = new SoundCache();
+		long aceSize = cache.get(ACE_SPADES).getLength();
+		long kingSize = cache.get(KING_SPADES).getLength();
+		long popSize = cache.get(POP).getLength();
+
+		// not quite room for all three
+		cache = new SoundCache(aceSize + kingSize + popSize - 1);
+		cache.preload(Arrays.asList(ACE_SPADES, KING_SPADES));
+		PcmSound king = cache.get(KING_SPADES);
+		cache.get(ACE_SPADES);
+		cache.get(POP);
+
+		assertEquals(2, cache.getSoundCount());
+		assertEquals(aceSize + popSize, cache.getSize());
+		assertNotSame(king, cache.get(KING_SPADES));
+	}
+}
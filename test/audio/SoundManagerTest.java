@@ -0,0 +1,230 @@
+package audio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class SoundManagerTest {
+	private static final String NORTH = "/sounds/directions/north.WAV";
+	private static final String ACE_SPADES = "/sounds/cards/AS.WAV";
+	private static final String EAST = "/sounds/directions/east.WAV";
+	private static final String TRICK_OVER = "/sounds/warnings/trickover.WAV";
+
+	// longest to wait for the sound thread
+	private static final long WAIT_MILLIS = 2000;
+
+	private final SoundManager soundMgr = SoundManager.getInstance();
+
+	@Test
+	public void testNothingToPlay() {
+		soundMgr.addSound(NORTH);
+		soundMgr.clearSounds();
+		assertNull(soundMgr.playSounds());
+	}
+
+	@Test
+	public void testPauseWaitsUntilSaid() {
+		soundMgr.addSound(NORTH);
+		soundMgr.addSound(ACE_SPADES);
+		Utterance utterance = soundMgr.playSounds(SoundPriority.WARNING);
+		assertEquals(Arrays.asList(NORTH, ACE_SPADES), utterance.getSounds());
+		assertEquals(SoundPriority.WARNING, utterance.getPriority());
+
+		soundMgr.pauseSounds();
+		assertTrue(utterance.isDone());
+	}
+
+	@Test
+	public void testSoundsArePerThread() throws InterruptedException {
+		soundMgr.addSound(NORTH);
+
+		final Utterance[] other = new Utterance[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				other[0] = soundMgr.playSounds();
+			}
+		};
+		thread.start();
+		thread.join();
+		assertNull(other[0]);
+
+		assertEquals(Arrays.asList(NORTH), soundMgr.playSounds().getSounds());
+		soundMgr.pauseSounds();
+	}
+
+	@Test
+	public void testWarningsBeforeAnnouncements() throws InterruptedException {
+		HeldLine line = new HeldLine();
+		SoundManager manager = new SoundManager(line);
+		say(manager, NORTH, SoundPriority.ANNOUNCEMENT);
+		assertTrue(line.waitForWrites(1));
+
+		say(manager, ACE_SPADES, SoundPriority.ANNOUNCEMENT);
+		say(manager, TRICK_OVER, SoundPriority.WARNING);
+		line.finish(3);
+		manager.pauseSounds();
+
+		assertEquals(Arrays.asList(NORTH, TRICK_OVER, ACE_SPADES), line.written);
+	}
+
+	@Test
+	public void testSameSoundsWaitingAreSaidOnce() throws InterruptedException {
+		HeldLine line = new HeldLine();
+		SoundManager manager = new SoundManager(line);
+		say(manager, NORTH, SoundPriority.ANNOUNCEMENT);
+		assertTrue(line.waitForWrites(1));
+
+		Utterance first = say(manager, ACE_SPADES, SoundPriority.ANNOUNCEMENT);
+		assertSame(first, say(manager, ACE_SPADES, SoundPriority.ANNOUNCEMENT));
+		// the same sounds at another priority are another utterance
+		Utterance warning = say(manager, ACE_SPADES, SoundPriority.WARNING);
+		assertFalse(first == warning);
+		line.finish(3);
+		manager.pauseSounds();
+
+		assertEquals(Arrays.asList(NORTH, ACE_SPADES, ACE_SPADES),
+				line.written);
+	}
+
+	@Test
+	public void testSameSoundsFromManyThreadsQueuedOnce()
+			throws InterruptedException {
+		HeldLine line = new HeldLine();
+		final SoundManager manager = new SoundManager(line);
+		say(manager, NORTH, SoundPriority.ANNOUNCEMENT);
+		assertTrue(line.waitForWrites(1));
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Utterance> queued = Collections
+				.synchronizedList(new ArrayList<Utterance>());
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					queued.add(say(manager, EAST, SoundPriority.ANNOUNCEMENT));
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (Utterance utterance : queued) {
+			assertSame(queued.get(0), utterance);
+		}
+
+		line.finish(2);
+		manager.pauseSounds();
+		assertEquals(Arrays.asList(NORTH, EAST), line.written);
+	}
+
+	@Test
+	public void testStopCancelsWaitingUtterances() throws InterruptedException {
+		HeldLine line = new HeldLine();
+		SoundManager manager = new SoundManager(line);
+		Utterance playing = say(manager, NORTH, SoundPriority.ANNOUNCEMENT);
+		assertTrue(line.waitForWrites(1));
+		Utterance waiting = say(manager, ACE_SPADES, SoundPriority.WARNING);
+
+		// cuts off what is being said without it being let finish
+		manager.requestStop();
+		manager.pauseSounds();
+
+		assertTrue(playing.isCancelled());
+		assertTrue(waiting.isCancelled());
+		assertTrue(waiting.isDone());
+		assertEquals(Arrays.asList(NORTH), line.written);
+
+		// what is said after the stop is said
+		say(manager, EAST, SoundPriority.ANNOUNCEMENT);
+		line.finish(1);
+		manager.pauseSounds();
+		assertEquals(Arrays.asList(NORTH, EAST), line.written);
+	}
+
+	private static Utterance say(SoundManager manager, String sound,
+			SoundPriority priority) {
+		manager.addSound(sound);
+		return manager.playSounds(priority);
+	}
+
+	/**
+	 * A line that notes each phrase written to it and holds it until the
+	 * test lets it finish or it is stopped
+	 */
+	private static class HeldLine extends SoundLine {
+		// the phrases written, in order
+		final List<String> written = Collections
+				.synchronizedList(new ArrayList<String>());
+
+		// one permit for each phrase allowed to finish
+		private final Semaphore finishes = new Semaphore(0);
+
+		private volatile boolean stopped = false;
+
+		@Override
+		public boolean write(PcmSound sound) {
+			synchronized (this) {
+				written.add(sound.getFilename());
+				notifyAll();
+			}
+			try {
+				while (!stopped) {
+					if (finishes.tryAcquire(1, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+
+		@Override
+		public void drain() {
+		}
+
+		@Override
+		public void reset() {
+			stopped = false;
+		}
+
+		@Override
+		public void stop() {
+			stopped = true;
+		}
+
+		void finish(int phrases) {
+			finishes.release(phrases);
+		}
+
+		synchronized boolean waitForWrites(int writes)
+				throws InterruptedException {
+			long end = System.currentTimeMillis() + WAIT_MILLIS;
+			while (written.size() < writes && System.currentTimeMillis() < end) {
+				wait(Math.max(1, end - System.currentTimeMillis()));
+			}
+			return written.size() >= writes;
+		}
+	}
+}
@@ -7,7 +7,7 @@ import model.Suit;
 public class SoundTest {
 	
 	public SoundTest() {
-		Card c = new Card (Rank.NINE, Suit.CLUBS);
+		Card c = Card.of(Rank.NINE, Suit.CLUBS);
 		System.out.println(c.getSound());
 		AudioPlayer ap = new AudioPlayer();
 		if (ap.init(c.getSound())) {
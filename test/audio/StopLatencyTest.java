@@ -0,0 +1,88 @@
+package audio;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Times how long it takes from the blind player pressing a key to the
+ * announcement being read stopping, and to the answer to the key starting.
+ * Each round starts reading a 13 card hand, waits a random time into it, then
+ * does what KeyPad does for a key: stops what is being said and asks for the
+ * contract.
+ *
+ * The sounds play on a ClockedLine, which plays at the speed of a sound card
+ * without needing one, so this times the program and not the sound card.
+ *
+ * @version Oct 18, 2026
+ */
+public class StopLatencyTest {
+	private static final int ROUNDS = 20;
+
+	// a 13 card hand, read the way KeyPad reads it
+	private static final String[] HAND = { "/sounds/ownership/you2.wav",
+			"/sounds/bidding/4.WAV", "/sounds/suits/C.WAV",
+			"/sounds/ranks/A.WAV", "/sounds/ranks/10.WAV",
+			"/sounds/ranks/7.WAV", "/sounds/ranks/2.WAV", PhraseEngine.PAUSE,
+			"/sounds/bidding/3.WAV", "/sounds/suits/D.WAV",
+			"/sounds/ranks/K.WAV", "/sounds/ranks/9.WAV",
+			"/sounds/ranks/5.WAV", PhraseEngine.PAUSE,
+			"/sounds/bidding/3.WAV", "/sounds/suits/H.WAV",
+			"/sounds/ranks/Q.WAV", "/sounds/ranks/J.WAV",
+			"/sounds/ranks/3.WAV", PhraseEngine.PAUSE,
+			"/sounds/bidding/3.WAV", "/sounds/suits/S.WAV",
+			"/sounds/ranks/A.WAV", "/sounds/ranks/8.WAV",
+			"/sounds/ranks/6.WAV" };
+
+	private static final String[] CONTRACT = {
+			"/sounds/bidding/contractis.WAV", "/sounds/bidding/3.WAV",
+			"/sounds/suits/C.WAV", "/sounds/directions/south.WAV" };
+
+	public static void main(String[] args) throws InterruptedException {
+		ClockedLine clockedLine = new ClockedLine();
+		SoundManager soundMgr = new SoundManager(new SoundLine(clockedLine));
+		soundMgr.preloadSounds();
+		Random random = new Random(13);
+
+		long[] toSilence = new long[ROUNDS];
+		long[] toAnswer = new long[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++) {
+			say(soundMgr, HAND);
+			Thread.sleep(300 + random.nextInt(3000));
+			if (!soundMgr.isPlaying()) {
+				System.out.println("The hand was not being read");
+			}
+
+			// the key
+			long pressed = System.nanoTime();
+			soundMgr.requestStop();
+			say(soundMgr, CONTRACT);
+
+			while (clockedLine.getStoppedAt() < pressed
+					|| clockedLine.getStartedAt() < pressed) {
+				Thread.sleep(1);
+			}
+			toSilence[round] = clockedLine.getStoppedAt() - pressed;
+			toAnswer[round] = clockedLine.getStartedAt() - pressed;
+			soundMgr.requestStop();
+			soundMgr.pauseSounds();
+		}
+
+		report("key to silence", toSilence);
+		report("key to answer", toAnswer);
+	}
+
+	private static void say(SoundManager soundMgr, String[] sounds) {
+		for (String sound : sounds) {
+			soundMgr.addSound(sound);
+		}
+		soundMgr.playSounds();
+	}
+
+	private static void report(String what, long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%s: median %.2f ms, max %.2f ms%n", what,
+				sorted[sorted.length / 2] / 1e6,
+				sorted[sorted.length - 1] / 1e6);
+	}
+}
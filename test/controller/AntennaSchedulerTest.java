@@ -0,0 +1,187 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import model.Direction;
+import model.GameState;
+
+import org.junit.Test;
+
+import controller.AntennaScheduler.Role;
+
+public class AntennaSchedulerTest {
+	private static final Direction BLIND = Direction.NORTH;
+	private static final Direction DUMMY = Direction.SOUTH;
+
+	// number of hands played in the comparison
+	private static final int HANDS = 200;
+
+	// most polls that can go by before a card is put down
+	private static final int MAX_WAIT = 8;
+
+	@Test
+	public void testDealingStaysOnBlind() {
+		AntennaScheduler scheduler = new AntennaScheduler();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(BLIND,
+					scheduler.next(GameState.DEALING, null, BLIND, null));
+		}
+	}
+
+	@Test
+	public void testScanningDummyStaysOnDummy() {
+		AntennaScheduler scheduler = new AntennaScheduler();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(DUMMY, scheduler.next(GameState.SCANNING_DUMMY,
+					DUMMY, BLIND, DUMMY));
+		}
+	}
+
+	@Test
+	public void testPlayingWeightsTurn() {
+		AntennaScheduler scheduler = new AntennaScheduler();
+		int turnPolls = 0;
+		Direction last = null;
+		for (int i = 0; i < 8; i++) {
+			Direction next = scheduler.next(GameState.PLAYING,
+					Direction.EAST, BLIND, DUMMY);
+			if (i == 0) {
+				assertEquals(Direction.EAST, next);
+			}
+			if (next == Direction.EAST) {
+				turnPolls++;
+			} else {
+				assertEquals(BLIND, next);
+				// the blind antenna's polls are spread out
+				assertNotEquals(BLIND, last);
+			}
+			last = next;
+		}
+		assertEquals(6, turnPolls);
+	}
+
+	@Test
+	public void testBlindPlayersTurn() {
+		AntennaScheduler scheduler = new AntennaScheduler();
+		for (int i = 0; i < 8; i++) {
+			assertEquals(BLIND,
+					scheduler.next(GameState.PLAYING, BLIND, BLIND, DUMMY));
+		}
+	}
+
+	@Test
+	public void testRoundStartsAgainWhenTurnChanges() {
+		AntennaScheduler scheduler = new AntennaScheduler();
+		scheduler.next(GameState.PLAYING, Direction.EAST, BLIND, DUMMY);
+		scheduler.next(GameState.PLAYING, Direction.EAST, BLIND, DUMMY);
+		assertEquals(Direction.WEST,
+				scheduler.next(GameState.PLAYING, Direction.WEST, BLIND, DUMMY));
+	}
+
+	@Test
+	public void testWeightsCanBeSet() {
+		AntennaScheduler scheduler = new AntennaScheduler();
+		scheduler.setWeight(GameState.PLAYING, Role.OTHER, 1);
+		scheduler.setWeight(GameState.PLAYING, Role.BLIND, 1);
+		scheduler.setWeight(GameState.PLAYING, Role.TURN, 1);
+		assertEquals(1, scheduler.getWeight(GameState.PLAYING, Role.OTHER));
+
+		int[] polls = new int[Direction.values().length];
+		for (int i = 0; i < 40; i++) {
+			polls[scheduler.next(GameState.PLAYING, Direction.EAST, BLIND,
+					DUMMY).ordinal()]++;
+		}
+		for (int count : polls) {
+			assertEquals(10, count);
+		}
+
+		scheduler.setWeight(GameState.DEALING, Role.BLIND, 0);
+		assertNull(scheduler.next(GameState.DEALING, null, BLIND, null));
+	}
+
+	/**
+	 * Plays hands in which each card is put down on the antenna that expects
+	 * it after a random number of polls, and counts the polls it takes to
+	 * find each card with the old alternation between the blind antenna and
+	 * the turn, and with the scheduler.
+	 */
+	@Test
+	public void testPollsToDetectPlayedCard() {
+		Random random = new Random(42);
+		long[][] polls = new long[2][GameState.values().length];
+		long[] cards = new long[GameState.values().length];
+
+		AntennaScheduler scheduler = new AntennaScheduler();
+		boolean onBlind = false;
+		for (int hand = 0; hand < HANDS; hand++) {
+			for (int card = 0; card < 13 + 1 + 13 + 51; card++) {
+				GameState state;
+				Direction expected;
+				if (card < 13) {
+					state = GameState.DEALING;
+					expected = BLIND;
+				} else if (card == 13) {
+					state = GameState.FIRSTCARD;
+					expected = Direction.EAST;
+				} else if (card < 27) {
+					state = GameState.SCANNING_DUMMY;
+					expected = DUMMY;
+				} else {
+					state = GameState.PLAYING;
+					// the first card was east's, so the dummy plays next
+					expected = Direction.values()[(card - 27 + 2) % 4];
+				}
+				cards[state.ordinal()]++;
+
+				// the card is put down at some point in the polling
+				int wait = random.nextInt(MAX_WAIT);
+				for (int i = 0; i < wait; i++) {
+					onBlind = !onBlind;
+					scheduler.next(state, expected, BLIND, DUMMY);
+				}
+
+				// the old cycleHands: the blind antenna, then the turn
+				Direction polled;
+				do {
+					polled = onBlind ? BLIND : expected;
+					onBlind = !onBlind;
+					polls[0][state.ordinal()]++;
+				} while (polled != expected);
+
+				do {
+					polled = scheduler.next(state, expected, BLIND, DUMMY);
+					polls[1][state.ordinal()]++;
+				} while (polled != expected);
+			}
+		}
+
+		long[] total = new long[2];
+		long allCards = 0;
+		for (GameState state : GameState.values()) {
+			System.out.printf("%-14s alternating %.2f polls, scheduled %.2f "
+					+ "polls a card%n", state, (double) polls[0][state
+					.ordinal()] / cards[state.ordinal()],
+					(double) polls[1][state.ordinal()]
+							/ cards[state.ordinal()]);
+			for (int i = 0; i < 2; i++) {
+				total[i] += polls[i][state.ordinal()];
+			}
+			allCards += cards[state.ordinal()];
+		}
+		double before = (double) total[0] / allCards;
+		double after = (double) total[1] / allCards;
+		System.out.printf("All cards: alternating %.2f polls, scheduled "
+				+ "%.2f polls a card%n", before, after);
+
+		assertEquals(cards[GameState.SCANNING_DUMMY.ordinal()],
+				polls[1][GameState.SCANNING_DUMMY.ordinal()]);
+		assertTrue(polls[1][GameState.PLAYING.ordinal()] < polls[0][GameState.PLAYING
+				.ordinal()]);
+		assertTrue(after < before);
+	}
+}
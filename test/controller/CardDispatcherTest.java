@@ -0,0 +1,225 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import metrics.Counter;
+import metrics.Metrics;
+import model.Card;
+import model.Direction;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class CardDispatcherTest {
+	// the cards an antenna's queue holds
+	private static final int CAPACITY = 16;
+
+	// longest to wait for the delivering threads
+	private static final long WAIT_MILLIS = 2000;
+
+	private final CardListener[] listeners = new CardListener[Direction
+			.values().length];
+	private final CardDispatcher dispatcher = new CardDispatcher(listeners);
+
+	@After
+	public void tearDown() {
+		dispatcher.shutdown();
+	}
+
+	@Test
+	public void testCardsDeliveredInOrderPerAntenna()
+			throws InterruptedException {
+		HeldListener north = new HeldListener();
+		HeldListener east = new HeldListener();
+		listeners[Direction.NORTH.ordinal()] = north;
+		listeners[Direction.EAST.ordinal()] = east;
+		north.release.countDown();
+		east.release.countDown();
+
+		for (int i = 0; i < 10; i++) {
+			dispatcher.dispatch(Direction.NORTH, Card.of(i));
+			dispatcher.dispatch(Direction.EAST, Card.of(20 + i));
+		}
+		assertTrue(north.waitFor(10));
+		assertTrue(east.waitFor(10));
+		for (int i = 0; i < 10; i++) {
+			assertEquals(Card.of(i), north.cards.get(i));
+			assertEquals(Card.of(20 + i), east.cards.get(i));
+		}
+		assertEquals(10, dispatcher.getDispatched(Direction.NORTH));
+		assertEquals(0, dispatcher.getDispatched(Direction.SOUTH));
+	}
+
+	@Test
+	public void testSlowAntennaDoesNotHoldUpOthers()
+			throws InterruptedException {
+		HeldListener north = new HeldListener();
+		HeldListener east = new HeldListener();
+		listeners[Direction.NORTH.ordinal()] = north;
+		listeners[Direction.EAST.ordinal()] = east;
+		east.release.countDown();
+
+		dispatcher.dispatch(Direction.NORTH, Card.of(0));
+		assertTrue(north.entered.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		dispatcher.dispatch(Direction.EAST, Card.of(1));
+		assertTrue(east.waitFor(1));
+		assertEquals(0, north.cards.size());
+
+		north.release.countDown();
+		assertTrue(north.waitFor(1));
+	}
+
+	@Test
+	public void testDuplicateWaitingCardDropped() throws InterruptedException {
+		Counter duplicates = Metrics.getDefault().counter(
+				"dispatch.WEST.duplicates");
+		long before = duplicates.getCount();
+		HeldListener west = new HeldListener();
+		listeners[Direction.WEST.ordinal()] = west;
+
+		// the first card is being delivered, so the same card is queued
+		dispatcher.dispatch(Direction.WEST, Card.of(0));
+		assertTrue(west.entered.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		dispatcher.dispatch(Direction.WEST, Card.of(0));
+		// but not while it is still waiting
+		dispatcher.dispatch(Direction.WEST, Card.of(0));
+		assertTrue(dispatcher.offer(Direction.WEST, Card.of(0), 0));
+		assertEquals(1, dispatcher.getQueueDepth(Direction.WEST));
+		assertEquals(2, dispatcher.getDropped(Direction.WEST));
+		assertEquals(before + 2, duplicates.getCount());
+
+		// another card in between lets it be queued again
+		dispatcher.dispatch(Direction.WEST, Card.of(1));
+		dispatcher.dispatch(Direction.WEST, Card.of(0));
+		assertEquals(3, dispatcher.getQueueDepth(Direction.WEST));
+
+		west.release.countDown();
+		assertTrue(west.waitFor(4));
+		assertEquals(Card.of(0), west.cards.get(1));
+		assertEquals(Card.of(1), west.cards.get(2));
+		assertEquals(Card.of(0), west.cards.get(3));
+	}
+
+	@Test
+	public void testDispatchWaitsForRoom() throws InterruptedException {
+		HeldListener south = new HeldListener();
+		listeners[Direction.SOUTH.ordinal()] = south;
+		dispatcher.dispatch(Direction.SOUTH, Card.of(0));
+		assertTrue(south.entered.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		for (int i = 1; i <= CAPACITY; i++) {
+			dispatcher.dispatch(Direction.SOUTH, Card.of(i));
+		}
+
+		final CountDownLatch queued = new CountDownLatch(1);
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					dispatcher.dispatch(Direction.SOUTH, Card.of(CAPACITY + 1));
+					queued.countDown();
+				} catch (InterruptedException e) {
+					// Not queued
+				}
+			}
+		};
+		reader.start();
+		assertFalse(queued.await(100, TimeUnit.MILLISECONDS));
+		assertEquals(CAPACITY, dispatcher.getQueueDepth(Direction.SOUTH));
+
+		// room is made as soon as the listener takes the next card
+		south.release.countDown();
+		assertTrue(queued.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		assertTrue(south.waitFor(CAPACITY + 2));
+		assertEquals(0, dispatcher.getRejected(Direction.SOUTH));
+	}
+
+	@Test
+	public void testWaitForRoomInterrupted() throws InterruptedException {
+		HeldListener south = new HeldListener();
+		listeners[Direction.SOUTH.ordinal()] = south;
+		dispatcher.dispatch(Direction.SOUTH, Card.of(0));
+		assertTrue(south.entered.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		for (int i = 1; i <= CAPACITY; i++) {
+			dispatcher.dispatch(Direction.SOUTH, Card.of(i));
+		}
+
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					dispatcher.dispatch(Direction.SOUTH, Card.of(CAPACITY + 1));
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+			}
+		};
+		reader.start();
+		Thread.sleep(50);
+		reader.interrupt();
+		assertTrue(interrupted.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		south.release.countDown();
+	}
+
+	@Test
+	public void testOfferDropsWhenFull() throws InterruptedException {
+		HeldListener north = new HeldListener();
+		listeners[Direction.NORTH.ordinal()] = north;
+
+		// the first card is held by the listener, the rest fill the queue
+		assertTrue(dispatcher.offer(Direction.NORTH, Card.of(0), 0));
+		assertTrue(north.entered.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		for (int i = 1; i <= CAPACITY; i++) {
+			assertTrue(dispatcher.offer(Direction.NORTH, Card.of(i), 0));
+		}
+		assertFalse(dispatcher.offer(Direction.NORTH, Card.of(CAPACITY + 1),
+				0));
+		assertEquals(1, dispatcher.getRejected(Direction.NORTH));
+		assertEquals(CAPACITY, dispatcher.getQueueDepth(Direction.NORTH));
+
+		north.release.countDown();
+		assertTrue(north.waitFor(CAPACITY + 1));
+		assertEquals(Card.of(CAPACITY), north.cards.get(CAPACITY));
+	}
+
+	/**
+	 * A listener that notes the cards it is given, and holds up its antenna
+	 * until it is released
+	 */
+	private static class HeldListener implements CardListener {
+		final List<Card> cards = Collections
+				.synchronizedList(new ArrayList<Card>());
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public void cardFound(Card c) {
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				return;
+			}
+			synchronized (this) {
+				cards.add(c);
+				notifyAll();
+			}
+		}
+
+		synchronized boolean waitFor(int count) throws InterruptedException {
+			long end = System.currentTimeMillis() + WAIT_MILLIS;
+			while (cards.size() < count && System.currentTimeMillis() < end) {
+				wait(Math.max(1, end - System.currentTimeMillis()));
+			}
+			return cards.size() >= count;
+		}
+	}
+}
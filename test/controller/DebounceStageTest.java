@@ -0,0 +1,172 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Card;
+import model.Direction;
+import model.Rank;
+import model.Suit;
+
+import org.junit.Test;
+
+public class DebounceStageTest {
+	private static final Card ACE = Card.of(Rank.ACE, Suit.SPADES);
+	private static final Card KING = Card.of(Rank.KING, Suit.SPADES);
+	private static final long WINDOW = DebounceStage.DEFAULT_WINDOW_MILLIS;
+
+	@Test
+	public void testRepeatedReadsSuppressed() {
+		DebounceStage stage = new DebounceStage();
+		assertTrue(stage.pass(Direction.NORTH, ACE, 1000));
+		assertFalse(stage.pass(Direction.NORTH, ACE, 1100));
+		// another card in between does not let the first one through again
+		assertTrue(stage.pass(Direction.NORTH, KING, 1200));
+		assertFalse(stage.pass(Direction.NORTH, ACE, 1300));
+
+		assertEquals(2, stage.getPassed(Direction.NORTH));
+		assertEquals(2, stage.getSuppressed(Direction.NORTH));
+	}
+
+	@Test
+	public void testCardLyingOnAntennaStaysSuppressed() {
+		DebounceStage stage = new DebounceStage();
+		assertTrue(stage.pass(Direction.NORTH, ACE, 0));
+		for (long time = 100; time < 5 * WINDOW; time += 100) {
+			assertFalse(stage.pass(Direction.NORTH, ACE, time));
+		}
+	}
+
+	@Test
+	public void testCardPutBackIsPassed() {
+		DebounceStage stage = new DebounceStage();
+		assertTrue(stage.pass(Direction.NORTH, ACE, 1000));
+		assertFalse(stage.pass(Direction.NORTH, ACE, 1000 + WINDOW - 1));
+		assertTrue(stage.pass(Direction.NORTH, ACE, 1000 + 2 * WINDOW));
+	}
+
+	@Test
+	public void testDummyCardPlayedSoonAfterScanIsPassed() {
+		DebounceStage stage = new DebounceStage();
+		// the dummy's hand is scanned in on the south antenna
+		assertTrue(stage.pass(Direction.SOUTH, ACE, 1000));
+		assertTrue(stage.pass(Direction.SOUTH, KING, 1300));
+		// and the ace is played from it 3 seconds later
+		assertTrue(stage.pass(Direction.SOUTH, ACE, 4000));
+	}
+
+	@Test
+	public void testAntennasAreSeparate() {
+		DebounceStage stage = new DebounceStage();
+		assertTrue(stage.pass(Direction.NORTH, ACE, 1000));
+		assertTrue(stage.pass(Direction.EAST, ACE, 1000));
+		assertFalse(stage.pass(Direction.EAST, ACE, 1001));
+		assertEquals(1, stage.getSuppressed(Direction.EAST));
+		assertEquals(0, stage.getSuppressed(Direction.NORTH));
+	}
+
+	@Test
+	public void testWindowPerAntenna() {
+		DebounceStage stage = new DebounceStage();
+		stage.setWindow(Direction.SOUTH, 0);
+		assertTrue(stage.pass(Direction.SOUTH, ACE, 1000));
+		assertTrue(stage.pass(Direction.SOUTH, ACE, 1000));
+
+		stage.setWindow(Direction.WEST, 10);
+		assertTrue(stage.pass(Direction.WEST, ACE, 1000));
+		assertFalse(stage.pass(Direction.WEST, ACE, 1009));
+		assertTrue(stage.pass(Direction.WEST, ACE, 1019));
+	}
+
+	@Test
+	public void testWrappedListener() {
+		final List<Card> heard = new ArrayList<Card>();
+		CardListener listener = new DebounceStage().wrap(Direction.NORTH,
+				new CardListener() {
+					@Override
+					public void cardFound(Card c) {
+						heard.add(c);
+					}
+				});
+		listener.cardFound(ACE);
+		listener.cardFound(ACE);
+		listener.cardFound(KING);
+		listener.cardFound(ACE);
+
+		assertEquals(2, heard.size());
+		assertEquals(ACE, heard.get(0));
+		assertEquals(KING, heard.get(1));
+	}
+
+	@Test
+	public void testBlindAntennaPassesCardReadAgainAfterAnother() {
+		final List<Card> heard = new ArrayList<Card>();
+		DebounceStage stage = new DebounceStage();
+		stage.setLastCardOnly(Direction.SOUTH, true);
+		CardListener listener = stage.wrap(Direction.SOUTH,
+				new CardListener() {
+					@Override
+					public void cardFound(Card c) {
+						heard.add(c);
+					}
+				});
+		// A, B, A within the window: the game must end up with A
+		listener.cardFound(ACE);
+		listener.cardFound(KING);
+		listener.cardFound(ACE);
+		// holding A over the antenna still reads it only once
+		listener.cardFound(ACE);
+
+		assertEquals(3, heard.size());
+		assertEquals(ACE, heard.get(0));
+		assertEquals(KING, heard.get(1));
+		assertEquals(ACE, heard.get(2));
+		assertEquals(1, stage.getSuppressed(Direction.SOUTH));
+
+		// the other antennas keep suppressing every card in its window
+		stage.setLastCardOnly(Direction.SOUTH, false);
+		assertFalse(stage.isLastCardOnly(Direction.SOUTH));
+		assertFalse(stage.pass(Direction.SOUTH, KING,
+				System.currentTimeMillis()));
+	}
+
+	@Test
+	public void testSameReadOnManyThreadsPassesOnce() throws Exception {
+		final DebounceStage stage = new DebounceStage();
+		final AtomicInteger passed = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int read = 0; read < 1000; read++) {
+						if (stage.pass(Direction.NORTH, ACE, 1000 + read)) {
+							passed.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(1, passed.get());
+		assertEquals(threads.length * 1000 - 1,
+				stage.getSuppressed(Direction.NORTH));
+	}
+}
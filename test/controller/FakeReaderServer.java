@@ -0,0 +1,205 @@
+package controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reader server for tests that says READY when asked to stream frames,
+ * answers each antenna switch with a NOCARD frame, and keeps the commands
+ * sent on each connection.
+ *
+ * Like the reader server it serves one client at a time, and only accepts the
+ * next one once it has noticed the last one has gone; until then a new
+ * connection is made but sits unanswered in the listen backlog. It notices
+ * at once, as the reader server does when it polls the socket, unless told
+ * to act as a server that only notices when a write fails, and so never
+ * notices while it has nothing to write.
+ *
+ * @version Oct 18, 2026
+ */
+class FakeReaderServer implements Runnable {
+	private final ServerSocket serverSocket;
+
+	// the commands sent on each connection, in the order of connecting
+	private final List<StringBuffer> commands = new ArrayList<StringBuffer>();
+
+	// the connection being served
+	private volatile Socket socket;
+
+	// set to stop answering without closing the connection
+	private volatile boolean mute = false;
+
+	// set to answer the stream command with READY, as servers that know it do
+	private volatile boolean sayReady = true;
+
+	// set to notice at once when the client goes away
+	private volatile boolean noticesDisconnect = true;
+
+	// set once closed
+	private volatile boolean closed = false;
+
+	/**
+	 * Starts a server on a free port
+	 */
+	FakeReaderServer() throws IOException {
+		this(0);
+	}
+
+	/**
+	 * Starts a server on a port
+	 *
+	 * @param port
+	 *            the port to listen on
+	 */
+	FakeReaderServer(int port) throws IOException {
+		serverSocket = new ServerSocket(port);
+		Thread thread = new Thread(this, "Fake reader server");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (true) {
+				Socket client = serverSocket.accept();
+				StringBuffer received = new StringBuffer();
+				synchronized (this) {
+					socket = client;
+					commands.add(received);
+					notifyAll();
+				}
+				serve(client, received);
+			}
+		} catch (IOException e) {
+			// Closed
+		}
+	}
+
+	private void serve(Socket client, StringBuffer received) {
+		try {
+			InputStream in = client.getInputStream();
+			OutputStream out = client.getOutputStream();
+			ByteBuffer frame = ByteBuffer.allocate(64);
+			int command;
+			while ((command = in.read()) >= 0) {
+				synchronized (this) {
+					received.append((char) command);
+					notifyAll();
+				}
+				int antenna = "NESW".indexOf(command) + 1;
+				frame.clear();
+				if (mute) {
+					continue;
+				} else if (antenna > 0) {
+					ReaderFrame.putNoCard(frame, antenna,
+							System.currentTimeMillis());
+				} else if (command == 'B' && sayReady) {
+					ReaderFrame.putReady(frame, 1, System.currentTimeMillis());
+				} else if (command == 'B') {
+					// older servers start with the first read
+					ReaderFrame.putNoCard(frame, 1, System.currentTimeMillis());
+				} else if (command == 'q') {
+					ReaderFrame.putQuit(frame);
+				}
+				if (frame.position() > 0) {
+					out.write(frame.array(), 0, frame.position());
+					out.flush();
+				}
+			}
+		} catch (IOException e) {
+			// Dropped
+		}
+		if (!noticesDisconnect) {
+			// Never writes again, so never finds out the client has gone
+			synchronized (this) {
+				while (!closed) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	void setMute(boolean mute) {
+		this.mute = mute;
+	}
+
+	/**
+	 * @param sayReady
+	 *            false to act as a server older than the READY frame
+	 */
+	void setSayReady(boolean sayReady) {
+		this.sayReady = sayReady;
+	}
+
+	/**
+	 * @param noticesDisconnect
+	 *            false to act as a server that only notices a client has gone
+	 *            when a write to it fails, and so stops accepting clients if
+	 *            the last one goes while the server is mute
+	 */
+	void setNoticesDisconnect(boolean noticesDisconnect) {
+		this.noticesDisconnect = noticesDisconnect;
+	}
+
+	void dropConnection() throws IOException {
+		socket.close();
+	}
+
+	synchronized int getConnections() {
+		return commands.size();
+	}
+
+	synchronized String getCommands(int connection) {
+		return commands.get(connection).toString();
+	}
+
+	synchronized boolean waitForConnections(int connections, long millis)
+			throws InterruptedException {
+		long end = System.currentTimeMillis() + millis;
+		while (commands.size() < connections
+				&& System.currentTimeMillis() < end) {
+			wait(Math.max(1, end - System.currentTimeMillis()));
+		}
+		return commands.size() >= connections;
+	}
+
+	synchronized boolean waitForCommands(int connection, String start,
+			long millis) throws InterruptedException {
+		long end = System.currentTimeMillis() + millis;
+		while (!(commands.size() > connection && commands.get(connection)
+				.toString().startsWith(start))
+				&& System.currentTimeMillis() < end) {
+			wait(Math.max(1, end - System.currentTimeMillis()));
+		}
+		return commands.size() > connection
+				&& commands.get(connection).toString().startsWith(start);
+	}
+
+	void close() throws IOException {
+		// before waking the server, so it accepts nobody else
+		serverSocket.close();
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+		Socket client = socket;
+		if (client != null) {
+			client.close();
+		}
+	}
+}
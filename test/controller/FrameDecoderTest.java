@@ -0,0 +1,118 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class FrameDecoderTest {
+	private static final long TAG = ReaderFrame.parseTagId("041B797A831E80");
+	private static final long TIME = 1234567890123L;
+
+	private static byte[] frames() {
+		ByteBuffer buffer = ByteBuffer.allocate(100);
+		ReaderFrame.putNoCard(buffer, 1, TIME);
+		ReaderFrame.putTag(buffer, TAG, 3, TIME + 1);
+		ReaderFrame.putQuit(buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	private static void checkFrames(FrameDecoder decoder)
+			throws ProtocolException {
+		assertTrue(decoder.next());
+		assertEquals(ReaderFrame.NO_CARD, decoder.getType());
+		assertEquals(1, decoder.getAntenna());
+		assertEquals(TIME, decoder.getTimestamp());
+
+		assertTrue(decoder.next());
+		assertEquals(ReaderFrame.TAG, decoder.getType());
+		assertEquals(TAG, decoder.getTagId());
+		assertEquals(3, decoder.getAntenna());
+		assertEquals(TIME + 1, decoder.getTimestamp());
+
+		assertTrue(decoder.next());
+		assertEquals(ReaderFrame.QUIT, decoder.getType());
+		assertFalse(decoder.next());
+	}
+
+	@Test
+	public void testWholeFrames() throws ProtocolException {
+		FrameDecoder decoder = new FrameDecoder();
+		byte[] bytes = frames();
+		decoder.put(bytes, 0, bytes.length);
+		checkFrames(decoder);
+	}
+
+	@Test
+	public void testOneByteAtATime() throws ProtocolException {
+		FrameDecoder decoder = new FrameDecoder();
+		byte[] bytes = frames();
+		int types = 0;
+		for (int i = 0; i < bytes.length; i++) {
+			decoder.put(bytes, i, 1);
+			while (decoder.next()) {
+				types = types * 10 + decoder.getType();
+			}
+		}
+		assertEquals(213, types);
+		assertEquals(ReaderFrame.QUIT, decoder.getType());
+	}
+
+	@Test
+	public void testSplitFrames() throws ProtocolException {
+		FrameDecoder decoder = new FrameDecoder();
+		byte[] bytes = frames();
+		decoder.put(bytes, 0, 5);
+		assertFalse(decoder.next());
+		decoder.put(bytes, 5, bytes.length - 5);
+		checkFrames(decoder);
+	}
+
+	@Test
+	public void testUnknownTypeSkipped() throws ProtocolException {
+		FrameDecoder decoder = new FrameDecoder();
+		decoder.put(new byte[] { 0, 3, 9, 1, 2 }, 0, 5);
+		byte[] bytes = frames();
+		decoder.put(bytes, 0, bytes.length);
+		checkFrames(decoder);
+	}
+
+	@Test
+	public void testReady() throws ProtocolException {
+		ByteBuffer buffer = ByteBuffer.allocate(20);
+		ReaderFrame.putReady(buffer, 2, TIME);
+		FrameDecoder decoder = new FrameDecoder();
+		decoder.put(buffer.array(), 0, buffer.position());
+		assertTrue(decoder.next());
+		assertEquals(ReaderFrame.READY, decoder.getType());
+		assertEquals(2, decoder.getAntenna());
+		assertEquals(TIME, decoder.getTimestamp());
+		assertFalse(decoder.next());
+	}
+
+	@Test
+	public void testFormatTagId() {
+		assertEquals("041B797A831E80", ReaderFrame.formatTagId(TAG));
+	}
+
+	@Test(expected = ProtocolException.class)
+	public void testShortTagFrame() throws ProtocolException {
+		FrameDecoder decoder = new FrameDecoder();
+		decoder.put(new byte[] { 0, 2, ReaderFrame.TAG, 1 }, 0, 4);
+		decoder.next();
+	}
+
+	@Test(expected = ProtocolException.class)
+	public void testEmptyFrame() throws ProtocolException {
+		FrameDecoder decoder = new FrameDecoder();
+		decoder.put(new byte[] { 0, 0 }, 0, 2);
+		decoder.next();
+	}
+}
@@ -0,0 +1,171 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.CardDatabase;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ReaderSupervisorTest {
+	private static final CardDatabase CARDS = new CardDatabase();
+
+	// longest a recovery may take
+	private static final long RECOVERY_MILLIS = 1000;
+
+	private FakeReaderServer server;
+	private FramedAntennaHandler handler;
+	private ReaderSupervisor supervisor;
+
+	@After
+	public void tearDown() throws IOException {
+		if (supervisor != null) {
+			supervisor.stop();
+		}
+		if (handler != null) {
+			handler.dropConnection();
+		}
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	/**
+	 * Connects a handler to a fake server, selects the east antenna and starts
+	 * watching the connection
+	 */
+	private void start() throws Exception {
+		server = new FakeReaderServer();
+		handler = new FramedAntennaHandler(CARDS, "localhost", server.getPort());
+		handler.connect();
+		handler.startReading();
+		handler.switchHand("E");
+		supervisor = new ReaderSupervisor(handler);
+		supervisor.start();
+		server.waitForConnections(1, RECOVERY_MILLIS);
+	}
+
+	@Test
+	public void testReconnectsWhenConnectionDrops() throws Exception {
+		start();
+		// give the supervisor time to see the handler running
+		Thread.sleep(100);
+
+		long dropped = System.currentTimeMillis();
+		server.dropConnection();
+		assertTrue("not reconnected",
+				server.waitForConnections(2, RECOVERY_MILLIS));
+		assertTrue("antenna not selected again",
+				server.waitForCommands(1, "BE", RECOVERY_MILLIS));
+		long took = System.currentTimeMillis() - dropped;
+		System.out.println("Reconnected in " + took + " ms");
+
+		waitForRecoveries(1);
+		assertTrue(handler.isLinkUp());
+	}
+
+	@Test
+	public void testReconnectsWhenServerGoesQuiet() throws Exception {
+		start();
+		Thread.sleep(100);
+
+		server.setMute(true);
+		assertTrue("not reconnected", server.waitForConnections(2,
+				ReaderSupervisor.DEFAULT_DEAD_MILLIS + RECOVERY_MILLIS));
+		// heartbeats were sent before giving up
+		assertTrue(server.getCommands(0).indexOf('E', 2) > 0);
+		server.setMute(false);
+		waitForRecoveries(1);
+		// the attempts the mute server did not answer were given up
+		int last = server.getConnections() - 1;
+		assertTrue(server.waitForCommands(last, "BE", RECOVERY_MILLIS));
+		assertTrue(handler.isLinkUp());
+	}
+
+	@Test
+	public void testRestartsServerThatNeverNoticesDisconnect() throws Exception {
+		start();
+		supervisor.setTimes(50, 200);
+		final int port = server.getPort();
+		final AtomicInteger restarts = new AtomicInteger();
+		supervisor.setServerStarter(new Runnable() {
+			@Override
+			public void run() {
+				restarts.incrementAndGet();
+				try {
+					server.close();
+					server = new FakeReaderServer(port);
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		Thread.sleep(100);
+
+		// the server stops writing and so never finds out the handler has
+		// dropped the connection; the connections made again are never
+		// accepted
+		FakeReaderServer stuck = server;
+		stuck.setNoticesDisconnect(false);
+		stuck.setMute(true);
+		long end = System.currentTimeMillis() + 5 * RECOVERY_MILLIS;
+		while (restarts.get() == 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, restarts.get());
+		assertEquals(1, stuck.getConnections());
+
+		assertTrue(server.waitForCommands(0, "BE", RECOVERY_MILLIS));
+		waitForRecoveries(1);
+		assertTrue(handler.isLinkUp());
+		assertEquals(1, restarts.get());
+	}
+
+	@Test
+	public void testQuietServerIsKeptAlive() throws Exception {
+		start();
+		Thread.sleep(3 * ReaderSupervisor.DEFAULT_DEAD_MILLIS);
+
+		// the server answers the heartbeats, so nothing is reconnected
+		assertEquals(1, server.getConnections());
+		assertTrue(server.getCommands(0).length() > 2);
+	}
+
+	@Test
+	public void testQuitIsNotReconnected() throws Exception {
+		start();
+		Thread.sleep(100);
+
+		handler.quitServer();
+		Thread.sleep(ReaderSupervisor.DEFAULT_DEAD_MILLIS + 200);
+		assertEquals(1, server.getConnections());
+	}
+
+	@Test
+	public void testBackoffGrowsWithJitter() {
+		ReaderSupervisor supervisor = new ReaderSupervisor(null);
+		for (int failures = 1; failures < 40; failures++) {
+			long limit = Math.min(ReaderSupervisor.MAX_BACKOFF_MILLIS,
+					ReaderSupervisor.INITIAL_BACKOFF_MILLIS
+							* (1L << Math.min(failures - 1, 20)));
+			for (int i = 0; i < 100; i++) {
+				long backoff = supervisor.backoff(failures);
+				assertTrue(backoff >= limit / 2);
+				assertTrue(backoff <= limit);
+			}
+		}
+	}
+
+	private void waitForRecoveries(long recoveries) throws InterruptedException {
+		long end = System.currentTimeMillis() + RECOVERY_MILLIS;
+		while (supervisor.getRecoveries() < recoveries
+				&& System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertEquals(recoveries, supervisor.getRecoveries());
+	}
+}
@@ -0,0 +1,167 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import model.Card;
+import model.CardDatabase;
+import model.Direction;
+import model.Game;
+import model.GameJournal;
+import model.GameSnapshot;
+import model.GameState;
+import model.Rank;
+import model.Suit;
+
+import org.junit.Test;
+
+public class ReplayHandlerTest {
+	private static final CardDatabase CARDS = new CardDatabase();
+
+	// antenna numbers, as the reader server sends them
+	private static final int NORTH = 1;
+	private static final int EAST = 2;
+	private static final int SOUTH = 3;
+	private static final int WEST = 4;
+
+	// time between frames in the traces
+	private static final long STEP = 300;
+
+	/**
+	 * Writes the trace of a hand in which north is blind and declarer, and
+	 * east leads a heart and wins every trick
+	 */
+	private static class HandTrace {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final TraceRecorder recorder = new TraceRecorder(bytes);
+		private long time = 1000000;
+
+		private void tag(Card card, int antenna) {
+			time += STEP;
+			recorder.tag(CARDS.getId(card), antenna, time);
+		}
+
+		private void input(GameJournal.Type type, int first) {
+			time += STEP;
+			recorder.input(type, first, -1, -1, time);
+		}
+
+		private HandTrace deal() {
+			input(GameJournal.Type.BLIND_POSITION, Direction.NORTH.ordinal());
+			for (Rank r : Rank.values()) {
+				tag(Card.of(r, Suit.SPADES), NORTH);
+				// the reader sees most cards more than once
+				tag(Card.of(r, Suit.SPADES), NORTH);
+				time += STEP;
+				recorder.noCard(NORTH, time);
+			}
+			input(GameJournal.Type.PLAYING_PHASE, Direction.NORTH.ordinal());
+			input(GameJournal.Type.CONTRACT_NUM, 3);
+			input(GameJournal.Type.TRUMP, Suit.NOTRUMP.ordinal());
+			return this;
+		}
+
+		private HandTrace play(int tricks) {
+			for (int trick = 0; trick < tricks; trick++) {
+				Rank rank = Rank.values()[trick];
+				tag(Card.of(rank, Suit.HEARTS), EAST);
+				if (trick == 0) {
+					for (Rank r : Rank.values()) {
+						tag(Card.of(r, Suit.DIAMONDS), SOUTH);
+					}
+				}
+				tag(Card.of(rank, Suit.DIAMONDS), SOUTH);
+				tag(Card.of(rank, Suit.CLUBS), WEST);
+				tag(Card.of(rank, Suit.SPADES), NORTH);
+				input(GameJournal.Type.BLIND_CARD_PLAYED, -1);
+			}
+			return this;
+		}
+
+		private byte[] toBytes() throws IOException {
+			recorder.close();
+			return bytes.toByteArray();
+		}
+	}
+
+	private static ReplayHandler replay(byte[] trace,
+			ReplayHandler.Timing timing) throws Exception {
+		ReplayHandler handler = new ReplayHandler(CARDS,
+				new ByteArrayInputStream(trace), timing);
+		new Game(handler, false);
+		handler.replay();
+		return handler;
+	}
+
+	private static GameSnapshot snapshot(ReplayHandler handler) {
+		return handler.game.getSnapshot();
+	}
+
+	@Test
+	public void testFullHand() throws Exception {
+		byte[] trace = new HandTrace().deal().play(13).toBytes();
+		ReplayHandler handler = replay(trace, ReplayHandler.Timing.MAX_SPEED);
+
+		GameSnapshot state = snapshot(handler);
+		assertEquals(13, state.getTricksWon(Direction.EAST));
+		assertEquals(GameState.DEALING, state.getGameState());
+		assertEquals(0L, state.getHand(Direction.NORTH));
+		assertEquals(0L, state.getHand(Direction.SOUTH));
+		assertEquals(Direction.EAST, handler.getCurrentHand());
+
+		// each card read twice in a row while dealing reaches the game once
+		assertEquals(13 + 13 + 13 * 4, handler.getCardsFound());
+		assertEquals(1 + 3 + 13, handler.getInputs());
+	}
+
+	@Test
+	public void testMidHand() throws Exception {
+		byte[] trace = new HandTrace().deal().play(6).toBytes();
+		GameSnapshot replayed = snapshot(replay(trace,
+				ReplayHandler.Timing.MAX_SPEED));
+
+		assertEquals(6, replayed.getTricksWon(Direction.EAST));
+		assertEquals(GameState.PLAYING, replayed.getGameState());
+		assertEquals(Direction.EAST, replayed.getTurn());
+		assertEquals(7, replayed.getNumOfSuit(Direction.NORTH, Suit.SPADES));
+		assertEquals(7, replayed.getNumOfSuit(Direction.SOUTH, Suit.DIAMONDS));
+		// the last trick stays on show until the next card is played
+		assertEquals(Card.of(Rank.values()[5], Suit.SPADES),
+				replayed.getTrickCard(Direction.NORTH));
+	}
+
+	@Test
+	public void testOriginalTiming() throws Exception {
+		HandTrace hand = new HandTrace();
+		hand.input(GameJournal.Type.BLIND_POSITION, Direction.NORTH.ordinal());
+		hand.tag(Card.of(Rank.ACE, Suit.SPADES), NORTH);
+		hand.tag(Card.of(Rank.KING, Suit.SPADES), NORTH);
+		byte[] trace = hand.toBytes();
+
+		long start = System.nanoTime();
+		ReplayHandler handler = replay(trace, ReplayHandler.Timing.ORIGINAL);
+		long millis = (System.nanoTime() - start) / 1000000;
+
+		assertTrue("took " + millis + " ms", millis >= 2 * STEP);
+		assertEquals(2, Long.bitCount(snapshot(handler).getHand(Direction.NORTH)));
+	}
+
+	@Test
+	public void testManyHands() throws Exception {
+		final int hands = 200;
+		byte[] trace = new HandTrace().deal().play(13).toBytes();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < hands; i++) {
+			ReplayHandler handler = replay(trace, ReplayHandler.Timing.MAX_SPEED);
+			assertEquals(13, snapshot(handler).getTricksWon(Direction.EAST));
+		}
+		long millis = Math.max(1, (System.nanoTime() - start) / 1000000);
+		System.out.println("Replayed " + hands + " hands in " + millis
+				+ " ms, " + hands * 1000 / millis + " hands a second");
+	}
+}
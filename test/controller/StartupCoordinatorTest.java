@@ -0,0 +1,131 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+
+import model.CardDatabase;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class StartupCoordinatorTest {
+	private static final CardDatabase CARDS = new CardDatabase();
+
+	private FakeReaderServer server;
+	private FramedAntennaHandler handler;
+
+	@After
+	public void tearDown() throws IOException {
+		if (handler != null) {
+			handler.dropConnection();
+		}
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	@Test
+	public void testWaitsForServerStartingLate() throws Exception {
+		final int port = freePort();
+		handler = new FramedAntennaHandler(CARDS, "localhost", port);
+		new Thread("Late server") {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(300);
+					server = new FakeReaderServer(port);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		}.start();
+
+		long start = System.currentTimeMillis();
+		StartupCoordinator coordinator = new StartupCoordinator(handler);
+		assertTrue(coordinator.connect());
+		long took = System.currentTimeMillis() - start;
+		System.out.println("Ready after " + took + " ms");
+		assertTrue(coordinator.getAttempts() > 1);
+		assertTrue(took < 300 + 5 * StartupCoordinator.POLL_MILLIS);
+
+		// the connection is kept for the game
+		assertEquals(1, server.getConnections());
+		handler.startReading();
+		handler.switchHand("S");
+		assertTrue(server.waitForCommands(0, "BS", 1000));
+	}
+
+	@Test
+	public void testFailsWhenServerNeverStarts() throws Exception {
+		handler = new FramedAntennaHandler(CARDS, "localhost", freePort());
+		StartupCoordinator coordinator = new StartupCoordinator(handler);
+		coordinator.setTimes(400, 400);
+
+		long start = System.currentTimeMillis();
+		try {
+			coordinator.connect();
+			fail("connected to nothing");
+		} catch (ConnectException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("did not start"));
+		}
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertTrue(coordinator.getAttempts() > 1);
+	}
+
+	@Test
+	public void testFailsWhenServerIsSilent() throws Exception {
+		server = new FakeReaderServer();
+		server.setMute(true);
+		handler = new FramedAntennaHandler(CARDS, "localhost", server.getPort());
+		StartupCoordinator coordinator = new StartupCoordinator(handler);
+		coordinator.setTimes(1000, 200);
+
+		try {
+			coordinator.connect();
+			fail("no READY");
+		} catch (SocketTimeoutException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("READY"));
+		}
+		assertFalse(handler.isLinkUp());
+	}
+
+	@Test
+	public void testGoesOnWithOlderServer() throws Exception {
+		server = new FakeReaderServer();
+		server.setSayReady(false);
+		handler = new FramedAntennaHandler(CARDS, "localhost", server.getPort());
+		StartupCoordinator coordinator = new StartupCoordinator(handler);
+
+		// the NOCARD for the first read comes instead of READY
+		assertFalse(coordinator.connect());
+	}
+
+	@Test
+	public void testNioHandlerWaitsForReady() throws Exception {
+		server = new FakeReaderServer();
+		ReaderHub hub = new ReaderHub();
+		NioAntennaHandler nio = new NioAntennaHandler(CARDS, hub, "localhost",
+				server.getPort());
+		try {
+			assertTrue(new StartupCoordinator(nio).connect());
+		} finally {
+			nio.dropConnection();
+			hub.shutdown();
+		}
+	}
+
+	// a port nothing is listening on
+	private static int freePort() throws IOException {
+		ServerSocket socket = new ServerSocket(0);
+		int port = socket.getLocalPort();
+		socket.close();
+		return port;
+	}
+}
@@ -0,0 +1,137 @@
+package gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JPanel;
+
+import org.junit.Test;
+
+public class KeyInputTest {
+	// the component the synthetic key events come from
+	private static final JPanel SOURCE = new JPanel();
+
+	@Test
+	public void testRepeatedKeyIgnored() {
+		RecordingCommands commands = new RecordingCommands();
+		KeyInput input = new KeyInput(commands);
+
+		assertTrue(input.keyTyped('1', 1000));
+		assertFalse(input.keyTyped('1', 2000));
+		assertTrue(input.keyTyped('1', 1000 + KeyInput.REPEAT_MILLIS));
+
+		// a different key is never a repeat
+		assertTrue(input.keyTyped('2', 1000 + KeyInput.REPEAT_MILLIS + 1));
+		assertEquals(3, commands.accepted.size());
+	}
+
+	@Test
+	public void testChord() throws InterruptedException {
+		RecordingCommands commands = new RecordingCommands();
+		KeyInput input = new KeyInput(commands);
+		input.addChord('2', '3');
+
+		input.keyTyped('2', 1000);
+		input.keyTyped('3', 1000 + KeyInput.CHORD_MILLIS - 1);
+		commands.awaitRun("chord 23");
+		input.keyTyped('2', 5000);
+		input.keyTyped('3', 5000 + KeyInput.CHORD_MILLIS);
+		commands.awaitRun("3");
+
+		// a 2 is run only if the keypad thread got to it before the 3 came
+		commands.run.removeAll(Collections.singleton("2"));
+		assertEquals("[chord 23, 3]", commands.run.toString());
+	}
+
+	@Test
+	public void testBurst() throws InterruptedException {
+		final int keys = 1000;
+		char[] keypad = { '1', '2', '3', '+', '4', '5', (char) KeyEvent.VK_ENTER };
+		int enters = 0;
+		for (int i = 0; i < keys; i++) {
+			if (keypad[i % keypad.length] == KeyEvent.VK_ENTER) {
+				enters++;
+			}
+		}
+
+		RecordingCommands commands = new RecordingCommands();
+		KeyInput input = new KeyInput(commands);
+		// start the keypad thread before counting threads
+		input.keyTyped('0', 1);
+		commands.awaitRun("0");
+		commands.run.clear();
+		int threads = Thread.activeCount();
+
+		long slowest = 0;
+		long when = System.currentTimeMillis();
+		for (int i = 0; i < keys; i++) {
+			// a second apart, so that no key is a repeat
+			long start = System.nanoTime();
+			input.keyTyped(new KeyEvent(SOURCE, KeyEvent.KEY_TYPED, when + i
+					* 1000, 0, KeyEvent.VK_UNDEFINED, keypad[i % keypad.length]));
+			slowest = Math.max(slowest, System.nanoTime() - start);
+		}
+		// a last read-out, which is never dropped and is run after the rest
+		input.keyTyped('9', when + keys * 1000);
+		commands.awaitRun("9");
+		System.out.println("Slowest of " + keys + " keys: " + slowest / 1000
+				+ " us");
+
+		assertTrue("a key held up the event thread",
+				slowest < TimeUnit.MILLISECONDS.toNanos(50));
+		assertEquals(keys + 2, commands.accepted.size());
+		assertTrue("keys started threads", Thread.activeCount() <= threads);
+		// every Enter is run, however many read-outs were dropped
+		assertEquals(enters, Collections.frequency(commands.run,
+				"" + (char) KeyEvent.VK_ENTER));
+	}
+
+	/**
+	 * Writes down the keys accepted and run
+	 */
+	private static class RecordingCommands implements KeyInput.Commands {
+		private final List<Character> accepted = Collections
+				.synchronizedList(new ArrayList<Character>());
+		private final List<String> run = Collections
+				.synchronizedList(new ArrayList<String>());
+
+		/**
+		 * Waits for a command to be the last one run
+		 */
+		void awaitRun(String command) throws InterruptedException {
+			long giveUp = System.currentTimeMillis() + 5000;
+			while (run.isEmpty() || !run.get(run.size() - 1).equals(command)) {
+				assertTrue("timed out waiting for " + command,
+						System.currentTimeMillis() < giveUp);
+				Thread.sleep(1);
+			}
+		}
+
+		@Override
+		public void keyAccepted(char key) {
+			accepted.add(key);
+		}
+
+		@Override
+		public void run(char key) {
+			run.add("" + key);
+		}
+
+		@Override
+		public void runChord(char first, char second) {
+			run.add("chord " + first + second);
+		}
+
+		@Override
+		public boolean isReadOut(char key) {
+			return key != KeyEvent.VK_ENTER;
+		}
+	}
+}
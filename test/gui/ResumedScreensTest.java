@@ -0,0 +1,197 @@
+package gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.swing.SwingUtilities;
+
+import model.Card;
+import model.CardDatabase;
+import model.Direction;
+import model.Game;
+import model.GameJournal;
+import model.GameSnapshot;
+import model.GameState;
+import model.Rank;
+import model.Suit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.AntennaHandler;
+
+public class ResumedScreensTest {
+	private static final Direction BLIND_DIRECTION = Direction.NORTH;
+	private static final Direction FIRST_PLAYER = Direction.EAST;
+	private static final Direction DUMMY_DIRECTION = Direction.SOUTH;
+	private static final Direction LAST_PLAYER = Direction.WEST;
+
+	private File file;
+	private GameJournal journal;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("game", ".journal");
+		file.delete();
+		journal = new GameJournal(file);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		journal.close();
+		file.delete();
+	}
+
+	private static Game newGame() {
+		return new Game(new AntennaHandler(new CardDatabase()), false);
+	}
+
+	/**
+	 * Gives the blind player all the spades and sets the contract, with the
+	 * blind player as declarer
+	 */
+	private static void deal(Game game) {
+		game.setBlindPosition(BLIND_DIRECTION);
+		for (Rank r : Rank.values()) {
+			game.cardFound(BLIND_DIRECTION, Card.of(r, Suit.SPADES));
+		}
+		game.initPlayingPhase(BLIND_DIRECTION);
+		game.setContractNum(3);
+		game.setTrump(Suit.NOTRUMP);
+	}
+
+	/**
+	 * Plays a trick that the first player wins by leading a heart. The dummy
+	 * has the diamonds and the last player the clubs.
+	 */
+	private static void playTrick(Game game, int trick) {
+		Rank rank = Rank.values()[trick];
+		game.cardFound(FIRST_PLAYER, Card.of(rank, Suit.HEARTS));
+		if (trick == 0) {
+			for (Rank r : Rank.values()) {
+				game.cardFound(DUMMY_DIRECTION, Card.of(r, Suit.DIAMONDS));
+			}
+		}
+		game.cardFound(DUMMY_DIRECTION, Card.of(rank, Suit.DIAMONDS));
+		game.cardFound(LAST_PLAYER, Card.of(rank, Suit.CLUBS));
+		game.cardFound(BLIND_DIRECTION, Card.of(rank, Suit.SPADES));
+		game.playBlindCard();
+	}
+
+	/**
+	 * Resumes the game recorded in the journal, with the screens built
+	 * before the journal is replayed, as the program builds them
+	 */
+	private Screens resume() throws Exception {
+		journal.close();
+		journal = new GameJournal(file);
+		final Game resumed = newGame();
+		final Screens screens = new Screens();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				screens.status = new GameStatusGUI(null, resumed);
+				screens.dummy = new ScanDummyGUI(null, resumed);
+			}
+		});
+
+		resumed.replay(journal);
+		final GameSnapshot state = resumed.getSnapshot();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				screens.status.showSnapshot(state);
+				screens.dummy.showSnapshot(state);
+			}
+		});
+		return screens;
+	}
+
+	@Test
+	public void testResumeMidPlay() throws Exception {
+		Game game = newGame();
+		game.replay(journal);
+		deal(game);
+		for (int i = 0; i < 5; i++) {
+			playTrick(game, i);
+		}
+		game.cardFound(FIRST_PLAYER, Card.of(Rank.JACK, Suit.HEARTS));
+		game.cardFound(DUMMY_DIRECTION, Card.of(Rank.JACK, Suit.DIAMONDS));
+
+		Screens screens = resume();
+		assertEquals(5 * 4 + 2, screens.status.getCardsPlayed());
+		// so the next card does not go back to scanning the dummy
+		assertTrue(screens.status.isFirstCardPlayed());
+		TricksWonPanel tricks = screens.status.getTricksWonPanel();
+		assertEquals(5, tricks.getTricksShown(FIRST_PLAYER));
+		assertEquals(0, tricks.getTricksShown(BLIND_DIRECTION));
+		for (Suit suit : Suit.values()) {
+			if (suit != Suit.NOTRUMP) {
+				assertTrue(screens.dummy.getRanksShown(suit).isEmpty());
+			}
+		}
+	}
+
+	@Test
+	public void testResumeAtEndOfTrick() throws Exception {
+		Game game = newGame();
+		game.replay(journal);
+		deal(game);
+		for (int i = 0; i < 3; i++) {
+			playTrick(game, i);
+		}
+
+		// the won trick is still in the snapshot, but has been counted
+		Screens screens = resume();
+		assertEquals(3 * 4, screens.status.getCardsPlayed());
+		assertEquals(3, screens.status.getTricksWonPanel().getTricksShown(
+				LAST_PLAYER));
+	}
+
+	@Test
+	public void testResumeWhileScanningDummy() throws Exception {
+		Game game = newGame();
+		game.replay(journal);
+		deal(game);
+		game.cardFound(FIRST_PLAYER, Card.of(Rank.DEUCE, Suit.HEARTS));
+		game.cardFound(DUMMY_DIRECTION, Card.of(Rank.KING, Suit.DIAMONDS));
+		game.cardFound(DUMMY_DIRECTION, Card.of(Rank.FOUR, Suit.CLUBS));
+		game.cardFound(DUMMY_DIRECTION, Card.of(Rank.ACE, Suit.DIAMONDS));
+		assertEquals(GameState.SCANNING_DUMMY, game.getSnapshot()
+				.getGameState());
+
+		Screens screens = resume();
+		assertEquals(1, screens.status.getCardsPlayed());
+		assertTrue(screens.status.isFirstCardPlayed());
+		assertEquals(Arrays.asList(Rank.ACE, Rank.KING), screens.dummy
+				.getRanksShown(Suit.DIAMONDS));
+		assertEquals(Arrays.asList(Rank.FOUR), screens.dummy
+				.getRanksShown(Suit.CLUBS));
+		assertTrue(screens.dummy.getRanksShown(Suit.SPADES).isEmpty());
+	}
+
+	@Test
+	public void testResumeBeforeFirstCard() throws Exception {
+		Game game = newGame();
+		game.replay(journal);
+		deal(game);
+
+		Screens screens = resume();
+		assertEquals(0, screens.status.getCardsPlayed());
+		assertFalse(screens.status.isFirstCardPlayed());
+	}
+
+	/**
+	 * The screens of a resumed game
+	 */
+	private static class Screens {
+		GameStatusGUI status;
+		ScanDummyGUI dummy;
+	}
+}
@@ -0,0 +1,113 @@
+package metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testSmallTimesAreExact() {
+		for (long nanos = 0; nanos < LatencyHistogram.SUB_BUCKETS; nanos++) {
+			int bucket = LatencyHistogram.bucketOf(nanos);
+			assertEquals(nanos, LatencyHistogram.highestIn(bucket));
+		}
+	}
+
+	@Test
+	public void testBucketsHoldTheirTimes() {
+		Random random = new Random(7);
+		for (int i = 0; i < 100000; i++) {
+			long nanos = random.nextLong() >>> (1 + random.nextInt(63));
+			int bucket = LatencyHistogram.bucketOf(nanos);
+			long highest = LatencyHistogram.highestIn(bucket);
+			assertTrue(nanos <= highest);
+			if (bucket > 0) {
+				assertTrue(nanos > LatencyHistogram.highestIn(bucket - 1));
+			}
+			// within one bucket's width of the time
+			assertTrue(highest - nanos <= nanos
+					/ LatencyHistogram.SUB_BUCKETS);
+		}
+		assertEquals(Long.MAX_VALUE, LatencyHistogram
+				.highestIn(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50));
+
+		// 1 to 1000 microseconds
+		for (long micros = 1; micros <= 1000; micros++) {
+			histogram.record(micros * 1000);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000, histogram.getMin());
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(0.5005, histogram.getMeanMillis(), 1e-9);
+
+		assertNear(500000, histogram.getValueAtPercentile(50));
+		assertNear(900000, histogram.getValueAtPercentile(90));
+		assertNear(990000, histogram.getValueAtPercentile(99));
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+		assertEquals(0.5, histogram.getMedianMillis(), 0.5 * 0.04);
+	}
+
+	@Test
+	public void testReset() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(5000);
+		histogram.record(-1);
+		assertEquals(0, histogram.getMin());
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void testManyThreadsRecording() throws Exception {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			final long nanos = (i + 1) * 1000;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < 10000; j++) {
+						histogram.record(nanos);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(threads.length * 10000, histogram.getCount());
+		assertEquals(1000, histogram.getMin());
+		assertEquals(threads.length * 1000, histogram.getMax());
+		assertNear(4000, histogram.getValueAtPercentile(50));
+	}
+
+	// within the 1/32 a bucket can be out by
+	private static void assertNear(long expected, long actual) {
+		assertTrue("expected about " + expected + " but was " + actual,
+				Math.abs(actual - expected) <= expected
+						/ LatencyHistogram.SUB_BUCKETS);
+	}
+}
@@ -0,0 +1,101 @@
+package metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+public class MetricsTest {
+
+	@Test
+	public void testMetricsAreKeptByName() {
+		Metrics metrics = new Metrics();
+		Counter reads = metrics.counter("antenna.NORTH.reads");
+		assertSame(reads, metrics.counter("antenna.NORTH.reads"));
+		assertSame(metrics.histogram("antenna.switch"),
+				metrics.histogram("antenna.switch"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNameUsedForAnotherKind() {
+		Metrics metrics = new Metrics();
+		metrics.counter("antenna.switch");
+		metrics.histogram("antenna.switch");
+	}
+
+	@Test
+	public void testRatio() {
+		Metrics metrics = new Metrics();
+		Counter reads = metrics.counter("reads");
+		Counter noCards = metrics.counter("nocards");
+		Ratio ratio = metrics.ratio("nocardRatio", noCards, reads);
+		assertEquals(0, ratio.getRatio(), 0);
+
+		reads.add(4);
+		noCards.increment();
+		assertEquals(0.25, ratio.getRatio(), 1e-9);
+		assertEquals("25.0% (1 of 4)", ratio.toString());
+
+		metrics.reset();
+		assertEquals(0, reads.getCount());
+	}
+
+	@Test
+	public void testRate() throws InterruptedException {
+		Counter counter = new Counter();
+		assertEquals(0, counter.getRate(), 0);
+		counter.add(500);
+		Thread.sleep(Counter.RATE_MILLIS + 100);
+		double rate = counter.getRate();
+		assertTrue("rate " + rate, rate > 200 && rate <= 500);
+		// not worked out again so soon
+		counter.add(500);
+		assertEquals(rate, counter.getRate(), 0);
+	}
+
+	@Test
+	public void testRegisteredAsMBeans() throws Exception {
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		Metrics metrics = new Metrics(server);
+		metrics.counter("antenna.EAST.reads").add(3);
+		metrics.histogram("card.frameToGame").record(2000000);
+
+		assertEquals(3L, server.getAttribute(new ObjectName(Metrics.DOMAIN
+				+ ":type=Counter,name=antenna.EAST.reads"), "Count"));
+		ObjectName histogram = new ObjectName(Metrics.DOMAIN
+				+ ":type=LatencyHistogram,name=card.frameToGame");
+		assertEquals(2.0, (Double) server.getAttribute(histogram,
+				"MaxMillis"), 0.0);
+		server.invoke(histogram, "reset", null, null);
+		assertEquals(0L, server.getAttribute(histogram, "Count"));
+	}
+
+	@Test
+	public void testDump() throws Exception {
+		Metrics metrics = new Metrics();
+		metrics.counter("b.reads").increment();
+		metrics.histogram("a.switch").record(1000000);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bytes, true);
+		metrics.startDump(50, out);
+		long end = System.currentTimeMillis() + 5000;
+		while (bytes.size() == 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		metrics.stopDump();
+
+		String dump = bytes.toString();
+		assertTrue(dump, dump.startsWith("Metrics:"));
+		assertTrue(dump, dump.indexOf("a.switch") < dump.indexOf("b.reads"));
+		assertTrue(dump, dump.contains("max 1.00"));
+	}
+}
@@ -1,6 +1,8 @@
 package model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -13,4 +15,40 @@ public class CardDatabaseTest {
 		assertEquals(Suit.HEARTS, c.getSuit());
 	}
 
+	@Test
+	public void testGetCard() {
+		CardDatabase cards = new CardDatabase();
+		Card c = cards.getCard("042E657A831E80");
+		assertEquals(Rank.ACE, c.getRank());
+		assertEquals(Suit.HEARTS, c.getSuit());
+
+		// both ids of a card find the same card
+		assertSame(c, cards.getCard("042B6E7A831E80"));
+		assertSame(c, cards.getCard(0x042E657A831E80L));
+		assertSame(c, cards.getCard(new byte[] { 9, 0x04, 0x2E, 0x65, 0x7A,
+				(byte) 0x83, 0x1E, (byte) 0x80 }, 1));
+		assertSame(c, cards.getCard(CardDatabase.parseId("042E657A831E80.81", 0)));
+	}
+
+	@Test
+	public void testUnknownCard() {
+		CardDatabase cards = new CardDatabase();
+		assertNull(cards.getCard("0400000000000F"));
+		assertNull(cards.getCard(0L));
+		assertNull(cards.getCard("NOCARD"));
+		assertNull(cards.getCard("NOCARD12345678"));
+		assertEquals(CardDatabase.NO_ID, CardDatabase.parseId("042E65", 0));
+	}
+
+	@Test
+	public void testLoadLater() {
+		CardDatabase cards = new CardDatabase(false);
+		assertNull(cards.getCard("042E657A831E80"));
+		cards.load();
+		assertSame(Card.of(Rank.ACE, Suit.HEARTS),
+				cards.getCard("042E657A831E80"));
+		assertEquals(new CardDatabase().getId(Card.of(Rank.ACE, Suit.HEARTS)),
+				cards.getId(Card.of(Rank.ACE, Suit.HEARTS)));
+	}
+
 }
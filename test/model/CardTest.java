@@ -1,17 +1,18 @@
 package model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 public class CardTest {
-	private Card aceSpades = new Card(Rank.ACE, Suit.SPADES);
-	private Card kingSpades = new Card(Rank.KING, Suit.SPADES);
-	private Card aceHearts = new Card(Rank.ACE, Suit.HEARTS);
-	private Card aceDiamonds = new Card(Rank.ACE, Suit.DIAMONDS);
-	private Card aceClubs = new Card(Rank.ACE, Suit.CLUBS);
-	private Card tenClubs = new Card(Rank.TEN, Suit.CLUBS);
+	private Card aceSpades = Card.of(Rank.ACE, Suit.SPADES);
+	private Card kingSpades = Card.of(Rank.KING, Suit.SPADES);
+	private Card aceHearts = Card.of(Rank.ACE, Suit.HEARTS);
+	private Card aceDiamonds = Card.of(Rank.ACE, Suit.DIAMONDS);
+	private Card aceClubs = Card.of(Rank.ACE, Suit.CLUBS);
+	private Card tenClubs = Card.of(Rank.TEN, Suit.CLUBS);
 
 	@Test
 	public void compareSameCard() {
@@ -42,4 +43,27 @@ public class CardTest {
 		assertEquals("/sounds/cards/10C.WAV", tenClubs.getSound());
 	}
 
+	@Test
+	public void sameCardIsSameObject() {
+		assertSame(aceSpades, Card.of(Rank.ACE, Suit.SPADES));
+		assertSame(tenClubs, Card.of(tenClubs.ordinal()));
+	}
+
+	@Test
+	public void ordinalsCoverDeck() {
+		assertEquals(0, Card.of(Rank.DEUCE, Suit.CLUBS).ordinal());
+		assertEquals(Card.NUM_CARDS - 1, aceSpades.ordinal());
+		long all = 0;
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			assertEquals(i, Card.of(i).ordinal());
+			all |= Card.of(i).getBit();
+		}
+		assertEquals(Card.NUM_CARDS, Long.bitCount(all));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void noNotrumpCards() {
+		Card.of(Rank.ACE, Suit.NOTRUMP);
+	}
+
 }
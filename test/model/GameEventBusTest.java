@@ -0,0 +1,160 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class GameEventBusTest {
+
+	@Test
+	public void testSameThread() {
+		GameEventBus bus = new GameEventBus();
+		RecordingListener listener = new RecordingListener(0, 0);
+		bus.addListener(listener, GameEventBus.Delivery.SAME_THREAD);
+
+		bus.trickWon(Direction.NORTH);
+		bus.gameReset();
+		assertEquals("[trickWon NORTH, gameReset]", listener.events.toString());
+		assertEquals(Thread.currentThread(), listener.thread);
+	}
+
+	@Test
+	public void testExecutorKeepsOrderAndDoesNotBlock() throws InterruptedException {
+		final GameEventBus bus = new GameEventBus();
+		final CountDownLatch gate = new CountDownLatch(1);
+		final String[] stats = new String[1];
+		// each event is slow, and none starts until the gate is opened
+		RecordingListener slow = new RecordingListener(
+				GameEventBus.SLOW_MILLIS + 5, 5, gate) {
+			@Override
+			public void gameReset() {
+				// the events before this one have all been counted
+				stats[0] = bus.toString();
+				super.gameReset();
+			}
+		};
+		bus.addListener(slow, GameEventBus.Delivery.EXECUTOR);
+
+		bus.debugMsg("one");
+		bus.trickWon(Direction.EAST);
+		bus.debugMsg("two");
+		bus.dummyHandScanned();
+		// the listener is held at the gate, so the game did not wait for it
+		assertEquals(0, slow.events.size());
+		bus.gameReset();
+		gate.countDown();
+
+		assertTrue(slow.done.await(5, TimeUnit.SECONDS));
+		assertEquals("[debugMsg one, trickWon EAST, debugMsg two, dummyHandScanned, gameReset]",
+				slow.events.toString());
+		assertTrue(slow.thread != Thread.currentThread());
+
+		// the bus counts an event once the listener has returned from it
+		assertTrue(stats[0], stats[0].contains("4 events"));
+		assertTrue(stats[0], stats[0].contains("4 slow"));
+		bus.shutdown();
+	}
+
+	@Test
+	public void testFailingListener() {
+		GameEventBus bus = new GameEventBus();
+		RecordingListener after = new RecordingListener(0, 0);
+		bus.addListener(new RecordingListener(0, 0) {
+			@Override
+			public void gameReset() {
+				throw new IllegalStateException("expected by the test");
+			}
+		}, GameEventBus.Delivery.SAME_THREAD);
+		bus.addListener(after, GameEventBus.Delivery.SAME_THREAD);
+
+		bus.gameReset();
+		assertEquals("[gameReset]", after.events.toString());
+	}
+
+	/**
+	 * Writes down the events it is told of
+	 */
+	private static class RecordingListener implements GameListener {
+		private final List<String> events = Collections
+				.synchronizedList(new ArrayList<String>());
+		private final long delay;
+		private final CountDownLatch done;
+		private final CountDownLatch gate;
+		private volatile Thread thread;
+
+		RecordingListener(long delay, int expected) {
+			this(delay, expected, new CountDownLatch(0));
+		}
+
+		RecordingListener(long delay, int expected, CountDownLatch gate) {
+			this.delay = delay;
+			this.gate = gate;
+			done = new CountDownLatch(expected);
+		}
+
+		private void record(String event) {
+			thread = Thread.currentThread();
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (delay > 0) {
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			events.add(event);
+			done.countDown();
+		}
+
+		@Override
+		public void debugMsg(String string) {
+			record("debugMsg " + string);
+		}
+
+		@Override
+		public void gameReset() {
+			record("gameReset");
+		}
+
+		@Override
+		public void cardPlayed(Direction turn, Card card) {
+			record("cardPlayed " + turn + " " + card);
+		}
+
+		@Override
+		public void cardScanned(Card card) {
+			record("cardScanned " + card);
+		}
+
+		@Override
+		public void trickWon(Direction winner) {
+			record("trickWon " + winner);
+		}
+
+		@Override
+		public void contractSet(Contract contract) {
+			record("contractSet " + contract);
+		}
+
+		@Override
+		public void blindHandScanned() {
+			record("blindHandScanned");
+		}
+
+		@Override
+		public void dummyHandScanned() {
+			record("dummyHandScanned");
+		}
+	}
+}
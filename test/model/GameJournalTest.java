@@ -0,0 +1,228 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.AntennaHandler;
+
+public class GameJournalTest {
+	private static final Direction BLIND_DIRECTION = Direction.NORTH;
+	private static final Direction FIRST_PLAYER = Direction.EAST;
+	private static final Direction DUMMY_DIRECTION = Direction.SOUTH;
+	private static final Direction LAST_PLAYER = Direction.WEST;
+
+	private File file;
+	private GameJournal journal;
+	private Game game;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("game", ".journal");
+		file.delete();
+		journal = new GameJournal(file);
+		game = newGame();
+		game.replay(journal);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		journal.close();
+		file.delete();
+	}
+
+	private static Game newGame() {
+		return new Game(new AntennaHandler(new CardDatabase()), false);
+	}
+
+	/**
+	 * Gives the blind player all the spades and sets the contract, with the
+	 * blind player as declarer
+	 */
+	private static void deal(Game game) {
+		game.setBlindPosition(BLIND_DIRECTION);
+		for (Rank r : Rank.values()) {
+			game.cardFound(BLIND_DIRECTION, Card.of(r, Suit.SPADES));
+		}
+		game.initPlayingPhase(BLIND_DIRECTION);
+		game.setContractNum(3);
+		game.setTrump(Suit.NOTRUMP);
+	}
+
+	/**
+	 * Plays a trick that the first player wins by leading a heart. The dummy
+	 * has the diamonds and the last player the clubs.
+	 */
+	private static void playTrick(Game game, int trick) {
+		Rank rank = Rank.values()[trick];
+		game.cardFound(FIRST_PLAYER, Card.of(rank, Suit.HEARTS));
+		if (trick == 0) {
+			for (Rank r : Rank.values()) {
+				game.cardFound(DUMMY_DIRECTION, Card.of(r, Suit.DIAMONDS));
+			}
+		}
+		game.cardFound(DUMMY_DIRECTION, Card.of(rank, Suit.DIAMONDS));
+		game.cardFound(LAST_PLAYER, Card.of(rank, Suit.CLUBS));
+		game.cardFound(BLIND_DIRECTION, Card.of(rank, Suit.SPADES));
+		game.playBlindCard();
+	}
+
+	@Test
+	public void testReplayMidHand() throws IOException {
+		deal(game);
+		for (int i = 0; i < 5; i++) {
+			playTrick(game, i);
+		}
+		game.cardFound(FIRST_PLAYER, Card.of(Rank.JACK, Suit.HEARTS));
+		game.cardFound(DUMMY_DIRECTION, Card.of(Rank.JACK, Suit.DIAMONDS));
+		game.undo();
+		game.cardFound(DUMMY_DIRECTION, Card.of(Rank.TEN, Suit.DIAMONDS));
+
+		GameSnapshot expected = game.getSnapshot();
+		assertEquals(5, expected.getTricksWon(FIRST_PLAYER));
+		assertEquals(LAST_PLAYER, expected.getTurn());
+
+		// as if the program had stopped: open the file again
+		journal.close();
+		journal = new GameJournal(file);
+		Game resumed = newGame();
+		assertEquals(journal.size(), resumed.replay(journal));
+		assertSameState(expected, resumed.getSnapshot());
+
+		// the resumed game carries on recording
+		resumed.cardFound(LAST_PLAYER, Card.of(Rank.JACK, Suit.CLUBS));
+		Game again = newGame();
+		again.replay(journal);
+		assertSameState(resumed.getSnapshot(), again.getSnapshot());
+	}
+
+	@Test
+	public void testReplayFullHand() {
+		deal(game);
+		for (int i = 0; i < 13; i++) {
+			playTrick(game, i);
+		}
+		GameSnapshot expected = game.getSnapshot();
+		assertEquals(13, expected.getTricksWon(FIRST_PLAYER));
+		assertEquals(GameState.DEALING, expected.getGameState());
+
+		Game resumed = newGame();
+		long start = System.nanoTime();
+		int entries = resumed.replay(journal);
+		long millis = (System.nanoTime() - start) / 1000000;
+		System.out.println("Replayed " + entries + " entries in " + millis
+				+ " ms");
+
+		assertSameState(expected, resumed.getSnapshot());
+		// scanning the dummy waits a second, but not when played back
+		assertTrue("replay took " + millis + " ms", millis < 500);
+	}
+
+	@Test
+	public void testNewHandStartsJournalAgain() {
+		deal(game);
+		playTrick(game, 0);
+		int entries = journal.size();
+		game.resetGame();
+
+		assertTrue(journal.size() < entries);
+		assertEquals(GameJournal.Type.NEW_HAND, journal.entries().get(0)
+				.getType());
+		game.cardFound(BLIND_DIRECTION, Card.of(Rank.ACE, Suit.CLUBS));
+
+		Game resumed = newGame();
+		resumed.replay(journal);
+		assertSameState(game.getSnapshot(), resumed.getSnapshot());
+	}
+
+	@Test
+	public void testListenersNotToldOfReplay() {
+		deal(game);
+		playTrick(game, 0);
+
+		Game resumed = newGame();
+		CountingListener listener = new CountingListener();
+		resumed.addListener(listener, GameEventBus.Delivery.SAME_THREAD);
+		resumed.replay(journal);
+		assertEquals(0, listener.events);
+
+		// what happens after the replay is told as usual
+		resumed.cardFound(FIRST_PLAYER, Card.of(Rank.THREE, Suit.HEARTS));
+		assertEquals(1, listener.cardsPlayed);
+	}
+
+	/**
+	 * Counts the events it is told of
+	 */
+	private static class CountingListener implements GameListener {
+		private int events = 0;
+		private int cardsPlayed = 0;
+
+		@Override
+		public void debugMsg(String string) {
+			events++;
+		}
+
+		@Override
+		public void gameReset() {
+			events++;
+		}
+
+		@Override
+		public void cardPlayed(Direction turn, Card card) {
+			events++;
+			cardsPlayed++;
+		}
+
+		@Override
+		public void cardScanned(Card card) {
+			events++;
+		}
+
+		@Override
+		public void trickWon(Direction winner) {
+			events++;
+		}
+
+		@Override
+		public void contractSet(Contract contract) {
+			events++;
+		}
+
+		@Override
+		public void blindHandScanned() {
+			events++;
+		}
+
+		@Override
+		public void dummyHandScanned() {
+			events++;
+		}
+	}
+
+	private static void assertSameState(GameSnapshot expected,
+			GameSnapshot actual) {
+		assertEquals(expected.getGameState(), actual.getGameState());
+		for (Direction d : Direction.values()) {
+			assertEquals(d + " hand", expected.getHand(d), actual.getHand(d));
+			assertEquals(d + " trick card", expected.getTrickCard(d),
+					actual.getTrickCard(d));
+			assertEquals(d + " tricks", expected.getTricksWon(d),
+					actual.getTricksWon(d));
+		}
+		assertEquals(expected.getLedSuit(), actual.getLedSuit());
+		assertEquals(expected.getContractNum(), actual.getContractNum());
+		assertEquals(expected.getTrump(), actual.getTrump());
+		assertEquals(expected.getBidWinner(), actual.getBidWinner());
+		assertEquals(expected.getTurn(), actual.getTurn());
+		assertEquals(expected.getLastWinner(), actual.getLastWinner());
+		assertEquals(expected.getBlindPosition(), actual.getBlindPosition());
+		assertEquals(expected.getDummyPosition(), actual.getDummyPosition());
+	}
+}
@@ -15,21 +15,21 @@ public class GameTest {
 	private static final Direction DUMMY_DIRECTION = Direction.SOUTH;
 	private static final Direction FIRST_PLAYER = Direction.EAST;
 	private static final Direction BLIND_DIRECTION = Direction.NORTH;
-	private static final Card ACE_SPADES = new Card (Rank.ACE, Suit.SPADES);
-	private static final Card TWO_SPADES = new Card (Rank.DEUCE, Suit.SPADES);
-	private static final Card THREE_SPADES = new Card (Rank.THREE, Suit.SPADES);
-	private static final Card FOUR_SPADES = new Card (Rank.FOUR, Suit.SPADES);
-	private static final Card FIVE_SPADES = new Card (Rank.FIVE, Suit.SPADES);
-	private static final Card SIX_SPADES = new Card (Rank.SIX, Suit.SPADES);
-	private static final Card SEVEN_SPADES = new Card (Rank.SEVEN, Suit.SPADES);
-	private static final Card EIGHT_SPADES = new Card (Rank.EIGHT, Suit.SPADES);
-	private static final Card NINE_SPADES = new Card (Rank.NINE, Suit.SPADES);
-	private static final Card TEN_SPADES = new Card (Rank.TEN, Suit.SPADES);
-	private static final Card JACK_SPADES = new Card (Rank.JACK, Suit.SPADES);
-	private static final Card QUEEN_SPADES = new Card (Rank.QUEEN, Suit.SPADES);
-	private static final Card KING_SPADES = new Card (Rank.KING, Suit.SPADES);
-
-	private static final Card KING_CLUBS = new Card (Rank.KING, Suit.CLUBS);
+	private static final Card ACE_SPADES = Card.of(Rank.ACE, Suit.SPADES);
+	private static final Card TWO_SPADES = Card.of(Rank.DEUCE, Suit.SPADES);
+	private static final Card THREE_SPADES = Card.of(Rank.THREE, Suit.SPADES);
+	private static final Card FOUR_SPADES = Card.of(Rank.FOUR, Suit.SPADES);
+	private static final Card FIVE_SPADES = Card.of(Rank.FIVE, Suit.SPADES);
+	private static final Card SIX_SPADES = Card.of(Rank.SIX, Suit.SPADES);
+	private static final Card SEVEN_SPADES = Card.of(Rank.SEVEN, Suit.SPADES);
+	private static final Card EIGHT_SPADES = Card.of(Rank.EIGHT, Suit.SPADES);
+	private static final Card NINE_SPADES = Card.of(Rank.NINE, Suit.SPADES);
+	private static final Card TEN_SPADES = Card.of(Rank.TEN, Suit.SPADES);
+	private static final Card JACK_SPADES = Card.of(Rank.JACK, Suit.SPADES);
+	private static final Card QUEEN_SPADES = Card.of(Rank.QUEEN, Suit.SPADES);
+	private static final Card KING_SPADES = Card.of(Rank.KING, Suit.SPADES);
+
+	private static final Card KING_CLUBS = Card.of(Rank.KING, Suit.CLUBS);
 
 	private Game game;
 
@@ -86,6 +86,27 @@ public class GameTest {
 		assertEquals(GameState.FIRSTCARD, game.gameState);
 	}
 	
+	@Test
+	public void testSnapshot() {
+		game.cardFound(BLIND_DIRECTION, ACE_SPADES);
+		GameSnapshot before = game.getSnapshot();
+		game.cardFound(BLIND_DIRECTION, KING_CLUBS);
+		GameSnapshot after = game.getSnapshot();
+
+		// a snapshot does not change when the game does
+		assertEquals(ACE_SPADES.getBit(), before.getHand(BLIND_DIRECTION));
+		assertEquals(1, before.getNumOfSuit(BLIND_DIRECTION, Suit.SPADES));
+		assertEquals(0, before.getNumOfSuit(BLIND_DIRECTION, Suit.CLUBS));
+
+		assertTrue(after.getVersion() > before.getVersion());
+		assertEquals(KING_CLUBS, after.cards(BLIND_DIRECTION, Suit.CLUBS).next());
+		assertEquals(BLIND_DIRECTION, after.getBlindPosition());
+		assertEquals(DUMMY_DIRECTION, after.getDummyPosition());
+		assertEquals(FIRST_PLAYER, after.getTurn());
+		assertTrue(after.isTrickEmpty());
+		assertFalse(after.hasContract());
+	}
+
 	@Test
 	public void testScanOtherHandDuringDealing() {
 		game.cardFound(DUMMY_DIRECTION, ACE_SPADES);
@@ -289,6 +310,61 @@ public class GameTest {
 		assertNull(game.getCurrentTrick().getCard(BLIND_DIRECTION.ordinal()));
 	}
 	
+	@Test
+	public void testContractPostedIsCopy() {
+		final Contract[] posted = new Contract[1];
+		game.addListener(new GameListener() {
+			@Override
+			public void debugMsg(String string) {
+			}
+
+			@Override
+			public void gameReset() {
+			}
+
+			@Override
+			public void cardPlayed(Direction turn, Card card) {
+			}
+
+			@Override
+			public void cardScanned(Card card) {
+			}
+
+			@Override
+			public void trickWon(Direction winner) {
+			}
+
+			@Override
+			public void contractSet(Contract contract) {
+				posted[0] = contract;
+			}
+
+			@Override
+			public void blindHandScanned() {
+			}
+
+			@Override
+			public void dummyHandScanned() {
+			}
+		}, GameEventBus.Delivery.SAME_THREAD);
+		game.setContractNum(3);
+		game.setTrump(Suit.SPADES);
+		game.setTrump(Suit.HEARTS);
+
+		// the contract posted does not change with the game's
+		assertEquals(Suit.HEARTS, game.getContract().getTrump());
+		assertEquals(Suit.HEARTS, posted[0].getTrump());
+		assertEquals(3, posted[0].getContractNum());
+		game.setContractNum(4);
+		assertEquals(3, posted[0].getContractNum());
+		try {
+			posted[0].setTrump(Suit.CLUBS);
+			fail("changed a posted contract");
+		} catch (UnsupportedOperationException e) {
+			// Expected
+		}
+	}
+
 	@Test
 	public void testUndo() {
 		fail("Not yet implemented");
@@ -2,6 +2,7 @@ package model;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Iterator;
@@ -12,20 +13,20 @@ import org.junit.Test;
 public class HandTest {
 	private Hand h;
 	private Hand fullSpadesHand;
-	private Card aceSpades = new Card(Rank.ACE, Suit.SPADES);
-	private Card twoSpades = new Card(Rank.DEUCE, Suit.SPADES);
-	private Card threeSpades = new Card(Rank.THREE, Suit.SPADES);
-	private Card fourSpades = new Card(Rank.FOUR, Suit.SPADES);
-	private Card fiveSpades = new Card(Rank.FIVE, Suit.SPADES);
-	private Card sixSpades = new Card(Rank.SIX, Suit.SPADES);
-	private Card sevenSpades = new Card(Rank.SEVEN, Suit.SPADES);
-	private Card eightSpades = new Card(Rank.EIGHT, Suit.SPADES);
-	private Card nineSpades = new Card(Rank.NINE, Suit.SPADES);
-	private Card tenSpades = new Card(Rank.TEN, Suit.SPADES);
-	private Card jackSpades = new Card(Rank.JACK, Suit.SPADES);
-	private Card queenSpades = new Card(Rank.QUEEN, Suit.SPADES);
-	private Card kingSpades = new Card(Rank.KING, Suit.SPADES);
-	private Card aceDiamonds = new Card(Rank.ACE, Suit.DIAMONDS);
+	private Card aceSpades = Card.of(Rank.ACE, Suit.SPADES);
+	private Card twoSpades = Card.of(Rank.DEUCE, Suit.SPADES);
+	private Card threeSpades = Card.of(Rank.THREE, Suit.SPADES);
+	private Card fourSpades = Card.of(Rank.FOUR, Suit.SPADES);
+	private Card fiveSpades = Card.of(Rank.FIVE, Suit.SPADES);
+	private Card sixSpades = Card.of(Rank.SIX, Suit.SPADES);
+	private Card sevenSpades = Card.of(Rank.SEVEN, Suit.SPADES);
+	private Card eightSpades = Card.of(Rank.EIGHT, Suit.SPADES);
+	private Card nineSpades = Card.of(Rank.NINE, Suit.SPADES);
+	private Card tenSpades = Card.of(Rank.TEN, Suit.SPADES);
+	private Card jackSpades = Card.of(Rank.JACK, Suit.SPADES);
+	private Card queenSpades = Card.of(Rank.QUEEN, Suit.SPADES);
+	private Card kingSpades = Card.of(Rank.KING, Suit.SPADES);
+	private Card aceDiamonds = Card.of(Rank.ACE, Suit.DIAMONDS);
 	
 	@Before
 	public void setUp() {
@@ -51,7 +52,7 @@ public class HandTest {
 	@Test
 	public void testAddOneCard() {
 		h.addCard(aceSpades);
-		assertEquals(aceSpades, h.cards[0]);
+		assertEquals(aceSpades, h.getCardAt(0));
 		assertEquals(1, h.getNumCards());
 		assertTrue(h.containsCard(aceSpades));
 		assertEquals(1, h.getNumOfSuit(Suit.SPADES));
@@ -65,8 +66,8 @@ public class HandTest {
 		h.addCard(twoSpades);
 		h.addCard(aceSpades);
 		
-		assertEquals(twoSpades, h.cards[0]);
-		assertEquals(aceSpades, h.cards[1]);
+		assertEquals(aceSpades, h.getCardAt(0));
+		assertEquals(twoSpades, h.getCardAt(1));
 		assertEquals(2, h.getNumCards());
 		assertTrue(h.containsCard(aceSpades));
 		assertTrue(h.containsCard(twoSpades));
@@ -82,8 +83,8 @@ public class HandTest {
 		h.addCard(aceSpades);
 		h.addCard(twoSpades);
 		
-		assertEquals(twoSpades, h.cards[0]);
-		assertEquals(aceSpades, h.cards[1]);
+		assertEquals(aceSpades, h.getCardAt(0));
+		assertEquals(twoSpades, h.getCardAt(1));
 		assertEquals(2, h.getNumCards());
 		assertTrue(h.containsCard(aceSpades));
 		assertTrue(h.containsCard(twoSpades));
@@ -92,19 +93,19 @@ public class HandTest {
 	@Test
 	public void testFullHand() {
 		
-		assertEquals(twoSpades, fullSpadesHand.cards[0]);
-		assertEquals(threeSpades, fullSpadesHand.cards[1]);
-		assertEquals(fourSpades, fullSpadesHand.cards[2]);
-		assertEquals(fiveSpades, fullSpadesHand.cards[3]);
-		assertEquals(sixSpades, fullSpadesHand.cards[4]);
-		assertEquals(sevenSpades, fullSpadesHand.cards[5]);
-		assertEquals(eightSpades, fullSpadesHand.cards[6]);
-		assertEquals(nineSpades, fullSpadesHand.cards[7]);
-		assertEquals(tenSpades, fullSpadesHand.cards[8]);
-		assertEquals(jackSpades, fullSpadesHand.cards[9]);
-		assertEquals(queenSpades, fullSpadesHand.cards[10]);
-		assertEquals(kingSpades, fullSpadesHand.cards[11]);
-		assertEquals(aceSpades, fullSpadesHand.cards[12]);
+		assertEquals(aceSpades, fullSpadesHand.getCardAt(0));
+		assertEquals(kingSpades, fullSpadesHand.getCardAt(1));
+		assertEquals(queenSpades, fullSpadesHand.getCardAt(2));
+		assertEquals(jackSpades, fullSpadesHand.getCardAt(3));
+		assertEquals(tenSpades, fullSpadesHand.getCardAt(4));
+		assertEquals(nineSpades, fullSpadesHand.getCardAt(5));
+		assertEquals(eightSpades, fullSpadesHand.getCardAt(6));
+		assertEquals(sevenSpades, fullSpadesHand.getCardAt(7));
+		assertEquals(sixSpades, fullSpadesHand.getCardAt(8));
+		assertEquals(fiveSpades, fullSpadesHand.getCardAt(9));
+		assertEquals(fourSpades, fullSpadesHand.getCardAt(10));
+		assertEquals(threeSpades, fullSpadesHand.getCardAt(11));
+		assertEquals(twoSpades, fullSpadesHand.getCardAt(12));
 		
 		assertEquals(13, fullSpadesHand.getNumCards());
 		assertTrue(fullSpadesHand.containsCard(aceSpades));
@@ -133,19 +134,19 @@ public class HandTest {
 		h.addCard(queenSpades);
 		h.addCard(kingSpades);
 		
-		assertEquals(aceDiamonds, h.cards[0]);
-		assertEquals(twoSpades, h.cards[1]);
-		assertEquals(fourSpades, h.cards[2]);
-		assertEquals(fiveSpades, h.cards[3]);
-		assertEquals(sixSpades, h.cards[4]);
-		assertEquals(sevenSpades, h.cards[5]);
-		assertEquals(eightSpades, h.cards[6]);
-		assertEquals(nineSpades, h.cards[7]);
-		assertEquals(tenSpades, h.cards[8]);
-		assertEquals(jackSpades, h.cards[9]);
-		assertEquals(queenSpades, h.cards[10]);
-		assertEquals(kingSpades, h.cards[11]);
-		assertEquals(aceSpades, h.cards[12]);
+		assertEquals(aceDiamonds, h.getCardAt(0));
+		assertEquals(aceSpades, h.getCardAt(1));
+		assertEquals(kingSpades, h.getCardAt(2));
+		assertEquals(queenSpades, h.getCardAt(3));
+		assertEquals(jackSpades, h.getCardAt(4));
+		assertEquals(tenSpades, h.getCardAt(5));
+		assertEquals(nineSpades, h.getCardAt(6));
+		assertEquals(eightSpades, h.getCardAt(7));
+		assertEquals(sevenSpades, h.getCardAt(8));
+		assertEquals(sixSpades, h.getCardAt(9));
+		assertEquals(fiveSpades, h.getCardAt(10));
+		assertEquals(fourSpades, h.getCardAt(11));
+		assertEquals(twoSpades, h.getCardAt(12));
 		
 		assertEquals(13, h.getNumCards());
 		assertTrue(h.containsCard(aceSpades));
@@ -191,18 +192,18 @@ public class HandTest {
 		assertEquals(12, fullSpadesHand.getNumCards());
 		assertFalse(fullSpadesHand.containsCard(aceSpades));
 		
-		assertEquals(twoSpades, fullSpadesHand.cards[0]);
-		assertEquals(threeSpades, fullSpadesHand.cards[1]);
-		assertEquals(fourSpades, fullSpadesHand.cards[2]);
-		assertEquals(fiveSpades, fullSpadesHand.cards[3]);
-		assertEquals(sixSpades, fullSpadesHand.cards[4]);
-		assertEquals(sevenSpades, fullSpadesHand.cards[5]);
-		assertEquals(eightSpades, fullSpadesHand.cards[6]);
-		assertEquals(nineSpades, fullSpadesHand.cards[7]);
-		assertEquals(tenSpades, fullSpadesHand.cards[8]);
-		assertEquals(jackSpades, fullSpadesHand.cards[9]);
-		assertEquals(queenSpades, fullSpadesHand.cards[10]);
-		assertEquals(kingSpades, fullSpadesHand.cards[11]);
+		assertEquals(kingSpades, fullSpadesHand.getCardAt(0));
+		assertEquals(queenSpades, fullSpadesHand.getCardAt(1));
+		assertEquals(jackSpades, fullSpadesHand.getCardAt(2));
+		assertEquals(tenSpades, fullSpadesHand.getCardAt(3));
+		assertEquals(nineSpades, fullSpadesHand.getCardAt(4));
+		assertEquals(eightSpades, fullSpadesHand.getCardAt(5));
+		assertEquals(sevenSpades, fullSpadesHand.getCardAt(6));
+		assertEquals(sixSpades, fullSpadesHand.getCardAt(7));
+		assertEquals(fiveSpades, fullSpadesHand.getCardAt(8));
+		assertEquals(fourSpades, fullSpadesHand.getCardAt(9));
+		assertEquals(threeSpades, fullSpadesHand.getCardAt(10));
+		assertEquals(twoSpades, fullSpadesHand.getCardAt(11));
 
 	}
 
@@ -212,18 +213,18 @@ public class HandTest {
 		assertEquals(12, fullSpadesHand.getNumCards());
 		assertFalse(fullSpadesHand.containsCard(twoSpades));
 		
-		assertEquals(threeSpades, fullSpadesHand.cards[0]);
-		assertEquals(fourSpades, fullSpadesHand.cards[1]);
-		assertEquals(fiveSpades, fullSpadesHand.cards[2]);
-		assertEquals(sixSpades, fullSpadesHand.cards[3]);
-		assertEquals(sevenSpades, fullSpadesHand.cards[4]);
-		assertEquals(eightSpades, fullSpadesHand.cards[5]);
-		assertEquals(nineSpades, fullSpadesHand.cards[6]);
-		assertEquals(tenSpades, fullSpadesHand.cards[7]);
-		assertEquals(jackSpades, fullSpadesHand.cards[8]);
-		assertEquals(queenSpades, fullSpadesHand.cards[9]);
-		assertEquals(kingSpades, fullSpadesHand.cards[10]);
-		assertEquals(aceSpades, fullSpadesHand.cards[11]);
+		assertEquals(aceSpades, fullSpadesHand.getCardAt(0));
+		assertEquals(kingSpades, fullSpadesHand.getCardAt(1));
+		assertEquals(queenSpades, fullSpadesHand.getCardAt(2));
+		assertEquals(jackSpades, fullSpadesHand.getCardAt(3));
+		assertEquals(tenSpades, fullSpadesHand.getCardAt(4));
+		assertEquals(nineSpades, fullSpadesHand.getCardAt(5));
+		assertEquals(eightSpades, fullSpadesHand.getCardAt(6));
+		assertEquals(sevenSpades, fullSpadesHand.getCardAt(7));
+		assertEquals(sixSpades, fullSpadesHand.getCardAt(8));
+		assertEquals(fiveSpades, fullSpadesHand.getCardAt(9));
+		assertEquals(fourSpades, fullSpadesHand.getCardAt(10));
+		assertEquals(threeSpades, fullSpadesHand.getCardAt(11));
 
 
 	}
@@ -234,18 +235,18 @@ public class HandTest {
 		assertEquals(12, fullSpadesHand.getNumCards());
 		assertFalse(fullSpadesHand.containsCard(sixSpades));
 		
-		assertEquals(twoSpades, fullSpadesHand.cards[0]);
-		assertEquals(threeSpades, fullSpadesHand.cards[1]);
-		assertEquals(fourSpades, fullSpadesHand.cards[2]);
-		assertEquals(fiveSpades, fullSpadesHand.cards[3]);
-		assertEquals(sevenSpades, fullSpadesHand.cards[4]);
-		assertEquals(eightSpades, fullSpadesHand.cards[5]);
-		assertEquals(nineSpades, fullSpadesHand.cards[6]);
-		assertEquals(tenSpades, fullSpadesHand.cards[7]);
-		assertEquals(jackSpades, fullSpadesHand.cards[8]);
-		assertEquals(queenSpades, fullSpadesHand.cards[9]);
-		assertEquals(kingSpades, fullSpadesHand.cards[10]);
-		assertEquals(aceSpades, fullSpadesHand.cards[11]);
+		assertEquals(aceSpades, fullSpadesHand.getCardAt(0));
+		assertEquals(kingSpades, fullSpadesHand.getCardAt(1));
+		assertEquals(queenSpades, fullSpadesHand.getCardAt(2));
+		assertEquals(jackSpades, fullSpadesHand.getCardAt(3));
+		assertEquals(tenSpades, fullSpadesHand.getCardAt(4));
+		assertEquals(nineSpades, fullSpadesHand.getCardAt(5));
+		assertEquals(eightSpades, fullSpadesHand.getCardAt(6));
+		assertEquals(sevenSpades, fullSpadesHand.getCardAt(7));
+		assertEquals(fiveSpades, fullSpadesHand.getCardAt(8));
+		assertEquals(fourSpades, fullSpadesHand.getCardAt(9));
+		assertEquals(threeSpades, fullSpadesHand.getCardAt(10));
+		assertEquals(twoSpades, fullSpadesHand.getCardAt(11));
 
 
 	}
@@ -258,10 +259,49 @@ public class HandTest {
 		
 		Iterator<Card> cardIter = h.cards(Suit.SPADES);
 		assertTrue (cardIter.hasNext());
-		assertEquals(twoSpades, cardIter.next());
+		assertEquals(aceSpades, cardIter.next());
 		assertTrue (cardIter.hasNext());
+		assertEquals(twoSpades, cardIter.next());
+		assertFalse(cardIter.hasNext());
+	}
+
+	@Test
+	public void testRemoveRecentCard() {
+		h.addCard(twoSpades);
+		h.addCard(aceDiamonds);
+		h.addCard(aceSpades);
+
+		assertEquals(aceSpades, h.removeRecentCard());
+		assertEquals(aceDiamonds, h.removeRecentCard());
+		assertEquals(twoSpades, h.removeRecentCard());
+		assertNull(h.removeRecentCard());
+	}
+
+	@Test
+	public void testRemoveRecentCardAfterClear() {
+		h.addCard(twoSpades);
+		h.addCard(aceSpades);
+		h.clear();
+
+		// clearing the hand does not forget the order the cards were dealt in
+		assertTrue(h.isEmpty());
+		assertEquals(aceSpades, h.removeRecentCard());
+		assertEquals(twoSpades, h.removeRecentCard());
+		assertNull(h.removeRecentCard());
+	}
+
+	@Test
+	public void testIteratorAllSuits() {
+		h.addCard(twoSpades);
+		h.addCard(aceDiamonds);
+		h.addCard(aceSpades);
+
+		Iterator<Card> cardIter = h.cards();
+		assertEquals(aceDiamonds, cardIter.next());
 		assertEquals(aceSpades, cardIter.next());
+		assertEquals(twoSpades, cardIter.next());
 		assertFalse(cardIter.hasNext());
+		assertNull(h.getCardAt(3));
 	}
 
 }
@@ -17,65 +17,65 @@ public class TestCards {
 	private int index = -1 ;
 
 	// spades
-	public static final Card ACE_SPADES = new Card (Rank.ACE, Suit.SPADES);
-	public static final Card TWO_SPADES = new Card (Rank.DEUCE, Suit.SPADES);
-	public static final Card THREE_SPADES = new Card (Rank.THREE, Suit.SPADES);
-	public static final Card FOUR_SPADES = new Card (Rank.FOUR, Suit.SPADES);
-	public static final Card FIVE_SPADES = new Card (Rank.FIVE, Suit.SPADES);
-	public static final Card SIX_SPADES = new Card (Rank.SIX, Suit.SPADES);
-	public static final Card SEVEN_SPADES = new Card (Rank.SEVEN, Suit.SPADES);
-	public static final Card EIGHT_SPADES = new Card (Rank.EIGHT, Suit.SPADES);
-	public static final Card NINE_SPADES = new Card (Rank.NINE, Suit.SPADES);
-	public static final Card TEN_SPADES = new Card (Rank.TEN, Suit.SPADES);
-	public static final Card JACK_SPADES = new Card (Rank.JACK, Suit.SPADES);
-	public static final Card QUEEN_SPADES = new Card (Rank.QUEEN, Suit.SPADES);
-	public static final Card KING_SPADES = new Card (Rank.KING, Suit.SPADES);
+	public static final Card ACE_SPADES = Card.of(Rank.ACE, Suit.SPADES);
+	public static final Card TWO_SPADES = Card.of(Rank.DEUCE, Suit.SPADES);
+	public static final Card THREE_SPADES = Card.of(Rank.THREE, Suit.SPADES);
+	public static final Card FOUR_SPADES = Card.of(Rank.FOUR, Suit.SPADES);
+	public static final Card FIVE_SPADES = Card.of(Rank.FIVE, Suit.SPADES);
+	public static final Card SIX_SPADES = Card.of(Rank.SIX, Suit.SPADES);
+	public static final Card SEVEN_SPADES = Card.of(Rank.SEVEN, Suit.SPADES);
+	public static final Card EIGHT_SPADES = Card.of(Rank.EIGHT, Suit.SPADES);
+	public static final Card NINE_SPADES = Card.of(Rank.NINE, Suit.SPADES);
+	public static final Card TEN_SPADES = Card.of(Rank.TEN, Suit.SPADES);
+	public static final Card JACK_SPADES = Card.of(Rank.JACK, Suit.SPADES);
+	public static final Card QUEEN_SPADES = Card.of(Rank.QUEEN, Suit.SPADES);
+	public static final Card KING_SPADES = Card.of(Rank.KING, Suit.SPADES);
 
 	// clubs
-	public static final Card ACE_CLUBS = new Card (Rank.ACE, Suit.CLUBS);
-	public static final Card TWO_CLUBS = new Card (Rank.DEUCE, Suit.CLUBS);
-	public static final Card THREE_CLUBS = new Card (Rank.THREE, Suit.CLUBS);
-	public static final Card FOUR_CLUBS = new Card (Rank.FOUR, Suit.CLUBS);
-	public static final Card FIVE_CLUBS = new Card (Rank.FIVE, Suit.CLUBS);
-	public static final Card SIX_CLUBS = new Card (Rank.SIX, Suit.CLUBS);
-	public static final Card SEVEN_CLUBS = new Card (Rank.SEVEN, Suit.CLUBS);
-	public static final Card EIGHT_CLUBS = new Card (Rank.EIGHT, Suit.CLUBS);
-	public static final Card NINE_CLUBS = new Card (Rank.NINE, Suit.CLUBS);
-	public static final Card TEN_CLUBS = new Card (Rank.TEN, Suit.CLUBS);
-	public static final Card JACK_CLUBS = new Card (Rank.JACK, Suit.CLUBS);
-	public static final Card QUEEN_CLUBS = new Card (Rank.QUEEN, Suit.CLUBS);
-	public static final Card KING_CLUBS = new Card (Rank.KING, Suit.CLUBS);
+	public static final Card ACE_CLUBS = Card.of(Rank.ACE, Suit.CLUBS);
+	public static final Card TWO_CLUBS = Card.of(Rank.DEUCE, Suit.CLUBS);
+	public static final Card THREE_CLUBS = Card.of(Rank.THREE, Suit.CLUBS);
+	public static final Card FOUR_CLUBS = Card.of(Rank.FOUR, Suit.CLUBS);
+	public static final Card FIVE_CLUBS = Card.of(Rank.FIVE, Suit.CLUBS);
+	public static final Card SIX_CLUBS = Card.of(Rank.SIX, Suit.CLUBS);
+	public static final Card SEVEN_CLUBS = Card.of(Rank.SEVEN, Suit.CLUBS);
+	public static final Card EIGHT_CLUBS = Card.of(Rank.EIGHT, Suit.CLUBS);
+	public static final Card NINE_CLUBS = Card.of(Rank.NINE, Suit.CLUBS);
+	public static final Card TEN_CLUBS = Card.of(Rank.TEN, Suit.CLUBS);
+	public static final Card JACK_CLUBS = Card.of(Rank.JACK, Suit.CLUBS);
+	public static final Card QUEEN_CLUBS = Card.of(Rank.QUEEN, Suit.CLUBS);
+	public static final Card KING_CLUBS = Card.of(Rank.KING, Suit.CLUBS);
 	
 	// hearts
-	public static final Card ACE_HEARTS = new Card (Rank.ACE, Suit.HEARTS);
-	public static final Card TWO_HEARTS = new Card (Rank.DEUCE, Suit.HEARTS);
-	public static final Card THREE_HEARTS = new Card (Rank.THREE, Suit.HEARTS);
-	public static final Card FOUR_HEARTS = new Card (Rank.FOUR, Suit.HEARTS);
-	public static final Card FIVE_HEARTS = new Card (Rank.FIVE, Suit.HEARTS);
-	public static final Card SIX_HEARTS = new Card (Rank.SIX, Suit.HEARTS);
-	public static final Card SEVEN_HEARTS = new Card (Rank.SEVEN, Suit.HEARTS);
-	public static final Card EIGHT_HEARTS = new Card (Rank.EIGHT, Suit.HEARTS);
-	public static final Card NINE_HEARTS = new Card (Rank.NINE, Suit.HEARTS);
-	public static final Card TEN_HEARTS = new Card (Rank.TEN, Suit.HEARTS);
-	public static final Card JACK_HEARTS = new Card (Rank.JACK, Suit.HEARTS);
-	public static final Card QUEEN_HEARTS = new Card (Rank.QUEEN, Suit.HEARTS);
-	public static final Card KING_HEARTS = new Card (Rank.KING, Suit.HEARTS);
+	public static final Card ACE_HEARTS = Card.of(Rank.ACE, Suit.HEARTS);
+	public static final Card TWO_HEARTS = Card.of(Rank.DEUCE, Suit.HEARTS);
+	public static final Card THREE_HEARTS = Card.of(Rank.THREE, Suit.HEARTS);
+	public static final Card FOUR_HEARTS = Card.of(Rank.FOUR, Suit.HEARTS);
+	public static final Card FIVE_HEARTS = Card.of(Rank.FIVE, Suit.HEARTS);
+	public static final Card SIX_HEARTS = Card.of(Rank.SIX, Suit.HEARTS);
+	public static final Card SEVEN_HEARTS = Card.of(Rank.SEVEN, Suit.HEARTS);
+	public static final Card EIGHT_HEARTS = Card.of(Rank.EIGHT, Suit.HEARTS);
+	public static final Card NINE_HEARTS = Card.of(Rank.NINE, Suit.HEARTS);
+	public static final Card TEN_HEARTS = Card.of(Rank.TEN, Suit.HEARTS);
+	public static final Card JACK_HEARTS = Card.of(Rank.JACK, Suit.HEARTS);
+	public static final Card QUEEN_HEARTS = Card.of(Rank.QUEEN, Suit.HEARTS);
+	public static final Card KING_HEARTS = Card.of(Rank.KING, Suit.HEARTS);
 	
 	
 	// diamonds
-	public static final Card ACE_DIAMONDS = new Card (Rank.ACE, Suit.DIAMONDS);
-	public static final Card TWO_DIAMONDS = new Card (Rank.DEUCE, Suit.DIAMONDS);
-	public static final Card THREE_DIAMONDS = new Card (Rank.THREE, Suit.DIAMONDS);
-	public static final Card FOUR_DIAMONDS = new Card (Rank.FOUR, Suit.DIAMONDS);
-	public static final Card FIVE_DIAMONDS = new Card (Rank.FIVE, Suit.DIAMONDS);
-	public static final Card SIX_DIAMONDS = new Card (Rank.SIX, Suit.DIAMONDS);
-	public static final Card SEVEN_DIAMONDS = new Card (Rank.SEVEN, Suit.DIAMONDS);
-	public static final Card EIGHT_DIAMONDS = new Card (Rank.EIGHT, Suit.DIAMONDS);
-	public static final Card NINE_DIAMONDS = new Card (Rank.NINE, Suit.DIAMONDS);
-	public static final Card TEN_DIAMONDS = new Card (Rank.TEN, Suit.DIAMONDS);
-	public static final Card JACK_DIAMONDS = new Card (Rank.JACK, Suit.DIAMONDS);
-	public static final Card QUEEN_DIAMONDS = new Card (Rank.QUEEN, Suit.DIAMONDS);
-	public static final Card KING_DIAMONDS = new Card (Rank.KING, Suit.DIAMONDS);
+	public static final Card ACE_DIAMONDS = Card.of(Rank.ACE, Suit.DIAMONDS);
+	public static final Card TWO_DIAMONDS = Card.of(Rank.DEUCE, Suit.DIAMONDS);
+	public static final Card THREE_DIAMONDS = Card.of(Rank.THREE, Suit.DIAMONDS);
+	public static final Card FOUR_DIAMONDS = Card.of(Rank.FOUR, Suit.DIAMONDS);
+	public static final Card FIVE_DIAMONDS = Card.of(Rank.FIVE, Suit.DIAMONDS);
+	public static final Card SIX_DIAMONDS = Card.of(Rank.SIX, Suit.DIAMONDS);
+	public static final Card SEVEN_DIAMONDS = Card.of(Rank.SEVEN, Suit.DIAMONDS);
+	public static final Card EIGHT_DIAMONDS = Card.of(Rank.EIGHT, Suit.DIAMONDS);
+	public static final Card NINE_DIAMONDS = Card.of(Rank.NINE, Suit.DIAMONDS);
+	public static final Card TEN_DIAMONDS = Card.of(Rank.TEN, Suit.DIAMONDS);
+	public static final Card JACK_DIAMONDS = Card.of(Rank.JACK, Suit.DIAMONDS);
+	public static final Card QUEEN_DIAMONDS = Card.of(Rank.QUEEN, Suit.DIAMONDS);
+	public static final Card KING_DIAMONDS = Card.of(Rank.KING, Suit.DIAMONDS);
 	
 	/**
 	 * 
@@ -19,10 +19,10 @@ public class TrickTest {
 	
 	@Before
 	public void setUp() throws Exception {
-		fullTrick.add(new Card(Rank.ACE, Suit.SPADES), 0);
-		fullTrick.add(new Card(Rank.KING, Suit.SPADES), 1);
-		fullTrick.add(new Card(Rank.QUEEN, Suit.SPADES), 2);
-		fullTrick.add(new Card(Rank.JACK, Suit.HEARTS), 3);
+		fullTrick.add(Card.of(Rank.ACE, Suit.SPADES), 0);
+		fullTrick.add(Card.of(Rank.KING, Suit.SPADES), 1);
+		fullTrick.add(Card.of(Rank.QUEEN, Suit.SPADES), 2);
+		fullTrick.add(Card.of(Rank.JACK, Suit.HEARTS), 3);
 		
 		spades = fullTrick.getCardsOfSuit(Suit.SPADES);
 		hearts = fullTrick.getCardsOfSuit(Suit.HEARTS);
@@ -0,0 +1,177 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import model.Card;
+import model.CardDatabase;
+import model.Direction;
+import model.Game;
+import controller.AntennaHandler;
+import controller.FramedAntennaHandler;
+import controller.StreamingAntennaHandler;
+
+/**
+ * Measures how long it takes from the moment a card is put on an antenna until
+ * Game.cardFound is called, first with the polling AntennaHandler talking to
+ * StubCSharpServer and then with the StreamingAntennaHandler talking to
+ * PushStubCSharpServer, and last with the FramedAntennaHandler talking to the
+ * same stub in framed mode. Prints the median and worst latency of each.
+ *
+ * @version Oct 18, 2026
+ */
+public class AntennaLatencyTest {
+	// number of cards to place in each run
+	private static final int TRIALS = 40;
+
+	// longest time to wait for a card to be found
+	private static final long TIMEOUT = 5000;
+
+	private static final Random random = new Random(42);
+
+	public static void main(String[] args) throws IOException,
+			InterruptedException {
+		List<String> tags = readTags();
+
+		long[] polled = measure(new StubCSharpServer(), new AntennaHandler(
+				new CardDatabase()), tags);
+		long[] streamed = measure(new PushStubCSharpServer(),
+				new StreamingAntennaHandler(new CardDatabase()), tags);
+		long[] framed = measure(new PushStubCSharpServer(),
+				new FramedAntennaHandler(new CardDatabase()), tags);
+
+		report("Request/response", polled);
+		report("Streaming", streamed);
+		report("Framed", framed);
+		System.exit(0);
+	}
+
+	/**
+	 * Places cards one at a time on the north antenna and times how long the
+	 * game takes to see each one.
+	 *
+	 * @return the latency of each card in microseconds
+	 */
+	private static long[] measure(StubCSharpServer server,
+			AntennaHandler handler, List<String> tags) throws IOException,
+			InterruptedException {
+		Thread serverThread = new Thread(server, "Stub server");
+		serverThread.start();
+
+		for (String hand : new String[] { "N", "E", "S", "W", "P" }) {
+			server.removeCard(hand);
+		}
+
+		TimingGame game = new TimingGame(handler);
+		game.activateAntennas();
+		new Thread(handler, "Antenna handler").start();
+		game.setBlindPosition(Direction.NORTH);
+
+		long[] latencies = new long[TRIALS];
+		CardDatabase cards = new CardDatabase();
+		for (int i = 0; i < TRIALS; i++) {
+			String tag = tags.get(i);
+			String expected = cards.getCard(tag).toString();
+
+			// randomize where in the polling cycle the card shows up
+			Thread.sleep(50 + random.nextInt(200));
+
+			long placed = game.expect(expected);
+			server.placeCard("N", tag + ".81");
+			long found = game.awaitCard(TIMEOUT);
+			server.removeCard("N");
+
+			if (found < 0) {
+				System.out.println("Card " + expected + " was never found");
+				latencies[i] = TIMEOUT * 1000;
+			} else {
+				latencies[i] = (found - placed) / 1000;
+			}
+		}
+
+		handler.quitServer();
+		serverThread.join(TIMEOUT);
+		return latencies;
+	}
+
+	private static void report(String mode, long[] latencies) {
+		long[] sorted = latencies.clone();
+		Arrays.sort(sorted);
+		System.out.println(mode + ": median " + sorted[sorted.length / 2]
+				/ 1000.0 + " ms, worst " + sorted[sorted.length - 1] / 1000.0
+				+ " ms over " + sorted.length + " cards");
+	}
+
+	/**
+	 * @return the first tag id of each card in cardID.txt
+	 */
+	private static List<String> readTags() throws IOException {
+		BufferedReader read = new BufferedReader(new InputStreamReader(
+				AntennaLatencyTest.class.getResourceAsStream("/cardID.txt")));
+		List<String> tags = new ArrayList<String>();
+		try {
+			// skip the number of cards and number of decks
+			read.readLine();
+			read.readLine();
+
+			String line;
+			while ((line = read.readLine()) != null) {
+				tags.add(line.substring(0, line.indexOf('.')));
+			}
+		} finally {
+			read.close();
+		}
+		return tags;
+	}
+
+	/**
+	 * A game that just remembers when the card it is waiting for is found.
+	 */
+	private static class TimingGame extends Game {
+		private String expected;
+		private long foundAt;
+
+		public TimingGame(AntennaHandler handler) {
+			super(handler, false);
+		}
+
+		/**
+		 * Start waiting for a card
+		 *
+		 * @param card
+		 *            the name of the card to wait for
+		 * @return the current time in nanoseconds
+		 */
+		public synchronized long expect(String card) {
+			expected = card;
+			foundAt = -1;
+			return System.nanoTime();
+		}
+
+		/**
+		 * @return the time in nanoseconds at which the card was found, or -1
+		 *         if it was not found in time
+		 */
+		public synchronized long awaitCard(long timeout)
+				throws InterruptedException {
+			long end = System.currentTimeMillis() + timeout;
+			while (foundAt < 0 && System.currentTimeMillis() < end) {
+				wait(Math.max(1, end - System.currentTimeMillis()));
+			}
+			return foundAt;
+		}
+
+		@Override
+		public synchronized void cardFound(Direction direction, Card card) {
+			if (foundAt < 0 && card.toString().equals(expected)) {
+				foundAt = System.nanoTime();
+				notifyAll();
+			}
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import model.Card;
+import model.CardDatabase;
+import model.Direction;
+import model.Game;
+import controller.NioAntennaHandler;
+import controller.ReaderHub;
+
+/**
+ * Drives 16 tables from one ReaderHub, each table with its own Game and its
+ * own PushStubCSharpServer on its own port. In each round a different card is
+ * put on the north antenna of every table at once, and the test times how
+ * long each game takes to see its card. Reports the median and worst latency,
+ * any card that reached the wrong game, and how many threads were running.
+ *
+ * @version Oct 18, 2026
+ */
+public class MultiTableLoadTest {
+	// number of tables
+	private static final int TABLES = 16;
+
+	// first port used by the stub servers
+	private static final int FIRST_PORT = 6700;
+
+	// number of times a card is placed on every table
+	private static final int ROUNDS = 50;
+
+	// longest time to wait for a card to be found
+	private static final long TIMEOUT = 5000;
+
+	private static final Random random = new Random(42);
+
+	public static void main(String[] args) throws IOException,
+			InterruptedException {
+		List<String> tags = readTags();
+		CardDatabase cards = new CardDatabase();
+		ReaderHub hub = new ReaderHub();
+
+		PushStubCSharpServer[] servers = new PushStubCSharpServer[TABLES];
+		Thread[] serverThreads = new Thread[TABLES];
+		TableGame[] games = new TableGame[TABLES];
+		NioAntennaHandler[] handlers = new NioAntennaHandler[TABLES];
+		for (int table = 0; table < TABLES; table++) {
+			servers[table] = new PushStubCSharpServer(FIRST_PORT + table);
+			for (String hand : new String[] { "N", "E", "S", "W", "P" }) {
+				servers[table].removeCard(hand);
+			}
+			serverThreads[table] = new Thread(servers[table], "Stub server "
+					+ table);
+			serverThreads[table].start();
+
+			handlers[table] = new NioAntennaHandler(cards, hub, "localhost",
+					FIRST_PORT + table);
+			games[table] = new TableGame(handlers[table]);
+			games[table].activateAntennas();
+			games[table].setBlindPosition(Direction.NORTH);
+		}
+		System.out.println("Hub is watching " + hub.getConnectionCount()
+				+ " connections");
+
+		long[] latencies = new long[TABLES * ROUNDS];
+		int lost = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			Thread.sleep(50 + random.nextInt(100));
+
+			// A different card on every table
+			String[] placed = new String[TABLES];
+			long[] placedAt = new long[TABLES];
+			for (int table = 0; table < TABLES; table++) {
+				String tag = tags.get((round + table) % tags.size());
+				placed[table] = tag;
+				placedAt[table] = games[table].expect(cards.getCard(tag));
+				servers[table].placeCard("N", tag + ".81");
+			}
+
+			for (int table = 0; table < TABLES; table++) {
+				long found = games[table].awaitCard(TIMEOUT);
+				servers[table].removeCard("N");
+				if (found < 0) {
+					System.out.println("Table " + table + " never saw "
+							+ cards.getCard(placed[table]));
+					lost++;
+					found = placedAt[table] + TIMEOUT * 1000000;
+				}
+				latencies[round * TABLES + table] = (found - placedAt[table]) / 1000;
+			}
+		}
+
+		int misrouted = 0;
+		for (TableGame game : games) {
+			misrouted += game.getWrongCards();
+		}
+		int threads = Thread.activeCount();
+
+		for (int table = 0; table < TABLES; table++) {
+			handlers[table].quitServer();
+		}
+		for (Thread serverThread : serverThreads) {
+			serverThread.join(TIMEOUT);
+		}
+		hub.shutdown();
+
+		Arrays.sort(latencies);
+		System.out.println(TABLES + " tables, " + ROUNDS + " rounds: median "
+				+ latencies[latencies.length / 2] / 1000.0 + " ms, worst "
+				+ latencies[latencies.length - 1] / 1000.0 + " ms");
+		System.out.println("Cards lost: " + lost + ", cards at wrong table: "
+				+ misrouted + ", threads running: " + threads);
+		System.exit(0);
+	}
+
+	/**
+	 * @return the first tag id of each card in cardID.txt
+	 */
+	private static List<String> readTags() throws IOException {
+		BufferedReader read = new BufferedReader(new InputStreamReader(
+				MultiTableLoadTest.class.getResourceAsStream("/cardID.txt")));
+		List<String> tags = new ArrayList<String>();
+		try {
+			// skip the number of cards and number of decks
+			read.readLine();
+			read.readLine();
+
+			String line;
+			while ((line = read.readLine()) != null) {
+				tags.add(line.substring(0, line.indexOf('.')));
+			}
+		} finally {
+			read.close();
+		}
+		return tags;
+	}
+
+	/**
+	 * A game that remembers when the card it is waiting for is found, and
+	 * counts cards that it was not expecting.
+	 */
+	private static class TableGame extends Game {
+		private Card expected;
+		private Card lastFound;
+		private long foundAt;
+		private int wrongCards;
+
+		public TableGame(NioAntennaHandler handler) {
+			super(handler, false);
+		}
+
+		public synchronized long expect(Card card) {
+			expected = card;
+			foundAt = -1;
+			return System.nanoTime();
+		}
+
+		public synchronized long awaitCard(long timeout)
+				throws InterruptedException {
+			long end = System.currentTimeMillis() + timeout;
+			while (foundAt < 0 && System.currentTimeMillis() < end) {
+				wait(Math.max(1, end - System.currentTimeMillis()));
+			}
+			return foundAt;
+		}
+
+		public synchronized int getWrongCards() {
+			return wrongCards;
+		}
+
+		@Override
+		public synchronized void cardFound(Direction direction, Card card) {
+			if (card == expected) {
+				if (foundAt < 0) {
+					foundAt = System.nanoTime();
+					notifyAll();
+				}
+			} else if (card != lastFound) {
+				// The previous card may still be reported once after removal
+				System.out.println("Unexpected card " + card);
+				wrongCards++;
+			}
+			lastFound = card;
+		}
+	}
+}
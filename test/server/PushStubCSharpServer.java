@@ -0,0 +1,134 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import controller.ReaderFrame;
+
+/**
+ * Stub for the C# server that also understands streaming mode. Once the
+ * client sends "A", the stub keeps reading the current antenna and sends each
+ * card as soon as it sees it, one message per line, just like the real server
+ * does in streaming mode. The first read after each antenna switch is always
+ * reported, as NOCARD if the antenna is empty.
+ *
+ * If the client sends "B" instead, the same messages are sent as binary
+ * frames, described in ReaderFrame.
+ *
+ * @version Oct 18, 2026
+ */
+public class PushStubCSharpServer extends StubCSharpServer {
+	// Buffer frames are built in when streaming frames
+	private ByteBuffer frame = ByteBuffer.allocate(64);
+
+	// true if the client asked for frames rather than lines
+	private boolean framed;
+
+	public PushStubCSharpServer() throws IOException {
+		super();
+	}
+
+	public PushStubCSharpServer(int port) throws IOException {
+		super(port);
+	}
+
+	@Override
+	protected void serve() throws IOException {
+		int command = in.read();
+		if (command != 'A' && command != 'B') {
+			System.out.println("Expected streaming command but got "
+					+ (char) command);
+			return;
+		}
+		framed = command == 'B';
+		System.out.println(framed ? "Streaming frames" : "Streaming tags");
+		writeReady();
+
+		String currentHand = "N";
+		boolean reportNextRead = true;
+		while (true) {
+			// handle any antenna switches that have arrived
+			while (in.available() > 0) {
+				command = in.read();
+				if (command < 0 || command == 'q') {
+					writeQuit();
+					return;
+				}
+				currentHand = String.valueOf((char) command);
+				reportNextRead = true;
+			}
+
+			String card = readCard(currentHand);
+			if (card != null) {
+				writeTag(card);
+				reportNextRead = false;
+			} else if (reportNextRead) {
+				writeNoCard(currentHand);
+				reportNextRead = false;
+			}
+		}
+	}
+
+	/**
+	 * Sends a card that was read
+	 *
+	 * @param card
+	 *            the message for the card, as in placeCard
+	 */
+	private void writeTag(String card) throws IOException {
+		if (!framed) {
+			writeMsg(card + "\n");
+			return;
+		}
+		frame.clear();
+		ReaderFrame.putTag(frame, ReaderFrame.parseTagId(card.substring(0,
+				ReaderFrame.TAG_ID_LENGTH * 2)), Character.digit(
+				card.charAt(card.length() - 1), 16), System.currentTimeMillis());
+		writeFrame();
+	}
+
+	/**
+	 * Reports that nothing was found on an antenna
+	 *
+	 * @param hand
+	 *            the antenna code
+	 */
+	private void writeNoCard(String hand) throws IOException {
+		if (!framed) {
+			writeMsg("NOCARD\n");
+			return;
+		}
+		frame.clear();
+		ReaderFrame.putNoCard(frame, hand.equals("P") ? ReaderFrame.ID_ANTENNA
+				: "NESW".indexOf(hand) + 1, System.currentTimeMillis());
+		writeFrame();
+	}
+
+	/**
+	 * Tells the client the stub is ready, before any reads
+	 */
+	private void writeReady() throws IOException {
+		if (!framed) {
+			writeMsg("READY\n");
+			return;
+		}
+		frame.clear();
+		ReaderFrame.putReady(frame, 1, System.currentTimeMillis());
+		writeFrame();
+	}
+
+	private void writeQuit() throws IOException {
+		if (!framed) {
+			writeMsg("quit\n");
+			return;
+		}
+		frame.clear();
+		ReaderFrame.putQuit(frame);
+		writeFrame();
+	}
+
+	private void writeFrame() throws IOException {
+		out.write(frame.array(), 0, frame.position());
+		out.flush();
+	}
+}
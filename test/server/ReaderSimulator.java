@@ -0,0 +1,628 @@
+package server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import model.Card;
+import model.CardDatabase;
+import model.Direction;
+import controller.CardListener;
+import controller.Handler;
+import controller.ReaderFrame;
+
+/**
+ * Simulates the reader server at a high rate, for load and soak testing the
+ * antenna handlers. It deals the cards at random, or from a seed so that a run
+ * can be repeated, and reads the antennas in turn as fast as it is allowed to,
+ * up to thousands of reads a second. Each card of a hand stays on its antenna
+ * for READS_PER_CARD reads before the next card of the hand takes its place.
+ * When all the cards have been read it reads nothing for DEAL_GAP_MILLIS, as
+ * if the cards were being gathered, and deals again. A handler whose debounce
+ * window is shorter than that sees every card of every deal.
+ *
+ * Noise can be mixed into the reads, each kind with its own chance per read:
+ * <ul>
+ * <li>duplicate: the read is sent twice</li>
+ * <li>burst: the antenna reads nothing BURST_LENGTH times in a row</li>
+ * <li>misread: a card from another hand is reported instead</li>
+ * <li>unknown tag: a tag that is not in the card database is reported</li>
+ * <li>split: the message is sent in two pieces, flushed separately</li>
+ * </ul>
+ *
+ * The simulator speaks all three protocols of the real server, picking one
+ * from the first command the client sends: "B" streams binary frames, "A"
+ * streams lines, and anything else is answered one read per "T" request.
+ * Antenna switches are accepted and ignored, since the simulated reader
+ * reports every antenna in each message. Messages are not split when
+ * answering requests, since each request is answered with one message.
+ *
+ * Call listenTo with the handler that is connected to find out how it copes:
+ * the simulator then hears every card the handler delivers for each antenna
+ * and keeps latency and loss statistics. A card is counted as seen the first
+ * time it is delivered for the antenna it was dealt to, and its latency is the
+ * time from its first correct read being sent. A card that was sent but is
+ * still not seen by the end of the deal after its own is lost.
+ *
+ * @version Oct 18, 2026
+ */
+public class ReaderSimulator implements Runnable {
+	/** Reads a second unless setRate is called */
+	public static final int DEFAULT_RATE = 1000;
+
+	/** Number of reads of an antenna each card stays on it for */
+	public static final int READS_PER_CARD = 3;
+
+	/** Milliseconds between deals, in which nothing is read */
+	public static final long DEAL_GAP_MILLIS = 20;
+
+	/** Number of empty reads in a burst */
+	public static final int BURST_LENGTH = 20;
+
+	private static final int NUM_ANTENNAS = Direction.values().length;
+
+	private static final int HAND_SIZE = Card.NUM_CARDS / NUM_ANTENNAS;
+
+	// reads of all the antennas in one deal, without noise
+	private static final int READS_PER_DEAL = Card.NUM_CARDS * READS_PER_CARD;
+
+	// ways the client can talk to the simulator
+	private static final int POLLED = 0;
+	private static final int STREAMING = 1;
+	private static final int FRAMED = 2;
+
+	private final ServerSocket serverSocket;
+	private final CardDatabase cards;
+	private final Random random;
+
+	private InputStream in;
+	private OutputStream out;
+
+	// reads a second
+	private volatile int rate = DEFAULT_RATE;
+
+	// chances of each kind of noise on a read
+	private volatile double duplicateChance;
+	private volatile double burstChance;
+	private volatile double misreadChance;
+	private volatile double unknownChance;
+	private volatile double splitChance;
+
+	// the protocol the client asked for
+	private int protocol;
+
+	// buffer frames are built in
+	private final ByteBuffer frame = ByteBuffer.allocate(64);
+
+	// the deal being read: the cards of each antenna, in the order they are
+	// put on it
+	private final Card[][] deal = new Card[NUM_ANTENNAS][HAND_SIZE];
+
+	// reads made of the current deal
+	private int readsOfDeal;
+
+	// empty reads still to make in the burst on each antenna
+	private final int[] burstLeft = new int[NUM_ANTENNAS];
+
+	// when the current read is due, in nanoseconds
+	private long nextReadAt;
+
+	// What was sent, only changed by the thread serving the client
+	private volatile long reads;
+	private volatile long emptyReads;
+	private volatile long deals;
+	private volatile long duplicates;
+	private volatile long bursts;
+	private volatile long misreads;
+	private volatile long unknownTags;
+	private volatile long splits;
+
+	// Each card's antenna in the current deal, when its first correct read
+	// was sent, 0 if it has not been, and whether it has been seen. The same
+	// for the last deal, whose cards may still be on their way.
+	// Guarded by this.
+	private DealtCards current = new DealtCards();
+	private DealtCards last = new DealtCards();
+
+	// The cards sent and what the handler delivered. Guarded by this.
+	private long cardsSent;
+	private long cardsSeen;
+	private long cardsLost;
+	private long repeats;
+	private long wrongCards;
+	private long[] latencies = new long[1024];
+
+	/**
+	 * Creates a simulator that deals at random
+	 *
+	 * @param port
+	 *            the port to listen on
+	 * @throws IOException
+	 *             if the port cannot be listened on
+	 */
+	public ReaderSimulator(int port) throws IOException {
+		this(port, new Random());
+	}
+
+	/**
+	 * Creates a simulator that deals the same cards, and makes the same noise,
+	 * every time it is given the same seed
+	 *
+	 * @param port
+	 *            the port to listen on
+	 * @param seed
+	 *            the seed for the deals and the noise
+	 * @throws IOException
+	 *             if the port cannot be listened on
+	 */
+	public ReaderSimulator(int port, long seed) throws IOException {
+		this(port, new Random(seed));
+	}
+
+	private ReaderSimulator(int port, Random random) throws IOException {
+		this.random = random;
+		serverSocket = new ServerSocket(port);
+		cards = new CardDatabase();
+	}
+
+	/**
+	 * Where the cards of a deal went and which have been seen
+	 */
+	private static class DealtCards {
+		private final int[] dealtTo = new int[Card.NUM_CARDS];
+		private final long[] sentAt = new long[Card.NUM_CARDS];
+		private final boolean[] seen = new boolean[Card.NUM_CARDS];
+
+		private DealtCards() {
+			Arrays.fill(dealtTo, -1);
+		}
+
+		/**
+		 * @return true if the card was sent for the antenna and has not been
+		 *         seen yet
+		 */
+		private boolean isAwaited(int card, int antenna) {
+			return dealtTo[card] == antenna && sentAt[card] != 0
+					&& !seen[card];
+		}
+
+		/**
+		 * @return the number of cards sent but not seen
+		 */
+		private int countMissing() {
+			int missing = 0;
+			for (int c = 0; c < Card.NUM_CARDS; c++) {
+				if (sentAt[c] != 0 && !seen[c]) {
+					missing++;
+				}
+			}
+			return missing;
+		}
+	}
+
+	/**
+	 * @param readsPerSecond
+	 *            how many reads to make a second
+	 */
+	public void setRate(int readsPerSecond) {
+		rate = readsPerSecond;
+	}
+
+	/**
+	 * Sets the chance of each kind of noise on a read, from 0 for never to 1
+	 * for every read
+	 *
+	 * @param duplicate
+	 *            chance of sending a read twice
+	 * @param burst
+	 *            chance of an antenna starting a burst of empty reads
+	 * @param misread
+	 *            chance of reporting a card from another hand
+	 * @param unknown
+	 *            chance of reporting a tag that is not a card
+	 * @param split
+	 *            chance of sending a message in two pieces
+	 */
+	public void setNoise(double duplicate, double burst, double misread,
+			double unknown, double split) {
+		duplicateChance = duplicate;
+		burstChance = burst;
+		misreadChance = misread;
+		unknownChance = unknown;
+		splitChance = split;
+	}
+
+	/**
+	 * Hears the cards a handler delivers for each antenna, to keep the
+	 * latency and loss statistics. Replaces any listeners the handler had.
+	 *
+	 * @param handler
+	 *            the handler connected to the simulator
+	 */
+	public void listenTo(Handler handler) {
+		for (final Direction direction : Direction.values()) {
+			handler.addHandListener(new CardListener() {
+				@Override
+				public void cardFound(Card c) {
+					delivered(direction.ordinal(), c, System.nanoTime());
+				}
+			}, direction);
+		}
+	}
+
+	/**
+	 * Accepts one client and serves it until it quits
+	 */
+	@Override
+	public void run() {
+		try {
+			Socket clientSocket = serverSocket.accept();
+			try {
+				// so that split messages really arrive in pieces
+				clientSocket.setTcpNoDelay(true);
+				in = clientSocket.getInputStream();
+				out = clientSocket.getOutputStream();
+				serve();
+			} finally {
+				clientSocket.close();
+			}
+		} catch (IOException e) {
+			System.err.println("Simulator lost the client: " + e.getMessage());
+		} finally {
+			try {
+				serverSocket.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void serve() throws IOException {
+		int command = in.read();
+		if (command == 'B') {
+			protocol = FRAMED;
+		} else if (command == 'A') {
+			protocol = STREAMING;
+		} else {
+			protocol = POLLED;
+		}
+		nextReadAt = System.nanoTime();
+		deal();
+		if (protocol != POLLED) {
+			sendReady();
+		}
+
+		if (protocol == POLLED) {
+			while (command >= 0 && command != 'q') {
+				if (command == 'T') {
+					read();
+				}
+				command = in.read();
+			}
+		} else {
+			while (true) {
+				// handle any commands that have arrived
+				while (in.available() > 0) {
+					command = in.read();
+					if (command < 0) {
+						return;
+					}
+					if (command == 'q') {
+						break;
+					}
+				}
+				if (command == 'q') {
+					break;
+				}
+				read();
+			}
+		}
+		writeQuit();
+	}
+
+	/**
+	 * Deals the cards, counting the cards of the deal before last that were
+	 * sent but never seen as lost
+	 */
+	private void deal() {
+		Card[] pack = new Card[Card.NUM_CARDS];
+		for (int i = 0; i < pack.length; i++) {
+			pack[i] = Card.of(i);
+		}
+		for (int i = pack.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Card swap = pack[i];
+			pack[i] = pack[j];
+			pack[j] = swap;
+		}
+
+		synchronized (this) {
+			cardsLost += last.countMissing();
+			DealtCards next = last;
+			last = current;
+			current = next;
+			for (int i = 0; i < pack.length; i++) {
+				int card = pack[i].ordinal();
+				deal[i % NUM_ANTENNAS][i / NUM_ANTENNAS] = pack[i];
+				current.dealtTo[card] = i % NUM_ANTENNAS;
+				current.sentAt[card] = 0;
+				current.seen[card] = false;
+			}
+		}
+		deals++;
+		readsOfDeal = 0;
+	}
+
+	/**
+	 * Waits until the next read is due, then reads the next antenna in turn
+	 */
+	private void read() throws IOException {
+		pace();
+		int antenna = readsOfDeal % NUM_ANTENNAS;
+
+		// an empty antenna is read again until the burst is over
+		if (burstLeft[antenna] == 0 && random.nextDouble() < burstChance) {
+			burstLeft[antenna] = BURST_LENGTH;
+			bursts++;
+		}
+		if (burstLeft[antenna] > 0) {
+			burstLeft[antenna]--;
+			emptyReads++;
+			sendNoCard(antenna);
+			return;
+		}
+
+		Card card = deal[antenna][readsOfDeal / (NUM_ANTENNAS * READS_PER_CARD)];
+		if (random.nextDouble() < unknownChance) {
+			unknownTags++;
+			sendTag(unknownTag(), antenna);
+		} else if (random.nextDouble() < misreadChance) {
+			misreads++;
+			int other = (antenna + 1 + random.nextInt(NUM_ANTENNAS - 1))
+					% NUM_ANTENNAS;
+			sendTag(cards.getId(deal[other][random.nextInt(HAND_SIZE)]),
+					antenna);
+		} else {
+			sent(card);
+			sendTag(cards.getId(card), antenna);
+			if (random.nextDouble() < duplicateChance) {
+				duplicates++;
+				sendTag(cards.getId(card), antenna);
+			}
+		}
+
+		readsOfDeal++;
+		if (readsOfDeal == READS_PER_DEAL) {
+			deal();
+			try {
+				Thread.sleep(DEAL_GAP_MILLIS);
+			} catch (InterruptedException e) {
+				// Deal straight away
+			}
+			nextReadAt = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Waits until the next read is due
+	 */
+	private void pace() {
+		nextReadAt += 1000000000L / rate;
+		long wait = nextReadAt - System.nanoTime();
+		if (wait > 1000000) {
+			try {
+				Thread.sleep(wait / 1000000);
+			} catch (InterruptedException e) {
+				// Read now
+			}
+		} else if (wait < -1000000000L) {
+			// Too far behind to catch up: do not rush to make up for it
+			nextReadAt = System.nanoTime();
+		}
+	}
+
+	/**
+	 * @return a tag id that is not in the card database
+	 */
+	private long unknownTag() {
+		long tagId;
+		do {
+			tagId = random.nextLong() >>> (64 - ReaderFrame.TAG_ID_LENGTH * 8);
+		} while (cards.getCard(tagId) != null);
+		return tagId;
+	}
+
+	private void sendTag(long tagId, int antenna) throws IOException {
+		if (protocol == FRAMED) {
+			frame.clear();
+			ReaderFrame.putTag(frame, tagId, antenna + 1,
+					System.currentTimeMillis());
+			send(frame.array(), frame.position());
+		} else {
+			sendLine(ReaderFrame.formatTagId(tagId) + ".8" + (antenna + 1));
+		}
+	}
+
+	private void sendNoCard(int antenna) throws IOException {
+		if (protocol == FRAMED) {
+			frame.clear();
+			ReaderFrame.putNoCard(frame, antenna + 1,
+					System.currentTimeMillis());
+			send(frame.array(), frame.position());
+		} else {
+			sendLine("NOCARD");
+		}
+	}
+
+	private void sendReady() throws IOException {
+		if (protocol == FRAMED) {
+			frame.clear();
+			ReaderFrame.putReady(frame, 1, System.currentTimeMillis());
+			send(frame.array(), frame.position());
+		} else {
+			sendLine("READY");
+		}
+	}
+
+	private void writeQuit() throws IOException {
+		if (protocol == FRAMED) {
+			frame.clear();
+			ReaderFrame.putQuit(frame);
+			send(frame.array(), frame.position());
+		} else {
+			sendLine("quit");
+		}
+	}
+
+	private void sendLine(String message) throws IOException {
+		byte[] bytes = (protocol == STREAMING ? message + "\n" : message)
+				.getBytes("US-ASCII");
+		send(bytes, bytes.length);
+	}
+
+	/**
+	 * Sends a message, in two pieces if the noise says so
+	 */
+	private void send(byte[] bytes, int length) throws IOException {
+		if (protocol != POLLED && length > 1
+				&& random.nextDouble() < splitChance) {
+			splits++;
+			int first = 1 + random.nextInt(length - 1);
+			out.write(bytes, 0, first);
+			out.flush();
+			Thread.yield();
+			out.write(bytes, first, length - first);
+		} else {
+			out.write(bytes, 0, length);
+		}
+		out.flush();
+		reads++;
+	}
+
+	/**
+	 * Notes that a correct read of a card is about to be sent
+	 */
+	private synchronized void sent(Card card) {
+		if (current.sentAt[card.ordinal()] == 0) {
+			current.sentAt[card.ordinal()] = System.nanoTime();
+			cardsSent++;
+		}
+	}
+
+	/**
+	 * Notes that the handler delivered a card for an antenna
+	 */
+	private synchronized void delivered(int antenna, Card card, long at) {
+		int c = card.ordinal();
+		DealtCards dealt;
+		if (current.isAwaited(c, antenna)) {
+			dealt = current;
+		} else if (last.isAwaited(c, antenna)) {
+			dealt = last;
+		} else {
+			if (current.dealtTo[c] == antenna || last.dealtTo[c] == antenna) {
+				repeats++;
+			} else {
+				wrongCards++;
+			}
+			return;
+		}
+
+		dealt.seen[c] = true;
+		cardsSeen++;
+		if (cardsSeen > latencies.length) {
+			latencies = Arrays.copyOf(latencies, latencies.length * 2);
+		}
+		latencies[(int) cardsSeen - 1] = at - dealt.sentAt[c];
+	}
+
+	/**
+	 * @return the number of messages sent, not counting the quit message
+	 */
+	public long getReads() {
+		return reads;
+	}
+
+	/**
+	 * @return the number of cards whose correct read was sent
+	 */
+	public synchronized long getCardsSent() {
+		return cardsSent;
+	}
+
+	/**
+	 * @return the number of cards delivered for the antenna they were dealt
+	 *         to, counting each card once a deal
+	 */
+	public synchronized long getCardsSeen() {
+		return cardsSeen;
+	}
+
+	/**
+	 * @return the number of cards sent but not seen by the end of the deal
+	 *         after their own
+	 */
+	public synchronized long getCardsLost() {
+		return cardsLost;
+	}
+
+	/**
+	 * @return the number of cards that were sent but have not been seen,
+	 *         including those of the last two deals, which may still arrive
+	 */
+	public synchronized long getCardsMissing() {
+		return cardsLost + last.countMissing() + current.countMissing();
+	}
+
+	/**
+	 * @return the number of cards delivered for an antenna they were not
+	 *         dealt to
+	 */
+	public synchronized long getWrongCards() {
+		return wrongCards;
+	}
+
+	/**
+	 * @return the number of times a card was delivered again for the same
+	 *         antenna
+	 */
+	public synchronized long getRepeats() {
+		return repeats;
+	}
+
+	/**
+	 * @param fraction
+	 *            which latency to get, from 0 for the least to 1 for the
+	 *            most, so 0.5 is the median
+	 * @return that latency of the cards seen, in milliseconds
+	 */
+	public synchronized double getLatency(double fraction) {
+		if (cardsSeen == 0) {
+			return 0;
+		}
+		long[] sorted = Arrays.copyOf(latencies, (int) cardsSeen);
+		Arrays.sort(sorted);
+		int index = (int) Math.min(sorted.length - 1, fraction * sorted.length);
+		return sorted[index] / 1000000.0;
+	}
+
+	/**
+	 * @return what was sent and what was delivered
+	 */
+	@Override
+	public synchronized String toString() {
+		return String.format("%d reads in %d deals: %d empty in %d bursts, "
+				+ "%d duplicates, %d misreads, %d unknown tags, %d split%n"
+				+ "%d cards sent, %d seen, %d missing, %d delivered again, "
+				+ "%d on the wrong antenna%n"
+				+ "latency median %.3f ms, 99%% %.3f ms, worst %.3f ms", reads,
+				deals, emptyReads, bursts, duplicates, misreads, unknownTags,
+				splits, cardsSent, cardsSeen, getCardsMissing(), repeats,
+				wrongCards, getLatency(0.5), getLatency(0.99), getLatency(1));
+	}
+}
@@ -0,0 +1,137 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import metrics.Metrics;
+import model.CardDatabase;
+import model.Direction;
+import controller.AntennaHandler;
+import controller.FramedAntennaHandler;
+import controller.NioAntennaHandler;
+import controller.ReaderHub;
+import controller.StreamingAntennaHandler;
+
+/**
+ * Soaks the streaming, framed and NIO antenna handlers in turn with a noisy
+ * ReaderSimulator, and reports for each how many cards it lost or delivered
+ * for the wrong antenna and how long the cards took to be delivered.
+ *
+ * The arguments are all optional: the number of seconds to run each handler
+ * for, the number of reads a second and the seed for the deals and noise.
+ * Each handler's debounce window is set to the time a card stays on its
+ * antenna, but less than the gap between deals, so that repeated reads are
+ * suppressed but a card dealt to the same antenna again is not. The
+ * metrics registry is reset before each run and printed after it. The
+ * handlers print every card they find, so the console is quiet during each
+ * run, apart from a progress line every PROGRESS_MILLIS.
+ *
+ * @version Oct 18, 2026
+ */
+public class ReaderSoakTest {
+	// first port used by the simulators
+	private static final int FIRST_PORT = 6800;
+
+	// time between progress lines
+	private static final long PROGRESS_MILLIS = 10000;
+
+	// time allowed for the last cards to be delivered after the simulator
+	// stops
+	private static final long DRAIN_MILLIS = 500;
+
+	// chances of each kind of noise on a read
+	private static final double DUPLICATE = 0.05;
+	private static final double BURST = 0.002;
+	private static final double MISREAD = 0.01;
+	private static final double UNKNOWN = 0.01;
+	private static final double SPLIT = 0.05;
+
+	public static void main(String[] args) throws IOException,
+			InterruptedException {
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+		int rate = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+		System.out.println("Soaking each handler for " + seconds + " s at "
+				+ rate + " reads a second, seed " + seed);
+		CardDatabase cards = new CardDatabase();
+		ReaderHub hub = new ReaderHub();
+
+		int port = FIRST_PORT;
+		soak("Streaming", new StreamingAntennaHandler(cards, "localhost",
+				port), port, null, seconds, rate, seed);
+		port++;
+		soak("Framed", new FramedAntennaHandler(cards, "localhost", port),
+				port, null, seconds, rate, seed);
+		port++;
+		soak("NIO", new NioAntennaHandler(cards, hub, "localhost", port),
+				port, hub, seconds, rate, seed);
+
+		hub.shutdown();
+		System.exit(0);
+	}
+
+	/**
+	 * Runs a handler against a simulator and prints what happened
+	 *
+	 * @param port
+	 *            the port the handler connects to
+	 * @param hub
+	 *            the hub running the handler, or null if the handler needs a
+	 *            thread of its own
+	 */
+	private static void soak(String name, AntennaHandler handler, int port,
+			ReaderHub hub, int seconds, int rate, long seed)
+			throws IOException, InterruptedException {
+		ReaderSimulator simulator = new ReaderSimulator(port, seed);
+		simulator.setRate(rate);
+		simulator.setNoise(DUPLICATE, BURST, MISREAD, UNKNOWN, SPLIT);
+		long window = Math.min(Direction.values().length
+				* ReaderSimulator.READS_PER_CARD * 1000L / rate,
+				ReaderSimulator.DEAL_GAP_MILLIS / 2);
+		for (Direction direction : Direction.values()) {
+			handler.getDebounceStage().setWindow(direction, window);
+		}
+		Metrics.getDefault().reset();
+		Thread simulatorThread = new Thread(simulator, "Reader simulator");
+		simulatorThread.start();
+
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+				// Quiet
+			}
+		}));
+		try {
+			simulator.listenTo(handler);
+			handler.connect();
+			if (hub == null) {
+				new Thread(handler, name + " handler").start();
+			}
+
+			long end = System.currentTimeMillis() + seconds * 1000L;
+			long now;
+			while ((now = System.currentTimeMillis()) < end) {
+				Thread.sleep(Math.min(PROGRESS_MILLIS, end - now));
+				console.println(name + ": " + simulator.getReads()
+						+ " reads, " + simulator.getCardsSeen()
+						+ " cards seen, " + simulator.getCardsLost() + " lost");
+			}
+
+			handler.quitServer();
+			simulatorThread.join(DRAIN_MILLIS);
+			Thread.sleep(DRAIN_MILLIS);
+		} finally {
+			System.setOut(console);
+		}
+
+		System.out.println(name + ":");
+		System.out.println(simulator);
+		System.out.println(handler.getDispatcher());
+		System.out.println(handler.getDebounceStage());
+		System.out.print(Metrics.getDefault());
+		handler.getDispatcher().shutdown();
+	}
+}
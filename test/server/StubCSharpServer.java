@@ -5,67 +5,63 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
 
 import controller.AntennaHandler;
 
 public class StubCSharpServer implements Runnable {
-	
-	private InputStream in;
-	private OutputStream out;
+
+	/** Port the real C# server listens on */
+	public static final int PORT = 6666;
+
+	// Time it takes the reader to look for a tag on an antenna
+	protected static final int READ_TIME = 25;
+
+	protected InputStream in;
+	protected OutputStream out;
 	private ServerSocket serverSocket;
 	private Socket clientSocket;
-	
+
+	// the message to send for the card on each antenna
+	private Map<String, String> cards = new HashMap<String, String>();
+
 	public StubCSharpServer () throws IOException {
-		
+		this(PORT);
+	}
+
+	public StubCSharpServer (int port) throws IOException {
+
 		try {
-	        serverSocket = new ServerSocket(6666);
+	        serverSocket = new ServerSocket(port);
 	    } catch (IOException e) {
-	        System.err.println("Could not listen on port: 6666.");
+	        System.err.println("Could not listen on port: " + port + ".");
 	        System.exit(1);
 	    }
-	    
-	    
+
+
 	    System.out.println("Socket opened");
 
+		// Two of hearts on north antenna
+		cards.put("N", "041B797A831E80451");
+		cards.put("E", "04A3837A831E80452");
+		cards.put("S", "04665F7A831E80453");
+		cards.put("W", "0455FB7A831E80454");
+		cards.put("P", "042E657A831E8045C");
 	}
 
 	@Override
 	public void run() {
-		
+
         try {
             clientSocket = serverSocket.accept();
             System.out.println("Client connected");
 
         	in = clientSocket.getInputStream();
         	out = clientSocket.getOutputStream();
-		
-        	byte[] inputLine = new byte[1];
-
-        	in.read(inputLine, 0, 1);
-        	String input = new String(inputLine);
-    		System.out.println("Message " + input + " received");
-
-    		// No card
-        	writeMsg("NOCARD");
-
-        	String currentHand = "N";
-        	while (!input.startsWith("q")) {
-        		if (input.equals("T")) {
-        			writeCard(currentHand);
-        		}
-        		else {
-        			currentHand = input;
-        		}
-        		
-            	in.read(inputLine, 0, 1);
-            	input = new String(inputLine);
-        		System.out.println("Server received message " + input);
-
-        	}
-        	
-        	// Quit
-        	writeMsg("quit45678901234567890");
-	        
+
+        	serve();
+
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -80,30 +76,97 @@ public class StubCSharpServer implements Runnable {
 		}
 	}
 
-	private void writeCard(String currentHand) throws IOException {
-		if (currentHand.equals("N")) {
-        	// Two of hearts on north antenna
-			writeMsg("041B797A831E80451");
+	/**
+	 * Answers commands from the client until it quits
+	 *
+	 * @throws IOException
+	 *             if the connection is lost
+	 */
+	protected void serve() throws IOException {
+		byte[] inputLine = new byte[1];
+
+		in.read(inputLine, 0, 1);
+		String input = new String(inputLine);
+		System.out.println("Message " + input + " received");
+
+		// No card
+		writeMsg("NOCARD");
+
+		String currentHand = "N";
+		while (!input.startsWith("q")) {
+			if (input.equals("T")) {
+				writeCard(currentHand);
+			}
+			else {
+				currentHand = input;
+			}
+
+			in.read(inputLine, 0, 1);
+			input = new String(inputLine);
+			System.out.println("Server received message " + input);
+
 		}
-		else if (currentHand.equals("E")) {
-			writeMsg("04A3837A831E80452");
+
+		// Quit
+		writeMsg("quit45678901234567890");
+	}
+
+	/**
+	 * Puts a card on an antenna, replacing whatever card was there
+	 *
+	 * @param hand
+	 *            the antenna code: N, E, S, W or P
+	 * @param message
+	 *            the message the reader sends for the card
+	 */
+	public synchronized void placeCard(String hand, String message) {
+		cards.put(hand, message);
+	}
+
+	/**
+	 * Takes the card off an antenna
+	 *
+	 * @param hand
+	 *            the antenna code: N, E, S, W or P
+	 */
+	public synchronized void removeCard(String hand) {
+		cards.remove(hand);
+	}
+
+	/**
+	 * Pretends to read the tag on an antenna
+	 *
+	 * @param currentHand
+	 *            the antenna code
+	 * @return the message for the card on the antenna, or null if there is
+	 *         none
+	 */
+	protected String readCard(String currentHand) {
+		try {
+			Thread.sleep(READ_TIME);
+		} catch (InterruptedException e) {
+			// Just report what is there now
 		}
-		else if (currentHand.equals("S")) {
-			writeMsg("04665F7A831E80453");
+
+		synchronized (this) {
+			return cards.get(currentHand);
 		}
-		else if (currentHand.equals("W")) {
-			writeMsg("0455FB7A831E80454");
+	}
+
+	private void writeCard(String currentHand) throws IOException {
+		String card = readCard(currentHand);
+		if (card == null) {
+			writeMsg("NOCARD");
 		}
-		else if (currentHand.equals("P")) {
-        	writeMsg("042E657A831E8045C");
-			
+		else {
+			writeMsg(card);
 		}
 	}
 
-	private void writeMsg(String string) throws IOException {
-		
+	protected void writeMsg(String string) throws IOException {
+
 		out.write(string.getBytes());
 		out.flush();
 	}
-	
+
 }